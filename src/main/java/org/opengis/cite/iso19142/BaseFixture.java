@@ -1,11 +1,16 @@
 package org.opengis.cite.iso19142;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.logging.Level;
 
 import javax.xml.namespace.QName;
@@ -16,6 +21,10 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
 
+import org.apache.xerces.xs.XSModel;
+import org.opengis.cite.iso19142.util.AppSchemaCache;
+import org.opengis.cite.iso19142.util.AppSchemaRegistry;
+import org.opengis.cite.iso19142.util.AppSchemaUtils;
 import org.opengis.cite.iso19142.util.DataSampler;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.opengis.cite.iso19142.util.TestSuiteLogger;
@@ -27,7 +36,9 @@ import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
+import org.testng.xml.XmlSuite;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -51,7 +62,11 @@ public class BaseFixture {
 
 	private static final String RSP_ATTR = "response";
 
-	/** A DOM document containing service metadata (OGC capabilities). */
+	/**
+	 * A document containing service metadata (OGC capabilities). This is the summary
+	 * document (see {@link #getCapabilitiesSummary(ISuite)}); subclasses that read its
+	 * nodes replace it with the service description itself.
+	 */
 	protected Document wfsMetadata;
 
 	/**
@@ -70,11 +85,23 @@ public class BaseFixture {
 
 	protected static final String TNS_PREFIX = "tns";
 
-	/** A Document representing the content of the request message. */
-	protected Document reqEntity;
+	/**
+	 * The messages exchanged in the current test method invocation. A test method, its
+	 * configuration methods and each row supplied by a data provider are invoked on one
+	 * thread, so the state is kept per thread; invocations that run concurrently do not
+	 * see each other's messages.
+	 */
+	private final ThreadLocal<InvocationContext> invocation = ThreadLocal.withInitial(InvocationContext::new);
 
-	/** A Document representing the content of the response message. */
-	protected Document rspEntity;
+	/**
+	 * The copies of the service description made for the current thread in parallel
+	 * mode, by original document.
+	 */
+	private static final ThreadLocal<Map<Document, Document>> SERVICE_DESCRIPTIONS = ThreadLocal
+		.withInitial(WeakHashMap::new);
+
+	/** Schema models that are ready to be read concurrently. */
+	private static final Set<XSModel> INITIALIZED_MODELS = Collections.newSetFromMap(new WeakHashMap<>());
 
 	/** Highest version supported by the IUT. */
 	protected String wfsVersion;
@@ -85,9 +112,8 @@ public class BaseFixture {
 
 	/**
 	 * Sets up the base fixture. The service metadata document is obtained from the ISuite
-	 * context. The suite attribute {@link SuiteAttribute#TEST_SUBJECT testSubject} should
-	 * yield a DOM Document node having {http://www.opengis.net/wfs/2.0}WFS_Capabilities
-	 * as the document element.
+	 * context (see {@link #getCapabilitiesSummary(ISuite)}); it should have
+	 * {http://www.opengis.net/wfs/2.0}WFS_Capabilities as the document element.
 	 *
 	 * The set of implemented protocol bindings is determined from the service metadata by
 	 * checking the values of the following service constraints:
@@ -106,7 +132,7 @@ public class BaseFixture {
 			return;
 		}
 		this.wfsVersion = (String) testContext.getSuite().getAttribute(SuiteAttribute.WFS_VERSION.getName());
-		this.wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		this.wfsMetadata = getCapabilitiesSummary(testContext.getSuite());
 		this.wfsClient = new WFSClient(this.wfsMetadata);
 		Set<ProtocolBinding> protoBindings = ServiceMetadataUtils.getGlobalBindings(wfsMetadata);
 		if (protoBindings.isEmpty()) {
@@ -118,6 +144,65 @@ public class BaseFixture {
 			.getAttribute(SuiteAttribute.FEATURE_INFO.getName());
 	}
 
+	/**
+	 * Returns the service description for use by the current thread. This is the value
+	 * of the {@link SuiteAttribute#TEST_SUBJECT testSubject} suite attribute; it is parsed
+	 * from the {@link ServiceDescription} when first requested. Only tests that read its
+	 * nodes (e.g. to validate it or to evaluate XPath expressions) need it; others use
+	 * the summary document (see {@link #getCapabilitiesSummary(ISuite)}). A DOM document
+	 * is not safe for concurrent use, even for reading (node lists are cached when first
+	 * accessed), so in parallel mode (see {@link TestRunArg#THREAD_COUNT}) each thread
+	 * gets its own copy.
+	 * @param suite The test suite.
+	 * @return A Document representing the service description, or {@code null} if it is
+	 * not available.
+	 */
+	public static Document getServiceDescription(ISuite suite) {
+		Document wfsMetadata = (Document) suite.getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		if (null == wfsMetadata) {
+			ServiceDescription description = (ServiceDescription) suite
+				.getAttribute(SuiteAttribute.SERVICE_DESCRIPTION.getName());
+			if (null == description) {
+				return null;
+			}
+			// parsed once; setting the same document again is harmless
+			wfsMetadata = description.getDocument();
+			suite.setAttribute(SuiteAttribute.TEST_SUBJECT.getName(), wfsMetadata);
+		}
+		XmlSuite xmlSuite = suite.getXmlSuite();
+		if (null == wfsMetadata || null == xmlSuite
+				|| SuiteFixtureListener.getThreadCount(xmlSuite.getParameters()) < 2) {
+			return wfsMetadata;
+		}
+		return SERVICE_DESCRIPTIONS.get().computeIfAbsent(wfsMetadata, original -> {
+			// the original is only read while it is copied
+			synchronized (original) {
+				return SuiteWarmUp.copyServiceDescription(original);
+			}
+		});
+	}
+
+	/**
+	 * Returns a document that stands in for the service description wherever only its
+	 * {@link org.opengis.cite.iso19142.util.CapabilitiesModel CapabilitiesModel} is
+	 * consulted (endpoints, bindings, constraints, conformance claims and feature types),
+	 * so the DOM need not be built (see {@link ServiceDescription#getSummaryDocument()}).
+	 * It is not modified, so it can be shared by concurrent tests. If no
+	 * {@link SuiteAttribute#SERVICE_DESCRIPTION serviceDescription} is available, the
+	 * service description itself is returned.
+	 * @param suite The test suite.
+	 * @return A Document associated with the model of the service description, or
+	 * {@code null} if it is not available.
+	 */
+	public static Document getCapabilitiesSummary(ISuite suite) {
+		ServiceDescription description = (ServiceDescription) suite
+			.getAttribute(SuiteAttribute.SERVICE_DESCRIPTION.getName());
+		if (null == description) {
+			return getServiceDescription(suite);
+		}
+		return description.getSummaryDocument();
+	}
+
 	/**
 	 * Initializes the (namespace-aware) DOM parser.
 	 */
@@ -133,42 +218,162 @@ public class BaseFixture {
 		}
 	}
 
+	/**
+	 * Discards the messages recorded in any previous invocation on this thread. This
+	 * configuration method runs before any that may be defined in a subclass.
+	 */
+	@BeforeMethod(alwaysRun = true)
+	public void clearInvocationContext() {
+		this.invocation.remove();
+	}
+
+	/**
+	 * Returns the request entity of the current test method invocation.
+	 * @return A Document representing the content of the request message, or
+	 * {@code null} if none was set.
+	 */
+	protected Document getRequestEntity() {
+		return this.invocation.get().reqEntity;
+	}
+
+	/**
+	 * Sets the request entity of the current test method invocation.
+	 * @param reqEntity A Document representing the content of the request message.
+	 */
+	protected void setRequestEntity(Document reqEntity) {
+		this.invocation.get().reqEntity = reqEntity;
+	}
+
+	/**
+	 * Returns the response entity of the current test method invocation.
+	 * @return A Document representing the content of the response message, or
+	 * {@code null} if none was set.
+	 */
+	protected Document getResponseEntity() {
+		return this.invocation.get().rspEntity;
+	}
+
+	/**
+	 * Sets the response entity of the current test method invocation.
+	 * @param rspEntity A Document representing the content of the response message.
+	 */
+	protected void setResponseEntity(Document rspEntity) {
+		this.invocation.get().rspEntity = rspEntity;
+	}
+
+	/**
+	 * Obtains a schema model representing the GML application schema(s) supported by the
+	 * WFS under test. This is the value of the
+	 * {@link org.opengis.cite.iso19136.SuiteAttribute#XSMODEL xsmodel} suite attribute
+	 * if it has been set (by the GML application schema tests). Otherwise a model is
+	 * obtained from the {@link AppSchemaRegistry}; one that has already been loaded is
+	 * preferred. Such a model is only suitable for looking up GML (or XML Schema)
+	 * components; use {@link #getSchemaModel(ISuite, QName)} for the definition of a
+	 * feature type.
+	 * @param suite The test suite.
+	 * @return An XSModel object, or {@code null} if no schema model is available.
+	 */
+	protected XSModel getSchemaModel(ISuite suite) {
+		return getSchemaModel(suite, null);
+	}
+
+	/**
+	 * Obtains a schema model that includes the definition of the given feature type. This
+	 * is the value of the {@link org.opengis.cite.iso19136.SuiteAttribute#XSMODEL
+	 * xsmodel} suite attribute if it has been set (by the GML application schema tests).
+	 * Otherwise only the schema for the namespace of the feature type is loaded by the
+	 * {@link AppSchemaRegistry}, when it is first needed (or, if there is no registry,
+	 * the schema referenced by the "xsd" suite parameter is obtained from the
+	 * {@link AppSchemaCache} and the attribute is set).
+	 *
+	 * Test classes may be set up concurrently (see {@link TestRunArg#THREAD_COUNT}), so
+	 * the model is obtained by one thread at a time. Xerces completes some parts of a
+	 * model when they are first read; this is done before the model is returned (see
+	 * {@link AppSchemaUtils#initializeComponents(XSModel)}), so that the model can then
+	 * be read concurrently.
+	 * @param suite The test suite.
+	 * @param featureType The qualified name of a feature type, or {@code null} if any
+	 * model will do.
+	 * @return An XSModel object, or {@code null} if no schema model is available.
+	 */
+	protected XSModel getSchemaModel(ISuite suite, QName featureType) {
+		synchronized (INITIALIZED_MODELS) {
+			XSModel model = findSchemaModel(suite, featureType);
+			if (null != model && INITIALIZED_MODELS.add(model)) {
+				AppSchemaUtils.initializeComponents(model);
+			}
+			return model;
+		}
+	}
+
+	private XSModel findSchemaModel(ISuite suite, QName featureType) {
+		String modelAttr = org.opengis.cite.iso19136.SuiteAttribute.XSMODEL.getName();
+		XSModel model = (XSModel) suite.getAttribute(modelAttr);
+		if (null != model) {
+			return model;
+		}
+		AppSchemaRegistry registry = (AppSchemaRegistry) suite
+			.getAttribute(SuiteAttribute.APP_SCHEMA_REGISTRY.getName());
+		try {
+			if (null != registry) {
+				return (null != featureType) ? registry.getModel(featureType) : registry.getModel();
+			}
+			String schemaRef = suite.getXmlSuite()
+				.getParameters()
+				.get(org.opengis.cite.iso19136.TestRunArg.XSD.toString());
+			if (null != schemaRef && !schemaRef.isEmpty()) {
+				model = AppSchemaCache.getModel(URI.create(schemaRef));
+			}
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			TestSuiteLogger.log(Level.WARNING, "Failed to obtain application schema.", ex);
+		}
+		if (null != model) {
+			suite.setAttribute(modelAttr, model);
+		}
+		return model;
+	}
+
 	/**
 	 * Augments the test result with supplementary attributes in the event that a test
 	 * method failed. The "request" attribute contains a String representing the request
 	 * entity (POST method) or query component (GET method). The "response" attribute
-	 * contains the content of the response entity.
+	 * contains the content of the response entity. The messages are those of the
+	 * invocation that produced the result.
 	 * @param result A description of the test result.
 	 */
 	@AfterMethod
 	public void addAttributesOnTestFailure(ITestResult result) {
+		InvocationContext context = this.invocation.get();
+		this.invocation.remove();
 		if (result.getStatus() != ITestResult.FAILURE) {
 			return;
 		}
-		if (null != this.reqEntity) {
+		Document reqEntity = context.reqEntity;
+		if (null != reqEntity) {
 			String request = "";
 			Object[] params = result.getParameters();
 			if (WFSMessage.containsGetProtocolBinding(params)) {
-				request = WFSMessage.transformEntityToKVP(new DOMSource(this.reqEntity));
+				request = WFSMessage.transformEntityToKVP(new DOMSource(reqEntity));
 			}
 			else {
 				// https://github.com/opengeospatial/ets-wfs20/issues/233
 				// Get requested URI endpoint from ProtocolBinding, assume POST
 				ProtocolBinding binding = ProtocolBinding.POST;
 				try {
-					String methodName = this.reqEntity.getFirstChild().getLocalName();
+					String methodName = reqEntity.getFirstChild().getLocalName();
 					URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, methodName, binding);
 					result.setAttribute(REQ_POST_ATTR, endpoint.toString());
 				}
 				catch (Exception e) {
 					TestSuiteLogger.log(Level.WARNING, "Could not get POST endpoint URI", e);
 				}
-				request = XMLUtils.writeNodeToString(this.reqEntity);
+				request = XMLUtils.writeNodeToString(reqEntity);
 			}
 			result.setAttribute(REQ_ATTR, request);
 		}
-		if (null != this.rspEntity) {
-			StringBuilder response = new StringBuilder(XMLUtils.writeNodeToString(this.rspEntity));
+		if (null != context.rspEntity) {
+			StringBuilder response = new StringBuilder(XMLUtils.writeNodeToString(context.rspEntity));
 			if (response.length() > MAX_RSP_ATTR_LENGTH) {
 				response.delete(MAX_RSP_ATTR_LENGTH, response.length());
 			}
@@ -180,11 +385,12 @@ public class BaseFixture {
 	 * A DataProvider that supplies the set of application protocol bindings supported by
 	 * the SUT.
 	 * @param testContext Supplies details about the test run.
+	 * @param method The test method that will receive the data.
 	 * @return An Object[][] array containing a ProtocolBinding object in each row (first
 	 * dimension).
 	 */
 	@DataProvider(name = "protocol-binding")
-	public Object[][] getProtocolBindings(ITestContext testContext) {
+	public Object[][] getProtocolBindings(ITestContext testContext, Method method) {
 		if (null == this.supportedBindings) {
 			// BeforeClass method may not have been called yet
 			initBaseFixture(testContext);
@@ -194,58 +400,65 @@ public class BaseFixture {
 		for (int i = 0; i < bindings.length; i++) {
 			bindings[i] = new Object[] { itr.next() };
 		}
-		return bindings;
+		return selectRows(testContext, method, bindings);
 	}
 
 	/**
 	 * A DataProvider that supplies the complete set of feature types recognized by the
 	 * SUT.
+	 * @param testContext Supplies details about the test run.
+	 * @param method The test method that will receive the data.
 	 * @return An Object[][] array containing a QName object in each row (first
 	 * dimension).
 	 */
 	@DataProvider(name = "feature-types")
-	public Object[][] getFeatureTypes() {
+	public Object[][] getFeatureTypes(ITestContext testContext, Method method) {
 		Object[][] typeNames = new Object[this.featureTypes.size()][];
 		Iterator<QName> itr = this.featureTypes.iterator();
 		for (int i = 0; i < typeNames.length; i++) {
 			typeNames[i] = new Object[] { itr.next() };
 		}
-		return typeNames;
+		return selectRows(testContext, method, typeNames);
 	}
 
 	/**
 	 * A DataProvider that supplies feature type names for which instances exist.
+	 * @param testContext Supplies details about the test run.
+	 * @param method The test method that will receive the data.
 	 * @return An Iterator over an array containing a QName object representing the
 	 * qualified name of a feature type.
 	 */
 	@DataProvider(name = "instantiated-feature-types")
-	public Iterator<Object[]> getInstantiatedFeatureTypes() {
+	public Iterator<Object[]> getInstantiatedFeatureTypes(ITestContext testContext, Method method) {
 		List<Object[]> data = new ArrayList<Object[]>();
 		for (QName typeName : this.featureTypes) {
 			if (this.featureInfo.get(typeName).isInstantiated()) {
 				data.add(new Object[] { typeName });
 			}
 		}
-		return data.iterator();
+		return selectRows(testContext, method, data.iterator());
 	}
 
 	/**
 	 * A DataProvider that supplies parameters specifying a supported protocol binding and
 	 * a feature type. The resulting set is given by the Cartesian product of the sets
 	 * {bindings} x {featureTypes}; its cardinality is equal to the product of the
-	 * cardinalities of the two input sets.
+	 * cardinalities of the two input sets. The tuples may be run concurrently (see
+	 * {@link TestRunArg#THREAD_COUNT}).
+	 * @param testContext Supplies details about the test run.
+	 * @param method The test method that will receive the data.
 	 * @return An {@literal Iterator<Object[]>} over the set of (ProtocolBinding, QName)
 	 * pairs.
 	 */
-	@DataProvider(name = "all-protocols-featureTypes")
-	public Iterator<Object[]> allProtocolsAndFeatureTypes() {
+	@DataProvider(name = "all-protocols-featureTypes", parallel = true)
+	public Iterator<Object[]> allProtocolsAndFeatureTypes(ITestContext testContext, Method method) {
 		List<Object[]> params = new ArrayList<Object[]>();
 		for (ProtocolBinding binding : supportedBindings) {
 			for (QName typeName : featureTypes) {
 				params.add(new Object[] { binding, typeName });
 			}
 		}
-		return params.iterator();
+		return selectRows(testContext, method, params.iterator());
 	}
 
 	/**
@@ -255,14 +468,16 @@ public class BaseFixture {
 	 * <li>ProtocolBinding - a supported request binding</li>
 	 * <li>QName - the name of a feature type for which data are available</li>
 	 * </ol>
+	 * The tuples may be run concurrently (see {@link TestRunArg#THREAD_COUNT}).
 	 * @param testContext The ITestContext object for the test run.
+	 * @param method The test method that will receive the data.
 	 * @return {@literal Iterator<Object[]>} An iterator over a collection of parameter
 	 * tuples (ProtocolBinding, QName).
 	 */
-	@DataProvider(name = "protocol-featureType")
-	public Iterator<Object[]> bindingAndAvailFeatureTypeProductSet(ITestContext testContext) {
+	@DataProvider(name = "protocol-featureType", parallel = true)
+	public Iterator<Object[]> bindingAndAvailFeatureTypeProductSet(ITestContext testContext, Method method) {
 		ISuite suite = testContext.getSuite();
-		Document wfsMetadata = (Document) suite.getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		Document wfsMetadata = getCapabilitiesSummary(suite);
 		if (null == wfsMetadata) {
 			throw new NullPointerException("Service description not found in ITestContext");
 		}
@@ -278,7 +493,41 @@ public class BaseFixture {
 				}
 			}
 		}
-		return paramList.iterator();
+		return selectRows(testContext, method, paramList.iterator());
+	}
+
+	/**
+	 * Selects the rows supplied by a data provider that are used to invoke a test method.
+	 * If failed and skipped tests are being re-run (see {@link RerunPlan}) and the method
+	 * is one of them, only the rows whose invocations failed or were skipped are kept;
+	 * if an interrupted run is being resumed, only the rows whose invocations were not
+	 * completed are kept. Otherwise all rows are used.
+	 * @param testContext The ITestContext object for the test run.
+	 * @param method The test method that will receive the data.
+	 * @param rows An iterator over the rows (argument lists) supplied by a data provider.
+	 * @return An iterator over the selected rows.
+	 */
+	protected Iterator<Object[]> selectRows(ITestContext testContext, Method method, Iterator<Object[]> rows) {
+		RerunPlan plan = (RerunPlan) testContext.getSuite().getAttribute(SuiteAttribute.RERUN_PLAN.getName());
+		if (null == plan) {
+			return rows;
+		}
+		return plan.filter(getClass().getName(), method.getName(), rows);
+	}
+
+	/**
+	 * Selects the rows supplied by a data provider that are used to invoke a test method
+	 * (see {@link #selectRows(ITestContext, Method, Iterator)}).
+	 * @param testContext The ITestContext object for the test run.
+	 * @param method The test method that will receive the data.
+	 * @param rows An array containing the rows (argument lists) supplied by a data
+	 * provider.
+	 * @return An array containing the selected rows.
+	 */
+	protected Object[][] selectRows(ITestContext testContext, Method method, Object[][] rows) {
+		List<Object[]> selected = new ArrayList<>();
+		selectRows(testContext, method, Arrays.asList(rows).iterator()).forEachRemaining(selected::add);
+		return selected.toArray(new Object[0][]);
 	}
 
 	/**
@@ -303,4 +552,17 @@ public class BaseFixture {
 		return entity;
 	}
 
+	/**
+	 * The request and response entities of a test method invocation.
+	 */
+	private static final class InvocationContext {
+
+		/** A Document representing the content of the request message. */
+		private Document reqEntity;
+
+		/** A Document representing the content of the response message. */
+		private Document rspEntity;
+
+	}
+
 }
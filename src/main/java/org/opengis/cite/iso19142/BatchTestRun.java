@@ -0,0 +1,320 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Source;
+
+import org.apache.commons.io.FilenameUtils;
+import org.opengis.cite.iso19142.util.TestSuiteLogger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Runs the test suite against several implementations in one JVM. Each test run is
+ * configured by an XML properties file and writes its results in a separate
+ * subdirectory of the output directory, named after the properties file. The test runs
+ * are executed concurrently, so the immutable artifacts prepared by the first run (the
+ * compiled WFS schema, Schematron validators, stylesheets and XPath expressions,
+ * application schemas and CRS definitions) are used by all of them.
+ *
+ * <p>
+ * The number of concurrent test runs is limited overall and for each implementation
+ * under test, which is identified by the value of the {@link TestRunArg#WFS wfs} (or
+ * {@link TestRunArg#IUT iut}) argument without its query component.
+ * </p>
+ */
+public class BatchTestRun {
+
+	private final File outputDir;
+
+	private final int maxRuns;
+
+	private final int maxRunsPerIUT;
+
+	private final Map<String, Semaphore> iutPermits = new ConcurrentHashMap<>();
+
+	/** The test runs waiting for a permit, by IUT key (guarded by the map itself). */
+	private final Map<String, Deque<Runnable>> waitingRuns = new HashMap<>();
+
+	private final Map<TestRunArg, String> defaultArgs = new EnumMap<>(TestRunArg.class);
+
+	/**
+	 * Constructs a batch runner.
+	 * @param outputDir The directory in which the results of each test run are written
+	 * (in a subdirectory).
+	 * @param maxRuns The maximum number of concurrent test runs.
+	 * @param maxRunsPerIUT The maximum number of concurrent test runs against the same
+	 * implementation.
+	 */
+	public BatchTestRun(File outputDir, int maxRuns, int maxRunsPerIUT) {
+		this.outputDir = outputDir;
+		this.maxRuns = Math.max(1, maxRuns);
+		this.maxRunsPerIUT = Math.max(1, maxRunsPerIUT);
+	}
+
+	/**
+	 * Sets the value of a test run argument for the test runs whose properties files do
+	 * not specify it.
+	 * @param arg The test run argument.
+	 * @param value The default value of the argument.
+	 */
+	public void setDefaultArgument(TestRunArg arg, String value) {
+		this.defaultArgs.put(arg, value);
+	}
+
+	/**
+	 * Executes a test run for each of the given properties files and waits for all of
+	 * them to finish. A test run that fails does not affect the others.
+	 * @param propsFiles A list of XML properties files containing test run arguments.
+	 * @return A map (in the given order) containing the outcome of each test run, keyed
+	 * by properties file.
+	 * @throws InterruptedException If interrupted while waiting for the test runs.
+	 */
+	public Map<File, Outcome> run(List<File> propsFiles) throws InterruptedException {
+		Map<File, CompletableFuture<Source>> results = new LinkedHashMap<>();
+		Map<File, Outcome> outcomes = new LinkedHashMap<>();
+		Map<File, Document> testRunArgs = new LinkedHashMap<>();
+		Map<File, String> iutKeys = new LinkedHashMap<>();
+		DocumentBuilder builder;
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+			builder = factory.newDocumentBuilder();
+		}
+		catch (Exception ex) {
+			throw new RuntimeException("Failed to create parser.", ex);
+		}
+		for (File propsFile : propsFiles) {
+			try {
+				Document args = builder.parse(propsFile);
+				for (Map.Entry<TestRunArg, String> defaultArg : this.defaultArgs.entrySet()) {
+					TestNGController.setDefaultArgument(args, defaultArg.getKey(), defaultArg.getValue());
+				}
+				testRunArgs.put(propsFile, args);
+				iutKeys.put(propsFile, iutKey(args));
+			}
+			catch (Exception ex) {
+				outcomes.put(propsFile, new Outcome(null, ex));
+			}
+		}
+		Map<File, File> resultDirs = resultDirectories(new ArrayList<>(testRunArgs.keySet()));
+		int poolSize = Math.max(1, Math.min(this.maxRuns, testRunArgs.size()));
+		ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+		try {
+			for (File propsFile : schedule(iutKeys)) {
+				Document args = testRunArgs.get(propsFile);
+				String iutKey = iutKeys.get(propsFile);
+				String resultDir = resultDirs.get(propsFile).getAbsolutePath();
+				CompletableFuture<Source> result = new CompletableFuture<>();
+				results.put(propsFile, result);
+				enqueue(iutKey, () -> executor.execute(() -> {
+					try {
+						TestSuiteLogger.log(Level.INFO, "Starting test run for " + propsFile);
+						result.complete(new TestNGController(resultDir).doTestRun(args));
+					}
+					catch (Throwable ex) {
+						result.completeExceptionally(ex);
+					}
+					finally {
+						finishRun(iutKey);
+					}
+				}), result);
+			}
+			for (Map.Entry<File, CompletableFuture<Source>> result : results.entrySet()) {
+				try {
+					outcomes.put(result.getKey(), new Outcome(result.getValue().get(), null));
+				}
+				catch (ExecutionException ex) {
+					outcomes.put(result.getKey(), new Outcome(null, ex.getCause()));
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		Map<File, Outcome> orderedOutcomes = new LinkedHashMap<>();
+		for (File propsFile : propsFiles) {
+			orderedOutcomes.put(propsFile, outcomes.get(propsFile));
+		}
+		return orderedOutcomes;
+	}
+
+	/**
+	 * Adds a test run to the queue of its implementation and starts as many queued runs
+	 * as the implementation allows. A run is only submitted to the thread pool once it
+	 * holds a permit, so a run that must wait for another one against the same
+	 * implementation never occupies a pool thread.
+	 * @param iutKey The key that identifies the implementation under test.
+	 * @param start Submits the test run to the thread pool.
+	 * @param result The result of the test run, which fails if it cannot be submitted.
+	 */
+	private void enqueue(String iutKey, Runnable start, CompletableFuture<Source> result) {
+		synchronized (this.waitingRuns) {
+			this.waitingRuns.computeIfAbsent(iutKey, key -> new ArrayDeque<>()).add(() -> {
+				try {
+					start.run();
+				}
+				catch (RejectedExecutionException ex) {
+					result.completeExceptionally(ex);
+					finishRun(iutKey);
+				}
+			});
+		}
+		startWaitingRuns(iutKey);
+	}
+
+	/**
+	 * Releases the permit held by a test run that has finished (or could not be started)
+	 * and starts the next queued run against the same implementation, if any.
+	 * @param iutKey The key that identifies the implementation under test.
+	 */
+	private void finishRun(String iutKey) {
+		this.iutPermits.get(iutKey).release();
+		startWaitingRuns(iutKey);
+	}
+
+	private void startWaitingRuns(String iutKey) {
+		Semaphore permits = this.iutPermits.computeIfAbsent(iutKey, key -> new Semaphore(this.maxRunsPerIUT));
+		while (true) {
+			Runnable next;
+			synchronized (this.waitingRuns) {
+				Deque<Runnable> queue = this.waitingRuns.get(iutKey);
+				if (null == queue || queue.isEmpty() || !permits.tryAcquire()) {
+					return;
+				}
+				next = queue.poll();
+			}
+			next.run();
+		}
+	}
+
+	/**
+	 * Determines the key that identifies the implementation under test.
+	 * @param testRunArgs A DOM Document containing a set of XML properties (key-value
+	 * pairs).
+	 * @return The value of the wfs (or iut) argument without its query component, or an
+	 * empty string if neither is present.
+	 */
+	static String iutKey(Document testRunArgs) {
+		String iutRef = "";
+		NodeList entries = testRunArgs.getDocumentElement().getElementsByTagName("entry");
+		for (int i = 0; i < entries.getLength(); i++) {
+			Element entry = (Element) entries.item(i);
+			String key = entry.getAttribute("key");
+			// the wfs argument takes precedence
+			if (key.equals(TestRunArg.WFS.toString())
+					|| (iutRef.isEmpty() && key.equals(TestRunArg.IUT.toString()))) {
+				iutRef = entry.getTextContent().trim();
+			}
+		}
+		try {
+			URI uri = URI.create(iutRef);
+			if (null != uri.getScheme() && null != uri.getRawPath()) {
+				return new URI(uri.getScheme(), uri.getRawAuthority(), uri.getRawPath(), null, null).toString();
+			}
+		}
+		catch (Exception ex) {
+			// not a URI; use value as is
+		}
+		return iutRef;
+	}
+
+	/**
+	 * Orders the test runs so that those for different implementations are interleaved
+	 * (round-robin), so that the first runs started are against as many implementations
+	 * as possible.
+	 * @param iutKeys A map that associates each properties file with an IUT key.
+	 * @return A list of properties files in the order in which the runs are started.
+	 */
+	static List<File> schedule(Map<File, String> iutKeys) {
+		Map<String, Deque<File>> runsByIUT = new LinkedHashMap<>();
+		for (Map.Entry<File, String> entry : iutKeys.entrySet()) {
+			runsByIUT.computeIfAbsent(entry.getValue(), key -> new ArrayDeque<>()).add(entry.getKey());
+		}
+		List<File> schedule = new ArrayList<>(iutKeys.size());
+		while (schedule.size() < iutKeys.size()) {
+			for (Deque<File> runs : runsByIUT.values()) {
+				if (!runs.isEmpty()) {
+					schedule.add(runs.poll());
+				}
+			}
+		}
+		return schedule;
+	}
+
+	/**
+	 * Assigns a separate results directory to each test run. The name is the base name
+	 * of the properties file; a numeric suffix is appended if it is not unique.
+	 * @param propsFiles A list of properties files.
+	 * @return A map that associates each properties file with a results directory.
+	 */
+	Map<File, File> resultDirectories(List<File> propsFiles) {
+		Map<File, File> resultDirs = new LinkedHashMap<>();
+		Set<String> names = new HashSet<>();
+		for (File propsFile : propsFiles) {
+			String baseName = FilenameUtils.getBaseName(propsFile.getName());
+			String name = baseName;
+			for (int i = 2; !names.add(name); i++) {
+				name = baseName + "-" + i;
+			}
+			resultDirs.put(propsFile, new File(this.outputDir, name));
+		}
+		return resultDirs;
+	}
+
+	/**
+	 * The outcome of a test run.
+	 */
+	public static class Outcome {
+
+		private final Source results;
+
+		private final Throwable error;
+
+		Outcome(Source results, Throwable error) {
+			this.results = results;
+			this.error = error;
+		}
+
+		/**
+		 * Returns the test results.
+		 * @return A Source object to read the test results, or {@code null} if the test
+		 * run failed.
+		 */
+		public Source getResults() {
+			return results;
+		}
+
+		/**
+		 * Returns the reason why the test run failed.
+		 * @return A Throwable object, or {@code null} if the test run was completed.
+		 */
+		public Throwable getError() {
+			return error;
+		}
+
+	}
+
+}
@@ -0,0 +1,38 @@
+package org.opengis.cite.iso19142;
+
+/**
+ * An enumerated type defining the sections of a WFS capabilities document that may be
+ * requested individually (using the <code>Sections</code> parameter of a GetCapabilities
+ * request).
+ *
+ * @see "ISO 19142:2010, cl. 8.2: GetCapabilities - Request"
+ * @see "OGC 06-121r3, cl. 7.3.3: Sections parameter"
+ */
+public enum CapabilitiesSection {
+
+	/** ows:ServiceIdentification */
+	SERVICE_IDENTIFICATION("ServiceIdentification"),
+	/** ows:ServiceProvider */
+	SERVICE_PROVIDER("ServiceProvider"),
+	/** ows:OperationsMetadata (endpoints and constraints) */
+	OPERATIONS_METADATA("OperationsMetadata"),
+	/** wfs:FeatureTypeList */
+	FEATURE_TYPE_LIST("FeatureTypeList"),
+	/** fes:Filter_Capabilities */
+	FILTER_CAPABILITIES("Filter_Capabilities");
+
+	private final String sectionName;
+
+	private CapabilitiesSection(String sectionName) {
+		this.sectionName = sectionName;
+	}
+
+	/**
+	 * Returns the name of the section as it appears in a request.
+	 * @return The section name (e.g. "OperationsMetadata").
+	 */
+	public String getSectionName() {
+		return sectionName;
+	}
+
+}
@@ -0,0 +1,502 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.opengis.cite.iso19142.util.DataSampler;
+import org.opengis.cite.iso19142.util.WFSClient;
+import org.opengis.cite.iso19142.util.WFSMessage;
+import org.testng.IConfigurationListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+
+/**
+ * A listener that periodically records the progress of a test run in the suite output
+ * directory (in the {@value #CHECKPOINT_DIR} subdirectory), so that the run can be
+ * resumed if it is interrupted (see {@link TestRunArg#RESUME_FROM}). A checkpoint
+ * consists of:
+ * <ul>
+ * <li>the verdicts of the completed test method invocations, in the format of the TestNG
+ * results ({@value #CHECKPOINT_FILE_NAME});</li>
+ * <li>a snapshot of the sample data, including the availability of each feature type;
+ * it is saved in the same place as at the end of the run (see
+ * {@link SuiteFixtureListener#saveSampleData(ISuite)});</li>
+ * <li>the changes made to the SUT that have not yet been undone, such as unreleased
+ * locks and inserted features (see {@link PendingChanges}).</li>
+ * </ul>
+ *
+ * <p>
+ * A checkpoint is taken when a verdict is recorded, at most once every
+ * {@value #INTERVAL_MILLIS} ms, and when the suite finishes. Taking a checkpoint only
+ * copies the recorded state; the files are written by a single background thread, so
+ * test methods that finish meanwhile are not held up. If checkpoints are taken faster
+ * than they can be written, only the latest one is written. Each file is replaced
+ * atomically, so a checkpoint is never left incomplete.
+ * </p>
+ */
+public class Checkpoint implements ISuiteListener, ITestListener, IConfigurationListener {
+
+	private static final Logger LOGR = Logger.getLogger(Checkpoint.class.getPackage().getName());
+
+	/** The name of the directory containing the checkpoint. */
+	public static final String CHECKPOINT_DIR = "checkpoint";
+
+	/** The name of the file containing the verdicts recorded in a checkpoint. */
+	public static final String CHECKPOINT_FILE_NAME = "testng-checkpoint.xml";
+
+	/** The name of the file listing the changes to the SUT that are still pending. */
+	public static final String PENDING_CHANGES_FILE_NAME = "pending-changes.properties";
+
+	/** The minimum interval between checkpoints (ms). */
+	static final long INTERVAL_MILLIS = 10000;
+
+	/** The maximum time to wait for the final checkpoint to be written (s). */
+	private static final long FINISH_TIMEOUT_SECONDS = 60;
+
+	private File checkpointDir;
+
+	private Document verdicts;
+
+	private final Map<String, Element> classElements = new HashMap<>();
+
+	private final Map<Object, PendingChanges> pendingChanges = new IdentityHashMap<>();
+
+	private long lastWritten;
+
+	private boolean modified;
+
+	/** Writes the checkpoints (in a single thread). */
+	private ExecutorService writer;
+
+	/** The latest checkpoint that has not yet been written, if any. */
+	private final AtomicReference<Snapshot> nextSnapshot = new AtomicReference<>();
+
+	/** The number of sampled feature types in the saved sample data (writer only). */
+	private int sampledTypeCount;
+
+	@Override
+	public void onStart(ISuite suite) {
+	}
+
+	/**
+	 * Writes the final checkpoint and waits until it has been written.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 */
+	@Override
+	public void onFinish(ISuite suite) {
+		Snapshot snapshot;
+		synchronized (this) {
+			if (null == this.verdicts) {
+				return;
+			}
+			snapshot = takeSnapshot(suite);
+		}
+		schedule(snapshot);
+		this.writer.shutdown();
+		try {
+			if (!this.writer.awaitTermination(FINISH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				LOGR.log(Level.WARNING, "Final checkpoint not written in {0}", this.checkpointDir);
+			}
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		record(result, "PASS");
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		record(result, "FAIL");
+	}
+
+	@Override
+	public void onTestSkipped(ITestResult result) {
+		record(result, "SKIP");
+	}
+
+	@Override
+	public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+		record(result, "PASS");
+	}
+
+	@Override
+	public void onConfigurationSuccess(ITestResult result) {
+		updatePendingChanges(result);
+	}
+
+	@Override
+	public void onConfigurationFailure(ITestResult result) {
+		updatePendingChanges(result);
+	}
+
+	@Override
+	public void onConfigurationSkip(ITestResult result) {
+		updatePendingChanges(result);
+	}
+
+	/**
+	 * Records the verdict of a test method invocation and takes a checkpoint if the
+	 * interval has elapsed.
+	 * @param result The result of a test method invocation.
+	 * @param status The verdict (PASS, FAIL, or SKIP).
+	 */
+	void record(ITestResult result, String status) {
+		ISuite suite = result.getTestContext().getSuite();
+		Snapshot snapshot = null;
+		synchronized (this) {
+			if (!init(suite)) {
+				return;
+			}
+			addVerdict(result, status);
+			if (System.currentTimeMillis() - this.lastWritten >= INTERVAL_MILLIS) {
+				snapshot = takeSnapshot(suite);
+			}
+		}
+		if (null != snapshot) {
+			schedule(snapshot);
+		}
+	}
+
+	private void addVerdict(ITestResult result, String status) {
+		Element testMethod = this.verdicts.createElement("test-method");
+		testMethod.setAttribute("status", status);
+		testMethod.setAttribute("name", result.getMethod().getMethodName());
+		testMethod.setAttribute("duration-ms", Long.toString(result.getEndMillis() - result.getStartMillis()));
+		Object[] args = result.getParameters();
+		if (null != args && args.length > 0) {
+			Element params = this.verdicts.createElement("params");
+			List<String> values = RerunPlan.argumentValues(args);
+			for (int i = 0; i < values.size(); i++) {
+				Element param = this.verdicts.createElement("param");
+				param.setAttribute("index", Integer.toString(i));
+				Element value = this.verdicts.createElement("value");
+				value.appendChild(this.verdicts.createCDATASection(values.get(i)));
+				param.appendChild(value);
+				params.appendChild(param);
+			}
+			testMethod.appendChild(params);
+		}
+		Throwable error = result.getThrowable();
+		if (null != error) {
+			Element exception = this.verdicts.createElement("exception");
+			exception.setAttribute("class", error.getClass().getName());
+			Element message = this.verdicts.createElement("message");
+			message.appendChild(this.verdicts.createCDATASection(String.valueOf(error.getMessage())));
+			exception.appendChild(message);
+			testMethod.appendChild(exception);
+		}
+		classElement(result.getTestContext().getName(), result.getMethod().getRealClass().getName())
+			.appendChild(testMethod);
+		this.modified = true;
+		updatePendingChanges(result);
+	}
+
+	/**
+	 * Updates the changes to the SUT that are pending for the test class instance that
+	 * produced the given result.
+	 * @param result The result of a test or configuration method invocation.
+	 */
+	synchronized void updatePendingChanges(ITestResult result) {
+		Object instance = result.getInstance();
+		if (!(instance instanceof PendingChanges)) {
+			return;
+		}
+		PendingChanges changes = (PendingChanges) instance;
+		PendingChanges previous = this.pendingChanges.get(instance);
+		if (changes.getUnreleasedLocks().isEmpty() && changes.getInsertedFeatures().isEmpty()) {
+			if (null != previous) {
+				this.pendingChanges.remove(instance);
+				this.modified = true;
+			}
+			return;
+		}
+		// copy the current state, since the instance continues to modify it
+		List<String> locks = new ArrayList<>(changes.getUnreleasedLocks());
+		Map<String, QName> features = new LinkedHashMap<>(changes.getInsertedFeatures());
+		this.pendingChanges.put(instance, new PendingChanges() {
+			@Override
+			public Collection<String> getUnreleasedLocks() {
+				return locks;
+			}
+
+			@Override
+			public Map<String, QName> getInsertedFeatures() {
+				return features;
+			}
+		});
+		this.modified = true;
+	}
+
+	private boolean init(ISuite suite) {
+		if (null != this.verdicts) {
+			return true;
+		}
+		if (null == suite.getOutputDirectory()) {
+			return false;
+		}
+		this.checkpointDir = new File(suite.getOutputDirectory(), CHECKPOINT_DIR);
+		RerunPlan plan = (RerunPlan) suite.getAttribute(SuiteAttribute.RERUN_PLAN.getName());
+		try {
+			Files.createDirectories(this.checkpointDir.toPath());
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			if (null != plan && plan.isResume()) {
+				// carry over the verdicts recorded before the interruption
+				this.verdicts = factory.newDocumentBuilder().parse(plan.getResultsFile());
+				NodeList classes = this.verdicts.getElementsByTagName("class");
+				for (int i = 0; i < classes.getLength(); i++) {
+					Element testClass = (Element) classes.item(i);
+					Element test = (Element) testClass.getParentNode();
+					this.classElements.put(test.getAttribute("name") + '#' + testClass.getAttribute("name"), testClass);
+				}
+			}
+			else {
+				this.verdicts = factory.newDocumentBuilder().newDocument();
+				Element root = this.verdicts.createElement("testng-results");
+				Element suiteElem = this.verdicts.createElement("suite");
+				suiteElem.setAttribute("name", suite.getName());
+				root.appendChild(suiteElem);
+				this.verdicts.appendChild(root);
+			}
+		}
+		catch (Exception ex) {
+			LOGR.log(Level.WARNING, "Checkpoints disabled; cannot write to " + this.checkpointDir, ex);
+			this.verdicts = null;
+			return false;
+		}
+		this.writer = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "ets-wfs20-checkpoint");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.lastWritten = System.currentTimeMillis();
+		return true;
+	}
+
+	private Element classElement(String testName, String className) {
+		return this.classElements.computeIfAbsent(testName + '#' + className, key -> {
+			Element suiteElem = (Element) this.verdicts.getElementsByTagName("suite").item(0);
+			Element test = null;
+			NodeList tests = suiteElem.getElementsByTagName("test");
+			for (int i = 0; i < tests.getLength() && null == test; i++) {
+				if (((Element) tests.item(i)).getAttribute("name").equals(testName)) {
+					test = (Element) tests.item(i);
+				}
+			}
+			if (null == test) {
+				test = this.verdicts.createElement("test");
+				test.setAttribute("name", testName);
+				suiteElem.appendChild(test);
+			}
+			Element testClass = this.verdicts.createElement("class");
+			testClass.setAttribute("name", className);
+			test.appendChild(testClass);
+			return testClass;
+		});
+	}
+
+	/**
+	 * Copies the state to be written in a checkpoint. The verdicts and pending changes
+	 * are copied only if anything has changed since the last checkpoint. This must be
+	 * called while holding the lock on this listener.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 * @return A new Snapshot.
+	 */
+	private Snapshot takeSnapshot(ISuite suite) {
+		this.lastWritten = System.currentTimeMillis();
+		if (!this.modified) {
+			return new Snapshot(suite, null, null);
+		}
+		this.modified = false;
+		return new Snapshot(suite, (Document) this.verdicts.cloneNode(true), pendingChangesProperties());
+	}
+
+	/**
+	 * Hands a checkpoint to the writer. If an earlier one is still waiting to be written,
+	 * it is superseded by the new one.
+	 * @param snapshot The state to be written.
+	 */
+	private void schedule(Snapshot snapshot) {
+		Snapshot waiting = this.nextSnapshot.getAndUpdate(snapshot::supersede);
+		if (null == waiting) {
+			this.writer.execute(() -> write(this.nextSnapshot.getAndSet(null)));
+		}
+	}
+
+	/**
+	 * Writes a checkpoint. The sample data are saved again if more feature types have
+	 * been sampled; the verdicts and pending changes are written if they have changed.
+	 * This is done in the writer thread.
+	 * @param snapshot The state to be written.
+	 */
+	private void write(Snapshot snapshot) {
+		try {
+			DataSampler sampler = (DataSampler) snapshot.suite.getAttribute(SuiteAttribute.SAMPLER.getName());
+			if (null != sampler) {
+				// save the data again if more feature types have been sampled
+				int typeCount = (int) sampler.getFeatureTypeInfo()
+					.values()
+					.stream()
+					.filter(typeInfo -> !typeInfo.isSampleDataDeferred())
+					.count();
+				if (typeCount > this.sampledTypeCount && SuiteFixtureListener.saveSampleData(snapshot.suite)) {
+					this.sampledTypeCount = typeCount;
+				}
+			}
+			if (null == snapshot.verdicts) {
+				return;
+			}
+			writePendingChanges(snapshot.pendingChanges);
+			File tempFile = File.createTempFile("checkpoint-", ".xml", this.checkpointDir);
+			Transformer transformer = TransformerFactory.newInstance().newTransformer();
+			transformer.transform(new DOMSource(snapshot.verdicts), new StreamResult(tempFile));
+			Files.move(tempFile.toPath(), new File(this.checkpointDir, CHECKPOINT_FILE_NAME).toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (Exception ex) {
+			LOGR.log(Level.WARNING, "Failed to write checkpoint in " + this.checkpointDir, ex);
+		}
+	}
+
+	private Properties pendingChangesProperties() {
+		Properties props = new Properties();
+		int lockCount = 0;
+		int featureCount = 0;
+		for (PendingChanges changes : this.pendingChanges.values()) {
+			for (String lockId : changes.getUnreleasedLocks()) {
+				props.setProperty("lock." + (++lockCount), lockId);
+			}
+			for (Map.Entry<String, QName> feature : changes.getInsertedFeatures().entrySet()) {
+				featureCount++;
+				props.setProperty("feature." + featureCount, feature.getKey());
+				props.setProperty("featureType." + featureCount, feature.getValue().toString());
+			}
+		}
+		return props;
+	}
+
+	private void writePendingChanges(Properties props) throws IOException {
+		File tempFile = File.createTempFile("pending-", ".properties", this.checkpointDir);
+		try (OutputStream out = new FileOutputStream(tempFile)) {
+			props.store(out, "Changes to the SUT that have not been undone");
+		}
+		Files.move(tempFile.toPath(), new File(this.checkpointDir, PENDING_CHANGES_FILE_NAME).toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Undoes the changes to the SUT that were pending when an interrupted test run was
+	 * last checkpointed: the locks are released and the inserted features are deleted.
+	 * Failures are logged.
+	 * @param plan The plan for resuming the test run.
+	 * @param wfsMetadata The service description of the SUT.
+	 * @param wfsVersion The WFS version in use.
+	 */
+	static void undoPendingChanges(RerunPlan plan, Document wfsMetadata, String wfsVersion) {
+		File pendingFile = new File(plan.getResultsFile().getParentFile(), PENDING_CHANGES_FILE_NAME);
+		if (!pendingFile.isFile()) {
+			return;
+		}
+		Properties props = new Properties();
+		try (InputStream in = new FileInputStream(pendingFile)) {
+			props.load(in);
+		}
+		catch (IOException iox) {
+			LOGR.log(Level.WARNING, "Failed to read pending changes from " + pendingFile, iox);
+			return;
+		}
+		WFSClient wfsClient = new WFSClient(wfsMetadata);
+		Document trxEntity = WFSMessage.createRequestEntity(WFS2.TRANSACTION, wfsVersion);
+		trxEntity.getDocumentElement().setAttribute("releaseAction", "ALL");
+		for (int i = 1; null != props.getProperty("lock." + i); i++) {
+			String lockId = props.getProperty("lock." + i);
+			trxEntity.getDocumentElement().setAttribute("lockId", lockId);
+			Response rsp = wfsClient.submitRequest(trxEntity, ProtocolBinding.ANY);
+			if (rsp.getStatus() != Status.OK.getStatusCode()) {
+				LOGR.log(Level.WARNING, "Failed to release lock {0}", lockId);
+			}
+		}
+		Map<String, QName> features = new LinkedHashMap<>();
+		for (int i = 1; null != props.getProperty("feature." + i); i++) {
+			features.put(props.getProperty("feature." + i), QName.valueOf(props.getProperty("featureType." + i)));
+		}
+		if (!features.isEmpty()) {
+			wfsClient.deleteFeatures(features, ProtocolBinding.ANY);
+		}
+		LOGR.log(Level.INFO, "Undid pending changes recorded in {0}: {1}", new Object[] { pendingFile, props });
+	}
+
+	/**
+	 * The state recorded in a checkpoint, copied so that it can be written without
+	 * holding the lock on the listener.
+	 */
+	private static final class Snapshot {
+
+		private final ISuite suite;
+
+		/** A copy of the verdicts, or {@code null} if they have not changed. */
+		private final Document verdicts;
+
+		/** The pending changes, or {@code null} if they have not changed. */
+		private final Properties pendingChanges;
+
+		Snapshot(ISuite suite, Document verdicts, Properties pendingChanges) {
+			this.suite = suite;
+			this.verdicts = verdicts;
+			this.pendingChanges = pendingChanges;
+		}
+
+		/**
+		 * Combines this snapshot with an earlier one that has not been written. The
+		 * earlier verdicts are kept if there are no newer ones.
+		 * @param earlier The earlier snapshot (may be {@code null}).
+		 * @return The snapshot to be written.
+		 */
+		Snapshot supersede(Snapshot earlier) {
+			if (null == earlier || null != this.verdicts) {
+				return this;
+			}
+			return new Snapshot(this.suite, earlier.verdicts, earlier.pendingChanges);
+		}
+
+	}
+
+}
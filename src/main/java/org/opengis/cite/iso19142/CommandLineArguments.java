@@ -6,6 +6,7 @@ import org.apache.commons.io.FilenameUtils;
 import java.io.File;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -15,19 +16,36 @@ import java.util.List;
  * <li>XML properties file: ${user.home}/test-run-props.xml</li>
  * <li>outputDir: ${user.home}</li>
  * <li>deleteSubjectOnFinish: false</li>
+ * <li>virtualThreads: false</li>
+ * <li>maxRuns: 4</li>
+ * <li>maxRunsPerIUT: 1</li>
+ * <li>daemon: false</li>
+ * <li>port: 8089</li>
+ * <li>publicSubjectsOnly: false</li>
+ * <li>mergeShards: false</li>
  * </ul>
  *
  * <p>
+ * If more than one properties file or a directory is given, the test runs are executed
+ * as a batch (see {@link BatchTestRun}); the XML files in a directory are used. With
+ * the --mergeShards option the arguments are instead the results directories of the
+ * shards of a test run (see {@link FeatureTypeShard}).
+ * </p>
+ *
+ * <p>
  * <strong>Synopsis</strong>
  * </p>
  *
  * <pre>
- * ets-${ets-code}-${version}-aio.jar [-o|--outputDir $TMPDIR] [-d|--deleteSubjectOnFinish] [test-run-props.xml]
+ * ets-${ets-code}-${version}-aio.jar [-o|--outputDir $TMPDIR] [-d|--deleteSubjectOnFinish] [--virtualThreads]
+ *   [--maxRuns n] [--maxRunsPerIUT n] [--daemon [--port n] [--publicSubjectsOnly]]
+ *   [--rerun resultsDir | --resume resultsDir] [--shard k/N] [test-run-props.xml ... | dir]
+ * ets-${ets-code}-${version}-aio.jar --mergeShards [-o|--outputDir $TMPDIR] resultsDir ...
  * </pre>
  */
 public class CommandLineArguments {
 
-	@Parameter(description = "Properties file")
+	@Parameter(description = "Properties file(s) or directory")
 	private List<String> xmlProps;
 
 	@Parameter(names = { "-o", "--outputDir" }, description = "Output directory")
@@ -37,6 +55,43 @@ public class CommandLineArguments {
 			description = "Delete file containing representation of test subject when finished")
 	private boolean deleteSubjectOnFinish = false;
 
+	@Parameter(names = { "--virtualThreads" },
+			description = "Run tasks that wait on I/O in virtual threads (requires JDK 21 or later)")
+	private boolean virtualThreads = false;
+
+	@Parameter(names = { "--maxRuns" }, description = "Maximum number of concurrent test runs in a batch")
+	private int maxRuns = 4;
+
+	@Parameter(names = { "--maxRunsPerIUT" },
+			description = "Maximum number of concurrent test runs against the same implementation in a batch")
+	private int maxRunsPerIUT = 1;
+
+	@Parameter(names = { "--daemon" },
+			description = "Accept test run requests over HTTP (localhost) instead of running the given tests")
+	private boolean daemon = false;
+
+	@Parameter(names = { "--port" }, description = "Port on which the daemon accepts requests")
+	private int port = 8089;
+
+	@Parameter(names = { "--publicSubjectsOnly" },
+			description = "Reject daemon requests to test a WFS on a loopback, link-local or private network address")
+	private boolean publicSubjectsOnly = false;
+
+	@Parameter(names = { "--rerun" },
+			description = "Results directory of a previous test run; only its failed and skipped tests are run")
+	private String rerunFrom;
+
+	@Parameter(names = { "--resume" },
+			description = "Results directory of an interrupted test run; the run is resumed from its last checkpoint")
+	private String resumeFrom;
+
+	@Parameter(names = { "--shard" }, description = "Test only the feature types in shard k of N (k/N)")
+	private String shard;
+
+	@Parameter(names = { "--mergeShards" },
+			description = "Combine the results of the shards of a test run (the given results directories)")
+	private boolean mergeShards = false;
+
 	public CommandLineArguments() {
 		this.xmlProps = new ArrayList<>();
 	}
@@ -53,6 +108,38 @@ public class CommandLineArguments {
 		return fileRef;
 	}
 
+	/**
+	 * Returns the properties files to use. A directory is replaced by the XML files it
+	 * contains (in alphabetical order).
+	 * @return A list of properties files.
+	 */
+	public List<File> getPropertiesFiles() {
+		List<File> files = new ArrayList<>();
+		if (xmlProps.isEmpty()) {
+			files.add(getPropertiesFile());
+		}
+		for (String propsFile : xmlProps) {
+			File fileRef = (propsFile.startsWith("file:")) ? new File(URI.create(propsFile)) : new File(propsFile);
+			File[] dirFiles = fileRef.listFiles((dir, name) -> name.endsWith(".xml"));
+			if (null != dirFiles) {
+				Arrays.sort(dirFiles);
+				files.addAll(Arrays.asList(dirFiles));
+			}
+			else {
+				files.add(fileRef);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Indicates whether the test runs should be executed as a batch.
+	 * @return {@code true} if more than one properties file or a directory was given.
+	 */
+	public boolean isBatch() {
+		return xmlProps.size() > 1 || (xmlProps.size() == 1 && getPropertiesFile().isDirectory());
+	}
+
 	public String getOutputDir() {
 		return (null != outputDir) ? outputDir : System.getProperty("user.home");
 	}
@@ -61,4 +148,56 @@ public class CommandLineArguments {
 		return deleteSubjectOnFinish;
 	}
 
+	public boolean useVirtualThreads() {
+		return virtualThreads;
+	}
+
+	public int getMaxRuns() {
+		return maxRuns;
+	}
+
+	public int getMaxRunsPerIUT() {
+		return maxRunsPerIUT;
+	}
+
+	public boolean isDaemon() {
+		return daemon;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public boolean isPublicSubjectsOnly() {
+		return publicSubjectsOnly;
+	}
+
+	public String getRerunFrom() {
+		return rerunFrom;
+	}
+
+	public String getResumeFrom() {
+		return resumeFrom;
+	}
+
+	public String getShard() {
+		return shard;
+	}
+
+	public boolean isMergeShards() {
+		return mergeShards;
+	}
+
+	/**
+	 * Returns the results directories of the shards to merge.
+	 * @return A list of directories.
+	 */
+	public List<File> getShardResults() {
+		List<File> dirs = new ArrayList<>();
+		for (String resultsDir : xmlProps) {
+			dirs.add((resultsDir.startsWith("file:")) ? new File(URI.create(resultsDir)) : new File(resultsDir));
+		}
+		return dirs;
+	}
+
 }
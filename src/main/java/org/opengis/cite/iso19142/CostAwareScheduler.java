@@ -0,0 +1,287 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.xml.XmlSuite;
+
+/**
+ * Schedules tests according to their cost, measured by the time taken to run them in
+ * previous test runs. The scheduler has two functions, both optional:
+ * <ul>
+ * <li>If the {@link TestRunArg#DURATION_HISTORY duration_history} argument refers to a
+ * file, the durations of the test methods are recorded in it when the run finishes. The
+ * test classes in a conformance class that is run in parallel (see
+ * {@link TestRunArg#THREAD_COUNT}) are then started longest-first, so that the slowest
+ * classes do not delay the end of the conformance class.</li>
+ * <li>If the {@link TestRunArg#TIME_BUDGET time_budget} argument is present, each
+ * conformance class (test set) is allowed to run for at most that time. Once the budget
+ * is exhausted, the remaining test method invocations (including data provider rows)
+ * are skipped, and the reason is reported.</li>
+ * </ul>
+ *
+ * <p>
+ * The test methods within a test class keep their relative order. Only the order of the
+ * test classes within a conformance class changes, and only where they run in parallel
+ * (ParallelMode.CLASSES): the conformance classes themselves are always run one after
+ * another, in suite order. A conformance class whose tests are run sequentially (such
+ * as Locking WFS or Transactional WFS, which modify data in the SUT) is not reordered,
+ * since its duration would not change. The time taken by such a conformance class (e.g.
+ * the lock expiry waits in the locking tests) can only be limited by a time budget.
+ * </p>
+ */
+public class CostAwareScheduler
+		implements IMethodInterceptor, ISuiteListener, ITestListener, IInvokedMethodListener {
+
+	private static final Logger LOGR = Logger.getLogger(CostAwareScheduler.class.getPackage().getName());
+
+	/** The weight given to the latest run when a recorded duration is updated. */
+	static final double RECENT_WEIGHT = 0.5;
+
+	/** Recorded durations (ms) of the test methods, by qualified method name. */
+	private final Map<String, Long> history = new ConcurrentHashMap<>();
+
+	/** The total time (ms) taken by each test method in this run. */
+	private final Map<String, LongAdder> durations = new ConcurrentHashMap<>();
+
+	/** The names of the test sets whose time budget has been exhausted. */
+	private final Set<String> exhaustedTestSets = ConcurrentHashMap.newKeySet();
+
+	private volatile File historyFile;
+
+	private volatile long timeBudget;
+
+	/**
+	 * Reads the scheduling arguments and loads the recorded durations, if any.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 */
+	@Override
+	public void onStart(ISuite suite) {
+		Map<String, String> params = suite.getXmlSuite().getParameters();
+		this.timeBudget = getTimeBudget(params);
+		if (this.timeBudget > 0) {
+			LOGR.log(Level.CONFIG, "Time budget per conformance class: {0} s", this.timeBudget / 1000);
+		}
+		String location = params.get(TestRunArg.DURATION_HISTORY.toString());
+		if (null == location || location.isBlank()) {
+			return;
+		}
+		this.historyFile = location.startsWith("file:") ? new File(URI.create(location.trim()))
+				: new File(location.trim());
+		if (this.historyFile.isFile()) {
+			loadHistory(this.historyFile);
+		}
+	}
+
+	/**
+	 * Updates the recorded durations with those measured in this run.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 */
+	@Override
+	public void onFinish(ISuite suite) {
+		if (null == this.historyFile || this.durations.isEmpty()) {
+			return;
+		}
+		try {
+			saveHistory(this.historyFile);
+		}
+		catch (IOException iox) {
+			LOGR.log(Level.WARNING, "Failed to save test durations in " + this.historyFile, iox);
+		}
+	}
+
+	/**
+	 * Orders the test classes in a conformance class that is run in parallel by
+	 * decreasing total duration. Classes without recorded durations are started last.
+	 */
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		if (this.history.isEmpty() || context.getCurrentXmlTest().getParallel() != XmlSuite.ParallelMode.CLASSES) {
+			return methods;
+		}
+		Map<Class<?>, List<IMethodInstance>> methodsByClass = new LinkedHashMap<>();
+		Map<Class<?>, Long> classCosts = new LinkedHashMap<>();
+		for (IMethodInstance instance : methods) {
+			ITestNGMethod method = instance.getMethod();
+			Class<?> testClass = method.getRealClass();
+			methodsByClass.computeIfAbsent(testClass, key -> new ArrayList<>()).add(instance);
+			classCosts.merge(testClass, getEstimatedDuration(testClass.getName(), method.getMethodName()), Long::sum);
+		}
+		List<Class<?>> testClasses = new ArrayList<>(methodsByClass.keySet());
+		// a stable sort, so classes of equal cost keep their order
+		testClasses.sort(Comparator.comparing(classCosts::get, Comparator.reverseOrder()));
+		List<IMethodInstance> scheduled = new ArrayList<>(methods.size());
+		for (Class<?> testClass : testClasses) {
+			scheduled.addAll(methodsByClass.get(testClass));
+		}
+		LOGR.log(Level.CONFIG, "{0}: test classes scheduled longest-first: {1}",
+				new Object[] { context.getName(), testClasses });
+		return scheduled;
+	}
+
+	/**
+	 * Skips a test method invocation if the time budget of its conformance class has been
+	 * exhausted. The suite preconditions are always checked.
+	 */
+	@Override
+	public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+		if (this.timeBudget <= 0 || !method.isTestMethod()
+				|| method.getTestMethod().getRealClass().equals(SuitePreconditions.class)) {
+			return;
+		}
+		ITestContext context = testResult.getTestContext();
+		long elapsed = System.currentTimeMillis() - context.getStartDate().getTime();
+		if (elapsed < this.timeBudget) {
+			return;
+		}
+		String reason = String.format("Time budget of %d s for conformance class '%s' exhausted; test not run.",
+				this.timeBudget / 1000, context.getName());
+		if (this.exhaustedTestSets.add(context.getName())) {
+			LOGR.warning(reason);
+		}
+		throw new SkipException(reason);
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		recordDuration(result);
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		recordDuration(result);
+	}
+
+	private void recordDuration(ITestResult result) {
+		ITestNGMethod method = result.getMethod();
+		recordDuration(method.getRealClass().getName(), method.getMethodName(),
+				result.getEndMillis() - result.getStartMillis());
+	}
+
+	/**
+	 * Adds the duration of a test method invocation to the total for this run.
+	 * @param className The fully qualified name of the test class.
+	 * @param methodName The name of the test method.
+	 * @param millis The time taken by the invocation (ms).
+	 */
+	void recordDuration(String className, String methodName, long millis) {
+		this.durations.computeIfAbsent(className + "." + methodName, key -> new LongAdder()).add(millis);
+	}
+
+	/**
+	 * Gets the recorded duration of a test method (all invocations).
+	 * @param className The fully qualified name of the test class.
+	 * @param methodName The name of the test method.
+	 * @return The duration in ms, or 0 if none was recorded.
+	 */
+	long getEstimatedDuration(String className, String methodName) {
+		return this.history.getOrDefault(className + "." + methodName, 0L);
+	}
+
+	/**
+	 * Loads the durations recorded in previous test runs. Invalid entries are ignored.
+	 * @param file A properties file where each key is a qualified method name and the
+	 * value is its duration (ms).
+	 */
+	void loadHistory(File file) {
+		Properties props = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			props.load(in);
+		}
+		catch (IOException iox) {
+			LOGR.log(Level.WARNING, "Failed to read test durations from " + file, iox);
+			return;
+		}
+		for (String methodName : props.stringPropertyNames()) {
+			try {
+				this.history.put(methodName, Long.valueOf(props.getProperty(methodName).trim()));
+			}
+			catch (NumberFormatException nfe) {
+				LOGR.log(Level.FINE, "Ignoring invalid duration for {0}", methodName);
+			}
+		}
+		LOGR.log(Level.CONFIG, "Loaded durations of {0} test methods from {1}",
+				new Object[] { this.history.size(), file });
+	}
+
+	/**
+	 * Saves the recorded durations, updated with those measured in this run. The new
+	 * value for a test method is a weighted average of the previous one and the latest
+	 * one (see {@link #RECENT_WEIGHT}); methods not run are left unchanged. The file is
+	 * replaced atomically.
+	 * @param file The destination file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	void saveHistory(File file) throws IOException {
+		Properties props = new Properties();
+		for (Map.Entry<String, Long> entry : this.history.entrySet()) {
+			props.setProperty(entry.getKey(), entry.getValue().toString());
+		}
+		for (Map.Entry<String, LongAdder> entry : this.durations.entrySet()) {
+			long latest = entry.getValue().sum();
+			Long previous = this.history.get(entry.getKey());
+			long duration = (null == previous) ? latest
+					: Math.round(RECENT_WEIGHT * latest + (1 - RECENT_WEIGHT) * previous);
+			props.setProperty(entry.getKey(), Long.toString(duration));
+		}
+		File dir = file.getAbsoluteFile().getParentFile();
+		Files.createDirectories(dir.toPath());
+		File tempFile = File.createTempFile("durations-", ".properties", dir);
+		try (OutputStream out = new FileOutputStream(tempFile)) {
+			props.store(out, "Durations of test methods (ms)");
+		}
+		Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads the value of the {@link TestRunArg#TIME_BUDGET time_budget} test run
+	 * argument.
+	 * @param params The test run arguments.
+	 * @return The time budget of each conformance class in ms (0 if the argument is
+	 * missing or invalid).
+	 */
+	static long getTimeBudget(Map<String, String> params) {
+		String timeBudget = params.get(TestRunArg.TIME_BUDGET.toString());
+		if (null == timeBudget || timeBudget.isBlank()) {
+			return 0;
+		}
+		try {
+			return Math.max(0, Long.parseLong(timeBudget.trim())) * 1000;
+		}
+		catch (NumberFormatException nfe) {
+			LOGR.warning("Ignoring invalid time budget: " + timeBudget);
+			return 0;
+		}
+	}
+
+}
@@ -9,10 +9,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.xml.namespace.QName;
-import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Validator;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
@@ -21,11 +19,11 @@ import org.apache.xerces.xs.XSComplexTypeDefinition;
 import org.apache.xerces.xs.XSElementDeclaration;
 import org.apache.xerces.xs.XSSimpleTypeDefinition;
 import org.apache.xerces.xs.XSTypeDefinition;
+import org.opengis.cite.iso19142.util.SchematronResult;
 import org.opengis.cite.iso19142.util.TestSuiteLogger;
 import org.opengis.cite.iso19142.util.ValidationUtils;
 import org.opengis.cite.iso19142.util.WFSClient;
 import org.opengis.cite.iso19142.util.XMLUtils;
-import org.opengis.cite.validation.SchematronValidator;
 import org.opengis.cite.validation.ValidationErrorHandler;
 import org.testng.Assert;
 import org.w3c.dom.Attr;
@@ -160,19 +158,18 @@ public class ETSAssert {
 	 * @param xmlSource The XML Source to be validated.
 	 */
 	public static void assertSchematronValid(URL schemaRef, Source xmlSource) {
-		SchematronValidator validator;
+		SchematronResult result;
 		try {
-			validator = new SchematronValidator(new StreamSource(schemaRef.toString()), "#ALL");
+			result = ValidationUtils.validateSchematron(schemaRef.toString(), "#ALL", xmlSource);
 		}
-		catch (Exception e) {
+		catch (IllegalArgumentException e) {
 			StringBuilder msg = new StringBuilder("Failed to process Schematron schema at ");
 			msg.append(schemaRef).append('\n');
 			msg.append(e.getMessage());
 			throw new AssertionError(msg);
 		}
-		Result result = validator.validate(xmlSource);
-		Assert.assertFalse(validator.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-				validator.getRuleViolationCount(), XMLUtils.resultToString(result)));
+		Assert.assertFalse(result.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+				result.getRuleViolationCount(), XMLUtils.resultToString(result.getResult())));
 	}
 
 	/**
@@ -276,11 +273,10 @@ public class ETSAssert {
 	 * (wfs:WFS_Capabilities}.
 	 */
 	public static void assertSimpleWFSCapabilities(Document doc) {
-		SchematronValidator validator = ValidationUtils.buildSchematronValidator("wfs-capabilities-2.0.sch",
-				"SimpleWFSPhase");
-		Result result = validator.validate(new DOMSource(doc, doc.getDocumentURI()), false);
-		Assert.assertFalse(validator.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-				validator.getRuleViolationCount(), XMLUtils.resultToString(result)));
+		SchematronResult result = ValidationUtils.validateSchematron("wfs-capabilities-2.0.sch", "SimpleWFSPhase",
+				new DOMSource(doc, doc.getDocumentURI()), false);
+		Assert.assertFalse(result.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+				result.getRuleViolationCount(), XMLUtils.resultToString(result.getResult())));
 	}
 
 	/**
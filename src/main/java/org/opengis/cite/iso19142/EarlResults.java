@@ -0,0 +1,368 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Combines the EARL reports ({@value #EARL_FILE_NAME}) of the shards of a test run. A
+ * report is an RDF/XML document in which every test invocation is described by an
+ * earl:Assertion that refers to its test case (earl:test) and contains its result
+ * (earl:result). An EARL report does not identify the arguments of an invocation, so
+ * the assertions about a test case are selected so as to agree with the combined TestNG
+ * results: as many assertions of each verdict are kept as there are invocations with
+ * that verdict (see {@link FeatureTypeShard#mergeResults(List, File)}).
+ */
+final class EarlResults {
+
+	/** The name of the file containing the EARL report of a test run. */
+	static final String EARL_FILE_NAME = "earl-results.rdf";
+
+	private static final String EARL_NS = "http://www.w3.org/ns/earl#";
+
+	private static final String RDF_NS = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+
+	/** The names of the summary counts, by verdict rank (SKIP, PASS, FAIL). */
+	private static final List<String> COUNT_NAMES = List.of("testsSkipped", "testsPassed", "testsFailed");
+
+	private EarlResults() {
+	}
+
+	/**
+	 * Combines several EARL reports. The first report supplies everything but the
+	 * assertions: the test run, the test requirements, the assertor and the test
+	 * subject. Assertions about a test case that has no combined TestNG results are all
+	 * kept. The summary counts of the test run, and of each test requirement that lists
+	 * its test cases, are updated.
+	 * @param earlFiles The EARL reports of the shards.
+	 * @param verdicts The number of invocations of each test method in the combined
+	 * TestNG results, by verdict rank; the key is the class name and method name,
+	 * separated by '#'.
+	 * @param outputFile The file in which to write the combined report.
+	 * @throws IOException If any report cannot be read or written, or if it contains no
+	 * assertions.
+	 */
+	static void merge(List<File> earlFiles, Map<String, int[]> verdicts, File outputFile) throws IOException {
+		Document merged = parse(earlFiles.get(0));
+		List<Element> firstAssertions = findAssertions(merged);
+		if (firstAssertions.isEmpty()) {
+			throw new IOException("No EARL assertions found in " + earlFiles.get(0));
+		}
+		Element template = firstAssertions.get(0);
+		Node container = template.getParentNode();
+		Set<String> identifiers = collectIdentifiers(merged);
+		Map<String, List<Element>> assertionsByTest = new LinkedHashMap<>();
+		addAssertions(assertionsByTest, firstAssertions);
+		for (int i = 1; i < earlFiles.size(); i++) {
+			Document report = parse(earlFiles.get(i));
+			List<Element> imported = new ArrayList<>();
+			for (Element assertion : findAssertions(report)) {
+				importTestCase(merged, report, testReference(assertion), identifiers);
+				imported.add(importAssertion(merged, assertion, template, "-" + (i + 1)));
+			}
+			addAssertions(assertionsByTest, imported);
+		}
+		for (Element assertion : firstAssertions) {
+			assertion.getParentNode().removeChild(assertion);
+		}
+		Map<String, Integer> outcomes = new HashMap<>();
+		int[] totals = new int[COUNT_NAMES.size()];
+		for (Map.Entry<String, List<Element>> entry : assertionsByTest.entrySet()) {
+			int[] counts = findVerdicts(verdicts, entry.getKey());
+			for (Element assertion : select(entry.getValue(), counts)) {
+				container.appendChild(assertion);
+				int rank = outcomeRank(assertion);
+				outcomes.merge(entry.getKey() + '\n' + rank, 1, Integer::sum);
+				totals[rank]++;
+			}
+		}
+		updateCounts(merged, assertionsByTest.keySet(), outcomes, totals);
+		RerunPlan.write(merged, outputFile);
+	}
+
+	/**
+	 * Selects the assertions to keep: for each verdict, as many assertions as there are
+	 * invocations with that verdict. Assertions from the earliest shard are preferred.
+	 * @param assertions The assertions about a test case, in shard order.
+	 * @param counts The number of invocations of each verdict rank, or {@code null} if
+	 * unknown (then all assertions are kept).
+	 * @return The selected assertions, in shard order.
+	 */
+	private static List<Element> select(List<Element> assertions, int[] counts) {
+		if (null == counts) {
+			return assertions;
+		}
+		int[] remaining = counts.clone();
+		List<Element> selected = new ArrayList<>();
+		for (Element assertion : assertions) {
+			int rank = outcomeRank(assertion);
+			if (remaining[rank] > 0) {
+				remaining[rank]--;
+				selected.add(assertion);
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * Finds the TestNG verdicts for a test case. The test case is identified by a URI
+	 * reference whose fragment is the method name and whose path ends with the class
+	 * name ('/' or '.' separating the package names).
+	 */
+	private static int[] findVerdicts(Map<String, int[]> verdicts, String testRef) {
+		String normalizedRef = testRef.replace('/', '.');
+		for (Map.Entry<String, int[]> entry : verdicts.entrySet()) {
+			String key = entry.getKey();
+			int start = normalizedRef.length() - key.length();
+			if (normalizedRef.endsWith(key)
+					&& (start == 0 || !Character.isJavaIdentifierPart(normalizedRef.charAt(start - 1)))) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Copies an assertion into the combined report. Its identifiers (and those of its
+	 * result) are made unique by appending a suffix, and its assertor and test subject
+	 * are replaced by those of the given template, since blank node identifiers are
+	 * local to a report.
+	 */
+	private static Element importAssertion(Document merged, Element assertion, Element template, String suffix) {
+		Element imported = (Element) merged.importNode(assertion, true);
+		for (String property : List.of("assertedBy", "subject")) {
+			Element templateProperty = findChild(template, property);
+			Element importedProperty = findChild(imported, property);
+			if (null != templateProperty && null != importedProperty) {
+				imported.replaceChild(templateProperty.cloneNode(true), importedProperty);
+			}
+		}
+		renameIdentifiers(imported, suffix);
+		Element result = findChild(imported, "result");
+		if (null != result) {
+			for (Element resultNode : childElements(result)) {
+				renameIdentifiers(resultNode, suffix);
+			}
+		}
+		List<Element> nodes = new ArrayList<>(List.of(imported));
+		NodeList descendants = imported.getElementsByTagNameNS("*", "*");
+		for (int i = 0; i < descendants.getLength(); i++) {
+			nodes.add((Element) descendants.item(i));
+		}
+		for (Element node : nodes) {
+			Attr nodeID = node.getAttributeNodeNS(RDF_NS, "nodeID");
+			if (null != nodeID && !isWithin(node, imported, "assertedBy", "subject")) {
+				nodeID.setValue(nodeID.getValue() + suffix);
+			}
+		}
+		return imported;
+	}
+
+	/**
+	 * Copies the description of a test case into the combined report if it is given
+	 * separately from the assertions and is not already present.
+	 */
+	private static void importTestCase(Document merged, Document report, String testRef, Set<String> identifiers) {
+		if (identifiers.contains(testRef)) {
+			return;
+		}
+		for (Element node : childElements(report.getDocumentElement())) {
+			if (testRef.equals(node.getAttributeNS(RDF_NS, "about"))) {
+				merged.getDocumentElement().appendChild(merged.importNode(node, true));
+				identifiers.add(testRef);
+				return;
+			}
+		}
+	}
+
+	private static void renameIdentifiers(Element node, String suffix) {
+		for (String name : List.of("about", "ID")) {
+			Attr attr = node.getAttributeNodeNS(RDF_NS, name);
+			if (null != attr) {
+				attr.setValue(attr.getValue() + suffix);
+			}
+		}
+	}
+
+	private static boolean isWithin(Element node, Element assertion, String... properties) {
+		for (Node ancestor = node; null != ancestor && ancestor != assertion; ancestor = ancestor.getParentNode()) {
+			if (ancestor.getParentNode() == assertion && EARL_NS.equals(ancestor.getNamespaceURI())
+					&& List.of(properties).contains(ancestor.getLocalName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sets the summary counts of the test run and of the test requirements.
+	 * @param testRefs The test cases with assertions.
+	 * @param outcomes The number of assertions, keyed by test case and verdict rank
+	 * (separated by a line feed).
+	 * @param totals The total number of assertions by verdict rank.
+	 */
+	private static void updateCounts(Document merged, Set<String> testRefs, Map<String, Integer> outcomes,
+			int[] totals) {
+		Set<Element> summaries = new HashSet<>();
+		for (String countName : COUNT_NAMES) {
+			NodeList countElements = merged.getElementsByTagNameNS("*", countName);
+			for (int i = 0; i < countElements.getLength(); i++) {
+				summaries.add((Element) countElements.item(i).getParentNode());
+			}
+		}
+		for (Element summary : summaries) {
+			int[] counts = totals;
+			if (!"TestRun".equals(summary.getLocalName())) {
+				Set<String> parts = collectReferences(summary);
+				parts.retainAll(testRefs);
+				if (parts.isEmpty()) {
+					continue;
+				}
+				counts = new int[COUNT_NAMES.size()];
+				for (String testRef : parts) {
+					for (int rank = 0; rank < counts.length; rank++) {
+						counts[rank] += outcomes.getOrDefault(testRef + '\n' + rank, 0);
+					}
+				}
+			}
+			for (Element count : childElements(summary)) {
+				int rank = COUNT_NAMES.indexOf(count.getLocalName());
+				if (rank >= 0) {
+					count.setTextContent(Integer.toString(counts[rank]));
+				}
+			}
+		}
+	}
+
+	private static void addAssertions(Map<String, List<Element>> assertionsByTest, List<Element> assertions) {
+		for (Element assertion : assertions) {
+			assertionsByTest.computeIfAbsent(testReference(assertion), ref -> new ArrayList<>()).add(assertion);
+		}
+	}
+
+	private static List<Element> findAssertions(Document report) {
+		List<Element> assertions = new ArrayList<>();
+		NodeList nodes = report.getElementsByTagNameNS(EARL_NS, "Assertion");
+		for (int i = 0; i < nodes.getLength(); i++) {
+			assertions.add((Element) nodes.item(i));
+		}
+		return assertions;
+	}
+
+	/**
+	 * Returns the reference to the test case of an assertion: either the object of the
+	 * earl:test property or the subject of the nested description.
+	 */
+	private static String testReference(Element assertion) {
+		Element test = findChild(assertion, "test");
+		if (null == test) {
+			return "";
+		}
+		String ref = test.getAttributeNS(RDF_NS, "resource");
+		if (ref.isEmpty()) {
+			List<Element> testCase = childElements(test);
+			if (!testCase.isEmpty()) {
+				ref = testCase.get(0).getAttributeNS(RDF_NS, "about");
+			}
+		}
+		return ref;
+	}
+
+	/**
+	 * Ranks the outcome of an assertion like a TestNG verdict: failed and cantTell (an
+	 * unexpected error) rank as FAIL, passed as PASS, and any other outcome (untested,
+	 * inapplicable) as SKIP.
+	 */
+	private static int outcomeRank(Element assertion) {
+		NodeList outcomes = assertion.getElementsByTagNameNS(EARL_NS, "outcome");
+		if (outcomes.getLength() == 0) {
+			return 0;
+		}
+		String outcome = ((Element) outcomes.item(0)).getAttributeNS(RDF_NS, "resource");
+		switch (outcome.substring(outcome.lastIndexOf('#') + 1)) {
+			case "failed":
+			case "cantTell":
+				return 2;
+			case "passed":
+				return 1;
+			default:
+				return 0;
+		}
+	}
+
+	private static Set<String> collectIdentifiers(Document report) {
+		Set<String> identifiers = new HashSet<>();
+		NodeList nodes = report.getElementsByTagNameNS("*", "*");
+		for (int i = 0; i < nodes.getLength(); i++) {
+			String about = ((Element) nodes.item(i)).getAttributeNS(RDF_NS, "about");
+			if (!about.isEmpty()) {
+				identifiers.add(about);
+			}
+		}
+		return identifiers;
+	}
+
+	private static Set<String> collectReferences(Element node) {
+		Set<String> refs = new HashSet<>();
+		NodeList nodes = node.getElementsByTagNameNS("*", "*");
+		for (int i = 0; i < nodes.getLength(); i++) {
+			NamedNodeMap attrs = nodes.item(i).getAttributes();
+			for (String name : List.of("resource", "about")) {
+				Node attr = attrs.getNamedItemNS(RDF_NS, name);
+				if (null != attr) {
+					refs.add(attr.getNodeValue());
+				}
+			}
+		}
+		return refs;
+	}
+
+	private static Element findChild(Element node, String earlProperty) {
+		for (Element child : childElements(node)) {
+			if (EARL_NS.equals(child.getNamespaceURI()) && earlProperty.equals(child.getLocalName())) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	private static List<Element> childElements(Element node) {
+		List<Element> children = new ArrayList<>();
+		for (Node child = node.getFirstChild(); null != child; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.ELEMENT_NODE) {
+				children.add((Element) child);
+			}
+		}
+		return children;
+	}
+
+	private static Document parse(File file) throws IOException {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			return factory.newDocumentBuilder().parse(file);
+		}
+		catch (IOException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new IOException("Failed to read EARL report from " + file, ex);
+		}
+	}
+
+}
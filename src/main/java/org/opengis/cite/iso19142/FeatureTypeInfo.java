@@ -4,15 +4,17 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 import javax.xml.namespace.QName;
 
 import org.apache.sis.geometry.Envelopes;
 import org.apache.sis.geometry.ImmutableEnvelope;
-import org.apache.sis.referencing.CRS;
+import org.apache.sis.util.Utilities;
 import org.opengis.cite.geomatics.GeodesyUtils;
 import org.opengis.cite.geomatics.time.TemporalUtils;
+import org.opengis.cite.iso19142.util.CRSCache;
 import org.opengis.cite.iso19142.util.TestSuiteLogger;
 import org.opengis.geometry.Envelope;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -39,6 +41,9 @@ public class FeatureTypeInfo {
 
 	private Period temporalExtent;
 
+	/** Acquires sample data on first access if sampling was deferred. */
+	private Consumer<FeatureTypeInfo> sampleDataLoader;
+
 	public FeatureTypeInfo() {
 		this.supportedCRSList = new ArrayList<String>();
 	}
@@ -85,6 +90,7 @@ public class FeatureTypeInfo {
 	 * otherwise.
 	 */
 	public boolean isInstantiated() {
+		loadSampleData();
 		return instantiated;
 	}
 
@@ -94,9 +100,38 @@ public class FeatureTypeInfo {
 	 * available in the data store.
 	 */
 	public void setInstantiated(boolean available) {
+		this.sampleDataLoader = null;
 		this.instantiated = available;
 	}
 
+	/**
+	 * Defers the acquisition of sample data. The given loader is invoked (once) when the
+	 * availability of data or the sample data itself is first requested; it is expected
+	 * to set both.
+	 * @param loader A procedure that acquires sample data for this feature type.
+	 */
+	public synchronized void setSampleDataLoader(Consumer<FeatureTypeInfo> loader) {
+		this.sampleDataLoader = loader;
+	}
+
+	/**
+	 * Indicates whether or not the acquisition of sample data has been deferred and has
+	 * not yet taken place.
+	 * @return {@code true} if sample data will be acquired on first access;
+	 * {@code false} otherwise.
+	 */
+	public synchronized boolean isSampleDataDeferred() {
+		return null != sampleDataLoader;
+	}
+
+	private synchronized void loadSampleData() {
+		Consumer<FeatureTypeInfo> loader = this.sampleDataLoader;
+		if (null != loader) {
+			this.sampleDataLoader = null;
+			loader.accept(this);
+		}
+	}
+
 	/**
 	 * Gets the identifier of the default CRS for this feature type.
 	 * @return A String representing a CRS reference (an absolute URI value).
@@ -130,9 +165,7 @@ public class FeatureTypeInfo {
 	public void setSpatialExtent(Envelope geoExtent) {
 		CoordinateReferenceSystem defaultCRS = null;
 		try {
-			// http-based identifier is not recognized by Geotk v3
-			String crsId = GeodesyUtils.getAbbreviatedCRSIdentifier(getDefaultCRS());
-			defaultCRS = CRS.forCode(crsId);
+			defaultCRS = CRSCache.forIdentifier(getDefaultCRS());
 		}
 		catch (FactoryException fex) {
 			throw new RuntimeException("Default CRS not recognized. " + fex.getMessage());
@@ -140,7 +173,8 @@ public class FeatureTypeInfo {
 		catch (IllegalArgumentException iae) {
 			throw new SkipException("Default CRS is not valid. " + iae.getMessage());
 		}
-		if (!geoExtent.getCoordinateReferenceSystem().equals(defaultCRS)) {
+		// the default CRS may have been parsed from a saved definition
+		if (!Utilities.equalsIgnoreMetadata(geoExtent.getCoordinateReferenceSystem(), defaultCRS)) {
 			Envelope bbox = null;
 			try {
 				bbox = Envelopes.transform(geoExtent, defaultCRS);
@@ -162,6 +196,7 @@ public class FeatureTypeInfo {
 	 * @return A File for reading the GML data, or {@code null} if no data are available.
 	 */
 	public File getSampleData() {
+		loadSampleData();
 		return sampleData;
 	}
 
@@ -170,6 +205,7 @@ public class FeatureTypeInfo {
 	 * @param sampleData A File object.
 	 */
 	public void setSampleData(File sampleData) {
+		this.sampleDataLoader = null;
 		this.sampleData = sampleData;
 	}
 
@@ -178,7 +214,7 @@ public class FeatureTypeInfo {
 		StringBuilder sb = new StringBuilder("FeatureTypeInfo {");
 		sb.append("\n typeName: '").append(typeName);
 		sb.append("',\n supportedCRS: '").append(supportedCRSList);
-		sb.append("',\n instantiated: ").append(instantiated);
+		sb.append("',\n instantiated: ").append((null != sampleDataLoader) ? "deferred" : instantiated);
 		// sb.append(",\n spatial extent:
 		// '").append(Envelopes.toPolygonWKT(getSpatialExtent()));
 		if (temporalExtent != null) {
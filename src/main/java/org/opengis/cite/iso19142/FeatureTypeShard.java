@@ -0,0 +1,217 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * One part (shard) of a test run that is divided among several processes, possibly on
+ * different hosts. The feature types offered by the SUT are partitioned by hashing their
+ * qualified names, so every process assigns a given feature type to the same shard
+ * without any coordination; each process runs the complete test suite but only with the
+ * feature types in its own shard (see {@link TestRunArg#SHARD}).
+ *
+ * <p>
+ * When all shards are complete, their results are combined by
+ * {@link #mergeResults(List, File)}. Test invocations that involve a particular feature
+ * type occur in only one shard; the remaining tests are run in every shard, and the
+ * combined verdict is the worst of them. The EARL reports of the shards are combined
+ * too, if every shard has one.
+ * </p>
+ */
+public class FeatureTypeShard {
+
+	private static final Logger LOGR = Logger.getLogger(FeatureTypeShard.class.getPackage().getName());
+
+	private static final List<String> VERDICT_ORDER = List.of("SKIP", "PASS", "FAIL");
+
+	/** The shard number (1..count). */
+	private final int index;
+
+	private final int count;
+
+	/**
+	 * Creates a shard.
+	 * @param index The shard number, from 1 to the number of shards.
+	 * @param count The number of shards (a positive integer).
+	 */
+	public FeatureTypeShard(int index, int count) {
+		if (count < 1 || index < 1 || index > count) {
+			throw new IllegalArgumentException(
+					String.format("Invalid shard %d/%d: expected 1 <= shard <= count.", index, count));
+		}
+		this.index = index;
+		this.count = count;
+	}
+
+	/**
+	 * Parses the value of the {@link TestRunArg#SHARD shard} test run argument.
+	 * @param value A shard designation of the form "k/N" (e.g. "2/4").
+	 * @return A FeatureTypeShard object.
+	 * @throws IllegalArgumentException If the value is not a valid shard designation.
+	 */
+	public static FeatureTypeShard parse(String value) {
+		String[] parts = value.trim().split("/");
+		if (parts.length != 2) {
+			throw new IllegalArgumentException("Invalid shard (expected k/N): " + value);
+		}
+		try {
+			return new FeatureTypeShard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+		}
+		catch (NumberFormatException nfe) {
+			throw new IllegalArgumentException("Invalid shard (expected k/N): " + value, nfe);
+		}
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Determines whether a feature type is assigned to this shard. The assignment depends
+	 * only on the qualified name of the feature type and the number of shards.
+	 * @param typeName The qualified name of a feature type.
+	 * @return {@code true} if the feature type belongs to this shard; {@code false}
+	 * otherwise.
+	 */
+	public boolean contains(QName typeName) {
+		// String.hashCode is specified, so the result is the same in every JVM
+		int hash = typeName.toString().hashCode();
+		hash ^= (hash >>> 16);
+		return Math.floorMod(hash, count) == index - 1;
+	}
+
+	/**
+	 * Combines the results of all the shards of a test run. The invocations of each test
+	 * method in all shards are collected; if the same invocation occurs in more than one
+	 * shard, the worst verdict is kept (FAIL, then PASS, then SKIP): a test that was
+	 * skipped in one shard but passed in another has passed. The summary counts are
+	 * updated, and the combined results are written to a file named
+	 * {@value RerunPlan#RESULTS_FILE_NAME} in the given directory.
+	 *
+	 * <p>
+	 * If every shard also produced an EARL report ({@value EarlResults#EARL_FILE_NAME}),
+	 * the reports are combined in agreement with the TestNG results (see
+	 * {@link EarlResults}) and written to the same directory.
+	 * </p>
+	 * @param shardResults The results directories of the shards; the latest results in
+	 * each are used (see {@link RerunPlan#fromResults(File)}).
+	 * @param outputDir The directory in which to write the combined results.
+	 * @return The file containing the combined results.
+	 * @throws IOException If any results cannot be read or written.
+	 */
+	public static File mergeResults(List<File> shardResults, File outputDir) throws IOException {
+		if (shardResults.isEmpty()) {
+			throw new IOException("No shard results to merge.");
+		}
+		Document merged = null;
+		Map<String, Element> invocations = new HashMap<>();
+		for (File resultsDir : shardResults) {
+			File resultsFile = RerunPlan.findResults(resultsDir);
+			LOGR.log(Level.CONFIG, "Merging shard results from {0}", resultsFile);
+			Document results = RerunPlan.parse(resultsFile);
+			if (null == merged) {
+				merged = results;
+				NodeList testMethods = merged.getElementsByTagName("test-method");
+				for (int i = 0; i < testMethods.getLength(); i++) {
+					Element testMethod = (Element) testMethods.item(i);
+					if (!RerunPlan.isConfigMethod(testMethod)) {
+						invocations.putIfAbsent(RerunPlan.invocationKey(testMethod), testMethod);
+					}
+				}
+				continue;
+			}
+			NodeList testMethods = results.getElementsByTagName("test-method");
+			for (int i = 0; i < testMethods.getLength(); i++) {
+				Element testMethod = (Element) testMethods.item(i);
+				if (RerunPlan.isConfigMethod(testMethod)) {
+					continue;
+				}
+				String key = RerunPlan.invocationKey(testMethod);
+				Element prevMethod = invocations.get(key);
+				if (null != prevMethod && !isWorse(testMethod, prevMethod)) {
+					continue;
+				}
+				Element imported = (Element) merged.importNode(testMethod, true);
+				if (null != prevMethod) {
+					prevMethod.getParentNode().replaceChild(imported, prevMethod);
+				}
+				else {
+					RerunPlan.findOrAddClass(merged, (Element) testMethod.getParentNode()).appendChild(imported);
+				}
+				invocations.put(key, imported);
+			}
+		}
+		RerunPlan.updateCounts(merged);
+		if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+			throw new IOException("Cannot create output directory " + outputDir);
+		}
+		File mergedFile = new File(outputDir, RerunPlan.RESULTS_FILE_NAME);
+		RerunPlan.write(merged, mergedFile);
+		mergeEarlResults(shardResults, merged, new File(outputDir, EarlResults.EARL_FILE_NAME));
+		return mergedFile;
+	}
+
+	/**
+	 * Combines the EARL reports of the shards, if every shard has one.
+	 * @param shardResults The results directories of the shards.
+	 * @param merged The combined TestNG results.
+	 * @param earlFile The file in which to write the combined EARL report.
+	 * @throws IOException If any EARL report cannot be read or written.
+	 */
+	private static void mergeEarlResults(List<File> shardResults, Document merged, File earlFile)
+			throws IOException {
+		List<File> earlFiles = new ArrayList<>();
+		for (File resultsDir : shardResults) {
+			File shardEarlFile = RerunPlan.findLatest(resultsDir, EarlResults.EARL_FILE_NAME);
+			if (null == shardEarlFile) {
+				LOGR.log(Level.WARNING, "No EARL report found in {0}; EARL reports not merged.", resultsDir);
+				return;
+			}
+			earlFiles.add(shardEarlFile);
+		}
+		Map<String, int[]> verdicts = new LinkedHashMap<>();
+		NodeList testMethods = merged.getElementsByTagName("test-method");
+		for (int i = 0; i < testMethods.getLength(); i++) {
+			Element testMethod = (Element) testMethods.item(i);
+			int rank = verdictRank(testMethod);
+			if (RerunPlan.isConfigMethod(testMethod) || rank < 0) {
+				continue;
+			}
+			String key = ((Element) testMethod.getParentNode()).getAttribute("name") + '#'
+					+ testMethod.getAttribute("name");
+			verdicts.computeIfAbsent(key, k -> new int[VERDICT_ORDER.size()])[rank]++;
+		}
+		EarlResults.merge(earlFiles, verdicts, earlFile);
+	}
+
+	private static boolean isWorse(Element testMethod, Element prevMethod) {
+		return verdictRank(testMethod) > verdictRank(prevMethod);
+	}
+
+	private static int verdictRank(Element testMethod) {
+		return VERDICT_ORDER.indexOf(testMethod.getAttribute("status"));
+	}
+
+	@Override
+	public String toString() {
+		return index + "/" + count;
+	}
+
+}
@@ -0,0 +1,33 @@
+package org.opengis.cite.iso19142;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+/**
+ * Implemented by test classes that make changes to the SUT which are undone later by a
+ * configuration method, such as acquiring locks or inserting features. The changes that
+ * are still pending are recorded in each {@link Checkpoint}, so that they can be undone
+ * if the test run is interrupted and later resumed.
+ */
+public interface PendingChanges {
+
+	/**
+	 * Returns the identifiers of the locks that have been acquired but not yet released.
+	 * @return A collection of lock identifiers (empty by default).
+	 */
+	default Collection<String> getUnreleasedLocks() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Returns the features that have been inserted but not yet deleted.
+	 * @return A map of feature identifiers to feature type names (empty by default).
+	 */
+	default Map<String, QName> getInsertedFeatures() {
+		return Collections.emptyMap();
+	}
+
+}
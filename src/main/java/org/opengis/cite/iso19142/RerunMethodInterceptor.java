@@ -0,0 +1,85 @@
+package org.opengis.cite.iso19142;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+/**
+ * A method interceptor that selects the test methods to run again when a
+ * {@link RerunPlan} is in effect (see {@link SuiteAttribute#RERUN_PLAN}). A test method
+ * is kept if it failed or was skipped in the previous run (or, when resuming an
+ * interrupted run, if it was not completed), or if a kept method depends on it; the
+ * preconditions are always checked. If there is no plan, all methods are run.
+ *
+ * <p>
+ * Data providers also consult the plan in order to supply only the rows (argument lists)
+ * whose invocations failed or were skipped; see {@link BaseFixture}.
+ * </p>
+ */
+public class RerunMethodInterceptor implements IMethodInterceptor {
+
+	private static final Logger LOGR = Logger.getLogger(RerunMethodInterceptor.class.getPackage().getName());
+
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		RerunPlan plan = (RerunPlan) context.getSuite().getAttribute(SuiteAttribute.RERUN_PLAN.getName());
+		if (null == plan) {
+			return methods;
+		}
+		Map<String, ITestNGMethod> methodsByName = new HashMap<>();
+		Deque<ITestNGMethod> pending = new ArrayDeque<>();
+		for (IMethodInstance instance : methods) {
+			ITestNGMethod method = instance.getMethod();
+			methodsByName.put(qualifiedName(method), method);
+			if (method.getRealClass().equals(SuitePreconditions.class)
+					|| plan.includes(method.getRealClass().getName(), method.getMethodName())) {
+				pending.add(method);
+			}
+		}
+		// add the methods that the selected ones depend on
+		Set<ITestNGMethod> selected = new HashSet<>();
+		while (!pending.isEmpty()) {
+			ITestNGMethod method = pending.poll();
+			if (!selected.add(method)) {
+				continue;
+			}
+			for (String dependency : method.getMethodsDependedUpon()) {
+				ITestNGMethod dependedUpon = methodsByName.get(dependency);
+				if (null == dependedUpon) {
+					// declared in a superclass
+					String methodName = dependency.substring(dependency.lastIndexOf('.') + 1);
+					dependedUpon = methodsByName.get(method.getRealClass().getName() + "." + methodName);
+				}
+				if (null != dependedUpon) {
+					pending.add(dependedUpon);
+				}
+			}
+		}
+		List<IMethodInstance> rerun = new ArrayList<>();
+		for (IMethodInstance instance : methods) {
+			if (selected.contains(instance.getMethod())) {
+				rerun.add(instance);
+			}
+		}
+		LOGR.log(Level.CONFIG, "{0}: running {1} of {2} test methods",
+				new Object[] { context.getName(), rerun.size(), methods.size() });
+		return rerun;
+	}
+
+	private static String qualifiedName(ITestNGMethod method) {
+		return method.getRealClass().getName() + "." + method.getMethodName();
+	}
+
+}
@@ -0,0 +1,475 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.opengis.cite.iso19142.util.DataSampler;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * A plan for running only some of the tests, based on the results of a previous test
+ * run. The plan identifies test methods and, for methods that use a data provider, the
+ * particular invocations (rows) to run. It is derived from either:
+ * <ul>
+ * <li>the TestNG results (testng-results.xml) of a completed run, in which case the tests
+ * that failed or were skipped are run again (see {@link #fromResults(File)}); or</li>
+ * <li>the last {@link Checkpoint checkpoint} of an interrupted run, in which case the
+ * tests that had not yet been completed are run (see {@link #fromCheckpoint(File)}).</li>
+ * </ul>
+ *
+ * <p>
+ * The sample data acquired in the previous run are saved with its results (see
+ * {@link #SAMPLE_DATA_DIR}) and may be restored instead of being acquired again. When
+ * the run is complete, its results can be merged with the previous ones to produce a
+ * combined report.
+ * </p>
+ *
+ * <p>
+ * An invocation is identified by the string values of its arguments
+ * ({@link String#valueOf(Object)}), as recorded in the results. The arguments supplied
+ * by a data provider must therefore have a {@code toString} method that yields the same
+ * value for the same argument in every test run (as do ProtocolBinding and QName, for
+ * example); an argument whose string value includes an identity hash code or another
+ * run-specific value never matches, so its invocations are always run.
+ * </p>
+ */
+public class RerunPlan {
+
+	/** The name of the file containing the TestNG results. */
+	public static final String RESULTS_FILE_NAME = "testng-results.xml";
+
+	/** The name of the file containing the combined results of a re-run. */
+	public static final String MERGED_RESULTS_FILE_NAME = "testng-results-merged.xml";
+
+	/** The name of the directory in which the sample data of a test run are saved. */
+	public static final String SAMPLE_DATA_DIR = "sample-data";
+
+	private static final String TEST_METHOD = "test-method";
+
+	private final File resultsDir;
+
+	private final File resultsFile;
+
+	/** Indicates whether an interrupted run is being resumed. */
+	private final boolean resume;
+
+	/**
+	 * The recorded invocations: test class name to method name to the string values of
+	 * the arguments of each invocation. These are the invocations to repeat or, when
+	 * resuming, those to skip.
+	 */
+	private final Map<String, Map<String, Set<List<String>>>> invocations = new HashMap<>();
+
+	private RerunPlan(File resultsDir, File resultsFile, boolean resume) {
+		this.resultsDir = resultsDir;
+		this.resultsFile = resultsFile;
+		this.resume = resume;
+	}
+
+	/**
+	 * Creates a plan from the results of a previous test run.
+	 * @param location The location of the results directory (a file system path or a
+	 * 'file' URI), as given by the {@link TestRunArg#RERUN_FROM rerun_from} argument.
+	 * @return A RerunPlan object.
+	 * @throws IOException If no TestNG results are found or they cannot be read.
+	 */
+	public static RerunPlan fromResults(String location) throws IOException {
+		return fromResults(toFile(location));
+	}
+
+	/**
+	 * Creates a plan from the results of a previous test run.
+	 * @param resultsDir The results directory of a test run; if it contains the results
+	 * of more than one run, the latest one is used. If that was itself a re-run, its
+	 * combined results are used.
+	 * @return A RerunPlan object.
+	 * @throws IOException If no TestNG results are found or they cannot be read.
+	 */
+	public static RerunPlan fromResults(File resultsDir) throws IOException {
+		File resultsFile = findResults(resultsDir);
+		RerunPlan plan = new RerunPlan(resultsDir, resultsFile, false);
+		plan.addInvocations(parse(resultsFile), "FAIL", "SKIP");
+		return plan;
+	}
+
+	/**
+	 * Finds the latest TestNG results in a results directory. If they are the results of
+	 * a re-run, the combined results are returned instead.
+	 * @param resultsDir The results directory of a test run.
+	 * @return A File referring to a testng-results.xml or
+	 * {@value #MERGED_RESULTS_FILE_NAME} file.
+	 * @throws IOException If no TestNG results are found.
+	 */
+	static File findResults(File resultsDir) throws IOException {
+		File resultsFile = findLatest(resultsDir, RESULTS_FILE_NAME);
+		if (null == resultsFile) {
+			throw new IOException("No test results (" + RESULTS_FILE_NAME + ") found in " + resultsDir);
+		}
+		// the results of a re-run are partial; use the combined results instead
+		File mergedFile = findLatest(resultsDir, MERGED_RESULTS_FILE_NAME);
+		if (null != mergedFile && mergedFile.lastModified() >= resultsFile.lastModified()) {
+			resultsFile = mergedFile;
+		}
+		return resultsFile;
+	}
+
+	/**
+	 * Creates a plan for resuming an interrupted test run from its last checkpoint.
+	 * @param location The location of the results directory of the interrupted run (a
+	 * file system path or a 'file' URI), as given by the {@link TestRunArg#RESUME_FROM
+	 * resume_from} argument.
+	 * @return A RerunPlan object.
+	 * @throws IOException If no checkpoint is found or it cannot be read.
+	 */
+	public static RerunPlan fromCheckpoint(String location) throws IOException {
+		return fromCheckpoint(toFile(location));
+	}
+
+	/**
+	 * Creates a plan for resuming an interrupted test run from its last checkpoint. The
+	 * tests whose verdicts were recorded are not run again.
+	 * @param resultsDir The results directory of the interrupted run; if it contains more
+	 * than one checkpoint, the latest one is used.
+	 * @return A RerunPlan object.
+	 * @throws IOException If no checkpoint is found or it cannot be read.
+	 */
+	public static RerunPlan fromCheckpoint(File resultsDir) throws IOException {
+		File checkpointFile = findLatest(resultsDir, Checkpoint.CHECKPOINT_FILE_NAME);
+		if (null == checkpointFile) {
+			throw new IOException("No checkpoint (" + Checkpoint.CHECKPOINT_FILE_NAME + ") found in " + resultsDir);
+		}
+		RerunPlan plan = new RerunPlan(resultsDir, checkpointFile, true);
+		plan.addInvocations(parse(checkpointFile), "PASS", "FAIL", "SKIP");
+		return plan;
+	}
+
+	private void addInvocations(Document results, String... statusValues) {
+		List<String> statusList = Arrays.asList(statusValues);
+		NodeList testMethods = results.getElementsByTagName(TEST_METHOD);
+		for (int i = 0; i < testMethods.getLength(); i++) {
+			Element testMethod = (Element) testMethods.item(i);
+			if (isConfigMethod(testMethod) || !statusList.contains(testMethod.getAttribute("status"))) {
+				continue;
+			}
+			Element testClass = (Element) testMethod.getParentNode();
+			this.invocations.computeIfAbsent(testClass.getAttribute("name"), key -> new HashMap<>())
+				.computeIfAbsent(testMethod.getAttribute("name"), key -> new HashSet<>())
+				.add(parameterValues(testMethod));
+		}
+	}
+
+	/**
+	 * Returns the results from which this plan was derived.
+	 * @return A File referring to a testng-results.xml file or a checkpoint.
+	 */
+	public File getResultsFile() {
+		return resultsFile;
+	}
+
+	/**
+	 * Indicates whether this plan resumes an interrupted test run.
+	 * @return {@code true} if the plan was created from a checkpoint; {@code false} if
+	 * it repeats the failed and skipped tests of a completed run.
+	 */
+	public boolean isResume() {
+		return resume;
+	}
+
+	/**
+	 * Indicates whether any tests are to be re-run.
+	 * @return {@code true} if all tests passed in the previous run; {@code false}
+	 * otherwise. A plan for resuming a test run is never empty.
+	 */
+	public boolean isEmpty() {
+		return !resume && invocations.isEmpty();
+	}
+
+	/**
+	 * Determines whether a test method is to be run.
+	 * @param className The fully qualified name of the test class.
+	 * @param methodName The name of the test method.
+	 * @return {@code true} if the method failed or was skipped in any invocation or,
+	 * when resuming, if it has not been completed (or uses a data provider).
+	 */
+	public boolean includes(String className, String methodName) {
+		Map<String, Set<List<String>>> methods = invocations.get(className);
+		if (resume) {
+			return null == methods || !methods.getOrDefault(methodName, Set.of()).contains(List.of());
+		}
+		return null != methods && methods.containsKey(methodName);
+	}
+
+	/**
+	 * Determines whether a particular invocation of a test method is to be run.
+	 * @param className The fully qualified name of the test class.
+	 * @param methodName The name of the test method.
+	 * @param args The arguments supplied by a data provider.
+	 * @return {@code true} if the invocation with these arguments failed or was skipped
+	 * or, when resuming, if it has not been completed.
+	 */
+	public boolean includes(String className, String methodName, Object[] args) {
+		Map<String, Set<List<String>>> methods = invocations.get(className);
+		boolean recorded = null != methods && methods.containsKey(methodName)
+				&& methods.get(methodName).contains(argumentValues(args));
+		return resume ? !recorded : recorded;
+	}
+
+	/**
+	 * Selects the rows supplied by a data provider that are to be run. If the method is
+	 * not one of those to be re-run (it is run only because another one depends on it),
+	 * all rows are kept.
+	 * @param className The fully qualified name of the test class.
+	 * @param methodName The name of the test method.
+	 * @param rows The rows (argument lists) supplied by a data provider.
+	 * @return An iterator over the rows whose invocations failed or were skipped or, when
+	 * resuming, have not been completed.
+	 */
+	public Iterator<Object[]> filter(String className, String methodName, Iterator<Object[]> rows) {
+		if (!resume && !includes(className, methodName)) {
+			return rows;
+		}
+		List<Object[]> selected = new ArrayList<>();
+		while (rows.hasNext()) {
+			Object[] row = rows.next();
+			if (includes(className, methodName, row)) {
+				selected.add(row);
+			}
+		}
+		return selected.iterator();
+	}
+
+	/**
+	 * Gets the string values of the arguments of a test method invocation, as they are
+	 * recorded in the test results. These identify the invocation, so they must be stable
+	 * across test runs.
+	 * @param args The arguments supplied by a data provider.
+	 * @return A list of argument values.
+	 */
+	static List<String> argumentValues(Object[] args) {
+		List<String> values = new ArrayList<>(args.length);
+		for (Object arg : args) {
+			values.add(String.valueOf(arg));
+		}
+		return values;
+	}
+
+	/**
+	 * Finds the sample data saved in the previous test run.
+	 * @return The directory containing the saved sample data, or {@code null} if there
+	 * are none.
+	 */
+	public File findSampleData() {
+		File index = findLatest(this.resultsDir, DataSampler.SNAPSHOT_INDEX);
+		return (null != index) ? index.getParentFile() : null;
+	}
+
+	/**
+	 * Merges the results of a re-run with the previous results. The verdict of each
+	 * repeated invocation replaces the previous one, and the summary counts are updated.
+	 * The combined results are written to a file named
+	 * {@value #MERGED_RESULTS_FILE_NAME} in the same directory as the new results.
+	 * @param newResults The TestNG results of the re-run.
+	 * @return The file containing the combined results.
+	 * @throws IOException If the results cannot be read or written.
+	 */
+	public File mergeResults(File newResults) throws IOException {
+		Document merged = parse(this.resultsFile);
+		Map<String, Element> previous = new HashMap<>();
+		NodeList prevMethods = merged.getElementsByTagName(TEST_METHOD);
+		for (int i = 0; i < prevMethods.getLength(); i++) {
+			Element testMethod = (Element) prevMethods.item(i);
+			if (!isConfigMethod(testMethod)) {
+				previous.put(invocationKey(testMethod), testMethod);
+			}
+		}
+		NodeList newMethods = parse(newResults).getElementsByTagName(TEST_METHOD);
+		for (int i = 0; i < newMethods.getLength(); i++) {
+			Element testMethod = (Element) newMethods.item(i);
+			if (isConfigMethod(testMethod)) {
+				continue;
+			}
+			Node imported = merged.importNode(testMethod, true);
+			Element prevMethod = previous.get(invocationKey(testMethod));
+			if (null != prevMethod) {
+				prevMethod.getParentNode().replaceChild(imported, prevMethod);
+			}
+			else {
+				findOrAddClass(merged, (Element) testMethod.getParentNode()).appendChild(imported);
+			}
+		}
+		updateCounts(merged);
+		File mergedFile = new File(newResults.getParentFile(), MERGED_RESULTS_FILE_NAME);
+		write(merged, mergedFile);
+		return mergedFile;
+	}
+
+	/**
+	 * Writes combined test results to a file.
+	 * @param results A Document containing TestNG results.
+	 * @param file The destination file.
+	 * @throws IOException If the results cannot be written.
+	 */
+	static void write(Document results, File file) throws IOException {
+		try {
+			Transformer transformer = TransformerFactory.newInstance().newTransformer();
+			transformer.transform(new DOMSource(results), new StreamResult(file));
+		}
+		catch (Exception ex) {
+			throw new IOException("Failed to write merged results to " + file, ex);
+		}
+	}
+
+	private static File toFile(String location) throws IOException {
+		String path = location.trim();
+		try {
+			return path.startsWith("file:") ? new File(URI.create(path)) : new File(path);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IOException("Invalid results location: " + location, ex);
+		}
+	}
+
+	/**
+	 * Finds the most recently modified file with the given name in a directory tree.
+	 * @param dir The root directory.
+	 * @param fileName The file name.
+	 * @return The latest matching file, or {@code null} if there is none.
+	 */
+	static File findLatest(File dir, String fileName) {
+		if (!dir.isDirectory()) {
+			return null;
+		}
+		try (Stream<Path> paths = Files.walk(dir.toPath())) {
+			return paths.filter(path -> path.getFileName().toString().equals(fileName))
+				.map(Path::toFile)
+				.max((f1, f2) -> Long.compare(f1.lastModified(), f2.lastModified()))
+				.orElse(null);
+		}
+		catch (IOException | UncheckedIOException ex) {
+			return null;
+		}
+	}
+
+	static Document parse(File file) throws IOException {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+			return factory.newDocumentBuilder().parse(file);
+		}
+		catch (IOException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new IOException("Failed to read test results from " + file, ex);
+		}
+	}
+
+	static boolean isConfigMethod(Element testMethod) {
+		return Boolean.parseBoolean(testMethod.getAttribute("is-config"));
+	}
+
+	private static List<String> parameterValues(Element testMethod) {
+		List<String> values = new ArrayList<>();
+		NodeList params = testMethod.getElementsByTagName("param");
+		for (int i = 0; i < params.getLength(); i++) {
+			Element param = (Element) params.item(i);
+			NodeList valueList = param.getElementsByTagName("value");
+			if (valueList.getLength() == 0) {
+				values.add("");
+				continue;
+			}
+			Element value = (Element) valueList.item(0);
+			// XMLReporter puts the CDATA section on its own indented line
+			values.add(Boolean.parseBoolean(value.getAttribute("is-null")) ? "null" : value.getTextContent().trim());
+		}
+		return Collections.unmodifiableList(values);
+	}
+
+	static String invocationKey(Element testMethod) {
+		Element testClass = (Element) testMethod.getParentNode();
+		return testClass.getAttribute("name") + '#' + testMethod.getAttribute("name") + parameterValues(testMethod);
+	}
+
+	static Element findOrAddClass(Document results, Element newClass) {
+		String className = newClass.getAttribute("name");
+		NodeList classes = results.getElementsByTagName("class");
+		for (int i = 0; i < classes.getLength(); i++) {
+			Element testClass = (Element) classes.item(i);
+			if (testClass.getAttribute("name").equals(className)) {
+				return testClass;
+			}
+		}
+		Element testClass = results.createElement("class");
+		testClass.setAttribute("name", className);
+		Element test = (Element) newClass.getParentNode();
+		NodeList tests = results.getElementsByTagName("test");
+		Element parent = null;
+		for (int i = 0; i < tests.getLength() && null == parent; i++) {
+			if (((Element) tests.item(i)).getAttribute("name").equals(test.getAttribute("name"))) {
+				parent = (Element) tests.item(i);
+			}
+		}
+		if (null == parent) {
+			parent = (Element) results.getElementsByTagName("suite").item(0);
+		}
+		parent.appendChild(testClass);
+		return testClass;
+	}
+
+	static void updateCounts(Document results) {
+		int passed = 0;
+		int failed = 0;
+		int skipped = 0;
+		int total = 0;
+		NodeList testMethods = results.getElementsByTagName(TEST_METHOD);
+		for (int i = 0; i < testMethods.getLength(); i++) {
+			Element testMethod = (Element) testMethods.item(i);
+			if (isConfigMethod(testMethod)) {
+				continue;
+			}
+			total++;
+			switch (testMethod.getAttribute("status")) {
+				case "PASS":
+					passed++;
+					break;
+				case "FAIL":
+					failed++;
+					break;
+				case "SKIP":
+					skipped++;
+					break;
+				default:
+					break;
+			}
+		}
+		Element root = results.getDocumentElement();
+		root.setAttribute("passed", Integer.toString(passed));
+		root.setAttribute("failed", Integer.toString(failed));
+		root.setAttribute("skipped", Integer.toString(skipped));
+		root.setAttribute("total", Integer.toString(total));
+	}
+
+}
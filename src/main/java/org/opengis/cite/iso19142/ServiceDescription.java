@@ -0,0 +1,179 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+import org.opengis.cite.iso19142.util.CapabilitiesModel;
+import org.opengis.cite.iso19142.util.CapabilitiesReader;
+import org.opengis.cite.iso19142.util.URIUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+/**
+ * The service description (WFS capabilities document) of the SUT. The entity is
+ * retrieved once and kept in a local file. It is read in a single streaming pass (see
+ * {@link CapabilitiesReader}) to build the {@link CapabilitiesModel}, which provides the
+ * feature type information and operation metadata used by most tests. A DOM is built
+ * only when a test needs the nodes themselves, e.g. to validate the document or to
+ * evaluate an XPath expression against it (see {@link #getDocument()}).
+ *
+ * If the entity contains XML inclusions (or is not in a local file or available over
+ * HTTP), the DOM is built immediately and the model is read from it.
+ */
+public class ServiceDescription {
+
+	private static final Logger LOGR = Logger.getLogger(ServiceDescription.class.getName());
+
+	private final URI location;
+
+	/** The local copy of the entity, or {@code null} if it was parsed immediately. */
+	private final File entity;
+
+	private final boolean temporary;
+
+	private volatile CapabilitiesModel model;
+
+	private Document document;
+
+	private Document summary;
+
+	private ServiceDescription(URI location, File entity, boolean temporary, CapabilitiesModel model,
+			Document document) {
+		this.location = location;
+		this.entity = entity;
+		this.temporary = temporary;
+		this.model = model;
+		this.document = document;
+	}
+
+	/**
+	 * Retrieves the service description and reads its model.
+	 * @param location An absolute URI that refers to the service description.
+	 * @return A ServiceDescription whose model has been read.
+	 * @throws IOException If the resource cannot be retrieved or read.
+	 * @throws SAXException If the entity is not well-formed XML.
+	 * @throws IllegalArgumentException If the entity is not a WFS capabilities document.
+	 */
+	public static ServiceDescription read(URI location) throws IOException, SAXException {
+		String scheme = location.getScheme();
+		if (!scheme.equalsIgnoreCase("file") && !scheme.equalsIgnoreCase("http")
+				&& !scheme.equalsIgnoreCase("https")) {
+			Document doc = URIUtils.resolveURIAsDocument(location);
+			checkDocumentElement(doc);
+			return new ServiceDescription(location, null, false, CapabilitiesModel.of(doc), doc);
+		}
+		boolean temporary = !scheme.equalsIgnoreCase("file");
+		File entity = URIUtils.resolveURIAsFile(location);
+		try {
+			CapabilitiesModel model = CapabilitiesReader.read(entity);
+			LOGR.log(Level.CONFIG, "Read service description from {0}", location);
+			return new ServiceDescription(location, entity, temporary, model, null);
+		}
+		catch (XMLStreamException xse) {
+			// not read as a stream (e.g. contains XML inclusions)
+			LOGR.log(Level.CONFIG, "Parsing service description from {0}: {1}",
+					new Object[] { location, xse.getMessage() });
+		}
+		try {
+			Document doc = URIUtils.parseFileAsDocument(entity, location);
+			checkDocumentElement(doc);
+			return new ServiceDescription(location, null, false, CapabilitiesModel.of(doc), doc);
+		}
+		finally {
+			if (temporary) {
+				entity.delete();
+			}
+		}
+	}
+
+	private static void checkDocumentElement(Document doc) {
+		Element docElem = doc.getDocumentElement();
+		QName qName = new QName(docElem.getNamespaceURI(), docElem.getLocalName());
+		if (!qName.equals(WFS2.QNAME_WFS_CAPABILITIES)) {
+			throw new IllegalArgumentException("Not a WFS2 capabilities document: " + qName);
+		}
+	}
+
+	/**
+	 * Returns the location of the service description.
+	 * @return An absolute URI.
+	 */
+	public URI getLocation() {
+		return location;
+	}
+
+	/**
+	 * Returns the model of the service description.
+	 * @return An immutable CapabilitiesModel.
+	 */
+	public CapabilitiesModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Replaces the model of the service description (e.g. with one that offers only the
+	 * feature types in one shard of the test run). This must be done before the
+	 * documents are obtained.
+	 * @param model The model to use from now on.
+	 */
+	synchronized void setModel(CapabilitiesModel model) {
+		this.model = model;
+		if (null != this.document) {
+			CapabilitiesModel.associate(this.document, model);
+		}
+		this.summary = null;
+	}
+
+	/**
+	 * Returns the service description as a DOM Document. The entity is parsed when this
+	 * method is first called; the document is associated with the model. A DOM is not
+	 * safe for concurrent use, so callers that may run concurrently should use their own
+	 * copy.
+	 * @return A Document whose document element is wfs:WFS_Capabilities.
+	 */
+	public synchronized Document getDocument() {
+		if (null == this.document) {
+			try {
+				Document doc = URIUtils.parseFileAsDocument(this.entity, this.location);
+				CapabilitiesModel.associate(doc, this.model);
+				this.document = doc;
+				LOGR.log(Level.CONFIG, "Parsed service description from {0}", this.location);
+			}
+			catch (SAXException | IOException ex) {
+				throw new RuntimeException("Failed to parse resource located at " + this.location, ex);
+			}
+		}
+		return this.document;
+	}
+
+	/**
+	 * Returns a document that stands in for the service description wherever only its
+	 * model is consulted (see {@link CapabilitiesModel#createSummaryDocument(String)}).
+	 * No DOM is built for the entity itself.
+	 * @return A Document associated with the model.
+	 */
+	public synchronized Document getSummaryDocument() {
+		if (null == this.summary) {
+			this.summary = this.model.createSummaryDocument(this.location.toString());
+		}
+		return this.summary;
+	}
+
+	/**
+	 * Deletes the local copy of the entity if it was retrieved from a remote location.
+	 * The DOM can no longer be built afterwards unless it already was.
+	 */
+	public synchronized void dispose() {
+		if (this.temporary && null != this.entity) {
+			this.entity.delete();
+		}
+	}
+
+}
@@ -5,6 +5,9 @@ import java.util.Map;
 
 import javax.xml.validation.Schema;
 
+import org.opengis.cite.iso19142.util.AppSchemaRegistry;
+import org.opengis.cite.iso19142.util.CapabilitiesCache;
+import org.opengis.cite.iso19142.util.CapabilitiesModel;
 import org.opengis.cite.iso19142.util.DataSampler;
 import org.w3c.dom.Document;
 
@@ -17,9 +20,26 @@ public enum SuiteAttribute {
 
 	/**
 	 * A DOM Document describing the WFS under test. This is typically a WFS capabilities
-	 * document.
+	 * document. It is set when first needed (see
+	 * {@link BaseFixture#getServiceDescription(org.testng.ISuite)}).
 	 */
 	TEST_SUBJECT("testSubject", Document.class),
+	/**
+	 * The {@link ServiceDescription} of the WFS under test, from which the
+	 * {@link #TEST_SUBJECT testSubject} document is parsed on demand.
+	 */
+	SERVICE_DESCRIPTION("serviceDescription", ServiceDescription.class),
+	/**
+	 * An immutable {@link CapabilitiesModel} summarizing the service description.
+	 */
+	CAPABILITIES_MODEL("capabilitiesModel", CapabilitiesModel.class),
+	/**
+	 * A {@link CapabilitiesCache} that merges capabilities sections retrieved from the
+	 * WFS under test into a capabilities model. It is set when the availability of the
+	 * SUT is checked; its model is kept apart from the
+	 * {@link #CAPABILITIES_MODEL capabilitiesModel}, which describes the test subject.
+	 */
+	CAPABILITIES_CACHE("capabilitiesCache", CapabilitiesCache.class),
 	/**
 	 * An immutable Schema object representing the complete WFS 2.0 schema (wfs.xsd).
 	 */
@@ -33,6 +53,16 @@ public enum SuiteAttribute {
 	 * A DataSampler object that obtains sample data from the WFS under test.
 	 */
 	SAMPLER("sampler", DataSampler.class),
+	/**
+	 * An {@link AppSchemaRegistry} that loads the application schemas for the feature
+	 * types offered by the WFS under test (by namespace, on demand).
+	 */
+	APP_SCHEMA_REGISTRY("appSchemaRegistry", AppSchemaRegistry.class),
+	/**
+	 * A {@link SuiteWarmUp} object that provides the results of the suite set-up tasks
+	 * (e.g. sample data) as they become available.
+	 */
+	SUITE_WARM_UP("suiteWarmUp", SuiteWarmUp.class),
 	/**
 	 * A {@literal List<String>} of test suite preconditions that were not satisfied.
 	 */
@@ -40,7 +70,12 @@ public enum SuiteAttribute {
 	/**
 	 * The highest specification version supported by the IUT.
 	 */
-	WFS_VERSION("wfsVersion", String.class);
+	WFS_VERSION("wfsVersion", String.class),
+	/**
+	 * A {@link RerunPlan} that identifies the tests to run again (present only if the
+	 * {@link TestRunArg#RERUN_FROM rerun_from} argument was given).
+	 */
+	RERUN_PLAN("rerunPlan", RerunPlan.class);
 
 	private final Class attrType;
 
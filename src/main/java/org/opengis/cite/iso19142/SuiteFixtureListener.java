@@ -1,28 +1,36 @@
 package org.opengis.cite.iso19142;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.ConnectException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.xml.namespace.QName;
 import javax.xml.validation.Schema;
 
+import org.opengis.cite.iso19142.util.AppSchemaRegistry;
+import org.opengis.cite.iso19142.util.CapabilitiesModel;
+import org.opengis.cite.iso19142.util.DataSampler;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.opengis.cite.iso19142.util.URIUtils;
-import org.opengis.cite.iso19142.util.ValidationUtils;
-import org.opengis.cite.iso19142.util.XMLUtils;
+import org.testng.IAlterSuiteListener;
 import org.testng.ISuite;
 import org.testng.ISuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 /**
@@ -36,37 +44,298 @@ import org.xml.sax.SAXException;
  * contexts (ITestContext). However, suite attributes are still accessible from lower
  * contexts.
  *
+ * Before the suite is run, the test sets for conformance classes that the SUT does not
+ * claim to implement are pruned (see {@link #alter(List)}), so that their test classes
+ * are never instantiated.
+ *
  * @see org.testng.ISuite ISuite interface
  */
-public class SuiteFixtureListener implements ISuiteListener {
+public class SuiteFixtureListener implements ISuiteListener, IAlterSuiteListener {
 
 	private final static Logger LOGR = Logger.getLogger(SuiteFixtureListener.class.getName());
 
+	/**
+	 * The name of the test parameter that indicates the classes in a test set must not be
+	 * run concurrently.
+	 */
+	static final String SEQUENTIAL_PARAM = "sequential";
+
+	/**
+	 * The name of the test parameter that lists the conformance classes (constraint
+	 * names, comma-separated) that the SUT must claim in order for the tests in a test
+	 * set to be run.
+	 */
+	static final String CONFORMANCE_PARAM = "conformance";
+
+	/**
+	 * The name of the test parameter that gives the reason why the tests in a test set
+	 * were pruned.
+	 */
+	static final String PRUNED_PARAM = "prunedReason";
+
+	/** Service descriptions read before the suite was started, by location. */
+	private final Map<URI, ServiceDescription> prefetchedDescriptions = new ConcurrentHashMap<>();
+
+	/**
+	 * Prunes the test sets for conformance classes that the SUT does not claim to
+	 * implement, before TestNG instantiates their test classes. The service description
+	 * is retrieved (once; it is used again when the suite starts) and the conformance
+	 * claims are read from it; see {@link #pruneTestSets(XmlSuite, CapabilitiesModel)}.
+	 * If the service description is not available yet or cannot be read, nothing is
+	 * changed and the tests check the claims when they are run.
+	 * @param suites The suites to be run.
+	 */
+	@Override
+	public void alter(List<XmlSuite> suites) {
+		for (XmlSuite xmlSuite : suites) {
+			CapabilitiesModel model = prefetchCapabilities(xmlSuite.getParameters());
+			if (null != model) {
+				pruneTestSets(xmlSuite, model);
+			}
+		}
+	}
+
+	/**
+	 * Prunes each test set whose {@value #CONFORMANCE_PARAM} parameter names a
+	 * conformance class that is not claimed: its test classes are replaced by
+	 * {@link UnclaimedConformanceClass}, which reports the test set as skipped. The
+	 * reason is given by the {@value #PRUNED_PARAM} parameter.
+	 * @param xmlSuite The suite to be run.
+	 * @param model The model of the service description.
+	 */
+	void pruneTestSets(XmlSuite xmlSuite, CapabilitiesModel model) {
+		for (XmlTest xmlTest : xmlSuite.getTests()) {
+			String claims = xmlTest.getLocalParameters().get(CONFORMANCE_PARAM);
+			if (null == claims || claims.isBlank()) {
+				continue;
+			}
+			for (String claim : claims.split(",")) {
+				if (model.implementsConformanceClass(claim.trim())) {
+					continue;
+				}
+				xmlTest.addParameter(PRUNED_PARAM, ErrorMessage.format(ErrorMessageKeys.NOT_IMPLEMENTED, claim.trim()));
+				XmlClass placeholder = new XmlClass(UnclaimedConformanceClass.class);
+				placeholder.setXmlTest(xmlTest);
+				xmlTest.setXmlPackages(new ArrayList<>());
+				xmlTest.setXmlClasses(new ArrayList<>(List.of(placeholder)));
+				LOGR.log(Level.CONFIG, "Pruned test set {0}: {1} is not claimed",
+						new Object[] { xmlTest.getName(), claim.trim() });
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Retrieves and reads the service description referenced by the test run arguments.
+	 * It is kept so that it is not retrieved or read again by
+	 * {@link #processWfsParameter(ISuite)}.
+	 * @param params The test run arguments.
+	 * @return The model of the service description, or {@code null} if it is not
+	 * available.
+	 */
+	private CapabilitiesModel prefetchCapabilities(Map<String, String> params) {
+		String iutRef = params.get(TestRunArg.IUT.toString());
+		String wfsRef = (null != iutRef) ? iutRef : params.get(TestRunArg.WFS.toString());
+		if (null == wfsRef || wfsRef.isBlank()) {
+			return null;
+		}
+		try {
+			URI wfsURI = URI.create(wfsRef);
+			if (!wfsURI.isAbsolute()) {
+				return null;
+			}
+			ServiceDescription description = ServiceDescription.read(wfsURI);
+			this.prefetchedDescriptions.put(wfsURI, description);
+			return description.getModel();
+		}
+		catch (IOException | SAXException | IllegalArgumentException ex) {
+			// the suite will fail when it starts if this persists
+			LOGR.log(Level.CONFIG, "Conformance claims will be checked when the tests are run: {0}", ex.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Starts the suite set-up tasks (see {@link SuiteWarmUp}) and waits for those whose
+	 * results are needed before any test is run: processing the service description and
+	 * compiling the WFS schema. The {@link SuiteAttribute#SUITE_WARM_UP suiteWarmUp}
+	 * attribute provides access to the remaining results.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 */
 	@Override
 	public void onStart(ISuite suite) {
-		Schema wfsSchema = ValidationUtils.createWFSSchema();
+		configureParallelMode(suite);
+		setRerunPlan(suite);
+		SuiteWarmUp warmUp = SuiteWarmUp.start(suite, this);
+		suite.setAttribute(SuiteAttribute.SUITE_WARM_UP.getName(), warmUp);
+		warmUp.awaitCapabilities();
+		undoPendingChanges(suite);
+		Schema wfsSchema = warmUp.awaitWFSSchema();
 		if (null != wfsSchema) {
 			suite.setAttribute(SuiteAttribute.WFS_SCHEMA.getName(), wfsSchema);
 		}
-		processWfsParameter(suite);
-		setAppSchemaParameter(suite);
 		LOGR.log(Level.CONFIG, "Initial test run parameters:\n{0}", suite.getXmlSuite().getAllParameters());
 	}
 
+	/**
+	 * Saves a snapshot of the sample data (see {@link #saveSampleData(ISuite)}), so that
+	 * a later test run can re-run the tests that failed or were skipped using the same
+	 * data. The local copy of the service description is then deleted.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 */
 	@Override
 	public void onFinish(ISuite suite) {
+		saveSampleData(suite);
+		ServiceDescription description = (ServiceDescription) suite
+			.getAttribute(SuiteAttribute.SERVICE_DESCRIPTION.getName());
+		if (null != description) {
+			description.dispose();
+		}
+	}
+
+	/**
+	 * Saves a snapshot of the sample data in the suite output directory (in the
+	 * {@value RerunPlan#SAMPLE_DATA_DIR} subdirectory). This is done when the suite
+	 * finishes and whenever a {@link Checkpoint checkpoint} finds that more feature types
+	 * have been sampled; each snapshot replaces the previous one.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 * @return {@code true} if the snapshot was saved; {@code false} if there are no
+	 * sample data or the snapshot could not be written.
+	 */
+	static boolean saveSampleData(ISuite suite) {
+		DataSampler sampler = (DataSampler) suite.getAttribute(SuiteAttribute.SAMPLER.getName());
+		if (null == sampler || null == suite.getOutputDirectory()) {
+			return false;
+		}
+		File snapshotDir = new File(suite.getOutputDirectory(), RerunPlan.SAMPLE_DATA_DIR);
+		synchronized (sampler) {
+			try {
+				sampler.saveSnapshot(snapshotDir);
+				LOGR.log(Level.CONFIG, "Saved sample data in {0}", snapshotDir);
+				return true;
+			}
+			catch (IOException iox) {
+				LOGR.log(Level.WARNING, "Failed to save sample data in " + snapshotDir, iox);
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Processes the {@link TestRunArg#RESUME_FROM resume_from} or
+	 * {@link TestRunArg#RERUN_FROM rerun_from} test run argument (the former takes
+	 * precedence). If one is present, the {@link RerunPlan} derived from the previous
+	 * results is set as the value of the {@link SuiteAttribute#RERUN_PLAN rerunPlan}
+	 * suite attribute; the {@link RerunMethodInterceptor} and the data providers then
+	 * select the tests to run. If the previous results cannot be read, all tests are run.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 */
+	void setRerunPlan(ISuite suite) {
+		Map<String, String> params = suite.getXmlSuite().getParameters();
+		String resumeFrom = params.get(TestRunArg.RESUME_FROM.toString());
+		String rerunFrom = params.get(TestRunArg.RERUN_FROM.toString());
+		try {
+			RerunPlan plan;
+			if (null != resumeFrom && !resumeFrom.isBlank()) {
+				plan = RerunPlan.fromCheckpoint(resumeFrom);
+				LOGR.log(Level.CONFIG, "Resuming test run from checkpoint {0}", plan.getResultsFile());
+			}
+			else if (null != rerunFrom && !rerunFrom.isBlank()) {
+				plan = RerunPlan.fromResults(rerunFrom);
+				LOGR.log(Level.CONFIG, "Re-running failed and skipped tests from {0}", plan.getResultsFile());
+			}
+			else {
+				return;
+			}
+			suite.setAttribute(SuiteAttribute.RERUN_PLAN.getName(), plan);
+		}
+		catch (IOException iox) {
+			LOGR.log(Level.WARNING, "Running all tests; cannot read previous results: " + iox.getMessage());
+		}
+	}
+
+	/**
+	 * Undoes the changes to the SUT that were pending when an interrupted test run was
+	 * last checkpointed, if that run is being resumed (see
+	 * {@link Checkpoint#undoPendingChanges(RerunPlan, Document, String)}).
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 */
+	void undoPendingChanges(ISuite suite) {
+		RerunPlan plan = (RerunPlan) suite.getAttribute(SuiteAttribute.RERUN_PLAN.getName());
+		Document wfsMetadata = BaseFixture.getCapabilitiesSummary(suite);
+		if (null == plan || !plan.isResume() || null == wfsMetadata) {
+			return;
+		}
+		Checkpoint.undoPendingChanges(plan, wfsMetadata,
+				(String) suite.getAttribute(SuiteAttribute.WFS_VERSION.getName()));
+	}
+
+	/**
+	 * Enables parallel mode if the value of the {@link TestRunArg#THREAD_COUNT
+	 * thread_count} test run argument is greater than 1. The test classes in each test
+	 * set (conformance class) are then run concurrently, each on its own thread, unless
+	 * the test set has the parameter {@value #SEQUENTIAL_PARAM} with the value 'true'
+	 * (it modifies data in the SUT or its tests depend on one another). The test sets are
+	 * still run one after another, so the results are the same as in a sequential run.
+	 * The thread count also limits the number of concurrent invocations of a test method
+	 * that uses a parallel data provider; by default (one thread) these are run one at a
+	 * time.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 */
+	void configureParallelMode(ISuite suite) {
+		XmlSuite xmlSuite = suite.getXmlSuite();
+		int threadCount = getThreadCount(xmlSuite.getParameters());
+		xmlSuite.setDataProviderThreadCount(threadCount);
+		if (threadCount < 2) {
+			return;
+		}
+		for (XmlTest xmlTest : xmlSuite.getTests()) {
+			if (Boolean.parseBoolean(xmlTest.getLocalParameters().get(SEQUENTIAL_PARAM))) {
+				continue;
+			}
+			xmlTest.setParallel(XmlSuite.ParallelMode.CLASSES);
+			xmlTest.setThreadCount(threadCount);
+		}
+		LOGR.log(Level.CONFIG, "Running tests in parallel mode using {0} threads.", threadCount);
+	}
+
+	/**
+	 * Reads the value of the {@link TestRunArg#THREAD_COUNT thread_count} test run
+	 * argument.
+	 * @param params The test run arguments.
+	 * @return The number of threads used to run tests (1 if the argument is missing or
+	 * invalid).
+	 */
+	static int getThreadCount(Map<String, String> params) {
+		String threadCount = params.get(TestRunArg.THREAD_COUNT.toString());
+		if (null == threadCount || threadCount.isBlank()) {
+			return 1;
+		}
+		try {
+			return Math.max(1, Integer.parseInt(threadCount.trim()));
+		}
+		catch (NumberFormatException nfe) {
+			LOGR.warning("Ignoring invalid thread count: " + threadCount);
+			return 1;
+		}
 	}
 
 	/**
 	 * Processes the "wfs" test suite parameter that specifies a URI reference for the
 	 * service description (capabilities document). The URI is dereferenced and the entity
-	 * is parsed; the resulting Document object is set as the value of the
-	 * {@link SuiteAttribute#TEST_SUBJECT testSubject} suite attribute.
+	 * is read as a stream; the resulting {@link ServiceDescription} is set as the value of
+	 * the {@link SuiteAttribute#SERVICE_DESCRIPTION serviceDescription} suite attribute.
+	 * The entity is retrieved and read only once: the one that was read to prune the test
+	 * sets (see {@link #alter(List)}) is used if available. It is parsed into a DOM (the
+	 * value of the {@link SuiteAttribute#TEST_SUBJECT testSubject} suite attribute) only
+	 * when a test first needs it (see {@link BaseFixture#getServiceDescription(ISuite)}).
 	 *
-	 * The {@link SuiteAttribute#FEATURE_INFO featureInfo} suite attribute is also set;
-	 * its value is a {@literal Map<QName, FeatureTypeInfo>} object that provides summary
+	 * The {@link SuiteAttribute#CAPABILITIES_MODEL capabilitiesModel} and
+	 * {@link SuiteAttribute#FEATURE_INFO featureInfo} suite attributes are also set; the
+	 * latter is a {@literal Map<QName, FeatureTypeInfo>} object that provides summary
 	 * information about available feature types, mostly gleaned from the service
-	 * description.
+	 * description. If the {@link TestRunArg#SHARD shard} argument is present, only the
+	 * feature types in that shard are included.
 	 * @param suite An ISuite object representing a TestNG test suite.
 	 */
 	void processWfsParameter(ISuite suite) {
@@ -78,15 +347,14 @@ public class SuiteFixtureListener implements ISuiteListener {
 			throw new IllegalArgumentException("Required parameter not found");
 		}
 		URI wfsURI = URI.create(wfsRef);
-		Document doc = null;
+		if (!wfsURI.isAbsolute()) {
+			throw new IllegalArgumentException("Absolute URI is required, but received " + wfsURI);
+		}
+		ServiceDescription description = this.prefetchedDescriptions.remove(wfsURI);
 		try {
-			doc = URIUtils.resolveURIAsDocument(wfsURI);
-			Element docElem = doc.getDocumentElement();
-			QName qName = new QName(docElem.getNamespaceURI(), docElem.getLocalName());
-			if (!qName.equals(WFS2.QNAME_WFS_CAPABILITIES)) {
-				throw new RuntimeException("Not a WFS2 capabilities document: " + qName);
+			if (null == description) {
+				description = ServiceDescription.read(wfsURI);
 			}
-			suite.setAttribute(SuiteAttribute.WFS_VERSION.getName(), docElem.getAttribute("version"));
 		}
 		catch (ConnectException | FileNotFoundException | UnknownHostException | MalformedURLException e) {
 			throw new RuntimeException("Failed to connect to resource located at " + wfsURI, e);
@@ -95,29 +363,58 @@ public class SuiteFixtureListener implements ISuiteListener {
 			// push exception up through TestNG ISuiteListener interface
 			throw new RuntimeException("Failed to parse resource located at " + wfsURI, ex);
 		}
-		if (null != doc) {
-			suite.setAttribute(SuiteAttribute.TEST_SUBJECT.getName(), doc);
-			Map<QName, FeatureTypeInfo> featureInfo = ServiceMetadataUtils.extractFeatureTypeInfo(doc);
-			suite.setAttribute(SuiteAttribute.FEATURE_INFO.getName(), featureInfo);
-			LOGR.log(Level.FINER, "Parsed resource from {0}\n{1}",
-					new Object[] { wfsURI, XMLUtils.writeNodeToString(doc) });
+		CapabilitiesModel model = description.getModel();
+		String shardArg = params.get(TestRunArg.SHARD.toString());
+		if (null != shardArg && !shardArg.isBlank()) {
+			model = selectShard(model, FeatureTypeShard.parse(shardArg));
+			description.setModel(model);
+		}
+		suite.setAttribute(SuiteAttribute.WFS_VERSION.getName(), model.getVersion());
+		suite.setAttribute(SuiteAttribute.SERVICE_DESCRIPTION.getName(), description);
+		suite.setAttribute(SuiteAttribute.CAPABILITIES_MODEL.getName(), model);
+		Map<QName, FeatureTypeInfo> featureInfo = model.createFeatureTypeInfo();
+		suite.setAttribute(SuiteAttribute.FEATURE_INFO.getName(), featureInfo);
+		if (LOGR.isLoggable(Level.FINER)) {
+			LOGR.log(Level.FINER, "Read resource from {0}\n{1}", new Object[] { wfsURI, model });
 		}
 	}
 
+	/**
+	 * Restricts the feature types offered by the SUT to those in the given shard of the
+	 * test run. Only these are sampled and tested.
+	 * @param model The model of the service description.
+	 * @param shard The shard to test, as given by the {@link TestRunArg#SHARD shard}
+	 * argument.
+	 * @return A new CapabilitiesModel that offers only the feature types in the shard.
+	 */
+	static CapabilitiesModel selectShard(CapabilitiesModel model, FeatureTypeShard shard) {
+		CapabilitiesModel shardModel = model.selectFeatureTypes(shard::contains);
+		int typeCount = shardModel.getFeatureTypes().size();
+		if (typeCount == 0) {
+			LOGR.log(Level.WARNING, "No feature types in shard {0}", shard);
+		}
+		LOGR.log(Level.CONFIG, "Testing {0} of {1} feature types in shard {2}",
+				new Object[] { typeCount, model.getFeatureTypes().size(), shard });
+		return shardModel;
+	}
+
 	/**
 	 * Sets the value of the "xsd" suite parameter, the value of which is the request URI
 	 * used to retrieve the GML application schema(s) supported by the WFS under test. The
 	 * URI corresponds to a DescribeFeatureType request; its value is derived from
 	 * information in the service metadata document (GET method).
-	 * @param suite An ISuite object representing a TestNG test suite. The value of the
-	 * attribute {@link SuiteAttribute#TEST_SUBJECT} should be a Document node
-	 * representing service metadata.
+	 *
+	 * An {@link AppSchemaRegistry} is also set as the value of the
+	 * {@link SuiteAttribute#APP_SCHEMA_REGISTRY appSchemaRegistry} attribute; it loads
+	 * the schemas for individual namespaces when they are first needed.
+	 * @param suite An ISuite object representing a TestNG test suite. The service
+	 * description should be available (see {@link #processWfsParameter(ISuite)}).
 	 */
 	void setAppSchemaParameter(ISuite suite) {
-		if (null == suite.getAttribute(SuiteAttribute.TEST_SUBJECT.getName())) {
+		Document wfsMetadata = BaseFixture.getCapabilitiesSummary(suite);
+		if (null == wfsMetadata) {
 			return;
 		}
-		Document wfsMetadata = (Document) suite.getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(wfsMetadata, WFS2.DESCRIBE_FEATURE_TYPE,
 				ProtocolBinding.GET);
 		if (endpoint.toString().isEmpty()) {
@@ -134,6 +431,9 @@ public class SuiteFixtureListener implements ISuiteListener {
 		Set<URI> schemaURIs = new HashSet<URI>();
 		schemaURIs.add(URI.create(reqURI.toString()));
 		suite.setAttribute(org.opengis.cite.iso19136.SuiteAttribute.SCHEMA_LOC_SET.getName(), schemaURIs);
+		AppSchemaRegistry registry = new AppSchemaRegistry(endpoint,
+				ServiceMetadataUtils.getFeatureTypes(wfsMetadata));
+		suite.setAttribute(SuiteAttribute.APP_SCHEMA_REGISTRY.getName(), registry);
 	}
 
 }
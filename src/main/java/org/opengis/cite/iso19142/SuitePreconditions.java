@@ -1,11 +1,15 @@
 package org.opengis.cite.iso19142;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.xml.namespace.QName;
 
+import org.opengis.cite.iso19142.util.CapabilitiesCache;
+import org.opengis.cite.iso19142.util.CapabilitiesModel;
 import org.opengis.cite.iso19142.util.DataSampler;
 import org.opengis.cite.iso19142.util.WFSClient;
 import org.testng.Assert;
@@ -14,9 +18,12 @@ import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
+import org.testng.xml.XmlTest;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+import jakarta.ws.rs.WebApplicationException;
+
 /**
  * Includes tests to confirm the readiness of the SUT to undergo testing. If any of these
  * test methods fail then its name is added to the suite attribute
@@ -55,7 +62,7 @@ public class SuitePreconditions {
 	 */
 	@Test(description = "Test subject is WFS 2.0 service")
 	public void verifyServiceDescription(ITestContext testContext) {
-		Document wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		Document wfsMetadata = BaseFixture.getCapabilitiesSummary(testContext.getSuite());
 		ETSAssert.assertQualifiedName(wfsMetadata.getDocumentElement(),
 				new QName(Namespaces.WFS, WFS2.WFS_CAPABILITIES));
 	}
@@ -68,13 +75,31 @@ public class SuitePreconditions {
 	 * <li>[local name] = "WFS_Capabilities"</li>
 	 * <li>[namespace name] = "http://www.opengis.net/wfs/2.0"</li>
 	 * </ul>
+	 *
+	 * <p>
+	 * Only the OperationsMetadata section is requested at first; the complete document
+	 * is requested if the SUT does not return a capabilities document in response. The
+	 * {@link SuiteAttribute#CAPABILITIES_CACHE capabilitiesCache} suite attribute is set.
+	 * </p>
 	 * @param testContext Supplies details about the test run.
 	 */
 	@Test(description = "SUT produces GetCapabilities response", dependsOnMethods = { "verifyServiceDescription" })
 	public void serviceIsAvailable(ITestContext testContext) {
-		Document wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		ISuite suite = testContext.getSuite();
+		Document wfsMetadata = BaseFixture.getCapabilitiesSummary(suite);
 		WFSClient wfsClient = new WFSClient(wfsMetadata);
-		Document capabilities = wfsClient.getCapabilities();
+		CapabilitiesCache cache = new CapabilitiesCache(CapabilitiesModel.of(wfsMetadata));
+		suite.setAttribute(SuiteAttribute.CAPABILITIES_CACHE.getName(), cache);
+		Document capabilities = null;
+		try {
+			capabilities = cache.refresh(wfsClient, CapabilitiesSection.OPERATIONS_METADATA);
+		}
+		catch (WebApplicationException wax) {
+			LOGR.log(Level.CONFIG, "Request for OperationsMetadata section failed: {0}", wax.getMessage());
+		}
+		if (null == capabilities || !WFS2.WFS_CAPABILITIES.equals(capabilities.getDocumentElement().getLocalName())) {
+			capabilities = cache.refresh(wfsClient);
+		}
 		Assert.assertNotNull(capabilities, "No GetCapabilities response from SUT.");
 		Element docElement = capabilities.getDocumentElement();
 		Assert.assertEquals(docElement.getLocalName(), WFS2.WFS_CAPABILITIES,
@@ -92,10 +117,23 @@ public class SuitePreconditions {
 			dependsOnMethods = { "verifyServiceDescription" })
 	public void dataAreAvailable(ITestContext testContext) {
 		ISuite suite = testContext.getSuite();
-		Document wfsMetadata = (Document) suite.getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
-		DataSampler sampler = new DataSampler(wfsMetadata);
+		SuiteWarmUp warmUp = (SuiteWarmUp) suite.getAttribute(SuiteAttribute.SUITE_WARM_UP.getName());
+		DataSampler sampler;
 		try {
-			sampler.acquireFeatureData();
+			if (null != warmUp) {
+				// data acquisition began once the service description was read
+				sampler = warmUp.awaitSampler();
+			}
+			else {
+				Document wfsMetadata = BaseFixture.getCapabilitiesSummary(suite);
+				List<String> testNames = new ArrayList<>();
+				for (XmlTest xmlTest : suite.getXmlSuite().getTests()) {
+					testNames.add(xmlTest.getName());
+				}
+				RerunPlan rerunPlan = (RerunPlan) suite.getAttribute(SuiteAttribute.RERUN_PLAN.getName());
+				sampler = SuiteWarmUp.createSampler(wfsMetadata, suite.getXmlSuite().getParameters(), testNames,
+						rerunPlan);
+			}
 		}
 		catch (RuntimeException rx) {
 			StringBuilder msg = new StringBuilder("Failed to acquire feature data (");
@@ -0,0 +1,345 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.validation.Schema;
+
+import org.opengis.cite.iso19142.util.CRSCache;
+import org.opengis.cite.iso19142.util.CapabilitiesModel;
+import org.opengis.cite.iso19142.util.DataSampler;
+import org.opengis.cite.iso19142.util.SamplingPlan;
+import org.opengis.cite.iso19142.util.TaskExecutors;
+import org.opengis.cite.iso19142.util.ValidationUtils;
+import org.testng.ISuite;
+import org.testng.xml.XmlTest;
+import org.w3c.dom.Document;
+
+/**
+ * Prepares a test run by executing the time-consuming set-up tasks as a dependency
+ * graph:
+ * <ul>
+ * <li>compile the WFS 2.0 schema;</li>
+ * <li>compile the Schematron schemas (one task per schema and phase);</li>
+ * <li>retrieve the service description, then set up access to the application
+ * schemas;</li>
+ * <li>acquire sample data, once the service description is available;</li>
+ * <li>resolve the CRSs supported by the advertised feature types (one task per CRS),
+ * once the service description is available.</li>
+ * </ul>
+ *
+ * <p>
+ * The tasks that do not depend on one another run concurrently. The schemas are compiled
+ * by a pool of platform threads; the tasks that mostly wait on the SUT or on other
+ * remote resources are run by an I/O executor, which uses virtual threads if the
+ * {@link TestRunArg#EXECUTION_MODE execution_mode} argument is "virtual". Only the service
+ * description and the WFS schema are required before the tests begin; the compiled
+ * Schematron schemas are taken up by {@link ValidationUtils#buildSchematronValidator}
+ * when they become available, and sample data are obtained when the
+ * {@link SuitePreconditions#dataAreAvailable dataAreAvailable} precondition is checked.
+ * The elapsed time of each phase is recorded.
+ * </p>
+ */
+public class SuiteWarmUp {
+
+	private static final Logger LOGR = Logger.getLogger(SuiteWarmUp.class.getName());
+
+	/** The Schematron schemas (and phases) compiled in advance. */
+	private static final String[][] SCHEMATRON_PHASES = { { "ExceptionReport.sch", "MissingParameterValuePhase" },
+			{ "ExceptionReport.sch", "InvalidParameterValuePhase" },
+			{ "ExceptionReport.sch", "OperationParsingFailedPhase" },
+			{ "wfs-capabilities-2.0.sch", "SimpleWFSPhase" }, { "wfs-capabilities-2.0.sch", "BasicWFSPhase" },
+			{ "wfs-capabilities-2.0.sch", "TransactionalWFSPhase" },
+			{ "wfs-capabilities-2.0.sch", "LockingWFSPhase" },
+			{ "http://schemas.opengis.net/gml/3.2.1/SchematronConstraints.xml", "#ALL" } };
+
+	/**
+	 * The set-up phases.
+	 */
+	public enum Phase {
+
+		/** Compile the WFS 2.0 schema. */
+		WFS_SCHEMA,
+		/** Compile the Schematron schemas. */
+		SCHEMATRON,
+		/** Retrieve and read the service description. */
+		CAPABILITIES,
+		/** Acquire sample data from the SUT. */
+		SAMPLE_DATA,
+		/** Resolve the supported coordinate reference systems. */
+		CRS
+
+	}
+
+	/** Runs the CPU-bound tasks (schema compilation). */
+	private final ExecutorService cpuPool;
+
+	/** Runs the tasks that mostly wait on I/O. */
+	private final ExecutorService ioPool;
+
+	private final Map<Phase, Long> phaseTimes = Collections.synchronizedMap(new EnumMap<>(Phase.class));
+
+	private CompletableFuture<Schema> wfsSchema;
+
+	private CompletableFuture<Document> capabilities;
+
+	private CompletableFuture<DataSampler> sampler;
+
+	/** The CRSs supported by the advertised feature types. */
+	private Set<String> crsRefs;
+
+	private SuiteWarmUp(TaskExecutors.Mode mode) {
+		this.cpuPool = TaskExecutors.newCPUExecutor();
+		this.ioPool = TaskExecutors.newIOExecutor(mode, Math.max(4, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Starts the set-up tasks for the given test suite.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 * @param listener The listener that processes the test run arguments.
+	 * @return A SuiteWarmUp object that provides access to the results.
+	 */
+	static SuiteWarmUp start(ISuite suite, SuiteFixtureListener listener) {
+		// read test run arguments before any task modifies the suite
+		Map<String, String> params = new HashMap<>(suite.getXmlSuite().getParameters());
+		TaskExecutors.Mode mode = TaskExecutors.getMode(params.get(TestRunArg.EXECUTION_MODE.toString()));
+		LOGR.log(Level.CONFIG, "Execution mode: {0}", mode);
+		SuiteWarmUp warmUp = new SuiteWarmUp(mode);
+		ExecutorService cpuPool = warmUp.cpuPool;
+		ExecutorService ioPool = warmUp.ioPool;
+		long start = System.nanoTime();
+		List<String> testNames = new ArrayList<>();
+		for (XmlTest xmlTest : suite.getXmlSuite().getTests()) {
+			testNames.add(xmlTest.getName());
+		}
+		RerunPlan rerunPlan = (RerunPlan) suite.getAttribute(SuiteAttribute.RERUN_PLAN.getName());
+		warmUp.wfsSchema = CompletableFuture
+			.supplyAsync(warmUp.timed(Phase.WFS_SCHEMA, ValidationUtils::createWFSSchema), cpuPool);
+		List<CompletableFuture<Void>> schematronTasks = new ArrayList<>();
+		for (String[] schPhase : SCHEMATRON_PHASES) {
+			schematronTasks.add(CompletableFuture
+				.runAsync(() -> ValidationUtils.precompileSchematron(schPhase[0], schPhase[1]), cpuPool));
+		}
+		CompletableFuture<Void> schematron = CompletableFuture
+			.allOf(schematronTasks.toArray(new CompletableFuture[0]))
+			.whenComplete((result, error) -> warmUp.phaseTimes.put(Phase.SCHEMATRON, elapsedMillis(start)));
+		warmUp.capabilities = CompletableFuture.supplyAsync(warmUp.timed(Phase.CAPABILITIES, () -> {
+			listener.processWfsParameter(suite);
+			listener.setAppSchemaParameter(suite);
+			warmUp.crsRefs = getSupportedCRSIdentifiers(suite);
+			// the sampler only consults the model, so the DOM is not built
+			return BaseFixture.getCapabilitiesSummary(suite);
+		}), ioPool);
+		warmUp.sampler = warmUp.capabilities.thenApplyAsync(
+				wfsMetadata -> warmUp
+					.timed(Phase.SAMPLE_DATA, () -> createSampler(wfsMetadata, params, testNames, rerunPlan))
+					.get(),
+				ioPool);
+		CompletableFuture<Void> crsTasks = warmUp.capabilities
+			.thenComposeAsync(wfsMetadata -> CRSCache.prefetch(warmUp.crsRefs, ioPool), ioPool)
+			.whenComplete((result, error) -> warmUp.phaseTimes.put(Phase.CRS, elapsedMillis(start)));
+		CompletableFuture.allOf(warmUp.wfsSchema, schematron, warmUp.sampler, crsTasks)
+			.whenComplete((result, error) -> {
+				cpuPool.shutdown();
+				ioPool.shutdown();
+				LOGR.log(Level.CONFIG, "Suite warm-up completed in {0} ms: {1}",
+						new Object[] { elapsedMillis(start), warmUp.getPhaseTimes() });
+			});
+		return warmUp;
+	}
+
+	/**
+	 * Collects the identifiers of the CRSs supported by the feature types advertised in
+	 * the service description.
+	 * @param suite An ISuite object representing a TestNG test suite.
+	 * @return A set of CRS identifiers (absolute URI values).
+	 */
+	private static Set<String> getSupportedCRSIdentifiers(ISuite suite) {
+		Set<String> crsRefs = new LinkedHashSet<>();
+		CapabilitiesModel model = (CapabilitiesModel) suite.getAttribute(SuiteAttribute.CAPABILITIES_MODEL.getName());
+		if (null != model) {
+			for (FeatureTypeInfo typeInfo : model.createFeatureTypeInfo().values()) {
+				crsRefs.addAll(typeInfo.getSupportedCRSIdentifiers());
+			}
+		}
+		return crsRefs;
+	}
+
+	/**
+	 * Copies a service description along with its model. The model may differ from the
+	 * content of the document (e.g. it may offer only the feature types in one shard of
+	 * the test run), so it is associated with the copy rather than built again.
+	 * @param wfsMetadata A WFS capabilities document.
+	 * @return A deep copy of the document.
+	 */
+	static Document copyServiceDescription(Document wfsMetadata) {
+		Document copy = (Document) wfsMetadata.cloneNode(true);
+		copy.setDocumentURI(wfsMetadata.getDocumentURI());
+		CapabilitiesModel.associate(copy, CapabilitiesModel.of(wfsMetadata));
+		return copy;
+	}
+
+	/**
+	 * Creates a DataSampler and acquires sample data from the SUT. If tests are being
+	 * re-run and the sample data of the previous run were saved, those data are restored
+	 * instead.
+	 * @param wfsMetadata A WFS capabilities document.
+	 * @param params The test run arguments.
+	 * @param testNames The names of the tests in the test run.
+	 * @param rerunPlan The plan for re-running tests from a previous run, or
+	 * {@code null} if all tests are run.
+	 * @return A DataSampler that has acquired the data required by the tests.
+	 */
+	static DataSampler createSampler(Document wfsMetadata, Map<String, String> params, List<String> testNames,
+			RerunPlan rerunPlan) {
+		int size = getSampleSize(params);
+		DataSampler sampler = new DataSampler(wfsMetadata);
+		sampler.setSampleSize(size);
+		SamplingPlan samplingPlan = SamplingPlan.create(wfsMetadata, testNames);
+		File snapshot = (null != rerunPlan) ? rerunPlan.findSampleData() : null;
+		boolean restored = false;
+		if (null != snapshot) {
+			try {
+				sampler.restoreFeatureData(snapshot, samplingPlan);
+				restored = true;
+			}
+			catch (IOException | RuntimeException ex) {
+				LOGR.log(Level.WARNING, "Failed to restore sample data from " + snapshot, ex);
+				sampler = new DataSampler(wfsMetadata);
+				sampler.setSampleSize(size);
+			}
+		}
+		// an explicit seed takes precedence over the one used in the previous run
+		String randomSeed = params.get(TestRunArg.RANDOM_SEED.toString());
+		if (null != randomSeed && !randomSeed.isEmpty()) {
+			try {
+				sampler.setRandomSeed(Long.parseLong(randomSeed.trim()));
+			}
+			catch (NumberFormatException nfe) {
+				LOGR.warning("Ignoring invalid random seed: " + randomSeed);
+			}
+		}
+		if (!restored) {
+			sampler.acquireFeatureData(samplingPlan);
+		}
+		return sampler;
+	}
+
+	/**
+	 * Reads the value of the {@link TestRunArg#SAMPLE_SIZE sample_size} test run
+	 * argument.
+	 * @param params The test run arguments.
+	 * @return The number of features of each type to collect, or 0 if the argument is
+	 * missing or invalid (only one page of results is retrieved).
+	 */
+	static int getSampleSize(Map<String, String> params) {
+		String sampleSize = params.get(TestRunArg.SAMPLE_SIZE.toString());
+		if (null == sampleSize || sampleSize.isBlank()) {
+			return 0;
+		}
+		try {
+			return Math.max(0, Integer.parseInt(sampleSize.trim()));
+		}
+		catch (NumberFormatException nfe) {
+			LOGR.warning("Ignoring invalid sample size: " + sampleSize);
+			return 0;
+		}
+	}
+
+	/**
+	 * Waits for the service description to be processed; the suite attributes set by
+	 * {@link SuiteFixtureListener#processWfsParameter(ISuite)} and
+	 * {@link SuiteFixtureListener#setAppSchemaParameter(ISuite)} are then available.
+	 * @throws RuntimeException If the service description could not be processed.
+	 */
+	void awaitCapabilities() {
+		await(this.capabilities);
+	}
+
+	/**
+	 * Waits for the WFS schema to be compiled.
+	 * @return An immutable Schema object, or {@code null} if one could not be
+	 * constructed.
+	 */
+	Schema awaitWFSSchema() {
+		return await(this.wfsSchema);
+	}
+
+	/**
+	 * Waits for sample data to be acquired.
+	 * @return A DataSampler that has acquired the data required by the tests.
+	 * @throws RuntimeException If sample data could not be acquired.
+	 */
+	public DataSampler awaitSampler() {
+		return await(this.sampler);
+	}
+
+	/**
+	 * Returns the elapsed time of each completed phase.
+	 * @return A map containing the elapsed time (ms) of each phase.
+	 */
+	public Map<Phase, Long> getPhaseTimes() {
+		synchronized (this.phaseTimes) {
+			return new EnumMap<>(this.phaseTimes);
+		}
+	}
+
+	/**
+	 * Wraps a task so that its elapsed time is recorded as that of the given phase.
+	 * @param phase The set-up phase.
+	 * @param task The task to run.
+	 * @return A task that records its elapsed time on completion.
+	 */
+	private <T> Supplier<T> timed(Phase phase, Supplier<T> task) {
+		return () -> {
+			long start = System.nanoTime();
+			try {
+				return task.get();
+			}
+			finally {
+				this.phaseTimes.put(phase, elapsedMillis(start));
+			}
+		};
+	}
+
+	private static long elapsedMillis(long startNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	}
+
+	private static <T> T await(CompletableFuture<T> task) {
+		try {
+			return task.get();
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = (ex.getCause() instanceof CompletionException) ? ex.getCause().getCause() : ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted during suite warm-up.", ie);
+		}
+	}
+
+}
@@ -13,8 +13,10 @@ import java.util.logging.Level;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
 
 import org.apache.commons.io.FilenameUtils;
+import org.opengis.cite.iso19142.util.TaskExecutors;
 import org.opengis.cite.iso19142.util.TestSuiteLogger;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -42,14 +44,40 @@ public class TestNGController implements TestSuiteController {
 	 * <li>XML properties file: ${user.home}/test-run-props.xml</li>
 	 * <li>outputDir: ${user.home}</li>
 	 * <li>deleteSubjectOnFinish: false</li>
+	 * <li>virtualThreads: false</li>
 	 * </ul>
 	 * <p>
 	 * <strong>Synopsis</strong>
 	 * </p>
 	 *
 	 * <pre>
-	 * ets-*-aio.jar [-o|--outputDir $TMPDIR] [-d|--deleteSubjectOnFinish] [test-run-props.xml]
+	 * ets-*-aio.jar [-o|--outputDir $TMPDIR] [-d|--deleteSubjectOnFinish] [--virtualThreads]
+	 *   [--maxRuns n] [--maxRunsPerIUT n] [--daemon [--port n]] [--rerun resultsDir | --resume resultsDir]
+	 *   [--shard k/N] [test-run-props.xml ... | dir]
+	 * ets-*-aio.jar --mergeShards [-o|--outputDir $TMPDIR] resultsDir ...
 	 * </pre>
+	 *
+	 * The --rerun option executes only the tests that failed or were skipped in the test
+	 * run whose results are in the given directory, using the sample data saved in that
+	 * run; the new verdicts are merged with the previous results. The --resume option
+	 * resumes a test run that was interrupted, from the last checkpoint saved in the
+	 * given results directory (see {@link Checkpoint}).
+	 *
+	 * The --shard option tests only the feature types in shard k of N (see
+	 * {@link FeatureTypeShard}); the same test run can then be executed for the other
+	 * shards by other processes. The --mergeShards option combines the results of the
+	 * shards, found in the given results directories, into one report that is written
+	 * to the output directory.
+	 *
+	 * The --virtualThreads option selects the virtual execution mode (see
+	 * {@link TaskExecutors}) for test runs that do not set the
+	 * {@link TestRunArg#EXECUTION_MODE execution_mode} argument: the set-up tasks that
+	 * wait on the SUT or other remote resources are run in virtual threads (the tests
+	 * themselves are not). If several properties files or a directory are given, the
+	 * test runs are executed concurrently as a batch (see
+	 * {@link BatchTestRun}). With the --daemon option the test suite is not run; instead
+	 * test run requests are accepted on the given port of the loopback interface until
+	 * the JVM is stopped (see {@link TestRunDaemon}).
 	 * @param args Test run arguments (optional). The first argument must refer to an XML
 	 * properties file containing the expected set of test run arguments. If no argument
 	 * is supplied, the file located at ${user.home}/test-run-props.xml will be used.
@@ -69,6 +97,48 @@ public class TestNGController implements TestSuiteController {
 		if (testRunArgs.doDeleteSubjectOnFinish()) {
 			System.setProperty("deleteSubjectOnFinish", "true");
 		}
+		String executionMode = testRunArgs.useVirtualThreads() ? "virtual" : null;
+		if (testRunArgs.isDaemon()) {
+			TestRunDaemon daemon = new TestRunDaemon(testRunArgs.getPort(), new File(testRunArgs.getOutputDir()),
+					testRunArgs.getMaxRuns());
+			daemon.setPublicSubjectsOnly(testRunArgs.isPublicSubjectsOnly());
+			if (null != executionMode) {
+				daemon.setDefaultArgument(TestRunArg.EXECUTION_MODE, executionMode);
+			}
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> daemon.stop(5)));
+			daemon.start();
+			System.out.println("Accepting test run requests at http://" + daemon.getAddress() + "/runs");
+			System.out.println("Access token: " + daemon.getTokenFile());
+			return;
+		}
+		if (testRunArgs.isMergeShards()) {
+			File mergedResults = FeatureTypeShard.mergeResults(testRunArgs.getShardResults(),
+					new File(testRunArgs.getOutputDir()));
+			System.out.println("Test results: " + mergedResults);
+			File mergedEarl = new File(mergedResults.getParentFile(), EarlResults.EARL_FILE_NAME);
+			if (mergedEarl.isFile()) {
+				System.out.println("EARL results: " + mergedEarl);
+			}
+			return;
+		}
+		if (testRunArgs.isBatch()) {
+			BatchTestRun batch = new BatchTestRun(new File(testRunArgs.getOutputDir()), testRunArgs.getMaxRuns(),
+					testRunArgs.getMaxRunsPerIUT());
+			if (null != executionMode) {
+				batch.setDefaultArgument(TestRunArg.EXECUTION_MODE, executionMode);
+			}
+			Map<File, BatchTestRun.Outcome> outcomes = batch.run(testRunArgs.getPropertiesFiles());
+			for (Map.Entry<File, BatchTestRun.Outcome> outcome : outcomes.entrySet()) {
+				BatchTestRun.Outcome result = outcome.getValue();
+				if (null != result.getResults()) {
+					System.out.println(outcome.getKey() + ": " + result.getResults().getSystemId());
+				}
+				else {
+					System.out.println(outcome.getKey() + ": test run failed - " + result.getError());
+				}
+			}
+			return;
+		}
 		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
 		DocumentBuilder db = dbf.newDocumentBuilder();
 		File xmlArgs = testRunArgs.getPropertiesFile();
@@ -76,6 +146,18 @@ public class TestNGController implements TestSuiteController {
 			throw new IllegalArgumentException("Test run arguments not found at " + xmlArgs);
 		}
 		Document testRunProps = db.parse(xmlArgs);
+		if (null != testRunArgs.getRerunFrom()) {
+			setArgument(testRunProps, TestRunArg.RERUN_FROM, new File(testRunArgs.getRerunFrom()).getAbsolutePath());
+		}
+		if (null != testRunArgs.getResumeFrom()) {
+			setArgument(testRunProps, TestRunArg.RESUME_FROM, new File(testRunArgs.getResumeFrom()).getAbsolutePath());
+		}
+		if (null != testRunArgs.getShard()) {
+			setArgument(testRunProps, TestRunArg.SHARD, testRunArgs.getShard());
+		}
+		if (null != executionMode) {
+			setDefaultArgument(testRunProps, TestRunArg.EXECUTION_MODE, executionMode);
+		}
 		TestNGController controller = new TestNGController(testRunArgs.getOutputDir());
 		Source testResults = controller.doTestRun(testRunProps);
 		System.out.println("Test results: " + testResults.getSystemId());
@@ -135,10 +217,124 @@ public class TestNGController implements TestSuiteController {
 		return etsProperties.getProperty("ets-title");
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * If the {@link TestRunArg#RERUN_FROM rerun_from} argument is present, only the tests
+	 * that failed or were skipped in the referenced test run are executed. If the
+	 * {@link TestRunArg#RESUME_FROM resume_from} argument is present, an interrupted test
+	 * run is resumed from its last checkpoint. In either case the new results are then
+	 * merged with the previous ones (see {@link RerunPlan#mergeResults(File)}) and the
+	 * combined results are returned.
+	 */
 	@Override
 	public Source doTestRun(Document testRunArgs) throws Exception {
 		validateTestRunArgs(testRunArgs);
-		return executor.execute(testRunArgs);
+		String resumeFrom = getArgument(testRunArgs, TestRunArg.RESUME_FROM);
+		String rerunFrom = getArgument(testRunArgs, TestRunArg.RERUN_FROM);
+		RerunPlan rerunPlan = null;
+		try {
+			if (null != resumeFrom) {
+				rerunPlan = RerunPlan.fromCheckpoint(resumeFrom);
+			}
+			else if (null != rerunFrom) {
+				rerunPlan = RerunPlan.fromResults(rerunFrom);
+			}
+		}
+		catch (IOException iox) {
+			throw new IllegalArgumentException("Cannot re-run tests: " + iox.getMessage(), iox);
+		}
+		Source results = executor.execute(testRunArgs);
+		if (null != rerunPlan) {
+			results = mergeResults(rerunPlan, results);
+		}
+		return results;
+	}
+
+	/**
+	 * Merges the results of a re-run with the previous results. This is possible only if
+	 * the new results are available as a TestNG results file.
+	 * @param rerunPlan The plan that was used to re-run the tests.
+	 * @param results The results of the re-run.
+	 * @return The combined results, or the given results if they cannot be merged.
+	 */
+	private static Source mergeResults(RerunPlan rerunPlan, Source results) {
+		String systemId = results.getSystemId();
+		if (null == systemId || !systemId.endsWith(RerunPlan.RESULTS_FILE_NAME)) {
+			TestSuiteLogger.log(Level.WARNING, "Cannot merge results with previous results: " + systemId);
+			return results;
+		}
+		File newResults = systemId.startsWith("file:") ? new File(URI.create(systemId)) : new File(systemId);
+		try {
+			File merged = rerunPlan.mergeResults(newResults);
+			TestSuiteLogger.log(Level.INFO, "Combined test results: " + merged);
+			return new StreamSource(merged);
+		}
+		catch (IOException iox) {
+			TestSuiteLogger.log(Level.WARNING, "Failed to merge results with previous results", iox);
+			return results;
+		}
+	}
+
+	/**
+	 * Sets the value of a test run argument, replacing any value that is already present
+	 * (e.g. one given in the properties file that a command line option overrides).
+	 * @param testRunArgs A DOM Document containing a set of XML properties (key-value
+	 * pairs).
+	 * @param arg The test run argument.
+	 * @param value The value of the argument.
+	 */
+	static void setArgument(Document testRunArgs, TestRunArg arg, String value) {
+		NodeList entries = testRunArgs.getDocumentElement().getElementsByTagName("entry");
+		Element entry = null;
+		for (int i = entries.getLength() - 1; i >= 0; i--) {
+			Element existing = (Element) entries.item(i);
+			if (existing.getAttribute("key").equals(arg.toString())) {
+				if (null != entry) {
+					// only the first entry is read; remove any others
+					entry.getParentNode().removeChild(entry);
+				}
+				entry = existing;
+			}
+		}
+		if (null == entry) {
+			entry = testRunArgs.createElement("entry");
+			entry.setAttribute("key", arg.toString());
+			testRunArgs.getDocumentElement().appendChild(entry);
+		}
+		entry.setTextContent(value);
+	}
+
+	/**
+	 * Adds a test run argument unless it is already present.
+	 * @param testRunArgs A DOM Document containing a set of XML properties (key-value
+	 * pairs).
+	 * @param arg The test run argument.
+	 * @param value The default value of the argument.
+	 */
+	static void setDefaultArgument(Document testRunArgs, TestRunArg arg, String value) {
+		if (null == getArgument(testRunArgs, arg)) {
+			setArgument(testRunArgs, arg, value);
+		}
+	}
+
+	/**
+	 * Gets the value of a test run argument.
+	 * @param testRunArgs A DOM Document containing a set of XML properties (key-value
+	 * pairs).
+	 * @param arg The test run argument.
+	 * @return The value of the argument, or {@code null} if it is missing or empty.
+	 */
+	static String getArgument(Document testRunArgs, TestRunArg arg) {
+		NodeList entries = testRunArgs.getDocumentElement().getElementsByTagName("entry");
+		for (int i = 0; i < entries.getLength(); i++) {
+			Element entry = (Element) entries.item(i);
+			if (entry.getAttribute("key").equals(arg.toString())) {
+				String value = entry.getTextContent().trim();
+				return value.isEmpty() ? null : value;
+			}
+		}
+		return null;
 	}
 
 	/**
@@ -168,6 +364,10 @@ public class TestNGController implements TestSuiteController {
 			throw new IllegalArgumentException(
 					String.format("Missing argument: '%s' or '%s' must be present.", TestRunArg.IUT, TestRunArg.WFS));
 		}
+		String shard = args.get(TestRunArg.SHARD.toString());
+		if (null != shard && !shard.isEmpty()) {
+			FeatureTypeShard.parse(shard);
+		}
 	}
 
 }
@@ -22,7 +22,67 @@ public enum TestRunArg {
 	 * An implementation conformance statement: a comma-separated list indicating which
 	 * conformance classes are supported.
 	 */
-	ICS;
+	ICS,
+	/**
+	 * The total number of features of each type to collect as sample data (a positive
+	 * integer). If this exceeds the size of a single response and the WFS implements
+	 * response paging, successive pages of results are retrieved.
+	 */
+	SAMPLE_SIZE,
+	/**
+	 * The seed (a long integer) for the random number generator used to select sample
+	 * data. It can be set to the value reported in a previous run in order to repeat the
+	 * same selections.
+	 */
+	RANDOM_SEED,
+	/**
+	 * The number of threads used to run tests concurrently (a positive integer). If it is
+	 * greater than 1, the test classes in each conformance class that does not modify
+	 * data run concurrently; by default all tests are run one at a time.
+	 */
+	THREAD_COUNT,
+	/**
+	 * The location of the results directory of a previous test run (a file system path or
+	 * a 'file' URI). Only the tests that failed or were skipped in that run are executed
+	 * again, using the sample data saved with its results; the new verdicts are merged
+	 * with the previous results.
+	 */
+	RERUN_FROM,
+	/**
+	 * The location of the results directory of an interrupted test run (a file system
+	 * path or a 'file' URI). The run is resumed from its last {@link Checkpoint}: the
+	 * tests whose verdicts were recorded are not run again, and the changes to the SUT
+	 * that were still pending are undone first.
+	 */
+	RESUME_FROM,
+	/**
+	 * The shard of the feature types to test, of the form "k/N" (e.g. "2/4"). The
+	 * feature types are partitioned into N shards by hashing their names, and only those
+	 * in shard k are tested; the results of all shards can then be combined (see
+	 * {@link FeatureTypeShard}). By default all feature types are tested.
+	 */
+	SHARD,
+	/**
+	 * The location of a file in which the durations of the test methods are recorded (a
+	 * file system path or a 'file' URI). It is updated when the test run finishes; the
+	 * test classes in each conformance class that is run in parallel are started in
+	 * order of decreasing recorded duration (see {@link CostAwareScheduler}). Conformance
+	 * classes that are run sequentially, and the order of the conformance classes, are
+	 * not affected.
+	 */
+	DURATION_HISTORY,
+	/**
+	 * The maximum time (in seconds) that the tests in each conformance class may take. The
+	 * tests that have not started when the time budget is exhausted are skipped. By
+	 * default there is no limit.
+	 */
+	TIME_BUDGET,
+	/**
+	 * The execution mode of the set-up tasks that wait on the SUT or other remote
+	 * resources: "platform" (the default) or "virtual" (see
+	 * {@link org.opengis.cite.iso19142.util.TaskExecutors}).
+	 */
+	EXECUTION_MODE;
 
 	@Override
 	public String toString() {
@@ -0,0 +1,419 @@
+package org.opengis.cite.iso19142;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+
+import org.opengis.cite.iso19142.util.CRSCache;
+import org.opengis.cite.iso19142.util.TestSuiteLogger;
+import org.opengis.cite.iso19142.util.ValidationUtils;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A resident test service that accepts test run requests over HTTP on the loopback
+ * interface. The JVM stays warm between test runs: classes are loaded and compiled, and
+ * the WFS schema, Schematron validators, application schemas and CRS definitions are
+ * retained once prepared. The WFS schema and the EPSG factory are initialized when the
+ * service starts.
+ *
+ * <p>
+ * The service has the following resources:
+ * </p>
+ * <ul>
+ * <li>{@code GET /} - returns the ETS code and version (text/plain);</li>
+ * <li>{@code POST /runs} - executes a test run using the test run arguments in the
+ * request entity (an XML properties document, as in test-run-props.xml) and returns the
+ * test results (application/xml). The status code is 400 if the arguments are invalid,
+ * or 500 if the test run could not be executed.</li>
+ * </ul>
+ *
+ * <p>
+ * Each test run writes its results in a new subdirectory of the output directory. Up to
+ * {@code maxRuns} test runs are executed concurrently; further requests wait.
+ * </p>
+ *
+ * <p>
+ * A test run request is rejected unless:
+ * </p>
+ * <ul>
+ * <li>the Host header is "localhost" or "127.0.0.1" (with or without a port), so that
+ * a web page cannot submit requests by rebinding its domain name to the loopback
+ * address;</li>
+ * <li>it carries the token of this service in an Authorization header ("Bearer"
+ * scheme). A new token is generated whenever the service is created, and is written
+ * to the file {@value #TOKEN_FILE_NAME} in the output directory (readable by the owner
+ * only);</li>
+ * <li>its content type is application/xml, and the document does not contain a
+ * document type declaration;</li>
+ * <li>the test subject ({@link TestRunArg#IUT iut} or {@link TestRunArg#WFS wfs}
+ * argument) is an http or https URI; local files are not accepted.</li>
+ * </ul>
+ *
+ * <p>
+ * A WFS on the same machine or on a private network can be tested by default. If the
+ * service is reachable by clients that should not be able to probe such hosts, it can
+ * be restricted to test subjects on public hosts (see
+ * {@link #setPublicSubjectsOnly(boolean)}).
+ * </p>
+ */
+public class TestRunDaemon {
+
+	static final String RUNS_PATH = "/runs";
+
+	static final String TOKEN_FILE_NAME = "daemon.token";
+
+	private static final Set<String> LOCAL_HOST_NAMES = Set.of("localhost", "127.0.0.1");
+
+	/** A CRS that is used to initialize the EPSG factory. */
+	private static final String WARM_UP_CRS = "urn:ogc:def:crs:EPSG::4326";
+
+	private final File outputDir;
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final String token;
+
+	private final Map<TestRunArg, String> defaultArgs = new EnumMap<>(TestRunArg.class);
+
+	private boolean publicSubjectsOnly;
+
+	/**
+	 * Creates a service that listens on the given port of the loopback interface. It
+	 * must be {@link #start() started}.
+	 * @param port The port number, or 0 to use an ephemeral port.
+	 * @param outputDir The directory in which test results are written.
+	 * @param maxRuns The maximum number of concurrent test runs.
+	 * @throws IOException If the output directory or the token file cannot be created,
+	 * or the server cannot be bound to the port.
+	 */
+	public TestRunDaemon(int port, File outputDir, int maxRuns) throws IOException {
+		this.outputDir = outputDir;
+		Files.createDirectories(outputDir.toPath());
+		this.token = writeToken(new File(outputDir, TOKEN_FILE_NAME));
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.executor = Executors.newFixedThreadPool(Math.max(1, maxRuns));
+		this.server.setExecutor(this.executor);
+		this.server.createContext("/", this::handleInfo);
+		this.server.createContext(RUNS_PATH, this::handleRun);
+	}
+
+	/**
+	 * Starts accepting requests and prepares the resources that are used by every test
+	 * run in the background.
+	 */
+	public void start() {
+		this.server.start();
+		Thread warmUp = new Thread(() -> {
+			ValidationUtils.createWFSSchema();
+			try {
+				CRSCache.forIdentifier(WARM_UP_CRS);
+			}
+			catch (Exception ex) {
+				TestSuiteLogger.log(Level.WARNING, "Failed to initialize CRS factory", ex);
+			}
+		}, "ets-wfs20-daemon-warm-up");
+		warmUp.setDaemon(true);
+		warmUp.start();
+		TestSuiteLogger.log(Level.INFO, "Accepting test run requests at http://" + getAddress() + RUNS_PATH);
+	}
+
+	/**
+	 * Stops the service. Test runs in progress are allowed to finish.
+	 * @param delaySeconds The maximum time to wait for exchanges to complete.
+	 */
+	public void stop(int delaySeconds) {
+		this.server.stop(delaySeconds);
+		this.executor.shutdown();
+		try {
+			this.executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the address at which requests are accepted.
+	 * @return A socket address (host:port) on the loopback interface.
+	 */
+	public String getAddress() {
+		InetSocketAddress address = this.server.getAddress();
+		return address.getHostString() + ":" + address.getPort();
+	}
+
+	/**
+	 * Sets the value of a test run argument for the requests that do not specify it. This
+	 * must be done before the service is started.
+	 * @param arg The test run argument.
+	 * @param value The default value of the argument.
+	 */
+	public void setDefaultArgument(TestRunArg arg, String value) {
+		this.defaultArgs.put(arg, value);
+	}
+
+	/**
+	 * Determines whether test subjects on the loopback, link-local or private networks
+	 * are rejected. This must be done before the service is started.
+	 * @param publicSubjectsOnly {@code true} if only test subjects on public hosts are
+	 * accepted; {@code false} (the default) otherwise.
+	 */
+	public void setPublicSubjectsOnly(boolean publicSubjectsOnly) {
+		this.publicSubjectsOnly = publicSubjectsOnly;
+	}
+
+	/**
+	 * Returns the file that contains the token which must accompany test run requests.
+	 * @return A file in the output directory.
+	 */
+	public File getTokenFile() {
+		return new File(this.outputDir, TOKEN_FILE_NAME);
+	}
+
+	String getToken() {
+		return this.token;
+	}
+
+	void handleInfo(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (!exchange.getRequestMethod().equals("GET") || !exchange.getRequestURI().getPath().equals("/")) {
+				sendText(exchange, 404, "Not found: " + exchange.getRequestMethod() + " " + exchange.getRequestURI());
+				return;
+			}
+			TestNGController controller = new TestNGController(this.outputDir.getAbsolutePath());
+			sendText(exchange, 200, controller.getCode() + " " + controller.getVersion());
+		}
+	}
+
+	void handleRun(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (!exchange.getRequestMethod().equals("POST")) {
+				exchange.getResponseHeaders().set("Allow", "POST");
+				sendText(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+				return;
+			}
+			if (!isLocalHost(exchange.getRequestHeaders().getFirst("Host"))) {
+				sendText(exchange, 403, "Requests must be addressed to localhost or 127.0.0.1.");
+				return;
+			}
+			if (!hasToken(exchange.getRequestHeaders().getFirst("Authorization"))) {
+				exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+				sendText(exchange, 401, "Missing or invalid token (see " + getTokenFile() + ").");
+				return;
+			}
+			String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+			if (null == contentType || !contentType.split(";")[0].trim().equalsIgnoreCase("application/xml")) {
+				sendText(exchange, 415, "Test run arguments must be sent as application/xml.");
+				return;
+			}
+			Document testRunArgs;
+			try (InputStream body = exchange.getRequestBody()) {
+				testRunArgs = parseTestRunArgs(body);
+			}
+			catch (SAXException ex) {
+				sendText(exchange, 400, "Test run arguments are not well-formed XML: " + ex.getMessage());
+				return;
+			}
+			Source results;
+			try {
+				checkTestSubject(testRunArgs, this.publicSubjectsOnly);
+				for (Map.Entry<TestRunArg, String> defaultArg : this.defaultArgs.entrySet()) {
+					TestNGController.setDefaultArgument(testRunArgs, defaultArg.getKey(), defaultArg.getValue());
+				}
+				File runDir = Files.createTempDirectory(this.outputDir.toPath(), "run-").toFile();
+				results = new TestNGController(runDir.getAbsolutePath()).doTestRun(testRunArgs);
+			}
+			catch (IllegalArgumentException ex) {
+				sendText(exchange, 400, ex.getMessage());
+				return;
+			}
+			catch (Exception ex) {
+				TestSuiteLogger.log(Level.WARNING, "Test run failed", ex);
+				sendText(exchange, 500, "Test run failed: " + ex);
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Type", "application/xml");
+			if (null != results.getSystemId()) {
+				exchange.getResponseHeaders().set("Content-Location", results.getSystemId());
+			}
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream out = exchange.getResponseBody()) {
+				Transformer idTransformer = TransformerFactory.newInstance().newTransformer();
+				idTransformer.transform(results, new StreamResult(out));
+			}
+			catch (Exception ex) {
+				TestSuiteLogger.log(Level.WARNING, "Failed to write test results", ex);
+			}
+		}
+	}
+
+	/**
+	 * Determines whether the Host header of a request refers to the loopback interface.
+	 * @param host The value of the Host header (may be {@code null}).
+	 * @return {@code true} if the host is "localhost" or "127.0.0.1", with or without a
+	 * port; {@code false} otherwise.
+	 */
+	static boolean isLocalHost(String host) {
+		if (null == host) {
+			return false;
+		}
+		String hostName = host.trim().toLowerCase(Locale.ROOT);
+		int colon = hostName.lastIndexOf(':');
+		if (colon > 0 && hostName.substring(colon + 1).chars().allMatch(Character::isDigit)) {
+			hostName = hostName.substring(0, colon);
+		}
+		return LOCAL_HOST_NAMES.contains(hostName);
+	}
+
+	private boolean hasToken(String authorization) {
+		if (null == authorization || !authorization.startsWith("Bearer ")) {
+			return false;
+		}
+		byte[] presented = authorization.substring("Bearer ".length()).trim().getBytes(StandardCharsets.US_ASCII);
+		return MessageDigest.isEqual(presented, this.token.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Checks that the test subject of a test run request refers to a web resource, and
+	 * optionally that it is on a public host. Other URIs would let a client read local
+	 * files or, if the service is shared, reach hosts that are only accessible from this
+	 * machine.
+	 * @param testRunArgs A DOM Document containing a set of XML properties (key-value
+	 * pairs).
+	 * @param publicOnly Whether hosts on the loopback, link-local or private networks are
+	 * rejected.
+	 * @throws IllegalArgumentException If the {@link TestRunArg#IUT iut} or
+	 * {@link TestRunArg#WFS wfs} argument is not an http or https URI or, if only public
+	 * hosts are accepted, its host is unknown or internal.
+	 */
+	static void checkTestSubject(Document testRunArgs, boolean publicOnly) {
+		for (TestRunArg arg : List.of(TestRunArg.IUT, TestRunArg.WFS)) {
+			String value = TestNGController.getArgument(testRunArgs, arg);
+			if (null == value) {
+				continue;
+			}
+			URI uri;
+			try {
+				uri = new URI(value);
+			}
+			catch (URISyntaxException usx) {
+				throw new IllegalArgumentException(String.format("Invalid URI for '%s': %s", arg, value));
+			}
+			String scheme = uri.getScheme();
+			if (null == scheme || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))
+					|| null == uri.getHost()) {
+				throw new IllegalArgumentException(
+						String.format("The '%s' argument must be an http or https URI: %s", arg, value));
+			}
+			if (!publicOnly) {
+				continue;
+			}
+			try {
+				for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+					if (isInternal(address)) {
+						throw new IllegalArgumentException(
+								String.format("The '%s' argument refers to an internal host: %s", arg, value));
+					}
+				}
+			}
+			catch (UnknownHostException uhx) {
+				throw new IllegalArgumentException(String.format("Unknown host in '%s' argument: %s", arg, value));
+			}
+		}
+	}
+
+	private static boolean isInternal(InetAddress address) {
+		if (address.isLoopbackAddress() || address.isAnyLocalAddress() || address.isLinkLocalAddress()
+				|| address.isSiteLocalAddress() || address.isMulticastAddress()) {
+			return true;
+		}
+		// unique local IPv6 addresses (fc00::/7)
+		return (address instanceof Inet6Address) && (address.getAddress()[0] & 0xfe) == 0xfc;
+	}
+
+	/**
+	 * Generates a new token and writes it to a file that only the owner can read (where
+	 * the file system supports POSIX permissions).
+	 * @param tokenFile The file to write.
+	 * @return The token.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private static String writeToken(File tokenFile) throws IOException {
+		byte[] bytes = new byte[32];
+		new SecureRandom().nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		Files.deleteIfExists(tokenFile.toPath());
+		if (tokenFile.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			Files.createFile(tokenFile.toPath(),
+					PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		}
+		Files.writeString(tokenFile.toPath(), token, StandardCharsets.US_ASCII);
+		return token;
+	}
+
+	private static Document parseTestRunArgs(InputStream body) throws IOException, SAXException {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			// no DTDs or external entities (XXE)
+			factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+			factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+			factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+			factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+			factory.setXIncludeAware(false);
+			factory.setExpandEntityReferences(false);
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			// report errors to the client only
+			builder.setErrorHandler(new DefaultHandler());
+			return builder.parse(body);
+		}
+		catch (ParserConfigurationException pce) {
+			throw new RuntimeException(pce);
+		}
+	}
+
+	private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+		byte[] content = message.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+		exchange.sendResponseHeaders(status, content.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(content);
+		}
+	}
+
+}
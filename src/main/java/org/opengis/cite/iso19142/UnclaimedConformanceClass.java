@@ -0,0 +1,24 @@
+package org.opengis.cite.iso19142;
+
+import org.testng.ITestContext;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * Stands in for the tests of a conformance class that the SUT does not claim to
+ * implement; the test set is pruned before it is run (see
+ * {@link SuiteFixtureListener#alter(java.util.List)}). Its only test is skipped, so that
+ * the conformance class is still reported.
+ */
+public class UnclaimedConformanceClass {
+
+	/**
+	 * [{@code Test}] Skips the conformance class, giving the reason why it was pruned.
+	 * @param testContext The test (set) context.
+	 */
+	@Test(description = "Conformance class is claimed in the service description")
+	public void conformanceClassClaimed(ITestContext testContext) {
+		throw new SkipException(testContext.getCurrentXmlTest().getParameter(SuiteFixtureListener.PRUNED_PARAM));
+	}
+
+}
@@ -41,6 +41,8 @@ public class WFS2 {
 
 	public static final String VERSION_PARAM = "version";
 
+	public static final String SECTIONS_PARAM = "sections";
+
 	public static final String TYPENAMES_PARAM = "typenames";
 
 	public static final String NAMESPACES_PARAM = "namespaces";
@@ -2,7 +2,6 @@ package org.opengis.cite.iso19142.basic;
 
 import java.net.URI;
 
-import javax.xml.transform.Result;
 import javax.xml.transform.dom.DOMSource;
 
 import org.opengis.cite.iso19142.BaseFixture;
@@ -13,14 +12,15 @@ import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.WFS2;
+import org.opengis.cite.iso19142.util.SchematronResult;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.opengis.cite.iso19142.util.ValidationUtils;
 import org.opengis.cite.iso19142.util.XMLUtils;
-import org.opengis.cite.validation.SchematronValidator;
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 import org.w3c.dom.Document;
@@ -40,6 +40,9 @@ public class BasicCapabilitiesTests extends BaseFixture {
 
 	private static final String SCHEMATRON_METADATA = "wfs-capabilities-2.0.sch";
 
+	/** The GetCapabilities request entity; a copy is made for each test invocation. */
+	private Document getCapabilitiesRequest;
+
 	@BeforeTest
 	public void checkSuitePreconditions(ITestContext context) {
 		Object failedPreconditions = context.getSuite().getAttribute(SuiteAttribute.FAILED_PRECONDITIONS.getName());
@@ -56,7 +59,7 @@ public class BasicCapabilitiesTests extends BaseFixture {
 	 */
 	@BeforeTest
 	public void implementsBasicWFS(ITestContext testContext) {
-		this.wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		this.wfsMetadata = getServiceDescription(testContext.getSuite());
 		String xpath = String.format("//ows:Constraint[@name='%s']/ows:DefaultValue = 'TRUE'", WFS2.BASIC_WFS);
 		ETSAssert.assertXPath(xpath, this.wfsMetadata, null);
 	}
@@ -67,10 +70,18 @@ public class BasicCapabilitiesTests extends BaseFixture {
 	 */
 	@BeforeClass
 	public void buildGetCapabilitiesRequest() {
-		this.reqEntity = this.docBuilder.newDocument();
-		Element docElem = reqEntity.createElementNS(Namespaces.WFS, WFS2.GET_CAPABILITIES);
+		this.getCapabilitiesRequest = this.docBuilder.newDocument();
+		Element docElem = this.getCapabilitiesRequest.createElementNS(Namespaces.WFS, WFS2.GET_CAPABILITIES);
 		docElem.setAttribute(WFS2.SERVICE_PARAM, WFS2.SERVICE_TYPE_CODE);
-		this.reqEntity.appendChild(docElem);
+		this.getCapabilitiesRequest.appendChild(docElem);
+	}
+
+	/**
+	 * Sets a copy of the GetCapabilities request as the request entity of the test invocation.
+	 */
+	@BeforeMethod
+	public void copyRequestEntity() {
+		setRequestEntity((Document) this.getCapabilitiesRequest.cloneNode(true));
 	}
 
 	/**
@@ -91,13 +102,13 @@ public class BasicCapabilitiesTests extends BaseFixture {
 	@Test(description = "See ISO 19142: Table 1, Table 13, A.1.2", dataProvider = "protocol-binding")
 	public void describesBasicWFS(ProtocolBinding binding) throws SOAPException {
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_CAPABILITIES, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
 		Document entity = extractBodyAsDocument(rsp);
-		SchematronValidator validator = ValidationUtils.buildSchematronValidator(SCHEMATRON_METADATA, BASIC_WFS_PHASE);
-		Result result = validator.validate(new DOMSource(entity, entity.getDocumentURI()), false);
-		Assert.assertFalse(validator.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-				validator.getRuleViolationCount(), XMLUtils.resultToString(result)));
+		SchematronResult result = ValidationUtils.validateSchematron(SCHEMATRON_METADATA, BASIC_WFS_PHASE,
+				new DOMSource(entity, entity.getDocumentURI()), false);
+		Assert.assertFalse(result.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+				result.getRuleViolationCount(), XMLUtils.resultToString(result.getResult())));
 	}
 
 }
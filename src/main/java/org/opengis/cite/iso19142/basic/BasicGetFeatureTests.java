@@ -56,22 +56,26 @@ public class BasicGetFeatureTests extends BaseFixture {
 
 	private static final QName FEATURE_COLL = new QName(Namespaces.WFS, WFS2.FEATURE_COLLECTION);
 
-	Validator hintsValidator;
+	/** A grammar-less schema; a validator is then built from the location hints. */
+	private Schema hintsSchema;
 
 	/**
-	 * Creates a special XML Schema validator that uses schema location hints specified in
-	 * an XML instance document. Beware that this can introduce a vulnerability to
-	 * denial-of-service attacks, even though local copies of standard schemas will be
-	 * used if possible.
+	 * Validators obtained from the hints schema, one per thread since a Validator is not
+	 * thread-safe and test invocations may run concurrently.
+	 */
+	private final ThreadLocal<Validator> hintsValidator = new ThreadLocal<>();
+
+	/**
+	 * Creates a special XML Schema that is used to build validators that heed the schema
+	 * location hints specified in an XML instance document. Beware that this can
+	 * introduce a vulnerability to denial-of-service attacks, even though local copies of
+	 * standard schemas will be used if possible.
 	 */
 	@BeforeClass
 	public void buildValidator() {
 		SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
 		try {
-			Schema schema = factory.newSchema();
-			this.hintsValidator = schema.newValidator();
-			LSResourceResolver resolver = ValidationUtils.createSchemaResolver(Namespaces.XSD);
-			this.hintsValidator.setResourceResolver(resolver);
+			this.hintsSchema = factory.newSchema();
 		}
 		catch (SAXException e) {
 			// very unlikely to occur with no schema to process
@@ -79,6 +83,21 @@ public class BasicGetFeatureTests extends BaseFixture {
 		}
 	}
 
+	/**
+	 * Returns the validator used by the current thread, creating it if necessary.
+	 * @return A Validator that uses schema location hints.
+	 */
+	Validator getHintsValidator() {
+		Validator validator = this.hintsValidator.get();
+		if (null == validator) {
+			validator = this.hintsSchema.newValidator();
+			LSResourceResolver resolver = ValidationUtils.createSchemaResolver(Namespaces.XSD);
+			validator.setResourceResolver(resolver);
+			this.hintsValidator.set(validator);
+		}
+		return validator;
+	}
+
 	/**
 	 * Builds a DOM Document node representing the entity body for a GetFeature request. A
 	 * minimal XML representation is read from the classpath
@@ -86,16 +105,17 @@ public class BasicGetFeatureTests extends BaseFixture {
 	 */
 	@BeforeMethod
 	public void buildRequestEntity() {
-		this.reqEntity = WFSMessage.createRequestEntity("GetFeature-Minimal", this.wfsVersion);
-		this.rspEntity = null;
+		setRequestEntity(WFSMessage.createRequestEntity("GetFeature-Minimal", this.wfsVersion));
+		setResponseEntity(null);
 	}
 
 	/**
-	 * Resets the validator to its original configuration.
+	 * Discards the validator used by the current thread.
 	 */
 	@AfterMethod
 	public void resetValidator() {
-		this.hintsValidator.reset();
+		// a new one (with the schema resolver) is built when next needed
+		this.hintsValidator.remove();
 	}
 
 	/**
@@ -109,15 +129,15 @@ public class BasicGetFeatureTests extends BaseFixture {
 	 */
 	@Test(description = "See ISO 19142: 11.2.2, 11.2.3", dataProvider = "all-protocols-featureTypes")
 	public void getFeaturesByType(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertQualifiedName(rspEntity.getDocumentElement(), FEATURE_COLL);
-		ETSAssert.assertSchemaValid(this.hintsValidator,
-				new DOMSource(rspEntity.getDocumentElement(), rspEntity.getDocumentURI()));
+		ETSAssert.assertQualifiedName(getResponseEntity().getDocumentElement(), FEATURE_COLL);
+		ETSAssert.assertSchemaValid(getHintsValidator(),
+				new DOMSource(getResponseEntity().getDocumentElement(), getResponseEntity().getDocumentURI()));
 	}
 
 	/**
@@ -146,14 +166,14 @@ public class BasicGetFeatureTests extends BaseFixture {
 		if (null == otherCRSId) {
 			throw new SkipException("No alternative (non-default) CRS supported for any feature type with data.");
 		}
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		Element qry = (Element) this.reqEntity.getElementsByTagNameNS(WFS2.NS_URI, WFS2.QUERY_ELEM).item(0);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		Element qry = (Element) getRequestEntity().getElementsByTagNameNS(WFS2.NS_URI, WFS2.QUERY_ELEM).item(0);
 		qry.setAttribute(WFS2.SRSNAME_PARAM, otherCRSId);
-		Response rsp = wfsClient.submitRequest(this.reqEntity, ProtocolBinding.ANY);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		this.rspEntity = extractBodyAsDocument(rsp);
-		ETSAssert.assertSpatialReference(this.rspEntity, otherCRSId);
+		setResponseEntity(extractBodyAsDocument(rsp));
+		ETSAssert.assertSpatialReference(getResponseEntity(), otherCRSId);
 	}
 
 	/**
@@ -169,14 +189,14 @@ public class BasicGetFeatureTests extends BaseFixture {
 		String crsId = (this.wfsVersion.equals(WFS2.V2_0_0)) ? "urn:ogc:def:crs:EPSG::32690"
 				: "http://www.opengis.net/def/crs/EPSG/0/32690";
 		QName featureType = getFeatureTypeWithInstanceData();
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		Element qry = (Element) this.reqEntity.getElementsByTagNameNS(WFS2.NS_URI, WFS2.QUERY_ELEM).item(0);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		Element qry = (Element) getRequestEntity().getElementsByTagNameNS(WFS2.NS_URI, WFS2.QUERY_ELEM).item(0);
 		qry.setAttribute(WFS2.SRSNAME_PARAM, crsId);
-		Response rsp = wfsClient.submitRequest(this.reqEntity, ProtocolBinding.ANY);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		this.rspEntity = extractBodyAsDocument(rsp);
-		ETSAssert.assertExceptionReport(this.rspEntity, "InvalidParameterValue", "SRSNAME");
+		setResponseEntity(extractBodyAsDocument(rsp));
+		ETSAssert.assertExceptionReport(getResponseEntity(), "InvalidParameterValue", "SRSNAME");
 	}
 
 	/**
@@ -56,7 +56,7 @@ public class GetPropertyValueTests extends BaseFixture {
 	 */
 	@BeforeMethod
 	public void buildRequestEntity() {
-		this.reqEntity = WFSMessage.createRequestEntity("GetPropertyValue", this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity("GetPropertyValue", this.wfsVersion));
 	}
 
 	/**
@@ -70,10 +70,10 @@ public class GetPropertyValueTests extends BaseFixture {
 	 */
 	@Test(description = "See ISO 19142: 10.2.4.3", dataProvider = "protocol-binding")
 	public void getProperty_gmlId(ProtocolBinding binding) {
-		setValueReference(reqEntity, "@gml:id");
-		addQuery(this.reqEntity, this.featureTypes.get(0));
+		setValueReference(getRequestEntity(), "@gml:id");
+		addQuery(getRequestEntity(), this.featureTypes.get(0));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_PROP_VALUE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
 		Document entity = extractBodyAsDocument(rsp);
 		ETSAssert.assertQualifiedName(entity.getDocumentElement(), new QName(Namespaces.WFS, WFS2.VALUE_COLLECTION));
@@ -93,10 +93,10 @@ public class GetPropertyValueTests extends BaseFixture {
 	 */
 	@Test(description = "See ISO 19142: 7.5, 10.4", dataProvider = "protocol-binding")
 	public void getProperty_emptyValueRef(ProtocolBinding binding) {
-		setValueReference(reqEntity, "");
-		addQuery(reqEntity, this.featureTypes.get(0));
+		setValueReference(getRequestEntity(), "");
+		addQuery(getRequestEntity(), this.featureTypes.get(0));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_PROP_VALUE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
 		Document entity = extractBodyAsDocument(rsp);
 		ETSAssert.assertXPath("//ows:Exception/@exceptionCode = 'InvalidParameterValue'", entity.getDocumentElement(),
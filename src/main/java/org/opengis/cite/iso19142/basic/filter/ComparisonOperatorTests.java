@@ -31,6 +31,7 @@ import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.WFS2;
 import org.opengis.cite.iso19142.util.AppSchemaUtils;
+import org.opengis.cite.iso19142.util.PropertyStatistics;
 import org.opengis.cite.iso19142.util.TestSuiteLogger;
 import org.opengis.cite.iso19142.util.WFSMessage;
 import org.testng.Assert;
@@ -86,9 +87,10 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7", dataProvider = "protocol-featureType")
 	public void propertyIsLessThan_matchAny(ProtocolBinding binding, QName featureType) {
-		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(getModel());
-		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(getModel()));
-		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(getModel(), featureType, dataTypes);
+		XSModel xsModel = getModel(featureType);
+		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(xsModel);
+		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(xsModel));
+		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(xsModel, featureType, dataTypes);
 		if (propRangeMap.isEmpty()) {
 			throw new SkipException("No numeric or temporal property values found for " + featureType);
 		}
@@ -96,13 +98,13 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 		String propValue = propRange.getValue()[1]; // use max value
 		XSElementDeclaration propDecl = propRange.getKey();
 		QName propName = new QName(propDecl.getNamespace(), propDecl.getName());
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		addComparisonPredicate(this.reqEntity, FES2.LESS_THAN, propName, propValue, true, MATCH_ANY);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		addComparisonPredicate(getRequestEntity(), FES2.LESS_THAN, propName, propValue, true, MATCH_ANY);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// Add constructor functions for property type (XML Schema datatype)
 		QName dataType = AppSchemaUtils.getBuiltInDatatype(propDecl);
@@ -126,9 +128,10 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.3", dataProvider = "protocol-featureType")
 	public void propertyIsLessThan_matchAll(ProtocolBinding binding, QName featureType) {
-		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(getModel());
-		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(getModel()));
-		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(getModel(), featureType, dataTypes);
+		XSModel xsModel = getModel(featureType);
+		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(xsModel);
+		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(xsModel));
+		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(xsModel, featureType, dataTypes);
 		if (propRangeMap.isEmpty()) {
 			throw new SkipException("No numeric or temporal property values found for " + featureType);
 		}
@@ -136,13 +139,13 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 		String propValue = propRange.getValue()[1]; // use max value
 		XSElementDeclaration propDecl = propRange.getKey();
 		QName propName = new QName(propDecl.getNamespace(), propDecl.getName());
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		addComparisonPredicate(this.reqEntity, FES2.LESS_THAN, propName, propValue, true, MATCH_ALL);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		addComparisonPredicate(getRequestEntity(), FES2.LESS_THAN, propName, propValue, true, MATCH_ALL);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// Add constructor functions for property type (XML Schema datatype)
 		QName dataType = AppSchemaUtils.getBuiltInDatatype(propDecl);
@@ -167,9 +170,10 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.1", dataProvider = "protocol-featureType")
 	public void propertyIsGreaterThan_matchAny(ProtocolBinding binding, QName featureType) {
-		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(getModel());
-		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(getModel()));
-		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(getModel(), featureType, dataTypes);
+		XSModel xsModel = getModel(featureType);
+		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(xsModel);
+		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(xsModel));
+		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(xsModel, featureType, dataTypes);
 		if (propRangeMap.isEmpty()) {
 			throw new SkipException("No numeric or temporal property values found for " + featureType);
 		}
@@ -177,13 +181,13 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 		String propValue = propRange.getValue()[0]; // use min value
 		XSElementDeclaration propDecl = propRange.getKey();
 		QName propName = new QName(propDecl.getNamespace(), propDecl.getName());
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		addComparisonPredicate(this.reqEntity, FES2.GREATER_THAN, propName, propValue, true, MATCH_ANY);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		addComparisonPredicate(getRequestEntity(), FES2.GREATER_THAN, propName, propValue, true, MATCH_ANY);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// Add constructor functions for property type (XML Schema datatype)
 		QName dataType = AppSchemaUtils.getBuiltInDatatype(propDecl);
@@ -208,9 +212,10 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.1", dataProvider = "protocol-featureType")
 	public void propertyIsGreaterThanEqualTo_matchAny(ProtocolBinding binding, QName featureType) {
-		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(getModel());
-		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(getModel()));
-		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(getModel(), featureType, dataTypes);
+		XSModel xsModel = getModel(featureType);
+		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(xsModel);
+		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(xsModel));
+		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(xsModel, featureType, dataTypes);
 		if (propRangeMap.isEmpty()) {
 			throw new SkipException("No numeric or temporal property values found for " + featureType);
 		}
@@ -218,13 +223,13 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 		String propValue = propRange.getValue()[0]; // use min value
 		XSElementDeclaration propDecl = propRange.getKey();
 		QName propName = new QName(propDecl.getNamespace(), propDecl.getName());
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		addComparisonPredicate(this.reqEntity, FES2.GREATER_THAN_OR_EQUAL, propName, propValue, true, MATCH_ANY);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		addComparisonPredicate(getRequestEntity(), FES2.GREATER_THAN_OR_EQUAL, propName, propValue, true, MATCH_ANY);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// Add constructor functions for property type (XML Schema datatype)
 		QName dataType = AppSchemaUtils.getBuiltInDatatype(propDecl);
@@ -250,9 +255,10 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 
 	@Test(description = "See ISO 19143: 7.7.3.1", dataProvider = "protocol-featureType")
 	public void propertyIsLessThanEqualTo_matchAny(ProtocolBinding binding, QName featureType) {
-		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(getModel());
-		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(getModel()));
-		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(getModel(), featureType, dataTypes);
+		XSModel xsModel = getModel(featureType);
+		Set<XSTypeDefinition> dataTypes = getNumericDataTypes(xsModel);
+		dataTypes.addAll(AppSchemaUtils.getSimpleTemporalDataTypes(xsModel));
+		Map<XSElementDeclaration, String[]> propRangeMap = findFeaturePropertyValue(xsModel, featureType, dataTypes);
 		if (propRangeMap.isEmpty()) {
 			throw new SkipException("No numeric or temporal property values found for " + featureType);
 		}
@@ -260,13 +266,13 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 		String propValue = propRange.getValue()[1]; // use max value
 		XSElementDeclaration propDecl = propRange.getKey();
 		QName propName = new QName(propDecl.getNamespace(), propDecl.getName());
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		addComparisonPredicate(this.reqEntity, FES2.LESS_THAN_OR_EQUAL, propName, propValue, true, MATCH_ANY);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		addComparisonPredicate(getRequestEntity(), FES2.LESS_THAN_OR_EQUAL, propName, propValue, true, MATCH_ANY);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// Add constructor functions for property type (XML Schema datatype)
 		QName dataType = AppSchemaUtils.getBuiltInDatatype(propDecl);
@@ -295,14 +301,14 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 		// randomly select a feature type
 		Random rnd = new Random();
 		int index = rnd.nextInt(this.featureTypes.size());
-		WFSMessage.appendSimpleQuery(this.reqEntity, this.featureTypes.get(index));
-		addComparisonPredicate(this.reqEntity, FES2.LESS_THAN_OR_EQUAL, propName, "1355941270", true, MATCH_ANY);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), this.featureTypes.get(index));
+		addComparisonPredicate(getRequestEntity(), FES2.LESS_THAN_OR_EQUAL, propName, "1355941270", true, MATCH_ANY);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		String xpath = "//ows:Exception[@exceptionCode='InvalidParameterValue']";
-		ETSAssert.assertXPath(xpath, this.rspEntity, null);
+		ETSAssert.assertXPath(xpath, getResponseEntity(), null);
 	}
 
 	/**
@@ -328,14 +334,14 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 		// randomly select a feature type
 		Random rnd = new Random();
 		int index = rnd.nextInt(this.featureTypes.size());
-		WFSMessage.appendSimpleQuery(this.reqEntity, this.featureTypes.get(index));
+		WFSMessage.appendSimpleQuery(getRequestEntity(), this.featureTypes.get(index));
 		Document gmlEnv = WFSMessage.createGMLEnvelope();
-		addComparisonPredicate(this.reqEntity, FES2.LESS_THAN_OR_EQUAL, propName, gmlEnv, true, MATCH_ANY);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = rsp.readEntity(Document.class);
+		addComparisonPredicate(getRequestEntity(), FES2.LESS_THAN_OR_EQUAL, propName, gmlEnv, true, MATCH_ANY);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(rsp.readEntity(Document.class));
 		ETSAssert.assertStatusCode(rsp.getStatus(), new int[] { 500, 400, 403 });
 		String xpath = "//ows:Exception[@exceptionCode='OperationProcessingFailed']";
-		ETSAssert.assertXPath(xpath, this.rspEntity, null);
+		ETSAssert.assertXPath(xpath, getResponseEntity(), null);
 	}
 
 	/**
@@ -403,7 +409,8 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 	 * Inspects sample data retrieved from the SUT and determines the range of simple
 	 * property values for the specified feature type. The method finds the first feature
 	 * property that (a) conforms to one of the given type definitions, and (b) has at
-	 * least one value in the data sample.
+	 * least one value in the data sample. The range is obtained from the property
+	 * statistics compiled by the data sampler if these are available.
 	 * @param model An XSModel object representing an application schema.
 	 * @param featureType The qualified name of some feature type.
 	 * @param dataTypes A Set of simple data types that possess an interval or ratio scale
@@ -429,12 +436,21 @@ public class ComparisonOperatorTests extends QueryFilterFixture {
 		while (listItr.hasPrevious()) {
 			prop = listItr.previous();
 			QName propName = new QName(prop.getNamespace(), prop.getName());
-			List<String> valueList = this.dataSampler.getSimplePropertyValues(featureType, propName, null);
-			if (!valueList.isEmpty()) {
-				String[] values = new String[valueList.size()];
-				for (int i = 0; i < values.length; i++) {
-					values[i] = valueList.get(i);
+			String[] values = null;
+			PropertyStatistics stats = this.dataSampler.getPropertyStatistics(featureType, propName);
+			if (null != stats) {
+				if (stats.getValueCount() > 0) {
+					values = new String[] { stats.getMinimum(), stats.getMaximum() };
 				}
+			}
+			else {
+				// no statistics collected; inspect the sample data
+				List<String> valueList = this.dataSampler.getSimplePropertyValues(featureType, propName, null);
+				if (!valueList.isEmpty()) {
+					values = valueList.toArray(new String[valueList.size()]);
+				}
+			}
+			if (null != values) {
 				// use actual datatype to produce valid string representation
 				QName datatype = AppSchemaUtils.getBuiltInDatatype(prop);
 				valueRange = calculateRange(values, datatype);
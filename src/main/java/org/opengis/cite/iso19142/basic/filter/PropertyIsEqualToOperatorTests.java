@@ -11,6 +11,7 @@ import javax.xml.namespace.QName;
 import javax.xml.transform.dom.DOMSource;
 
 import org.apache.xerces.xs.XSElementDeclaration;
+import org.apache.xerces.xs.XSModel;
 import org.apache.xerces.xs.XSTypeDefinition;
 import org.opengis.cite.iso19142.ETSAssert;
 import org.opengis.cite.iso19142.ErrorMessage;
@@ -19,6 +20,7 @@ import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.WFS2;
 import org.opengis.cite.iso19142.util.AppSchemaUtils;
+import org.opengis.cite.iso19142.util.PropertyStatistics;
 import org.opengis.cite.iso19142.util.WFSMessage;
 import org.testng.Assert;
 import org.testng.SkipException;
@@ -62,7 +64,7 @@ public class PropertyIsEqualToOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.2", dataProvider = "protocol-featureType")
 	public void propertyIsEqualTo_caseSensitive(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Map<XSElementDeclaration, String> propValueMap = findMatchingPropertyValue(featureType);
 		if (propValueMap.isEmpty()) {
 			throw new SkipException("No simple property values found for feature type " + featureType);
@@ -70,12 +72,12 @@ public class PropertyIsEqualToOperatorTests extends QueryFilterFixture {
 		Entry<XSElementDeclaration, String> propValue = propValueMap.entrySet().iterator().next();
 		XSElementDeclaration propDecl = propValue.getKey();
 		QName propName = new QName(propDecl.getNamespace(), propDecl.getName());
-		addPropertyIsEqualToPredicate(this.reqEntity, propName, propValue.getValue(), true, null, false);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		addPropertyIsEqualToPredicate(getRequestEntity(), propName, propValue.getValue(), true, null, false);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// Add constructor functions for property type (XML Schema datatype)
 		QName dataType = AppSchemaUtils.getBuiltInDatatype(propDecl);
@@ -100,7 +102,7 @@ public class PropertyIsEqualToOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.2", dataProvider = "protocol-featureType")
 	public void propertyIsNotEqualTo_caseSensitive(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Map<XSElementDeclaration, String> propValueMap = findMatchingPropertyValue(featureType);
 		if (propValueMap.isEmpty()) {
 			throw new SkipException("No simple property values found for feature type " + featureType);
@@ -108,12 +110,12 @@ public class PropertyIsEqualToOperatorTests extends QueryFilterFixture {
 		Entry<XSElementDeclaration, String> propValue = propValueMap.entrySet().iterator().next();
 		XSElementDeclaration propDecl = propValue.getKey();
 		QName propName = new QName(propDecl.getNamespace(), propDecl.getName());
-		addPropertyIsEqualToPredicate(this.reqEntity, propName, propValue.getValue(), true, MATCH_ALL, true);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		addPropertyIsEqualToPredicate(getRequestEntity(), propName, propValue.getValue(), true, MATCH_ALL, true);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// Add constructor functions for property type (XML Schema datatype)
 		QName dataType = AppSchemaUtils.getBuiltInDatatype(propDecl);
@@ -198,9 +200,9 @@ public class PropertyIsEqualToOperatorTests extends QueryFilterFixture {
 	 * the value is a String representing the property value.
 	 */
 	Map<XSElementDeclaration, String> findMatchingPropertyValue(QName featureType) {
-		XSTypeDefinition xsdSimpleType = getModel().getTypeDefinition("anySimpleType",
-				XMLConstants.W3C_XML_SCHEMA_NS_URI);
-		List<XSElementDeclaration> simpleProps = AppSchemaUtils.getFeaturePropertiesByType(getModel(), featureType,
+		XSModel xsModel = getModel(featureType);
+		XSTypeDefinition xsdSimpleType = xsModel.getTypeDefinition("anySimpleType", XMLConstants.W3C_XML_SCHEMA_NS_URI);
+		List<XSElementDeclaration> simpleProps = AppSchemaUtils.getFeaturePropertiesByType(xsModel, featureType,
 				xsdSimpleType);
 		ListIterator<XSElementDeclaration> listItr = simpleProps.listIterator(simpleProps.size());
 		XSElementDeclaration prop = null;
@@ -209,7 +211,9 @@ public class PropertyIsEqualToOperatorTests extends QueryFilterFixture {
 		while (listItr.hasPrevious()) {
 			prop = listItr.previous();
 			QName propName = new QName(prop.getNamespace(), prop.getName());
-			List<String> values = dataSampler.getSimplePropertyValues(featureType, propName, null);
+			PropertyStatistics stats = dataSampler.getPropertyStatistics(featureType, propName);
+			List<String> values = (null != stats) ? stats.getSampleValues()
+					: dataSampler.getSimplePropertyValues(featureType, propName, null);
 			if (!values.isEmpty()) {
 				// select first value if multiple occurrences
 				propValue = values.get(0);
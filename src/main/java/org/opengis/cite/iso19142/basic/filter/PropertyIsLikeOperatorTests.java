@@ -11,6 +11,7 @@ import javax.xml.namespace.QName;
 import javax.xml.transform.dom.DOMSource;
 
 import org.apache.xerces.xs.XSElementDeclaration;
+import org.apache.xerces.xs.XSModel;
 import org.apache.xerces.xs.XSTypeDefinition;
 import org.opengis.cite.iso19142.ETSAssert;
 import org.opengis.cite.iso19142.ErrorMessage;
@@ -19,6 +20,7 @@ import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.WFS2;
 import org.opengis.cite.iso19142.util.AppSchemaUtils;
+import org.opengis.cite.iso19142.util.PropertyStatistics;
 import org.opengis.cite.iso19142.util.WFSMessage;
 import org.testng.Assert;
 import org.testng.SkipException;
@@ -57,18 +59,18 @@ public class PropertyIsLikeOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.4, 7.10", dataProvider = "protocol-featureType")
 	public void propertyIsNotLike(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Map<QName, String> patternMap = generateMatchingStringPattern(featureType);
 		if (patternMap.isEmpty()) {
 			throw new SkipException("No string property values found for feature type " + featureType);
 		}
 		Entry<QName, String> propPattern = patternMap.entrySet().iterator().next();
-		addPropertyIsLikePredicate(this.reqEntity, propPattern.getKey(), propPattern.getValue(), true);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		addPropertyIsLikePredicate(getRequestEntity(), propPattern.getKey(), propPattern.getValue(), true);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// convert wildcards in pattern to proper regular expression
 		String xpath = String.format("not(matches(ns1:%s[1], '%s'))", propPattern.getKey().getLocalPart(),
@@ -90,18 +92,18 @@ public class PropertyIsLikeOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.4", dataProvider = "protocol-featureType")
 	public void propertyIsLike(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Map<QName, String> patternMap = generateMatchingStringPattern(featureType);
 		if (patternMap.isEmpty()) {
 			throw new SkipException("No string property values found for feature type " + featureType);
 		}
 		Entry<QName, String> propPattern = patternMap.entrySet().iterator().next();
-		addPropertyIsLikePredicate(this.reqEntity, propPattern.getKey(), propPattern.getValue(), false);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		addPropertyIsLikePredicate(getRequestEntity(), propPattern.getKey(), propPattern.getValue(), false);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(featureType.getNamespaceURI(),
+		NodeList features = getResponseEntity().getElementsByTagNameNS(featureType.getNamespaceURI(),
 				featureType.getLocalPart());
 		// convert wildcards in pattern to proper regular expression
 		String xpath = String.format("matches(ns1:%s[1], '%s')", propPattern.getKey().getLocalPart(),
@@ -183,15 +185,18 @@ public class PropertyIsLikeOperatorTests extends QueryFilterFixture {
 	Map<QName, String> generateMatchingStringPattern(QName featureType) {
 		QName propName = null;
 		String pattern = null;
-		XSTypeDefinition stringType = getModel().getTypeDefinition("string", XMLConstants.W3C_XML_SCHEMA_NS_URI);
-		List<XSElementDeclaration> strProps = AppSchemaUtils.getFeaturePropertiesByType(getModel(), featureType,
+		XSModel xsModel = getModel(featureType);
+		XSTypeDefinition stringType = xsModel.getTypeDefinition("string", XMLConstants.W3C_XML_SCHEMA_NS_URI);
+		List<XSElementDeclaration> strProps = AppSchemaUtils.getFeaturePropertiesByType(xsModel, featureType,
 				stringType);
 		ListIterator<XSElementDeclaration> listItr = strProps.listIterator(strProps.size());
 		// start with application-specific properties at end of list
 		while (listItr.hasPrevious()) {
 			XSElementDeclaration prop = listItr.previous();
 			propName = new QName(prop.getNamespace(), prop.getName());
-			List<String> values = this.dataSampler.getSimplePropertyValues(featureType, propName, null);
+			PropertyStatistics stats = this.dataSampler.getPropertyStatistics(featureType, propName);
+			List<String> values = (null != stats) ? stats.getSampleValues()
+					: this.dataSampler.getSimplePropertyValues(featureType, propName, null);
 			if (!values.isEmpty()) {
 				// just use first value and replace first two chars with '*'
 				StringBuilder patternBuilder = new StringBuilder(values.get(0));
@@ -71,20 +71,20 @@ public class PropertyIsNilOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.6, A.6", dataProvider = "protocol-featureType")
 	public void propertyIsNil(ProtocolBinding binding, QName featureType) {
-		List<QName> nillables = this.dataSampler.getNillableProperties(getModel(), featureType);
+		List<QName> nillables = this.dataSampler.getNillableProperties(getModel(featureType), featureType);
 		if (nillables.isEmpty()) {
 			throw new SkipException("FeatureType " + featureType + " does not contain at least one nillable property");
 		}
-		this.reqEntity = WFSMessage.createRequestEntity(GET_FEATURE_MINIMAL, this.wfsVersion);
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		setRequestEntity(WFSMessage.createRequestEntity(GET_FEATURE_MINIMAL, this.wfsVersion));
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		// get last nillable property for this feature type
 		QName propName = nillables.get(nillables.size() - 1);
-		addPropertyIsNilPredicate(this.reqEntity, propName, null, false);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		addPropertyIsNilPredicate(getRequestEntity(), propName, null, false);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		NodeList features = this.rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.MEMBER);
+		NodeList features = getResponseEntity().getElementsByTagNameNS(Namespaces.WFS, WFS2.MEMBER);
 
 		String xpath = String.format("ns1:%s[@xsi:nil='true']", propName.getLocalPart());
 		Map<String, String> nsBindings = new HashMap<String, String>();
@@ -49,17 +49,17 @@ public class PropertyIsNullOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.5", dataProvider = "protocol-featureType")
 	public void gmlNameIsNull(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		QName gmlName = new QName(Namespaces.GML, "name", "gml");
-		addPropertyIsNullPredicate(this.reqEntity, gmlName, false);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		addPropertyIsNullPredicate(getRequestEntity(), gmlName, false);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		Map<String, String> nsBindings = new HashMap<String, String>();
 		nsBindings.put(featureType.getNamespaceURI(), "tns");
 		String xpath = String.format("not(//tns:%s[gml:name])", featureType.getLocalPart());
-		ETSAssert.assertXPath(xpath, this.rspEntity, nsBindings);
+		ETSAssert.assertXPath(xpath, getResponseEntity(), nsBindings);
 	}
 
 	/**
@@ -71,14 +71,14 @@ public class PropertyIsNullOperatorTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.7.3.5, 7.10", dataProvider = "protocol-featureType")
 	public void propertyIsNotNull(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		List<XSElementDeclaration> props = AppSchemaUtils.getAllFeatureProperties(getModel(), featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		List<XSElementDeclaration> props = AppSchemaUtils.getAllFeatureProperties(getModel(featureType), featureType);
 		// get last property in document order
 		XSElementDeclaration lastProp = props.get(props.size() - 1);
 		QName propName = new QName(lastProp.getNamespace(), lastProp.getName());
-		addPropertyIsNullPredicate(this.reqEntity, propName, true);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		addPropertyIsNullPredicate(getRequestEntity(), propName, true);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		Map<String, String> nsBindings = new HashMap<String, String>();
@@ -90,7 +90,7 @@ public class PropertyIsNullOperatorTests extends QueryFilterFixture {
 		}
 		String xpath = String.format("count(//ns1:%s[%s:%s]) = count(//wfs:member)", featureType.getLocalPart(),
 				nsPrefix, propName.getLocalPart());
-		ETSAssert.assertXPath(xpath, this.rspEntity, nsBindings);
+		ETSAssert.assertXPath(xpath, getResponseEntity(), nsBindings);
 	}
 
 	/**
@@ -1,8 +1,6 @@
 package org.opengis.cite.iso19142.basic.filter;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 
 import javax.xml.namespace.QName;
@@ -11,8 +9,8 @@ import org.apache.xerces.xs.XSElementDeclaration;
 import org.apache.xerces.xs.XSModel;
 import org.opengis.cite.iso19142.BaseFixture;
 import org.opengis.cite.iso19142.SuiteAttribute;
-import org.opengis.cite.iso19142.util.AppSchemaUtils;
 import org.opengis.cite.iso19142.util.DataSampler;
+import org.opengis.cite.iso19142.util.FeatureTypeSchemaIndex;
 import org.opengis.cite.iso19142.util.TestSuiteLogger;
 import org.opengis.cite.iso19142.util.WFSMessage;
 import org.testng.Assert;
@@ -31,13 +29,15 @@ public class QueryFilterFixture extends BaseFixture {
 	/** Acquires and saves sample data. */
 	protected DataSampler dataSampler;
 
-	protected Map<QName, List<XSElementDeclaration>> temporalProperties;
-
 	/**
-	 * An XSModel object representing the application schema supported by the SUT.
+	 * An XSModel object representing the application schema supported by the SUT. It is
+	 * obtained when first needed (see {@link #getModel()}).
 	 */
 	protected XSModel model;
 
+	/** The test suite from which schema models are obtained. */
+	private ISuite suite;
+
 	protected final String GET_FEATURE_MINIMAL = "GetFeature-Minimal";
 
 	public QueryFilterFixture() {
@@ -49,16 +49,14 @@ public class QueryFilterFixture extends BaseFixture {
 	 * {@link SuiteAttribute#SAMPLER SuiteAttribute.SAMPLER attribute}), or adds one if
 	 * it's not found there.
 	 *
-	 * A schema model (XSModel) is also obtained from the test suite context by accessing
-	 * the {@link org.opengis.cite.iso19136.SuiteAttribute#XSMODEL xsmodel} attribute.
+	 * Schema models (XSModel) are obtained from the test suite context when they are
+	 * first needed (see {@link #getModel(QName)}).
 	 * @param testContext The test (set) context.
 	 */
 	@BeforeClass()
 	public void initQueryFilterFixture(ITestContext testContext) {
-		ISuite suite = testContext.getSuite();
+		this.suite = testContext.getSuite();
 		this.dataSampler = (DataSampler) suite.getAttribute(SuiteAttribute.SAMPLER.getName());
-		this.model = (XSModel) suite.getAttribute(org.opengis.cite.iso19136.SuiteAttribute.XSMODEL.getName());
-		this.temporalProperties = new HashMap<>();
 	}
 
 	/**
@@ -68,7 +66,7 @@ public class QueryFilterFixture extends BaseFixture {
 	 */
 	@BeforeMethod
 	public void buildRequestEntity() {
-		this.reqEntity = WFSMessage.createRequestEntity(GET_FEATURE_MINIMAL, this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity(GET_FEATURE_MINIMAL, this.wfsVersion));
 	}
 
 	/**
@@ -76,7 +74,7 @@ public class QueryFilterFixture extends BaseFixture {
 	 */
 	@BeforeMethod
 	public void discardResponseEntity() {
-		this.rspEntity = null;
+		setResponseEntity(null);
 	}
 
 	/**
@@ -87,23 +85,50 @@ public class QueryFilterFixture extends BaseFixture {
 	 * properties; the list may be empty.
 	 */
 	protected List<XSElementDeclaration> findTemporalProperties(QName featureType) {
-		List<XSElementDeclaration> tmProps = this.temporalProperties.get(featureType);
-		if (tmProps != null) {
-			return tmProps;
+		List<XSElementDeclaration> tmProps = FeatureTypeSchemaIndex.of(getModel(featureType))
+			.getTemporalProperties(featureType);
+		if (TestSuiteLogger.isLoggable(Level.FINE)) {
+			TestSuiteLogger.log(Level.FINE,
+					String.format("Temporal properties for feature type %s: %s", featureType, tmProps));
 		}
-		tmProps = AppSchemaUtils.getTemporalFeatureProperties(getModel(), featureType);
-		this.temporalProperties.put(featureType, tmProps);
-		TestSuiteLogger.log(Level.FINE,
-				String.format("Temporal properties for feature type %s: %s", featureType, tmProps));
 		return tmProps;
 	}
 
+	/**
+	 * Returns a schema model suitable for looking up GML (or XML Schema) components (see
+	 * {@link #getSchemaModel(ISuite)}). Use {@link #getModel(QName)} for the definition
+	 * of a feature type.
+	 * @return An XSModel object.
+	 */
 	public XSModel getModel() {
-		if (model == null) {
+		XSModel xsModel = this.model;
+		if (null == xsModel && null != this.suite) {
+			xsModel = getSchemaModel(this.suite);
+			this.model = xsModel;
+		}
+		return checkModel(xsModel);
+	}
+
+	/**
+	 * Returns a schema model that includes the definition of the given feature type (see
+	 * {@link #getSchemaModel(ISuite, QName)}). Only the schema for the namespace of the
+	 * feature type is loaded.
+	 * @param featureType The qualified name of a feature type.
+	 * @return An XSModel object.
+	 */
+	public XSModel getModel(QName featureType) {
+		if (null == this.suite) {
+			return checkModel(this.model);
+		}
+		return checkModel(getSchemaModel(this.suite, featureType));
+	}
+
+	private static XSModel checkModel(XSModel xsModel) {
+		if (xsModel == null) {
 			Assert.fail(
 					"Test cannot be executed as no schema can be found; Please check if DescribeFeatureType returns a valid schema.");
 		}
-		return model;
+		return xsModel;
 	}
 
 }
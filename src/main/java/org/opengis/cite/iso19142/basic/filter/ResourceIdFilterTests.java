@@ -48,14 +48,15 @@ public class ResourceIdFilterTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19142: 7.2.2; ISO 19143: 7.11", dataProvider = "protocol-featureType")
 	public void twoValidFeatureIdentifiers(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Set<String> idSet = this.dataSampler.selectRandomFeatureIdentifiers(featureType, 2);
-		WFSMessage.addResourceIdPredicate(this.reqEntity, idSet);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.addResourceIdPredicate(getRequestEntity(), idSet);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertDescendantElementCount(this.rspEntity, new QName(Namespaces.WFS, WFS2.MEMBER), idSet.size());
+		ETSAssert.assertDescendantElementCount(getResponseEntity(), new QName(Namespaces.WFS, WFS2.MEMBER),
+				idSet.size());
 	}
 
 	/**
@@ -68,17 +69,17 @@ public class ResourceIdFilterTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19142: 7.2.2, Table 8", dataProvider = "protocol-featureType")
 	public void unknownFeatureIdentifier(ProtocolBinding binding, QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Set<String> idSet = new HashSet<String>();
 		idSet.add("test-" + UUID.randomUUID());
-		WFSMessage.addResourceIdPredicate(this.reqEntity, idSet);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.addResourceIdPredicate(getRequestEntity(), idSet);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertQualifiedName(this.rspEntity.getDocumentElement(),
+		ETSAssert.assertQualifiedName(getResponseEntity().getDocumentElement(),
 				new QName(Namespaces.WFS, WFS2.FEATURE_COLLECTION));
-		ETSAssert.assertFeatureCount(this.rspEntity, featureType, 0);
+		ETSAssert.assertFeatureCount(getResponseEntity(), featureType, 0);
 	}
 
 	/**
@@ -92,19 +93,19 @@ public class ResourceIdFilterTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19142: 7.9.2.4.1", dataProvider = "instantiated-feature-types")
 	public void inconsistentFeatureIdentifierAndType(QName featureType) {
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Set<String> idSet = new HashSet<String>();
 		String featureId = this.dataSampler.getFeatureIdNotOfType(featureType);
 		if (null == featureId) {
 			throw new SkipException("Unable to find id of feature instance that is NOT of type " + featureType);
 		}
 		idSet.add(featureId);
-		WFSMessage.addResourceIdPredicate(this.reqEntity, idSet);
-		Response rsp = wfsClient.submitRequest(reqEntity, ProtocolBinding.GET);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.addResourceIdPredicate(getRequestEntity(), idSet);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.GET);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertExceptionReport(this.rspEntity, "InvalidParameterValue", "RESOURCEID");
+		ETSAssert.assertExceptionReport(getResponseEntity(), "InvalidParameterValue", "RESOURCEID");
 	}
 
 }
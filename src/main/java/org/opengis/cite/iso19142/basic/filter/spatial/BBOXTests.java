@@ -12,7 +12,7 @@ import javax.xml.xpath.XPathExpressionException;
 
 import org.apache.sis.geometry.GeneralEnvelope;
 import org.apache.xerces.xs.XSElementDeclaration;
-import org.apache.xerces.xs.XSTypeDefinition;
+import org.apache.xerces.xs.XSModel;
 import org.opengis.cite.geomatics.Extents;
 import org.opengis.cite.geomatics.SpatialOperator;
 import org.opengis.cite.geomatics.TopologicalRelationships;
@@ -30,7 +30,6 @@ import org.opengis.cite.iso19142.util.XMLUtils;
 import org.opengis.geometry.Envelope;
 import org.testng.Assert;
 import org.testng.SkipException;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -58,17 +57,6 @@ public class BBOXTests extends QueryFilterFixture {
 	// avoids rounding issues in the GML encoding
 	public static final double ENVELOPE_EXPANSION = 0.01;
 
-	private XSTypeDefinition gmlGeomBaseType;
-
-	/**
-	 * Creates an XSTypeDefinition object representing the gml:AbstractGeometryType
-	 * definition.
-	 */
-	@BeforeClass
-	public void createGeometryBaseType() {
-		this.gmlGeomBaseType = getModel().getTypeDefinition("AbstractGeometryType", Namespaces.GML);
-	}
-
 	/**
 	 * [{@code Test}] Submits a GetFeature request with a non-specific BBOX predicate. If
 	 * no value reference is specified the predicate is applied to all spatial properties.
@@ -81,12 +69,13 @@ public class BBOXTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.8.3.2", dataProvider = "protocol-featureType")
 	public void nonSpecificBBOX(ProtocolBinding binding, QName featureType) {
-		List<XSElementDeclaration> geomProps = AppSchemaUtils.getFeaturePropertiesByType(getModel(), featureType,
-				gmlGeomBaseType);
+		XSModel xsModel = getModel(featureType);
+		List<XSElementDeclaration> geomProps = AppSchemaUtils.getFeaturePropertiesByType(xsModel, featureType,
+				xsModel.getTypeDefinition("AbstractGeometryType", Namespaces.GML));
 		if (geomProps.isEmpty()) {
 			throw new SkipException("Feature type has no geometry properties: " + featureType);
 		}
-		Envelope extent = this.dataSampler.getSpatialExtent(getModel(), featureType);
+		Envelope extent = this.dataSampler.getSpatialExtent(xsModel, featureType);
 		if (extent == null) {
 			throw new SkipException(
 					"Could not create envelope out of sampled features for feature type: " + featureType);
@@ -98,11 +87,11 @@ public class BBOXTests extends QueryFilterFixture {
 		catch (Exception e) {
 			throw new RuntimeException("Could not create envelope for feature type: " + featureType, e);
 		}
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		addBBOXPredicate(this.reqEntity, gmlEnv.getDocumentElement(), null);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		addBBOXPredicate(getRequestEntity(), gmlEnv.getDocumentElement(), null);
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		Map<String, String> nsBindings = new HashMap<String, String>();
@@ -110,13 +99,13 @@ public class BBOXTests extends QueryFilterFixture {
 		NodeList members;
 		String xpath = "//wfs:member/*";
 		try {
-			members = XMLUtils.evaluateXPath(this.rspEntity, xpath, nsBindings);
+			members = XMLUtils.evaluateXPath(getResponseEntity(), xpath, nsBindings);
 		}
 		catch (XPathExpressionException e) {
 			throw new RuntimeException(e);
 		}
 		Assert.assertTrue(members.getLength() > 0, ErrorMessage.format(ErrorMessageKeys.XPATH_RESULT,
-				this.rspEntity.getDocumentElement().getNodeName(), xpath));
+				getResponseEntity().getDocumentElement().getNodeName(), xpath));
 		for (int i = 0; i < members.getLength(); i++) {
 			ETSAssert.assertQualifiedName(members.item(i), featureType);
 		}
@@ -141,15 +130,16 @@ public class BBOXTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19143: 7.8.3.2, A.7", dataProvider = "protocol-featureType")
 	public void bboxWithDefaultExtent(ProtocolBinding binding, QName featureType) {
-		List<XSElementDeclaration> geomProps = AppSchemaUtils.getFeaturePropertiesByType(getModel(), featureType,
-				gmlGeomBaseType);
+		XSModel xsModel = getModel(featureType);
+		List<XSElementDeclaration> geomProps = AppSchemaUtils.getFeaturePropertiesByType(xsModel, featureType,
+				xsModel.getTypeDefinition("AbstractGeometryType", Namespaces.GML));
 		if (geomProps.isEmpty()) {
 			throw new SkipException("Feature type has no geometry properties: " + featureType);
 		}
 		XSElementDeclaration geomProp = geomProps.get(0);
 		Element valueRef = WFSMessage.createValueReference(geomProp);
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		Envelope extent = this.dataSampler.getSpatialExtent(getModel(), featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		Envelope extent = this.dataSampler.getSpatialExtent(xsModel, featureType);
 		if (extent == null) {
 			throw new SkipException(
 					"Could not create envelope out of sampled features for feature type: " + featureType);
@@ -161,9 +151,9 @@ public class BBOXTests extends QueryFilterFixture {
 		catch (Exception e) {
 			throw new RuntimeException("Could not create envelope for feature type: " + featureType, e);
 		}
-		addBBOXPredicate(this.reqEntity, gmlEnv.getDocumentElement(), valueRef);
-		Response rsp = wfsClient.submitRequest(reqEntity, binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		addBBOXPredicate(getRequestEntity(), gmlEnv.getDocumentElement(), valueRef);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		Map<String, String> nsBindings = new HashMap<String, String>();
@@ -178,14 +168,14 @@ public class BBOXTests extends QueryFilterFixture {
 		}
 		NodeList geometryNodes;
 		try {
-			geometryNodes = XMLUtils.evaluateXPath(this.rspEntity, xpath, nsBindings);
+			geometryNodes = XMLUtils.evaluateXPath(getResponseEntity(), xpath, nsBindings);
 		}
 		catch (XPathExpressionException e) {
 			throw new RuntimeException(e);
 		}
 		Assert.assertTrue(geometryNodes.getLength() > 0, ErrorMessage.format(ErrorMessageKeys.XPATH_RESULT,
-				this.rspEntity.getDocumentElement().getNodeName(), xpath));
-		Document gmlPolygon = XMLUtils.transform(new StreamSource(getClass().getResourceAsStream(XSLT_ENV2POLYGON)),
+				getResponseEntity().getDocumentElement().getNodeName(), xpath));
+		Document gmlPolygon = XMLUtils.transform(new StreamSource(getClass().getResource(XSLT_ENV2POLYGON).toString()),
 				gmlEnv, null);
 		for (int i = 0; i < geometryNodes.getLength(); i++) {
 			Element geometry = (Element) geometryNodes.item(i);
@@ -230,9 +220,9 @@ public class BBOXTests extends QueryFilterFixture {
 	 */
 	@Test(description = "See ISO 19142: 11.4; ISO 19143: 8.3", dataProvider = "instantiated-feature-types")
 	public void invalidGeometryOperand(QName featureType) {
-		XSElementDeclaration gmlDesc = getModel().getElementDeclaration("description", Namespaces.GML);
+		XSElementDeclaration gmlDesc = getModel(featureType).getElementDeclaration("description", Namespaces.GML);
 		Element valueRef = WFSMessage.createValueReference(gmlDesc);
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Envelope extent = featureInfo.get(featureType).getSpatialExtent();
 		Document gmlEnv = null;
 		try {
@@ -241,20 +231,20 @@ public class BBOXTests extends QueryFilterFixture {
 		catch (Exception e) {
 			throw new RuntimeException("Could not create envelope for feature type: " + featureType, e);
 		}
-		addBBOXPredicate(this.reqEntity, gmlEnv.getDocumentElement(), valueRef);
-		Response rsp = wfsClient.submitRequest(reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		addBBOXPredicate(getRequestEntity(), gmlEnv.getDocumentElement(), valueRef);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		// https://github.com/opengeospatial/ets-wfs20/issues/147
 		// Agreed solution to this issue is to also allow OperationProcessingFailed
 		// (Status Code 403) as valid exception type.
 		int statusCode = rsp.getStatus();
 		if (statusCode == Status.BAD_REQUEST.getStatusCode()) {
 			String xpath = "//ows:Exception[@exceptionCode='InvalidParameterValue']";
-			ETSAssert.assertXPath(xpath, this.rspEntity, null);
+			ETSAssert.assertXPath(xpath, getResponseEntity(), null);
 		}
 		else if (statusCode == Status.FORBIDDEN.getStatusCode()) {
 			String xpath = "//ows:Exception[@exceptionCode='OperationProcessingFailed']";
-			ETSAssert.assertXPath(xpath, this.rspEntity, null);
+			ETSAssert.assertXPath(xpath, getResponseEntity(), null);
 		}
 		else {
 			Assert.fail(String.format(
@@ -277,7 +267,7 @@ public class BBOXTests extends QueryFilterFixture {
 	 * Common architecture"
 	 */
 	Element surfaceToPolygon(Element geometry) {
-		Document result = XMLUtils.transform(new StreamSource(getClass().getResourceAsStream("surface2polygon.xsl")),
+		Document result = XMLUtils.transform(new StreamSource(getClass().getResource("surface2polygon.xsl").toString()),
 				geometry, null);
 		return result.getDocumentElement();
 	}
@@ -15,6 +15,7 @@ import javax.xml.transform.stream.StreamSource;
 import javax.xml.xpath.XPathExpressionException;
 
 import org.apache.xerces.xs.XSElementDeclaration;
+import org.apache.xerces.xs.XSModel;
 import org.apache.xerces.xs.XSTypeDefinition;
 import org.opengis.cite.geomatics.Extents;
 import org.opengis.cite.geomatics.SpatialOperator;
@@ -25,7 +26,6 @@ import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
 import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
-import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.WFS2;
 import org.opengis.cite.iso19142.basic.filter.QueryFilterFixture;
 import org.opengis.cite.iso19142.util.AppSchemaUtils;
@@ -79,7 +79,7 @@ public class IntersectsTests extends QueryFilterFixture {
 	 */
 	@BeforeTest
 	public void implementsSpatialFilter(ITestContext testContext) {
-		this.wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		this.wfsMetadata = getServiceDescription(testContext.getSuite());
 		String xpath = String.format("//fes:Constraint[@name='%s' and (ows:DefaultValue = 'TRUE')]",
 				IMPL_SPATIAL_FILTER);
 		NodeList result;
@@ -99,10 +99,12 @@ public class IntersectsTests extends QueryFilterFixture {
 	 */
 	@BeforeClass
 	public void findAllGeometryProperties() {
-		XSTypeDefinition geomBaseType = getModel().getTypeDefinition("AbstractGeometryType", Namespaces.GML);
 		this.allGeomProperties = new HashMap<>();
 		for (QName featureType : this.featureTypes) {
-			List<XSElementDeclaration> geomProps = AppSchemaUtils.getFeaturePropertiesByType(getModel(), featureType,
+			// type definitions are only comparable within one model
+			XSModel xsModel = getModel(featureType);
+			XSTypeDefinition geomBaseType = xsModel.getTypeDefinition("AbstractGeometryType", Namespaces.GML);
+			List<XSElementDeclaration> geomProps = AppSchemaUtils.getFeaturePropertiesByType(xsModel, featureType,
 					geomBaseType);
 			if (!geomProps.isEmpty()) {
 				this.allGeomProperties.put(featureType, geomProps);
@@ -140,7 +142,7 @@ public class IntersectsTests extends QueryFilterFixture {
 		if (!this.geomOperands.contains(gmlPolygon)) {
 			throw new SkipException("Unsupported geometry operand: " + gmlPolygon);
 		}
-		Envelope extent = this.dataSampler.getSpatialExtent(getModel(), featureType);
+		Envelope extent = this.dataSampler.getSpatialExtent(getModel(featureType), featureType);
 		if (extent == null) {
 			throw new SkipException(
 					"Could not create envelope out of sampled features for feature type: " + featureType);
@@ -172,10 +174,10 @@ public class IntersectsTests extends QueryFilterFixture {
 			// ignore point property--unlikely to intersect line
 			throw new SkipException("Intersects tests are not supported for point geometry types.");
 		}
-		this.reqEntity = buildGetFeatureRequest(featureType, INTERSECTS_OP, geomProperty, gmlPolygonElem);
+		setRequestEntity(buildGetFeatureRequest(featureType, INTERSECTS_OP, geomProperty, gmlPolygonElem));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		NodeList geomNodes = findGeometryPropertyValues(featureType, geomProperty);
@@ -215,7 +217,7 @@ public class IntersectsTests extends QueryFilterFixture {
 				throw new SkipException("Unsupported geometry operands: gml:LineString, gml:Curve");
 			}
 		}
-		Envelope extent = this.dataSampler.getSpatialExtent(getModel(), featureType);
+		Envelope extent = this.dataSampler.getSpatialExtent(getModel(featureType), featureType);
 		if (extent == null) {
 			throw new SkipException(
 					"Could not create envelope out of sampled features for feature type: " + featureType);
@@ -249,10 +251,10 @@ public class IntersectsTests extends QueryFilterFixture {
 			throw new SkipException("Intersects tests are not supported for point geometry types.");
 		}
 
-		this.reqEntity = buildGetFeatureRequest(featureType, INTERSECTS_OP, geomProperty, gmlCurveElem);
+		setRequestEntity(buildGetFeatureRequest(featureType, INTERSECTS_OP, geomProperty, gmlCurveElem));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		NodeList geomNodes = findGeometryPropertyValues(featureType, geomProperty);
@@ -335,7 +337,7 @@ public class IntersectsTests extends QueryFilterFixture {
 		nsBindings.put(featureTypeNs, featureTypePrefix);
 		if (!geomPropPrefix.equals(featureTypePrefix))
 			nsBindings.put(geomPropNs, geomPropPrefix);
-		return XMLUtils.evaluateXPath(this.rspEntity, xpath, nsBindings);
+		return XMLUtils.evaluateXPath(getResponseEntity(), xpath, nsBindings);
 	}
 
 	private String getFeatureTypePrefix(QName featureType) {
@@ -1,14 +1,23 @@
 package org.opengis.cite.iso19142.basic.filter.temporal;
 
+import java.util.Date;
 import java.util.List;
+import java.util.function.ToIntFunction;
 import java.util.logging.Logger;
 
 import javax.xml.namespace.QName;
 
 import org.apache.xerces.xs.XSElementDeclaration;
+import org.geotoolkit.temporal.factory.DefaultTemporalFactory;
+import org.opengis.cite.geomatics.gml.GmlUtils;
 import org.opengis.cite.iso19142.basic.filter.QueryFilterFixture;
+import org.opengis.cite.iso19142.util.TemporalIntervalIndex;
+import org.opengis.temporal.Instant;
 import org.opengis.temporal.Period;
+import org.opengis.temporal.TemporalFactory;
+import org.opengis.temporal.TemporalGeometricPrimitive;
 import org.testng.SkipException;
+import org.w3c.dom.Document;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
@@ -43,10 +52,13 @@ public abstract class AbstractTemporalTest extends QueryFilterFixture {
 	private TemporalProperty findTemporalExtent(QName featureType, List<XSElementDeclaration> temporalProperties) {
 		for (XSElementDeclaration temporalProp : temporalProperties) {
 			try {
-				Period temporalExtent = this.dataSampler.getTemporalExtentOfProperty(getModel(), featureType,
+				Period temporalExtent = this.dataSampler.getTemporalExtentOfProperty(getModel(featureType), featureType,
 						temporalProp);
-				if (temporalExtent != null)
-					return new TemporalProperty(temporalProp, temporalExtent);
+				if (temporalExtent != null) {
+					TemporalIntervalIndex index = this.dataSampler.getTemporalIndex(getModel(featureType), featureType,
+							temporalProp);
+					return new TemporalProperty(temporalProp, temporalExtent, index);
+				}
 			}
 			catch (Exception e) {
 				LOGR.warning("Could not calculate the extent of the temporal property " + temporalProp
@@ -59,15 +71,64 @@ public abstract class AbstractTemporalTest extends QueryFilterFixture {
 		return null;
 	}
 
+	/**
+	 * Chooses a literal time value for a temporal predicate. The first candidate that
+	 * selects some, but not all, of the sample values is used, so that a response which
+	 * ignores the predicate can be told apart from one that applies it. If no candidate
+	 * is selective, the last one is used.
+	 * @param temporalProperty A temporal property and an index of its values in the
+	 * sample data.
+	 * @param counter A function that counts the sample values satisfying the predicate
+	 * for a given literal value (e.g. {@link TemporalIntervalIndex#countAfter}).
+	 * @param candidates Documents containing GML representations of an instant or
+	 * period, in order of preference.
+	 * @return One of the candidates.
+	 */
+	Document selectLiteral(TemporalProperty temporalProperty,
+			ToIntFunction<TemporalGeometricPrimitive> counter, Document... candidates) {
+		int size = temporalProperty.getIndex().size();
+		for (Document candidate : candidates) {
+			int count = counter
+				.applyAsInt(GmlUtils.gmlToTemporalGeometricPrimitive(candidate.getDocumentElement()));
+			if (count > 0 && count < size) {
+				return candidate;
+			}
+		}
+		return candidates[candidates.length - 1];
+	}
+
+	/**
+	 * Creates an instant at the given position in time.
+	 * @param position The number of milliseconds since the epoch.
+	 * @return An Instant.
+	 */
+	static Instant createInstant(long position) {
+		return new DefaultTemporalFactory().createInstant(new Date(position));
+	}
+
+	/**
+	 * Creates a period delimited by the given positions in time.
+	 * @param begin The begin position (milliseconds since the epoch).
+	 * @param end The end position (milliseconds since the epoch).
+	 * @return A Period.
+	 */
+	static Period createPeriod(long begin, long end) {
+		TemporalFactory tmFactory = new DefaultTemporalFactory();
+		return tmFactory.createPeriod(tmFactory.createInstant(new Date(begin)), tmFactory.createInstant(new Date(end)));
+	}
+
 	class TemporalProperty {
 
 		private XSElementDeclaration property;
 
 		private Period extent;
 
-		public TemporalProperty(XSElementDeclaration property, Period extent) {
+		private TemporalIntervalIndex index;
+
+		public TemporalProperty(XSElementDeclaration property, Period extent, TemporalIntervalIndex index) {
 			this.property = property;
 			this.extent = extent;
+			this.index = index;
 		}
 
 		public XSElementDeclaration getProperty() {
@@ -78,6 +139,14 @@ public abstract class AbstractTemporalTest extends QueryFilterFixture {
 			return extent;
 		}
 
+		/**
+		 * Returns an index of the property values in the sample data.
+		 * @return A TemporalIntervalIndex, never {@code null}.
+		 */
+		public TemporalIntervalIndex getIndex() {
+			return index;
+		}
+
 	}
 
 }
@@ -15,9 +15,9 @@ import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
+import org.opengis.cite.iso19142.util.TemporalIntervalIndex;
 import org.opengis.cite.iso19142.util.TimeUtils;
 import org.opengis.cite.iso19142.util.WFSMessage;
-import org.opengis.temporal.Instant;
 import org.opengis.temporal.Period;
 import org.opengis.temporal.RelativePosition;
 import org.opengis.temporal.TemporalGeometricPrimitive;
@@ -72,19 +72,23 @@ public class AfterTests extends AbstractTemporalTest {
 	public void afterPeriod(ProtocolBinding binding, QName featureType) {
 		TemporalProperty temporalProperty = findTemporalProperty(featureType);
 
+		TemporalIntervalIndex index = temporalProperty.getIndex();
 		List<Period> subIntervals = TemporalUtils.splitInterval(temporalProperty.getExtent(), 3);
-		Period firstSubInterval = subIntervals.get(0);
-		Document gmlTimeLiteral = TimeUtils.periodAsGMLSubtractOneDay(firstSubInterval);
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		// ends at the median begin position, or else with the first sub-interval
+		Document gmlTimeLiteral = selectLiteral(temporalProperty, index::countAfter,
+				TimeUtils.periodAsGMLSubtractOneDay(createPeriod(index.getEarliest(), index.beginAtFraction(0.5))),
+				TimeUtils.periodAsGMLSubtractOneDay(subIntervals.get(0)));
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Element valueRef = WFSMessage.createValueReference(temporalProperty.getProperty());
-		WFSMessage.addTemporalPredicate(this.reqEntity, AFTER_OP, gmlTimeLiteral, valueRef);
-		Response rsp = wfsClient.getFeature(new DOMSource(this.reqEntity), binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.addTemporalPredicate(getRequestEntity(), AFTER_OP, gmlTimeLiteral, valueRef);
+		Response rsp = wfsClient.getFeature(new DOMSource(getRequestEntity()), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		List<Node> temporalNodes = TemporalQuery.extractTemporalNodes(this.rspEntity, temporalProperty.getProperty(),
-				getModel());
-		assertAfter(temporalNodes, temporalProperty.getProperty(), gmlTimeLiteral);
+		List<Node> temporalNodes = TemporalQuery.extractTemporalNodes(getResponseEntity(),
+				temporalProperty.getProperty(),
+				getModel(featureType));
+		assertAfter(temporalNodes, temporalProperty, gmlTimeLiteral);
 	}
 
 	/**
@@ -99,20 +103,23 @@ public class AfterTests extends AbstractTemporalTest {
 	public void afterInstant(ProtocolBinding binding, QName featureType) {
 		TemporalProperty temporalProperty = findTemporalProperty(featureType);
 
+		TemporalIntervalIndex index = temporalProperty.getIndex();
 		List<Period> subIntervals = TemporalUtils.splitInterval(temporalProperty.getExtent(), 3);
-		// end of first sub-interval
-		Instant instant = subIntervals.get(0).getEnding();
-		Document gmlTimeLiteral = TimeUtils.instantAsGMLSubtractOneDay(instant, ZoneOffset.UTC);
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		// median begin position, or else end of first sub-interval
+		Document gmlTimeLiteral = selectLiteral(temporalProperty, index::countAfter,
+				TimeUtils.instantAsGMLSubtractOneDay(createInstant(index.beginAtFraction(0.5)), ZoneOffset.UTC),
+				TimeUtils.instantAsGMLSubtractOneDay(subIntervals.get(0).getEnding(), ZoneOffset.UTC));
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Element valueRef = WFSMessage.createValueReference(temporalProperty.getProperty());
-		WFSMessage.addTemporalPredicate(this.reqEntity, AFTER_OP, gmlTimeLiteral, valueRef);
-		Response rsp = wfsClient.getFeature(new DOMSource(this.reqEntity), binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.addTemporalPredicate(getRequestEntity(), AFTER_OP, gmlTimeLiteral, valueRef);
+		Response rsp = wfsClient.getFeature(new DOMSource(getRequestEntity()), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		List<Node> temporalNodes = TemporalQuery.extractTemporalNodes(this.rspEntity, temporalProperty.getProperty(),
-				getModel());
-		assertAfter(temporalNodes, temporalProperty.getProperty(), gmlTimeLiteral);
+		List<Node> temporalNodes = TemporalQuery.extractTemporalNodes(getResponseEntity(),
+				temporalProperty.getProperty(),
+				getModel(featureType));
+		assertAfter(temporalNodes, temporalProperty, gmlTimeLiteral);
 	}
 
 	/**
@@ -127,34 +134,44 @@ public class AfterTests extends AbstractTemporalTest {
 	public void afterInstantWithOffset(ProtocolBinding binding, QName featureType) {
 		TemporalProperty temporalProperty = findTemporalProperty(featureType);
 
+		TemporalIntervalIndex index = temporalProperty.getIndex();
 		List<Period> subIntervals = TemporalUtils.splitInterval(temporalProperty.getExtent(), 3);
-		// end of first sub-interval with UTC offset +09:00 (Japan)
-		Instant instant = subIntervals.get(0).getEnding();
-		Document gmlTimeLiteral = TimeUtils.instantAsGMLSubtractOneDay(instant, ZoneOffset.ofHours(9));
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		// median begin position, or else end of first sub-interval, with UTC offset +09:00
+		// (Japan)
+		Document gmlTimeLiteral = selectLiteral(temporalProperty, index::countAfter,
+				TimeUtils.instantAsGMLSubtractOneDay(createInstant(index.beginAtFraction(0.5)), ZoneOffset.ofHours(9)),
+				TimeUtils.instantAsGMLSubtractOneDay(subIntervals.get(0).getEnding(), ZoneOffset.ofHours(9)));
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		Element valueRef = WFSMessage.createValueReference(temporalProperty.getProperty());
-		WFSMessage.addTemporalPredicate(this.reqEntity, AFTER_OP, gmlTimeLiteral, valueRef);
-		Response rsp = wfsClient.getFeature(new DOMSource(this.reqEntity), binding);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		WFSMessage.addTemporalPredicate(getRequestEntity(), AFTER_OP, gmlTimeLiteral, valueRef);
+		Response rsp = wfsClient.getFeature(new DOMSource(getRequestEntity()), binding);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		List<Node> temporalNodes = TemporalQuery.extractTemporalNodes(this.rspEntity, temporalProperty.getProperty(),
-				getModel());
-		assertAfter(temporalNodes, temporalProperty.getProperty(), gmlTimeLiteral);
+		List<Node> temporalNodes = TemporalQuery.extractTemporalNodes(getResponseEntity(),
+				temporalProperty.getProperty(),
+				getModel(featureType));
+		assertAfter(temporalNodes, temporalProperty, gmlTimeLiteral);
 	}
 
 	/**
 	 * Asserts that all temporal values in the given list occur after the specified GML
 	 * temporal value.
 	 * @param temporalNodes A list of simple or complex temporal values.
-	 * @param propertyDecl An element declaration for a temporal property.
+	 * @param temporalProperty A temporal property and an index of its values in the
+	 * sample data.
 	 * @param gmlTimeLiteral A document that contains a GML representation of an instant
 	 * or period.
 	 */
-	void assertAfter(List<Node> temporalNodes, XSElementDeclaration propertyDecl, Document gmlTimeLiteral) {
+	void assertAfter(List<Node> temporalNodes, TemporalProperty temporalProperty, Document gmlTimeLiteral) {
+		XSElementDeclaration propertyDecl = temporalProperty.getProperty();
+		TemporalGeometricPrimitive t2 = GmlUtils.gmlToTemporalGeometricPrimitive(gmlTimeLiteral.getDocumentElement());
+		if (temporalProperty.getIndex().countAfter(t2) == 0) {
+			throw new SkipException(
+					String.format("No sample values of property %s occur after the given time.", propertyDecl));
+		}
 		Assert.assertFalse(temporalNodes.isEmpty(),
 				String.format("No temporal values found in results: property is %s.", propertyDecl));
-		TemporalGeometricPrimitive t2 = GmlUtils.gmlToTemporalGeometricPrimitive(gmlTimeLiteral.getDocumentElement());
 		XSTypeDefinition typeDef = propertyDecl.getTypeDefinition();
 		for (Node timeNode : temporalNodes) {
 			TemporalGeometricPrimitive t1 = null;
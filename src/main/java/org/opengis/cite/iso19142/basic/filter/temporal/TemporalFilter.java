@@ -1,8 +1,8 @@
 package org.opengis.cite.iso19142.basic.filter.temporal;
 
+import org.opengis.cite.iso19142.BaseFixture;
 import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
-import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.testng.ITestContext;
 import org.testng.SkipException;
@@ -43,7 +43,7 @@ public class TemporalFilter {
 	 */
 	@BeforeTest
 	public void implementsMinimumTemporalFilter(ITestContext testContext) {
-		Document wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		Document wfsMetadata = BaseFixture.getCapabilitiesSummary(testContext.getSuite());
 		if (!ServiceMetadataUtils.implementsConformanceClass(wfsMetadata, IMPL_MIN_TEMPORAL_FILTER)) {
 			throw new SkipException(ErrorMessage.format(ErrorMessageKeys.NOT_IMPLEMENTED, IMPL_MIN_TEMPORAL_FILTER));
 		}
@@ -13,6 +13,7 @@ import javax.xml.namespace.QName;
 import javax.xml.xpath.XPathExpressionException;
 
 import org.apache.xerces.xs.XSElementDeclaration;
+import org.apache.xerces.xs.XSModel;
 import org.apache.xerces.xs.XSTypeDefinition;
 import org.opengis.cite.geomatics.SpatialOperator;
 import org.opengis.cite.iso19142.ConformanceClass;
@@ -20,7 +21,6 @@ import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
 import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
-import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.basic.filter.QueryFilterFixture;
 import org.opengis.cite.iso19142.util.AppSchemaUtils;
 import org.opengis.cite.iso19142.util.FeatureProperty;
@@ -107,9 +107,11 @@ public class SpatialJoinTests extends QueryFilterFixture {
 	 */
 	Map<QName, List<XSElementDeclaration>> findGeometryProperties(String gmlTypeName) {
 		Map<QName, List<XSElementDeclaration>> geomProps = new HashMap<QName, List<XSElementDeclaration>>();
-		XSTypeDefinition gmlGeomBaseType = getModel().getTypeDefinition(gmlTypeName, Namespaces.GML);
 		for (QName featureType : this.featureTypes) {
-			List<XSElementDeclaration> geomPropsList = AppSchemaUtils.getFeaturePropertiesByType(getModel(),
+			// type definitions are only comparable within one model
+			XSModel xsModel = getModel(featureType);
+			XSTypeDefinition gmlGeomBaseType = xsModel.getTypeDefinition(gmlTypeName, Namespaces.GML);
+			List<XSElementDeclaration> geomPropsList = AppSchemaUtils.getFeaturePropertiesByType(xsModel,
 					featureType, gmlGeomBaseType);
 			if (!geomPropsList.isEmpty()) {
 				geomProps.put(featureType, geomPropsList);
@@ -125,7 +127,7 @@ public class SpatialJoinTests extends QueryFilterFixture {
 	 */
 	@BeforeTest
 	public void implementsSpatialJoins(ITestContext testContext) {
-		this.wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		this.wfsMetadata = getServiceDescription(testContext.getSuite());
 		String xpath = String.format("//ows:Constraint[@name='%s' and (ows:DefaultValue = 'TRUE')]",
 				IMPL_SPATIAL_JOINS);
 		NodeList result;
@@ -228,9 +230,9 @@ public class SpatialJoinTests extends QueryFilterFixture {
 			throw new SkipException(
 					"This test has triggered an unexpected Spatial Join condition. The Spatial Join test will need to be applied manually.");
 		}
-		JoinQueryUtils.appendSpatialJoinQuery(this.reqEntity, "Intersects", joinProperties);
-		Response rsp = wfsClient.submitRequest(this.reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		JoinQueryUtils.appendSpatialJoinQuery(getRequestEntity(), "Intersects", joinProperties);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		// TODO check entity body: F1 intersects F2
@@ -48,7 +48,8 @@ public class GetFeatureWithLockTests extends LockingFixture {
 	@BeforeClass(alwaysRun = true)
 	public void sutImplementsGetFeatureWithLock(ITestContext testContext) {
 		String xpath = String.format("//ows:Operation[@name='%s']", WFS2.GET_FEATURE_WITH_LOCK);
-		boolean xpathResult = ETSAssert.evaluateXPathToBoolean(xpath, this.wfsMetadata, null);
+		boolean xpathResult = ETSAssert.evaluateXPathToBoolean(xpath,
+				getServiceDescription(testContext.getSuite()), null);
 		if (!xpathResult) {
 			throw new SkipException(
 					"The service does not support " + WFS2.GET_FEATURE_WITH_LOCK + " operation so tests are skipped.");
@@ -61,7 +62,7 @@ public class GetFeatureWithLockTests extends LockingFixture {
 	 */
 	@BeforeMethod
 	public void buildGetFeatureWithLockRequest() {
-		this.reqEntity = WFSMessage.createRequestEntity("GetFeatureWithLock", this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity("GetFeatureWithLock", this.wfsVersion));
 	}
 
 	/**
@@ -74,14 +75,14 @@ public class GetFeatureWithLockTests extends LockingFixture {
 	@Test(description = "See ISO 19142: 13.2.4.3")
 	public void lockQueryResults_hits() {
 		QName featureType = this.dataSampler.selectFeatureType();
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		this.reqEntity.getDocumentElement().setAttribute("resultType", "hits");
-		Response rsp = wfsClient.submitRequest(this.reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		getRequestEntity().getDocumentElement().setAttribute("resultType", "hits");
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		String xpath = "//ows:Exception[@exceptionCode = 'InvalidParameterValue']";
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 	/**
@@ -101,13 +102,14 @@ public class GetFeatureWithLockTests extends LockingFixture {
 	@Test(description = "See ISO 19142: 12.2.4.2, Table D.2")
 	public void lockAllQueryResults_20Seconds() {
 		QName featureType = this.dataSampler.selectFeatureType();
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		this.reqEntity.getDocumentElement().setAttribute("expiry", "20");
-		Response rsp = wfsClient.submitRequest(this.reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		getRequestEntity().getDocumentElement().setAttribute("expiry", "20");
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		Element featureColl = (Element) this.rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION)
+		Element featureColl = (Element) getResponseEntity()
+			.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION)
 			.item(0);
 		String lockId = featureColl.getAttribute("lockId");
 		Assert.assertFalse(lockId.isEmpty(), ErrorMessage.format(ErrorMessageKeys.MISSING_INFOSET_ITEM, "@lockId"));
@@ -119,14 +121,14 @@ public class GetFeatureWithLockTests extends LockingFixture {
 			// ignore interrupt should one occur
 		}
 		// try to reset expired lock with LockFeature request
-		this.reqEntity = WFSMessage.createRequestEntity("LockFeature", this.wfsVersion);
-		reqEntity.getDocumentElement().setAttribute("lockId", lockId);
-		rsp = wfsClient.submitRequest(reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		setRequestEntity(WFSMessage.createRequestEntity("LockFeature", this.wfsVersion));
+		getRequestEntity().getDocumentElement().setAttribute("lockId", lockId);
+		rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.FORBIDDEN.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		String xpath = "//ows:Exception[@exceptionCode = 'LockHasExpired']";
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 	/**
@@ -152,14 +154,15 @@ public class GetFeatureWithLockTests extends LockingFixture {
 		Set<String> featureIdSet = this.dataSampler.selectRandomFeatureIdentifiers(featureType, 10);
 		// Submit Q1 to lock one feature
 		Set<String> singleton = Collections.singleton(featureIdSet.iterator().next());
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		WFSMessage.addResourceIdPredicate(this.reqEntity, singleton);
-		this.reqEntity.getDocumentElement().setAttribute("expiry", "60");
-		Response rsp = wfsClient.submitRequest(this.reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		WFSMessage.addResourceIdPredicate(getRequestEntity(), singleton);
+		getRequestEntity().getDocumentElement().setAttribute("expiry", "60");
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		Element featureColl = (Element) this.rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION)
+		Element featureColl = (Element) getResponseEntity()
+			.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION)
 			.item(0);
 		String lockId = featureColl.getAttribute("lockId");
 		Assert.assertFalse(lockId.isEmpty(), ErrorMessage.format(ErrorMessageKeys.MISSING_INFOSET_ITEM,
@@ -167,23 +170,25 @@ public class GetFeatureWithLockTests extends LockingFixture {
 		locks.add(lockId);
 		// Submit Q2 to lock all features in set
 		buildGetFeatureWithLockRequest();
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		WFSMessage.addResourceIdPredicate(this.reqEntity, featureIdSet);
-		this.reqEntity.getDocumentElement().setAttribute("lockAction", "SOME");
-		rsp = wfsClient.submitRequest(this.reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		WFSMessage.addResourceIdPredicate(getRequestEntity(), featureIdSet);
+		getRequestEntity().getDocumentElement().setAttribute("lockAction", "SOME");
+		rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		featureColl = (Element) this.rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION).item(0);
+		featureColl = (Element) getResponseEntity()
+			.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION)
+			.item(0);
 		lockId = featureColl.getAttribute("lockId");
 		Assert.assertFalse(lockId.isEmpty(), ErrorMessage.format(ErrorMessageKeys.MISSING_INFOSET_ITEM,
 				"@lockId in response to GetFeatureWithLock"));
 		locks.add(lockId);
 		String xpath1 = "/wfs:FeatureCollection/@numberReturned > 1";
-		ETSAssert.assertXPath(xpath1, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath1, getResponseEntity().getDocumentElement(), null);
 		// response must exclude feature that was previously locked
 		xpath1 = String.format("not(//*[@gml:id = '%s'])", singleton.iterator().next());
-		ETSAssert.assertXPath(xpath1, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath1, getResponseEntity().getDocumentElement(), null);
 	}
 
 }
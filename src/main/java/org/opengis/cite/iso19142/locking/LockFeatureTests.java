@@ -50,7 +50,7 @@ public class LockFeatureTests extends LockingFixture {
 	 */
 	@BeforeMethod
 	public void buildSimpleLockFeatureRequest() {
-		this.reqEntity = WFSMessage.createRequestEntity("LockFeature", this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity("LockFeature", this.wfsVersion));
 	}
 
 	/**
@@ -70,14 +70,15 @@ public class LockFeatureTests extends LockingFixture {
 	public void lockFeatureAndAttemptDelete() {
 		QName featureType = this.dataSampler.selectFeatureType();
 		String gmlId = this.dataSampler.selectRandomFeatureIdentifiers(featureType, 1).iterator().next();
-		WFSMessage.appendStoredQuery(reqEntity, this.storedQueryId, Collections.singletonMap("id", (Object) gmlId));
-		reqEntity.getDocumentElement().setAttribute("expiry", "60");
-		Response rsp = wfsClient.submitRequest(reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.appendStoredQuery(getRequestEntity(), this.storedQueryId, Collections.singletonMap("id",
+				(Object) gmlId));
+		getRequestEntity().getDocumentElement().setAttribute("expiry", "60");
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertXPath("//wfs:LockFeatureResponse", this.rspEntity, null);
-		Element lockRsp = (Element) this.rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.LOCK_FEATURE_RSP)
+		ETSAssert.assertXPath("//wfs:LockFeatureResponse", getResponseEntity(), null);
+		Element lockRsp = (Element) getResponseEntity().getElementsByTagNameNS(Namespaces.WFS, WFS2.LOCK_FEATURE_RSP)
 			.item(0);
 		String lockId = lockRsp.getAttribute("lockId");
 		Assert.assertFalse(lockId.isEmpty(), ErrorMessage.format(ErrorMessageKeys.MISSING_INFOSET_ITEM, "@lockId"));
@@ -108,23 +109,24 @@ public class LockFeatureTests extends LockingFixture {
 	public void lockFeatureAlreadyLocked() {
 		QName featureType = this.dataSampler.selectFeatureType();
 		String gmlId = this.dataSampler.selectRandomFeatureIdentifiers(featureType, 1).iterator().next();
-		WFSMessage.appendStoredQuery(reqEntity, this.storedQueryId, Collections.singletonMap("id", (Object) gmlId));
-		reqEntity.getDocumentElement().setAttribute("expiry", "60");
-		Response rsp = wfsClient.submitRequest(reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.appendStoredQuery(getRequestEntity(), this.storedQueryId, Collections.singletonMap("id",
+				(Object) gmlId));
+		getRequestEntity().getDocumentElement().setAttribute("expiry", "60");
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		Element lockRsp = (Element) this.rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.LOCK_FEATURE_RSP)
+		Element lockRsp = (Element) getResponseEntity().getElementsByTagNameNS(Namespaces.WFS, WFS2.LOCK_FEATURE_RSP)
 			.item(0);
 		locks.add(lockRsp.getAttribute("lockId"));
 		// try to lock it again (without specifying lockId)
-		reqEntity.getDocumentElement().setAttribute("expiry", "180");
-		rsp = wfsClient.submitRequest(reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		getRequestEntity().getDocumentElement().setAttribute("expiry", "180");
+		rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		String xpath = "//ows:Exception[@exceptionCode = 'CannotLockAllFeatures']";
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 	/**
@@ -142,18 +144,18 @@ public class LockFeatureTests extends LockingFixture {
 	 * @param binding The ProtocolBinding to use for the request.
 	 * @param featureType A QName object denoting the feature type name.
 	 */
-	@Test(description = "See ISO 19142: 12.3.2", dataProvider = "protocol-featureType")
+	@Test(description = "See ISO 19142: 12.3.2", dataProvider = "locking-protocol-featureType")
 	public void lockAllFeaturesByType(ProtocolBinding binding, QName featureType) {
 		if (!this.featureInfo.get(featureType).isInstantiated()) {
 			throw new SkipException("No data available for feature type " + featureType);
 		}
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.LOCK_FEATURE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		Element lockRsp = this.rspEntity.getDocumentElement();
+		Element lockRsp = getResponseEntity().getDocumentElement();
 		Assert.assertEquals(lockRsp.getLocalName(), WFS2.LOCK_FEATURE_RSP,
 				ErrorMessage.get(ErrorMessageKeys.LOCAL_NAME));
 		String lockId = lockRsp.getAttribute("lockId");
@@ -192,28 +194,29 @@ public class LockFeatureTests extends LockingFixture {
 			throw new SkipException("Tested only for WFS 2.0.2");
 		}
 		QName featureType = this.dataSampler.selectFeatureType();
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		this.reqEntity.getDocumentElement().setAttribute("expiry", "10");
-		Response rsp = wfsClient.submitRequest(this.reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		getRequestEntity().getDocumentElement().setAttribute("expiry", "10");
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		Element featureColl = (Element) this.rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION)
+		Element featureColl = (Element) getResponseEntity()
+			.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION)
 			.item(0);
 		String lockId = featureColl.getAttribute("lockId");
 		Assert.assertFalse(lockId.isEmpty(), ErrorMessage.format(ErrorMessageKeys.MISSING_INFOSET_ITEM, "@lockId"));
 		locks.add(lockId);
 
 		// try to reset expired lock with LockFeature request
-		this.reqEntity = WFSMessage.createRequestEntity("LockFeature", this.wfsVersion);
-		reqEntity.getDocumentElement().setAttribute("lockId", lockId);
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
-		rsp = wfsClient.submitRequest(reqEntity, ProtocolBinding.ANY);
-		this.rspEntity = rsp.readEntity(Document.class);
+		setRequestEntity(WFSMessage.createRequestEntity("LockFeature", this.wfsVersion));
+		getRequestEntity().getDocumentElement().setAttribute("lockId", lockId);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
+		rsp = wfsClient.submitRequest(getRequestEntity(), ProtocolBinding.ANY);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		String xpath = "//ows:Exception[@exceptionCode = 'OperationParsingFailed']";
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 }
@@ -1,6 +1,5 @@
 package org.opengis.cite.iso19142.locking;
 
-import javax.xml.transform.Result;
 import javax.xml.transform.dom.DOMSource;
 
 import org.opengis.cite.iso19142.BaseFixture;
@@ -10,13 +9,14 @@ import org.opengis.cite.iso19142.ErrorMessageKeys;
 import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.WFS2;
+import org.opengis.cite.iso19142.util.SchematronResult;
 import org.opengis.cite.iso19142.util.ValidationUtils;
 import org.opengis.cite.iso19142.util.XMLUtils;
-import org.opengis.cite.validation.SchematronValidator;
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 import org.w3c.dom.Document;
@@ -33,6 +33,9 @@ public class LockingCapabilitiesTests extends BaseFixture {
 	static final String LOCKING_WFS_PHASE = "LockingWFSPhase";
 	static final String SCHEMATRON_METADATA = "wfs-capabilities-2.0.sch";
 
+	/** The GetCapabilities request entity; a copy is made for each test invocation. */
+	private Document getCapabilitiesRequest;
+
 	@BeforeTest
 	public void checkSuitePreconditions(ITestContext context) {
 		Object failedPreconditions = context.getSuite().getAttribute(SuiteAttribute.FAILED_PRECONDITIONS.getName());
@@ -49,7 +52,7 @@ public class LockingCapabilitiesTests extends BaseFixture {
 	 */
 	@BeforeTest
 	public void implementsLockingWFS(ITestContext testContext) {
-		this.wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		this.wfsMetadata = getServiceDescription(testContext.getSuite());
 		String xpath = String.format("//ows:Constraint[@name='%s']/ows:DefaultValue = 'TRUE'", WFS2.LOCKING_WFS);
 		boolean xpathResult = ETSAssert.evaluateXPathToBoolean(xpath, this.wfsMetadata, null);
 		if (!xpathResult) {
@@ -64,10 +67,18 @@ public class LockingCapabilitiesTests extends BaseFixture {
 	 */
 	@BeforeClass
 	public void buildGetCapabilitiesRequest() {
-		this.reqEntity = this.docBuilder.newDocument();
-		Element docElem = reqEntity.createElementNS(Namespaces.WFS, WFS2.GET_CAPABILITIES);
+		this.getCapabilitiesRequest = this.docBuilder.newDocument();
+		Element docElem = this.getCapabilitiesRequest.createElementNS(Namespaces.WFS, WFS2.GET_CAPABILITIES);
 		docElem.setAttribute(WFS2.SERVICE_PARAM, WFS2.SERVICE_TYPE_CODE);
-		this.reqEntity.appendChild(docElem);
+		this.getCapabilitiesRequest.appendChild(docElem);
+	}
+
+	/**
+	 * Sets a copy of the GetCapabilities request as the request entity of the test invocation.
+	 */
+	@BeforeMethod
+	public void copyRequestEntity() {
+		setRequestEntity((Document) this.getCapabilitiesRequest.cloneNode(true));
 	}
 
 	/**
@@ -88,11 +99,10 @@ public class LockingCapabilitiesTests extends BaseFixture {
 	 */
 	@Test(description = "See ISO 19142: Table 13, A.2.23")
 	public void capabilitiesDescribesLockingWFS() {
-		SchematronValidator validator = ValidationUtils.buildSchematronValidator(SCHEMATRON_METADATA,
-				LOCKING_WFS_PHASE);
-		Result result = validator.validate(new DOMSource(this.wfsMetadata, this.wfsMetadata.getDocumentURI()), false);
-		Assert.assertFalse(validator.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-				validator.getRuleViolationCount(), XMLUtils.resultToString(result)));
+		SchematronResult result = ValidationUtils.validateSchematron(SCHEMATRON_METADATA, LOCKING_WFS_PHASE,
+				new DOMSource(this.wfsMetadata, this.wfsMetadata.getDocumentURI()), false);
+		Assert.assertFalse(result.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+				result.getRuleViolationCount(), XMLUtils.resultToString(result.getResult())));
 	}
 
 }
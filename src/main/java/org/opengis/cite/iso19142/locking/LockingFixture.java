@@ -1,10 +1,14 @@
 package org.opengis.cite.iso19142.locking;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
 
 import org.opengis.cite.iso19142.BaseFixture;
+import org.opengis.cite.iso19142.PendingChanges;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.WFS2;
@@ -14,6 +18,7 @@ import org.opengis.cite.iso19142.util.WFSMessage;
 import org.testng.ITestContext;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
 import org.w3c.dom.Document;
 
 import jakarta.ws.rs.core.Response;
@@ -23,7 +28,7 @@ import jakarta.ws.rs.core.Response.Status;
  * Provides configuration methods that facilitate the testing of locking behavior
  * specified for the "Locking WFS" conformance level.
  */
-public class LockingFixture extends BaseFixture {
+public class LockingFixture extends BaseFixture implements PendingChanges {
 
 	/** List containing lock identifiers */
 	protected List<String> locks = new ArrayList<String>();
@@ -51,6 +56,11 @@ public class LockingFixture extends BaseFixture {
 				: WFS2.QRY_GET_FEATURE_BY_ID;
 	}
 
+	@Override
+	public Collection<String> getUnreleasedLocks() {
+		return this.locks;
+	}
+
 	/**
 	 * Releases all locks by submitting empty Transaction requests that include the lockId
 	 * and releaseAction (="ALL") attributes. An unsuccessful request is logged (as a
@@ -75,4 +85,19 @@ public class LockingFixture extends BaseFixture {
 		locks.clear();
 	}
 
+	/**
+	 * A DataProvider that supplies the same (ProtocolBinding, QName) tuples as the
+	 * "protocol-featureType" data provider, but for tests that are run one tuple at a
+	 * time: a lock acquired in one invocation would otherwise conflict with a lock
+	 * requested in another.
+	 * @param testContext The ITestContext object for the test run.
+	 * @param method The test method that will receive the data.
+	 * @return {@literal Iterator<Object[]>} An iterator over a collection of parameter
+	 * tuples (ProtocolBinding, QName).
+	 */
+	@DataProvider(name = "locking-protocol-featureType")
+	public Iterator<Object[]> lockingProtocolFeatureTypes(ITestContext testContext, Method method) {
+		return bindingAndAvailFeatureTypeProductSet(testContext, method);
+	}
+
 }
@@ -76,29 +76,29 @@ public class PagingTests extends BaseFixture {
 	@Test(description = "See OGC 09-025: 7.7.4.2")
 	public void getFeatureWithHitsOnly() {
 		int count = 1;
-		this.reqEntity = WFSMessage.createRequestEntity("GetFeature-Minimal", this.wfsVersion);
-		this.reqEntity.getDocumentElement().setAttribute("count", "" + count);
-		this.reqEntity.getDocumentElement().setAttribute("resultType", "hits");
+		setRequestEntity(WFSMessage.createRequestEntity("GetFeature-Minimal", this.wfsVersion));
+		getRequestEntity().getDocumentElement().setAttribute("count", "" + count);
+		getRequestEntity().getDocumentElement().setAttribute("resultType", "hits");
 		QName featureType = anyFeatureType(this.featureInfo);
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE,
 				ProtocolBinding.GET);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.GET, endpoint);
-		this.rspEntity = extractBodyAsDocument(rsp);
-		ETSAssert.assertQualifiedName(rspEntity.getDocumentElement(),
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.GET, endpoint);
+		setResponseEntity(extractBodyAsDocument(rsp));
+		ETSAssert.assertQualifiedName(getResponseEntity().getDocumentElement(),
 				new QName(Namespaces.WFS, WFS2.FEATURE_COLLECTION));
-		String numReturned = this.rspEntity.getDocumentElement().getAttribute("numberReturned");
+		String numReturned = getResponseEntity().getDocumentElement().getAttribute("numberReturned");
 		assertEquals(Integer.parseInt(numReturned), 0, ErrorMessage.get(ErrorMessageKeys.NUM_RETURNED));
-		String prev = this.rspEntity.getDocumentElement().getAttribute("previous");
+		String prev = getResponseEntity().getDocumentElement().getAttribute("previous");
 		assertTrue(prev.isEmpty(), "Unexpected attribute found in response entity: 'previous'.");
-		String next = this.rspEntity.getDocumentElement().getAttribute("next");
+		String next = getResponseEntity().getDocumentElement().getAttribute("next");
 		assertFalse(next.isEmpty(), "Expected attribute not found in response entity: 'next'.");
 		rsp = retrieveResource(next);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		assertEquals(rsp.getStatus(), Status.OK.getStatusCode(), ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertQualifiedName(rspEntity.getDocumentElement(),
+		ETSAssert.assertQualifiedName(getResponseEntity().getDocumentElement(),
 				new QName(Namespaces.WFS, WFS2.FEATURE_COLLECTION));
-		numReturned = this.rspEntity.getDocumentElement().getAttribute("numberReturned");
+		numReturned = getResponseEntity().getDocumentElement().getAttribute("numberReturned");
 		assertEquals(Integer.parseInt(numReturned), count, ErrorMessage.get(ErrorMessageKeys.NUM_RETURNED));
 	}
 
@@ -115,29 +115,29 @@ public class PagingTests extends BaseFixture {
 		if (featureType == null)
 			throw new SkipException(
 					"Could not find appropriate feature type. A feature type with at least two features is required.");
-		this.reqEntity = WFSMessage.createRequestEntity("GetFeature-Minimal", this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity("GetFeature-Minimal", this.wfsVersion));
 		int count = 1;
-		this.reqEntity.getDocumentElement().setAttribute("count", Integer.toString(count));
-		WFSMessage.appendSimpleQuery(this.reqEntity, featureType);
+		getRequestEntity().getDocumentElement().setAttribute("count", Integer.toString(count));
+		WFSMessage.appendSimpleQuery(getRequestEntity(), featureType);
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE,
 				ProtocolBinding.GET);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.GET, endpoint);
-		this.rspEntity = extractBodyAsDocument(rsp);
-		ETSAssert.assertQualifiedName(rspEntity.getDocumentElement(),
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.GET, endpoint);
+		setResponseEntity(extractBodyAsDocument(rsp));
+		ETSAssert.assertQualifiedName(getResponseEntity().getDocumentElement(),
 				new QName(Namespaces.WFS, WFS2.FEATURE_COLLECTION));
-		ETSAssert.assertFeatureCount(this.rspEntity, featureType, count);
-		Set<String> initialMembers = WFSMessage.extractFeatureIdentifiers(this.rspEntity, featureType);
+		ETSAssert.assertFeatureCount(getResponseEntity(), featureType, count);
+		Set<String> initialMembers = WFSMessage.extractFeatureIdentifiers(getResponseEntity(), featureType);
 		// retrieve second page
-		String next = this.rspEntity.getDocumentElement().getAttribute("next");
+		String next = getResponseEntity().getDocumentElement().getAttribute("next");
 		assertFalse(next.isEmpty(), "Expected attribute not found in response entity: 'next'.");
 		rsp = retrieveResource(next);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		// previous should return first page
-		String prev = this.rspEntity.getDocumentElement().getAttribute("previous");
+		String prev = getResponseEntity().getDocumentElement().getAttribute("previous");
 		assertFalse(prev.isEmpty(), "Expected attribute not found in response entity: 'previous'.");
 		rsp = retrieveResource(prev);
-		this.rspEntity = extractBodyAsDocument(rsp);
-		Set<String> prevMembers = WFSMessage.extractFeatureIdentifiers(this.rspEntity, featureType);
+		setResponseEntity(extractBodyAsDocument(rsp));
+		Set<String> prevMembers = WFSMessage.extractFeatureIdentifiers(getResponseEntity(), featureType);
 		assertTrue(prevMembers.containsAll(initialMembers), String.format(
 				"Expected members of previous page to include all members of first page. \nFeature Identifiers: %s",
 				initialMembers));
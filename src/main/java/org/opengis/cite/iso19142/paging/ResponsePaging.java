@@ -2,9 +2,9 @@ package org.opengis.cite.iso19142.paging;
 
 import java.util.logging.Level;
 
+import org.opengis.cite.iso19142.BaseFixture;
 import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
-import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.opengis.cite.iso19142.util.TestSuiteLogger;
 import org.testng.ITestContext;
@@ -59,7 +59,7 @@ public class ResponsePaging {
 	 */
 	@BeforeTest
 	public void implementsResponsePaging(ITestContext testContext) {
-		Document wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		Document wfsMetadata = BaseFixture.getCapabilitiesSummary(testContext.getSuite());
 		if (!ServiceMetadataUtils.implementsConformanceClass(wfsMetadata, IMPL_RESULT_PAGING)) {
 			throw new SkipException(ErrorMessage.format(ErrorMessageKeys.NOT_IMPLEMENTED, IMPL_RESULT_PAGING));
 		}
@@ -111,14 +111,14 @@ public class CreateStoredQueryTests extends BaseFixture {
 	 */
 	@Test(description = "See OGC 09-025: 14.2, 14.5.2")
 	public void createGetFeatureByTypeName() {
-		this.reqEntity = WFSMessage.createRequestEntity(ETS_PKG + "/querymgmt/CreateStoredQuery-GetFeatureByTypeName",
-				this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity(ETS_PKG + "/querymgmt/CreateStoredQuery-GetFeatureByTypeName",
+				this.wfsVersion));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.CREATE_STORED_QRY,
 				ProtocolBinding.POST);
-		Response rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
+		Response rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
 		assertEquals(rsp.getStatus(), Status.OK.getStatusCode(), ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertQualifiedName(this.rspEntity.getDocumentElement(),
+		ETSAssert.assertQualifiedName(getResponseEntity().getDocumentElement(),
 				new QName(WFS2.NS_URI, "CreateStoredQueryResponse"));
 		this.createdStoredQueries.add(QRY_GET_FEATURE_BY_TYPE);
 		for (QName featureTypeName : this.featureInfo.keySet()) {
@@ -137,17 +137,21 @@ public class CreateStoredQueryTests extends BaseFixture {
 	 */
 	@Test(description = "See OGC 09-025: 14.2.2.5.3, 14.7")
 	public void createStoredQueryWithUnsupportedQueryLanguage() {
-		this.reqEntity = WFSMessage.createRequestEntity(ETS_PKG + "/querymgmt/CreateStoredQuery-GetFeatureByTypeName",
-				this.wfsVersion);
-		Element qryDefn = (Element) this.reqEntity.getElementsByTagNameNS(WFS2.NS_URI, "StoredQueryDefinition").item(0);
+		setRequestEntity(WFSMessage.createRequestEntity(ETS_PKG + "/querymgmt/CreateStoredQuery-GetFeatureByTypeName",
+				this.wfsVersion));
+		Element qryDefn = (Element) getRequestEntity()
+			.getElementsByTagNameNS(WFS2.NS_URI, "StoredQueryDefinition")
+			.item(0);
 		qryDefn.setAttribute("id", QRY_INVALID_LANG);
-		Element qryExpr = (Element) this.reqEntity.getElementsByTagNameNS(WFS2.NS_URI, "QueryExpressionText").item(0);
+		Element qryExpr = (Element) getRequestEntity()
+			.getElementsByTagNameNS(WFS2.NS_URI, "QueryExpressionText")
+			.item(0);
 		qryExpr.setAttribute("language", "http://qry.example.org");
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.CREATE_STORED_QRY,
 				ProtocolBinding.POST);
-		Response rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
-		ETSAssert.assertExceptionReport(this.rspEntity, "InvalidParameterValue", "language");
+		Response rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
+		ETSAssert.assertExceptionReport(getResponseEntity(), "InvalidParameterValue", "language");
 	}
 
 	/**
@@ -159,18 +163,18 @@ public class CreateStoredQueryTests extends BaseFixture {
 	public void duplicateQuery() {
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.CREATE_STORED_QRY,
 				ProtocolBinding.POST);
-		this.reqEntity = WFSMessage.createRequestEntity(ETS_PKG + "/querymgmt/CreateStoredQuery-GetFeatureByName",
-				this.wfsVersion);
-		WFSMessage.setReturnTypesAndTypeNamesAttribute(this.reqEntity, this.dataSampler.selectFeatureType());
-		Response rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
-		ETSAssert.assertQualifiedName(this.rspEntity.getDocumentElement(),
+		setRequestEntity(WFSMessage.createRequestEntity(ETS_PKG + "/querymgmt/CreateStoredQuery-GetFeatureByName",
+				this.wfsVersion));
+		WFSMessage.setReturnTypesAndTypeNamesAttribute(getRequestEntity(), this.dataSampler.selectFeatureType());
+		Response rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
+		ETSAssert.assertQualifiedName(getResponseEntity().getDocumentElement(),
 				new QName(WFS2.NS_URI, "CreateStoredQueryResponse"));
 		this.createdStoredQueries.add(QRY_GET_FEATURE_BY_NAME);
 		// resubmit
-		rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
-		ETSAssert.assertExceptionReport(this.rspEntity, "DuplicateStoredQueryIdValue", QRY_GET_FEATURE_BY_NAME);
+		rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
+		ETSAssert.assertExceptionReport(getResponseEntity(), "DuplicateStoredQueryIdValue", QRY_GET_FEATURE_BY_NAME);
 	}
 
 }
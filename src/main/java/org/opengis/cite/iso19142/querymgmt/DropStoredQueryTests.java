@@ -52,23 +52,23 @@ public class DropStoredQueryTests extends BaseFixture {
 	public void dropStoredQuery() {
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.CREATE_STORED_QRY,
 				ProtocolBinding.POST);
-		this.reqEntity = WFSMessage.createRequestEntity(ETS_PKG + "/querymgmt/CreateStoredQuery-GetFeatureByName",
-				this.wfsVersion);
-		WFSMessage.setReturnTypesAndTypeNamesAttribute(this.reqEntity, this.dataSampler.selectFeatureType());
-		Response rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
+		setRequestEntity(WFSMessage.createRequestEntity(ETS_PKG + "/querymgmt/CreateStoredQuery-GetFeatureByName",
+				this.wfsVersion));
+		WFSMessage.setReturnTypesAndTypeNamesAttribute(getRequestEntity(), this.dataSampler.selectFeatureType());
+		Response rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
 		assertEquals(rsp.getStatus(), Status.OK.getStatusCode(), ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		this.reqEntity = WFSMessage.createRequestEntity("DropStoredQuery", this.wfsVersion);
-		this.reqEntity.getDocumentElement().setAttribute("id", CreateStoredQueryTests.QRY_GET_FEATURE_BY_NAME);
+		setRequestEntity(WFSMessage.createRequestEntity("DropStoredQuery", this.wfsVersion));
+		getRequestEntity().getDocumentElement().setAttribute("id", CreateStoredQueryTests.QRY_GET_FEATURE_BY_NAME);
 		endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.DROP_STORED_QRY,
 				ProtocolBinding.POST);
-		rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
+		rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
 		assertEquals(rsp.getStatus(), Status.OK.getStatusCode(), ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertQualifiedName(this.rspEntity.getDocumentElement(),
+		ETSAssert.assertQualifiedName(getResponseEntity().getDocumentElement(),
 				new QName(WFS2.NS_URI, "DropStoredQueryResponse"));
 		Map<String, Object> params = Collections.singletonMap("name", "Irrelevant");
-		this.rspEntity = this.wfsClient.invokeStoredQuery(CreateStoredQueryTests.QRY_GET_FEATURE_BY_NAME, params);
-		ETSAssert.assertExceptionReport(this.rspEntity, "InvalidParameterValue", "id");
+		setResponseEntity(this.wfsClient.invokeStoredQuery(CreateStoredQueryTests.QRY_GET_FEATURE_BY_NAME, params));
+		ETSAssert.assertExceptionReport(getResponseEntity(), "InvalidParameterValue", "id");
 	}
 
 	/**
@@ -78,13 +78,13 @@ public class DropStoredQueryTests extends BaseFixture {
 	 */
 	@Test(description = "See OGC 09-025: 14.6.1, 14.7")
 	public void dropNonexistentQuery() {
-		this.reqEntity = WFSMessage.createRequestEntity("DropStoredQuery", this.wfsVersion);
-		this.reqEntity.getDocumentElement().setAttribute("id", "urn:uuid:" + UUID.randomUUID().toString());
+		setRequestEntity(WFSMessage.createRequestEntity("DropStoredQuery", this.wfsVersion));
+		getRequestEntity().getDocumentElement().setAttribute("id", "urn:uuid:" + UUID.randomUUID().toString());
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.DROP_STORED_QRY,
 				ProtocolBinding.POST);
-		Response rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
-		ETSAssert.assertExceptionReport(this.rspEntity, "InvalidParameterValue", "id");
+		Response rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
+		ETSAssert.assertExceptionReport(getResponseEntity(), "InvalidParameterValue", "id");
 	}
 
 }
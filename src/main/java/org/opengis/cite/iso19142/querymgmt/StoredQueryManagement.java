@@ -4,9 +4,9 @@ import static org.testng.Assert.assertTrue;
 
 import javax.xml.xpath.XPathExpressionException;
 
+import org.opengis.cite.iso19142.BaseFixture;
 import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
-import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.opengis.cite.iso19142.util.XMLUtils;
 import org.testng.ITestContext;
@@ -51,7 +51,7 @@ public class StoredQueryManagement {
 	 */
 	@BeforeTest
 	public void implementsManageStoredQueries(ITestContext testContext) {
-		Document wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		Document wfsMetadata = BaseFixture.getCapabilitiesSummary(testContext.getSuite());
 		if (!ServiceMetadataUtils.implementsConformanceClass(wfsMetadata, MANAGE_STORED_QRY)) {
 			throw new SkipException(ErrorMessage.format(ErrorMessageKeys.NOT_IMPLEMENTED, MANAGE_STORED_QRY));
 		}
@@ -65,7 +65,7 @@ public class StoredQueryManagement {
 	 */
 	@Test(description = "See OGC 09-025: Table 12, 14.2.2.5.3")
 	public void supportedStoredQueryLanguages(ITestContext testContext) {
-		Document wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		Document wfsMetadata = BaseFixture.getServiceDescription(testContext.getSuite());
 		NodeList result = null;
 		try {
 			result = XMLUtils.evaluateXPath(wfsMetadata,
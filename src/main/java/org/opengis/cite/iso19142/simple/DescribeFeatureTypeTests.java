@@ -10,7 +10,6 @@ import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Result;
 import javax.xml.transform.dom.DOMSource;
 
 import org.opengis.cite.iso19142.BaseFixture;
@@ -19,11 +18,11 @@ import org.opengis.cite.iso19142.ErrorMessageKeys;
 import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.WFS2;
+import org.opengis.cite.iso19142.util.SchematronResult;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.opengis.cite.iso19142.util.TestSuiteLogger;
 import org.opengis.cite.iso19142.util.ValidationUtils;
 import org.opengis.cite.iso19142.util.XMLUtils;
-import org.opengis.cite.validation.SchematronValidator;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
@@ -47,6 +46,9 @@ public class DescribeFeatureTypeTests extends BaseFixture {
 
 	DocumentBuilder docBuilder;
 
+	/** The request entity; a copy is made for each test invocation. */
+	private Document requestTemplate;
+
 	/**
 	 * Builds a DOM Document node representing the request entity
 	 * (/wfs:DescribeFeatureType).
@@ -57,16 +59,22 @@ public class DescribeFeatureTypeTests extends BaseFixture {
 		factory.setNamespaceAware(true);
 		try {
 			this.docBuilder = factory.newDocumentBuilder();
-			this.reqEntity = docBuilder.parse(getClass().getResourceAsStream("DescribeFeatureType.xml"));
+			this.requestTemplate = docBuilder.parse(getClass().getResourceAsStream("DescribeFeatureType.xml"));
 		}
 		catch (Exception e) {
 			TestSuiteLogger.log(Level.WARNING, "Failed to parse request entity from classpath", e);
 		}
 	}
 
+	/**
+	 * Sets a copy of the request entity (without any type names) as the request entity
+	 * of the test invocation.
+	 */
 	@BeforeMethod
 	public void clearTypeNames() {
-		removeAllTypeNames(this.reqEntity);
+		Document request = (Document) this.requestTemplate.cloneNode(true);
+		removeAllTypeNames(request);
+		setRequestEntity(request);
 	}
 
 	/**
@@ -111,15 +119,15 @@ public class DescribeFeatureTypeTests extends BaseFixture {
 	@Test(description = "See ISO 19142: 9.2.4.1", dataProvider = "protocol-binding")
 	public void describeAllFeatureTypes(ProtocolBinding binding) {
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.DESCRIBE_FEATURE_TYPE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		this.rspEntity = extractBodyAsDocument(rsp);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		Element docElem = this.rspEntity.getDocumentElement();
+		Element docElem = getResponseEntity().getDocumentElement();
 		if (docElem.getLocalName().equals("DescribeFeatureTypeResponse")) {
 			// special case for SOAP response
-			Document appSchema = decodeSchema(this.rspEntity);
+			Document appSchema = decodeSchema(getResponseEntity());
 			Assert.assertNotNull(appSchema, "Base64-encoded schema could not be read.");
 			docElem = appSchema.getDocumentElement();
 		}
@@ -140,18 +148,17 @@ public class DescribeFeatureTypeTests extends BaseFixture {
 	 */
 	@Test(description = "See ISO 19142: 8.3.4, 9.2.4.1", dataProvider = "protocol-binding")
 	public void describeUnknownFeatureType(ProtocolBinding binding) {
-		addFeatureType(this.reqEntity, new QName("http://example.org", "Unknown1.Type"));
+		addFeatureType(getRequestEntity(), new QName("http://example.org", "Unknown1.Type"));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.DESCRIBE_FEATURE_TYPE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		this.rspEntity = extractBodyAsDocument(rsp);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		SchematronValidator validator = ValidationUtils.buildSchematronValidator("ExceptionReport.sch",
-				"InvalidParameterValuePhase");
-		Result result = validator.validate(new DOMSource(this.rspEntity), false);
-		Assert.assertFalse(validator.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-				validator.getRuleViolationCount(), XMLUtils.resultToString(result)));
+		SchematronResult result = ValidationUtils.validateSchematron("ExceptionReport.sch",
+				"InvalidParameterValuePhase", new DOMSource(getResponseEntity()), false);
+		Assert.assertFalse(result.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+				result.getRuleViolationCount(), XMLUtils.resultToString(result.getResult())));
 	}
 
 	/**
@@ -43,6 +43,9 @@ public class DescribeStoredQueriesTests extends BaseFixture {
 
 	private Schema wfsSchema;
 
+	/** The request entity; a copy is made for each test invocation. */
+	private Document requestTemplate;
+
 	/**
 	 * Retrieves the (pre-compiled) WFS schema from the suite fixture and builds a DOM
 	 * Document node representing the request entity.
@@ -56,17 +59,23 @@ public class DescribeStoredQueriesTests extends BaseFixture {
 		factory.setNamespaceAware(true);
 		try {
 			DocumentBuilder builder = factory.newDocumentBuilder();
-			this.reqEntity = builder.parse(getClass().getResourceAsStream("DescribeStoredQueries.xml"));
-			WFSMessage.updateVersion(this.reqEntity, this.wfsVersion);
+			this.requestTemplate = builder.parse(getClass().getResourceAsStream("DescribeStoredQueries.xml"));
+			WFSMessage.updateVersion(this.requestTemplate, this.wfsVersion);
 		}
 		catch (Exception e) {
 			TestSuiteLogger.log(Level.WARNING, "Failed to parse request entity from classpath", e);
 		}
 	}
 
+	/**
+	 * Sets a copy of the request entity (without any stored query identifiers) as the
+	 * request entity of the test invocation.
+	 */
 	@BeforeMethod
 	public void clearQueryIdentifiers() {
-		removeAllQueryIdentifiers(this.reqEntity);
+		Document request = (Document) this.requestTemplate.cloneNode(true);
+		removeAllQueryIdentifiers(request);
+		setRequestEntity(request);
 	}
 
 	/**
@@ -80,14 +89,14 @@ public class DescribeStoredQueriesTests extends BaseFixture {
 	@Test(description = "See ISO 19142: 14.4.2, Table 21", dataProvider = "protocol-binding")
 	public void describeAllStoredQueries(ProtocolBinding binding) {
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.DESC_STORED_QUERIES, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		this.rspEntity = extractBodyAsDocument(rsp);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Validator validator = this.wfsSchema.newValidator();
 		ValidationErrorHandler errHandler = new ValidationErrorHandler();
 		validator.setErrorHandler(errHandler);
 		try {
-			validator.validate(new DOMSource(this.rspEntity, this.rspEntity.getDocumentURI()));
+			validator.validate(new DOMSource(getResponseEntity(), getResponseEntity().getDocumentURI()));
 		}
 		catch (Exception ex) {
 			// unlikely with DOM object and ErrorHandler set
@@ -96,7 +105,7 @@ public class DescribeStoredQueriesTests extends BaseFixture {
 		Assert.assertFalse(errHandler.errorsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
 				errHandler.getErrorCount(), errHandler.toString()));
 		String xpath = "count(//wfs:StoredQueryDescription) > 0";
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 	/**
@@ -115,13 +124,13 @@ public class DescribeStoredQueriesTests extends BaseFixture {
 	public void describeStoredQuery_GetFeatureById(ProtocolBinding binding) {
 		String queryId = (this.wfsVersion.equals(WFS2.V2_0_0)) ? WFS2.QRY_GET_FEATURE_BY_ID_URN
 				: WFS2.QRY_GET_FEATURE_BY_ID;
-		addQueryIdentifier(this.reqEntity, queryId);
+		addQueryIdentifier(getRequestEntity(), queryId);
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.DESC_STORED_QUERIES, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		this.rspEntity = extractBodyAsDocument(rsp);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		String xpath = String.format("//wfs:StoredQueryDescription[@id='%s']", queryId);
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 	/**
@@ -142,7 +151,7 @@ public class DescribeStoredQueriesTests extends BaseFixture {
 	 * @param queryId A URI value that identifies a stored query.
 	 */
 	void addQueryIdentifier(Document request, String queryId) {
-		Element docElem = reqEntity.getDocumentElement();
+		Element docElem = request.getDocumentElement();
 		Element storedQueryId = request.createElementNS(Namespaces.WFS, WFS2.STORED_QRY_ID_ELEM);
 		storedQueryId.setTextContent(queryId);
 		docElem.appendChild(storedQueryId);
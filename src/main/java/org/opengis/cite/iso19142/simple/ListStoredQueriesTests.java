@@ -22,7 +22,9 @@ import org.opengis.cite.validation.ValidationErrorHandler;
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import org.w3c.dom.Document;
 
 import jakarta.ws.rs.core.Response;
 
@@ -38,6 +40,9 @@ public class ListStoredQueriesTests extends BaseFixture {
 
 	private Schema wfsSchema;
 
+	/** The request entity; a copy is made for each test invocation. */
+	private Document requestTemplate;
+
 	/**
 	 * Retrieves the (pre-compiled) WFS schema from the suite fixture and builds the XML
 	 * request entity.
@@ -51,13 +56,21 @@ public class ListStoredQueriesTests extends BaseFixture {
 		factory.setNamespaceAware(true);
 		try {
 			DocumentBuilder builder = factory.newDocumentBuilder();
-			this.reqEntity = builder.parse(getClass().getResourceAsStream("ListStoredQueries.xml"));
+			this.requestTemplate = builder.parse(getClass().getResourceAsStream("ListStoredQueries.xml"));
 		}
 		catch (Exception e) {
 			TestSuiteLogger.log(Level.WARNING, "Failed to parse request entity from classpath", e);
 		}
 	}
 
+	/**
+	 * Sets a copy of the ListStoredQueries request as the request entity of the test invocation.
+	 */
+	@BeforeMethod
+	public void copyRequestEntity() {
+		setRequestEntity((Document) this.requestTemplate.cloneNode(true));
+	}
+
 	/**
 	 * The response to a ListStoredQueries request must include an XML entity having
 	 * wfs:ListStoredQueriesResponse as the document element. The document must (a) be
@@ -70,14 +83,14 @@ public class ListStoredQueriesTests extends BaseFixture {
 	@Test(description = "See ISO 19142: 14.3.4", dataProvider = "protocol-binding")
 	public void listStoredQueries(ProtocolBinding binding) {
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.LIST_STORED_QUERIES, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		this.rspEntity = extractBodyAsDocument(rsp);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		Validator validator = this.wfsSchema.newValidator();
 		ValidationErrorHandler errHandler = new ValidationErrorHandler();
 		validator.setErrorHandler(errHandler);
 		try {
-			validator.validate(new DOMSource(this.rspEntity, this.rspEntity.getDocumentURI()));
+			validator.validate(new DOMSource(getResponseEntity(), getResponseEntity().getDocumentURI()));
 		}
 		catch (Exception ex) {
 			// unlikely with DOM object and ErrorHandler set
@@ -87,7 +100,7 @@ public class ListStoredQueriesTests extends BaseFixture {
 				errHandler.getErrorCount(), errHandler.toString()));
 		String xpath = String.format("//wfs:StoredQuery[@id='%s' or @id='%s']", WFS2.QRY_GET_FEATURE_BY_ID,
 				WFS2.QRY_GET_FEATURE_BY_ID_URN);
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 }
@@ -1,6 +1,5 @@
 package org.opengis.cite.iso19142.simple;
 
-import javax.xml.transform.Result;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.Validator;
@@ -10,9 +9,9 @@ import org.opengis.cite.iso19142.ETSAssert;
 import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
 import org.opengis.cite.iso19142.SuiteAttribute;
+import org.opengis.cite.iso19142.util.SchematronResult;
 import org.opengis.cite.iso19142.util.ValidationUtils;
 import org.opengis.cite.iso19142.util.XMLUtils;
-import org.opengis.cite.validation.SchematronValidator;
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.annotations.BeforeClass;
@@ -39,6 +38,16 @@ public class ServiceMetadataTests extends BaseFixture {
 		Assert.assertNotNull(this.wfsSchema, "WFS schema not found in suite fixture.");
 	}
 
+	/**
+	 * Obtains the service description itself (not the summary document), since it is
+	 * validated.
+	 * @param testContext The test (group) context.
+	 */
+	@BeforeClass(alwaysRun = true)
+	public void obtainServiceDescription(ITestContext testContext) {
+		this.wfsMetadata = getServiceDescription(testContext.getSuite());
+	}
+
 	/**
 	 * Verifies that the WFS capabilities document is valid with respect to the official
 	 * {@code wfs.xsd} schema.
@@ -62,11 +71,10 @@ public class ServiceMetadataTests extends BaseFixture {
 	 */
 	@Test(description = "See ISO 19142: A.1.1, A.2.23")
 	public void capabilitiesDocCorrespondsToWfsSimple() {
-		SchematronValidator validator = ValidationUtils.buildSchematronValidator("wfs-capabilities-2.0.sch",
-				SIMPLE_WFS_PHASE);
-		Result result = validator.validate(new DOMSource(this.wfsMetadata, this.wfsMetadata.getDocumentURI()), false);
-		Assert.assertFalse(validator.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-				validator.getRuleViolationCount(), XMLUtils.resultToString(result)));
+		SchematronResult result = ValidationUtils.validateSchematron("wfs-capabilities-2.0.sch", SIMPLE_WFS_PHASE,
+				new DOMSource(this.wfsMetadata, this.wfsMetadata.getDocumentURI()), false);
+		Assert.assertFalse(result.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+				result.getRuleViolationCount(), XMLUtils.resultToString(result.getResult())));
 	}
 
 }
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 
-import javax.xml.transform.Result;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
 
@@ -15,10 +14,10 @@ import org.opengis.cite.iso19142.ErrorMessageKeys;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.WFS2;
+import org.opengis.cite.iso19142.util.SchematronResult;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.opengis.cite.iso19142.util.ValidationUtils;
 import org.opengis.cite.iso19142.util.XMLUtils;
-import org.opengis.cite.validation.SchematronValidator;
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.SkipException;
@@ -84,17 +83,16 @@ public class SimpleCapabilitiesTests extends BaseFixture {
 		Object entity = rsp.getEntity();
 		if (entity instanceof InputStream) {
 			try {
-				this.rspEntity = docBuilder.parse((InputStream) entity);
+				setResponseEntity(docBuilder.parse((InputStream) entity));
 			}
 			catch (SAXException | IOException e) {
 				throw new AssertionError(e.getMessage());
 			}
 		}
-		SchematronValidator validator = ValidationUtils.buildSchematronValidator("ExceptionReport.sch",
-				"MissingParameterValuePhase");
-		Result result = validator.validate(new DOMSource(this.rspEntity));
-		Assert.assertFalse(validator.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-				validator.getRuleViolationCount(), XMLUtils.resultToString(result)));
+		SchematronResult result = ValidationUtils.validateSchematron("ExceptionReport.sch",
+				"MissingParameterValuePhase", new DOMSource(getResponseEntity()));
+		Assert.assertFalse(result.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+				result.getRuleViolationCount(), XMLUtils.resultToString(result.getResult())));
 	}
 
 	/**
@@ -115,18 +113,17 @@ public class SimpleCapabilitiesTests extends BaseFixture {
 		Object entity = rsp.getEntity();
 		if (entity instanceof InputStream) {
 			try {
-				this.rspEntity = docBuilder.parse((InputStream) entity);
+				setResponseEntity(docBuilder.parse((InputStream) entity));
 			}
 			catch (SAXException | IOException e) {
 				throw new AssertionError(e.getMessage());
 			}
 		}
-		Assert.assertNotNull(this.rspEntity, ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		SchematronValidator validator = ValidationUtils.buildSchematronValidator("wfs-capabilities-2.0.sch",
-				"SimpleWFSPhase");
-		Result result = validator.validate(new DOMSource(this.rspEntity, this.rspEntity.getDocumentURI()), false);
-		Assert.assertFalse(validator.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-				validator.getRuleViolationCount(), XMLUtils.resultToString(result)));
+		Assert.assertNotNull(getResponseEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
+		SchematronResult result = ValidationUtils.validateSchematron("wfs-capabilities-2.0.sch", "SimpleWFSPhase",
+				new DOMSource(getResponseEntity(), getResponseEntity().getDocumentURI()), false);
+		Assert.assertFalse(result.ruleViolationsDetected(), ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+				result.getRuleViolationCount(), XMLUtils.resultToString(result.getResult())));
 	}
 
 	/**
@@ -145,9 +142,9 @@ public class SimpleCapabilitiesTests extends BaseFixture {
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_CAPABILITIES, binding);
 		Response rsp = wfsClient.submitRequest(new StreamSource(entityStream), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		this.rspEntity = extractBodyAsDocument(rsp);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		String xpath = "/wfs:WFS_Capabilities/@version = '2.0.0'";
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 }
@@ -4,7 +4,6 @@ import java.net.URI;
 import java.util.Collections;
 import java.util.UUID;
 
-import javax.xml.transform.Result;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.validation.Schema;
 
@@ -16,11 +15,11 @@ import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.WFS2;
 import org.opengis.cite.iso19142.util.DataSampler;
+import org.opengis.cite.iso19142.util.SchematronResult;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.opengis.cite.iso19142.util.ValidationUtils;
 import org.opengis.cite.iso19142.util.WFSMessage;
 import org.opengis.cite.iso19142.util.XMLUtils;
-import org.opengis.cite.validation.SchematronValidator;
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.annotations.BeforeClass;
@@ -73,7 +72,7 @@ public class StoredQueryTests extends BaseFixture {
 	 */
 	@BeforeMethod
 	public void buildGetFeatureRequestEntity() {
-		this.reqEntity = WFSMessage.createRequestEntity("GetFeature", this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity("GetFeature", this.wfsVersion));
 	}
 
 	/**
@@ -85,32 +84,32 @@ public class StoredQueryTests extends BaseFixture {
 	 */
 	@Test(description = "See ISO 19142: 7.9.3.4", dataProvider = "protocol-binding")
 	public void unknownStoredQuery(ProtocolBinding binding) {
-		WFSMessage.appendStoredQuery(this.reqEntity, "http://docbook.org/ns/docbook",
+		WFSMessage.appendStoredQuery(getRequestEntity(), "http://docbook.org/ns/docbook",
 				Collections.<String, Object>emptyMap());
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		this.rspEntity = extractBodyAsDocument(rsp);
-		SchematronValidator validator = ValidationUtils.buildSchematronValidator("ExceptionReport.sch",
-				"InvalidParameterValuePhase");
-		Result invalidaParamValueResult = validator.validate(new DOMSource(this.rspEntity), false);
-		boolean ruleViolated = validator.ruleViolationsDetected();
+		setResponseEntity(extractBodyAsDocument(rsp));
+		SchematronResult invalidParamValueResult = ValidationUtils.validateSchematron("ExceptionReport.sch",
+				"InvalidParameterValuePhase", new DOMSource(getResponseEntity()), false);
+		boolean ruleViolated = invalidParamValueResult.ruleViolationsDetected();
 
-		SchematronValidator operationParsingvalidator = ValidationUtils.buildSchematronValidator("ExceptionReport.sch",
-				"OperationParsingFailedPhase");
-		Result operationParsingResult = operationParsingvalidator.validate(new DOMSource(this.rspEntity), false);
+		SchematronResult operationParsingResult = ValidationUtils.validateSchematron("ExceptionReport.sch",
+				"OperationParsingFailedPhase", new DOMSource(getResponseEntity()), false);
 
 		if (!ruleViolated) {
 			// Assertion for InvalidParameterException
-			Assert.assertFalse(ruleViolated, ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-					validator.getRuleViolationCount(), XMLUtils.resultToString(invalidaParamValueResult)));
+			Assert.assertFalse(ruleViolated,
+					ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
+							invalidParamValueResult.getRuleViolationCount(),
+							XMLUtils.resultToString(invalidParamValueResult.getResult())));
 		}
-		else if (!operationParsingvalidator.ruleViolationsDetected()) {
+		else if (!operationParsingResult.ruleViolationsDetected()) {
 			// Assertion for OperationParsingFailed
-			Assert.assertFalse(operationParsingvalidator.ruleViolationsDetected(),
+			Assert.assertFalse(operationParsingResult.ruleViolationsDetected(),
 					ErrorMessage.format(ErrorMessageKeys.NOT_SCHEMA_VALID,
-							operationParsingvalidator.getRuleViolationCount(),
-							XMLUtils.resultToString(operationParsingResult)));
+							operationParsingResult.getRuleViolationCount(),
+							XMLUtils.resultToString(operationParsingResult.getResult())));
 		}
 		else {
 			// Assertion fail if both exception code not found.
@@ -137,10 +136,10 @@ public class StoredQueryTests extends BaseFixture {
 	@Test(description = "See ISO 19142: 7.9.3.6, 11.4", dataProvider = "protocol-binding")
 	public void invokeGetFeatureByIdWithUnknownID(ProtocolBinding binding) {
 		String id = "uuid-" + UUID.randomUUID().toString();
-		WFSMessage.appendStoredQuery(this.reqEntity, this.queryId, Collections.singletonMap("id", (Object) id));
+		WFSMessage.appendStoredQuery(getRequestEntity(), this.queryId, Collections.singletonMap("id", (Object) id));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
-		this.rspEntity = extractBodyAsDocument(rsp);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
+		setResponseEntity(extractBodyAsDocument(rsp));
 		int statusCode = rsp.getStatus();
 		if (this.wfsVersion.equals("2.0.0")) {
 			Assert.assertTrue(
@@ -168,12 +167,13 @@ public class StoredQueryTests extends BaseFixture {
 		String featureIdToRequest = this.dataSampler.getFeatureId();
 		Assert.assertTrue(featureIdToRequest != null && !featureIdToRequest.isEmpty(),
 				ErrorMessage.get(ErrorMessageKeys.FID_NOT_FOUND));
-		WFSMessage.appendStoredQuery(this.reqEntity, this.queryId, Collections.singletonMap("id", featureIdToRequest));
+		WFSMessage.appendStoredQuery(getRequestEntity(), this.queryId, Collections.singletonMap("id",
+				featureIdToRequest));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.GET_FEATURE, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertTrue(rsp.hasEntity(), ErrorMessage.get(ErrorMessageKeys.MISSING_XML_ENTITY));
-		this.rspEntity = extractBodyAsDocument(rsp);
-		Element feature = this.rspEntity.getDocumentElement();
+		setResponseEntity(extractBodyAsDocument(rsp));
+		Element feature = getResponseEntity().getDocumentElement();
 		Assert.assertEquals(feature.getAttributeNS(Namespaces.GML, "id"), featureIdToRequest,
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_ID));
 	}
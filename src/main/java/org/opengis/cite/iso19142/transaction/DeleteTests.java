@@ -78,10 +78,10 @@ public class DeleteTests extends TransactionFixture {
 		String gmlId = originalFeature.getAttributeNS(Namespaces.GML, "id");
 		Map<String, QName> featuresToDelete = new HashMap<String, QName>();
 		featuresToDelete.put(gmlId, new QName(originalFeature.getNamespaceURI(), originalFeature.getLocalName()));
-		this.rspEntity = wfsClient.deleteFeatures(featuresToDelete, binding);
-		ETSAssert.assertXPath("//wfs:TransactionResponse", this.rspEntity, null);
+		setResponseEntity(wfsClient.deleteFeatures(featuresToDelete, binding));
+		ETSAssert.assertXPath("//wfs:TransactionResponse", getResponseEntity(), null);
 		String xpath = String.format("//wfs:totalDeleted = '%d'", featuresToDelete.size());
-		ETSAssert.assertXPath(xpath, this.rspEntity, null);
+		ETSAssert.assertXPath(xpath, getResponseEntity(), null);
 		deletedFeatures.add(originalFeature);
 		ETSAssert.assertFeatureAvailability(gmlId, false, wfsClient);
 	}
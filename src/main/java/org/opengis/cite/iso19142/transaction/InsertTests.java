@@ -17,6 +17,7 @@ import org.opengis.cite.iso19142.ETSAssert;
 import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
 import org.opengis.cite.iso19142.Namespaces;
+import org.opengis.cite.iso19142.PendingChanges;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.WFS2;
 import org.opengis.cite.iso19142.basic.filter.ResourceId;
@@ -40,10 +41,15 @@ import jakarta.ws.rs.core.Response.Status;
  *
  * @see "ISO 19142:2010, cl. 15.2.4: Insert action"
  */
-public class InsertTests extends TransactionFixture {
+public class InsertTests extends TransactionFixture implements PendingChanges {
 
 	private Map<String, QName> createdFeatures = new HashMap<String, QName>();
 
+	@Override
+	public Map<String, QName> getInsertedFeatures() {
+		return this.createdFeatures;
+	}
+
 	/**
 	 * Restores the WFS data store to its previous state by deleting all features that
 	 * were successfully inserted by test methods in this class.
@@ -84,14 +90,14 @@ public class InsertTests extends TransactionFixture {
 	@Test(description = "See ISO 19142: 15.2.4, 15.3.4", dataProvider = "binding+availFeatureType")
 	public void insertSupportedFeature(ProtocolBinding binding, QName featureType) {
 		Node feature = createFeatureInstance(featureType);
-		WFSMessage.addInsertStatement(this.reqEntity, feature);
+		WFSMessage.addInsertStatement(getRequestEntity(), feature);
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.TRANSACTION, binding);
-		Response rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
+		Response rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		ETSAssert.assertXPath("//wfs:TransactionResponse/wfs:InsertResults", this.rspEntity, null);
-		List<ResourceId> newFeatureIDs = extractFeatureIdentifiers(this.rspEntity, WFS2.Transaction.INSERT);
+		ETSAssert.assertXPath("//wfs:TransactionResponse/wfs:InsertResults", getResponseEntity(), null);
+		List<ResourceId> newFeatureIDs = extractFeatureIdentifiers(getResponseEntity(), WFS2.Transaction.INSERT);
 		String rid = newFeatureIDs.get(0).getRid();
 		createdFeatures.put(rid, featureType);
 		ETSAssert.assertFeatureAvailability(rid, true, this.wfsClient);
@@ -107,19 +113,19 @@ public class InsertTests extends TransactionFixture {
 	@Test(description = "See ISO 19142: 7.5, 15.4")
 	public void insertInvalidFeature() {
 		try {
-			this.reqEntity = docBuilder.parse(getClass().getResourceAsStream("InsertUnrecognizedFeature.xml"));
+			setRequestEntity(docBuilder.parse(getClass().getResourceAsStream("InsertUnrecognizedFeature.xml")));
 		}
 		catch (Exception e) {
 			throw new RuntimeException("Failed to parse InsertUnrecognizedFeature.xml from classpath", e);
 		}
 		ProtocolBinding binding = wfsClient.getAnyTransactionBinding();
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.TRANSACTION, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		this.rspEntity = rsp.readEntity(Document.class);
+		setResponseEntity(rsp.readEntity(Document.class));
 		String xpath = "//ows:Exception[@exceptionCode = 'InvalidValue']";
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 	/**
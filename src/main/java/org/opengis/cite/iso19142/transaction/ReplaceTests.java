@@ -94,21 +94,22 @@ public class ReplaceTests extends TransactionFixture {
 		Element originalFeature = (Element) features.item(0);
 		Element replacement = createReplacementFeature(originalFeature);
 		List<Element> replacements = Arrays.asList(replacement);
-		WFSMessage.addReplaceStatements(this.reqEntity, replacements);
-		Response rsp = wfsClient.submitRequest(this.reqEntity, binding);
-		this.rspEntity = rsp.readEntity(Document.class);
+		WFSMessage.addReplaceStatements(getRequestEntity(), replacements);
+		Response rsp = wfsClient.submitRequest(getRequestEntity(), binding);
+		setResponseEntity(rsp.readEntity(Document.class));
 		String xpath = String.format("//wfs:totalReplaced = '%d'", replacements.size());
-		ETSAssert.assertXPath(xpath, this.rspEntity, null);
+		ETSAssert.assertXPath(xpath, getResponseEntity(), null);
 		originalFeatures.add(originalFeature);
 		// feature versioning may be enabled, so get fes:ResourceId/@rid
-		Element resourceId = (Element) this.rspEntity.getElementsByTagNameNS(FES2.NS, FES2.RESOURCE_ID).item(0);
+		Element resourceId = (Element) getResponseEntity().getElementsByTagNameNS(FES2.NS, FES2.RESOURCE_ID).item(0);
 		Assert.assertNotNull(resourceId, ErrorMessage.format(ErrorMessageKeys.MISSING_INFOSET_ITEM, FES2.RESOURCE_ID));
 		String gmlId = resourceId.getAttribute("rid");
 		@SuppressWarnings("unchecked")
 		Map<XSElementDeclaration, Object> replProps = (Map<XSElementDeclaration, Object>) replacement
 			.getUserData(REPL_PROPS);
-		this.rspEntity = wfsClient.invokeStoredQuery(WFS2.QRY_GET_FEATURE_BY_ID, Collections.singletonMap("id", gmlId));
-		Element feature = this.rspEntity.getDocumentElement();
+		setResponseEntity(wfsClient.invokeStoredQuery(WFS2.QRY_GET_FEATURE_BY_ID, Collections.singletonMap("id",
+				gmlId)));
+		Element feature = getResponseEntity().getDocumentElement();
 		ETSAssert.assertQualifiedName(feature, featureType);
 		ETSAssert.assertSimpleProperties(feature, replProps, null);
 	}
@@ -142,13 +143,13 @@ public class ReplaceTests extends TransactionFixture {
 		String idValue = UUID.randomUUID().toString();
 		identifier.setTextContent(idValue);
 		WFSMessage.insertGMLProperty(replacement, identifier);
-		replProps.put(this.model.getElementDeclaration("identifier", Namespaces.GML), idValue);
+		replProps.put(getModel().getElementDeclaration("identifier", Namespaces.GML), idValue);
 		propName = new QName(Namespaces.GML, "description");
 		Element desc = XMLUtils.createElement(propName);
 		String description = "Lorem ipsum dolor sit amet.";
 		desc.setTextContent(description);
 		WFSMessage.insertGMLProperty(replacement, desc);
-		replProps.put(this.model.getElementDeclaration("description", Namespaces.GML), description);
+		replProps.put(getModel().getElementDeclaration("description", Namespaces.GML), description);
 		replacement.setUserData(REPL_PROPS, replProps, null);
 		return replacement;
 	}
@@ -1,5 +1,6 @@
 package org.opengis.cite.iso19142.transaction;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -32,10 +33,14 @@ public class TransactionFixture extends BaseFixture {
 	protected DataSampler dataSampler;
 
 	/**
-	 * An XSModel object representing the application schema supported by the SUT.
+	 * An XSModel object representing the application schema supported by the SUT. It is
+	 * obtained when first needed (see {@link #getModel()}).
 	 */
 	protected XSModel model;
 
+	/** The test suite from which schema models are obtained. */
+	private ISuite suite;
+
 	public TransactionFixture() {
 		super();
 	}
@@ -50,16 +55,39 @@ public class TransactionFixture extends BaseFixture {
 
 	/**
 	 * Obtains a DataSampler object from the test run context (the value of the
-	 * {@link SuiteAttribute#SAMPLER SuiteAttribute.SAMPLER attribute}). A schema model
-	 * (XSModel) is also obtained from the test context by accessing the
-	 * {@link org.opengis.cite.iso19136.SuiteAttribute#XSMODEL xsmodel} attribute.
+	 * {@link SuiteAttribute#SAMPLER SuiteAttribute.SAMPLER attribute}). Schema models
+	 * (XSModel) are obtained from the test context when they are first needed (see
+	 * {@link #getModel(QName)}).
 	 * @param testContext The test run context.
 	 */
 	@BeforeClass(alwaysRun = true)
 	public void initTransactionFixture(ITestContext testContext) {
-		ISuite suite = testContext.getSuite();
+		this.suite = testContext.getSuite();
 		this.dataSampler = (DataSampler) suite.getAttribute(SuiteAttribute.SAMPLER.getName());
-		this.model = (XSModel) suite.getAttribute(org.opengis.cite.iso19136.SuiteAttribute.XSMODEL.getName());
+	}
+
+	/**
+	 * Returns a schema model suitable for looking up GML components (see
+	 * {@link #getSchemaModel(ISuite)}).
+	 * @return An XSModel object, or {@code null} if no schema model is available.
+	 */
+	protected XSModel getModel() {
+		XSModel xsModel = this.model;
+		if (null == xsModel && null != this.suite) {
+			xsModel = getSchemaModel(this.suite);
+			this.model = xsModel;
+		}
+		return xsModel;
+	}
+
+	/**
+	 * Returns a schema model that includes the definition of the given feature type (see
+	 * {@link #getSchemaModel(ISuite, QName)}).
+	 * @param featureType The qualified name of a feature type.
+	 * @return An XSModel object, or {@code null} if no schema model is available.
+	 */
+	protected XSModel getModel(QName featureType) {
+		return (null != this.suite) ? getSchemaModel(this.suite, featureType) : this.model;
 	}
 
 	/**
@@ -67,7 +95,7 @@ public class TransactionFixture extends BaseFixture {
 	 */
 	@BeforeMethod
 	public void buildTransactionRequest() {
-		this.reqEntity = WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion));
 	}
 
 	/**
@@ -78,13 +106,14 @@ public class TransactionFixture extends BaseFixture {
 	 * <li>QName - the name of a feature type for which data are available</li>
 	 * </ol>
 	 * @param testContext The ITestContext object for the test run.
+	 * @param method The test method that will receive the data.
 	 * @return {@literal Iterator<Object[]>} An iterator over a collection of parameter
 	 * tuples.
 	 */
 	@DataProvider(name = "binding+availFeatureType")
-	public Iterator<Object[]> trxTestParameters(ITestContext testContext) {
+	public Iterator<Object[]> trxTestParameters(ITestContext testContext, Method method) {
 		ISuite suite = testContext.getSuite();
-		Document wfsMetadata = (Document) suite.getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		Document wfsMetadata = getCapabilitiesSummary(suite);
 		if (null == wfsMetadata) {
 			throw new NullPointerException("Service description not found in ITestContext");
 		}
@@ -100,7 +129,7 @@ public class TransactionFixture extends BaseFixture {
 				}
 			}
 		}
-		return paramList.iterator();
+		return selectRows(testContext, method, paramList.iterator());
 	}
 
 }
@@ -114,14 +114,15 @@ public class Update extends TransactionFixture {
 		Map<String, Object> properties = new HashMap<String, Object>();
 		String newName = "Pellentesque Arcu Lorem";
 		properties.put("gml:name[1]", newName);
-		this.rspEntity = wfsClient.updateFeature(this.reqEntity, gmlId, featureType, properties, binding);
-		if (this.rspEntity.getDocumentElement().getLocalName().equals(WFS2.TRANSACTION_RSP)) {
+		setResponseEntity(wfsClient.updateFeature(getRequestEntity(), gmlId, featureType, properties, binding));
+		if (getResponseEntity().getDocumentElement().getLocalName().equals(WFS2.TRANSACTION_RSP)) {
 			modifiedFeatures.add(originalFeature);
 		}
-		this.rspEntity = wfsClient.invokeStoredQuery(WFS2.QRY_GET_FEATURE_BY_ID, Collections.singletonMap("id", gmlId));
-		Element feature = this.rspEntity.getDocumentElement();
+		setResponseEntity(wfsClient.invokeStoredQuery(WFS2.QRY_GET_FEATURE_BY_ID, Collections.singletonMap("id",
+				gmlId)));
+		Element feature = getResponseEntity().getDocumentElement();
 		ETSAssert.assertQualifiedName(feature, featureType);
-		XSElementDeclaration gmlName = this.model.getElementDeclaration("name", Namespaces.GML);
+		XSElementDeclaration gmlName = getModel(featureType).getElementDeclaration("name", Namespaces.GML);
 		ETSAssert.assertSimpleProperties(feature, Collections.singletonMap(gmlName, newName), null);
 	}
 
@@ -142,21 +143,21 @@ public class Update extends TransactionFixture {
 	@Test(description = "See ISO 19142: 7.5, 15.2.5.2.1")
 	public void updateBoundedByWithKMLPoint() {
 		try {
-			this.reqEntity = docBuilder.parse(getClass().getResourceAsStream("UpdateInvalidFeatureProperty.xml"));
+			setRequestEntity(docBuilder.parse(getClass().getResourceAsStream("UpdateInvalidFeatureProperty.xml")));
 		}
 		catch (Exception e) {
 			throw new RuntimeException("Failed to parse XML resource from classpath", e);
 		}
-		Element update = (Element) this.reqEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.UPDATE).item(0);
+		Element update = (Element) getRequestEntity().getElementsByTagNameNS(Namespaces.WFS, WFS2.UPDATE).item(0);
 		WFSMessage.setTypeName(update, featureTypes.get(0));
 		ProtocolBinding binding = wfsClient.getAnyTransactionBinding();
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.TRANSACTION, binding);
-		Response rsp = wfsClient.submitRequest(new DOMSource(this.reqEntity), binding, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
+		Response rsp = wfsClient.submitRequest(new DOMSource(getRequestEntity()), binding, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.BAD_REQUEST.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
 		String xpath = "//ows:Exception[@exceptionCode = 'InvalidValue']";
-		ETSAssert.assertXPath(xpath, this.rspEntity.getDocumentElement(), null);
+		ETSAssert.assertXPath(xpath, getResponseEntity().getDocumentElement(), null);
 	}
 
 	/**
@@ -177,7 +178,7 @@ public class Update extends TransactionFixture {
 	 */
 	@Test(description = "See ISO 19142: 15.3.3, 15.3.5", dataProvider = "binding+availFeatureType")
 	public void updateSimplePropertyValue(ProtocolBinding binding, QName featureType) {
-		List<XSElementDeclaration> simpleProps = AppSchemaUtils.getSimpleFeatureProperties(this.model, featureType);
+		List<XSElementDeclaration> simpleProps = AppSchemaUtils.getSimpleFeatureProperties(getModel(featureType), featureType);
 		// position iterator at end of list so previous() returns last item
 		ListIterator<XSElementDeclaration> propItr = simpleProps.listIterator(simpleProps.size());
 		XSElementDeclaration prop = propItr.previous();
@@ -186,16 +187,16 @@ public class Update extends TransactionFixture {
 		QName propName = new QName(prop.getNamespace(), prop.getName(), "tns");
 		List<String> propValues = this.dataSampler.getSimplePropertyValues(featureType, propName, featureId);
 		String newVal = newPropertyValue(prop, propValues);
-		WFSMessage.addNamespaceBinding(this.reqEntity, propName);
+		WFSMessage.addNamespaceBinding(getRequestEntity(), propName);
 		Map<String, Object> properties = new HashMap<String, Object>();
 		properties.put(propName.getPrefix() + ":" + propName.getLocalPart() + "[1]", newVal);
-		this.rspEntity = wfsClient.updateFeature(this.reqEntity, featureId, featureType, properties, binding);
-		if (this.rspEntity.getDocumentElement().getLocalName().equals(WFS2.TRANSACTION_RSP)) {
+		setResponseEntity(wfsClient.updateFeature(getRequestEntity(), featureId, featureType, properties, binding));
+		if (getResponseEntity().getDocumentElement().getLocalName().equals(WFS2.TRANSACTION_RSP)) {
 			modifiedFeatures.add(this.dataSampler.getFeatureById(featureId));
 		}
-		this.rspEntity = wfsClient.invokeStoredQuery(WFS2.QRY_GET_FEATURE_BY_ID,
-				Collections.singletonMap("id", featureId));
-		Element feature = this.rspEntity.getDocumentElement();
+		setResponseEntity(wfsClient.invokeStoredQuery(WFS2.QRY_GET_FEATURE_BY_ID,
+				Collections.singletonMap("id", featureId)));
+		Element feature = getResponseEntity().getDocumentElement();
 		ETSAssert.assertQualifiedName(feature, featureType);
 		ETSAssert.assertSimpleProperties(feature, Collections.singletonMap(prop, newVal),
 				Collections.singletonMap(propName.getNamespaceURI(), propName.getPrefix()));
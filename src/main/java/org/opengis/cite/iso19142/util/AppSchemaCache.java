@@ -0,0 +1,358 @@
+package org.opengis.cite.iso19142.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.xerces.dom.DOMInputImpl;
+import org.apache.xerces.impl.xs.XMLSchemaLoader;
+import org.apache.xerces.impl.xs.util.LSInputListImpl;
+import org.apache.xerces.util.XMLCatalogResolver;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xs.XSModel;
+import org.opengis.cite.iso19142.Namespaces;
+import org.w3c.dom.DOMError;
+import org.w3c.dom.DOMErrorHandler;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+
+/**
+ * A cache of compiled application schemas. A schema is identified by a digest (SHA-256)
+ * computed over the content of every schema document it comprises: the document
+ * referenced by the given URI and all those it imports, includes or redefines, directly
+ * or indirectly. Several schemas (e.g. one per namespace) may be compiled together into
+ * a composite model. Each document is retrieved only once per request; local copies of
+ * standard schemas are used if they are listed in the entity catalog. A change to any
+ * constituent document produces a different digest, so a stale model is never returned.
+ *
+ * <p>
+ * Compiled models are shared by all test runs in the JVM (the Xerces grammar objects are
+ * not serializable). At most {@value #MAX_MODELS} models are retained; the least recently
+ * used one is discarded first. A schema is compiled only once at a time: concurrent
+ * requests for the same schema wait for the result. A failure to compile is reported to
+ * those requests but is not retained, so a later request compiles the schema again.
+ * </p>
+ *
+ * <p>
+ * The schema documents themselves are kept between runs (see
+ * {@link SchemaDocumentStore}), so a warm run does not download unchanged documents
+ * again; the digest is still computed over their current content.
+ * </p>
+ */
+public class AppSchemaCache {
+
+	private static final XMLCatalogResolver XSD_RESOLVER = (XMLCatalogResolver) ValidationUtils
+		.createSchemaResolver(Namespaces.XSD);
+
+	/** The maximum number of compiled models retained. */
+	static final int MAX_MODELS = 16;
+
+	/** Compiled (or compiling) models by digest, in access order. */
+	private static final Map<String, CompletableFuture<XSModel>> MODELS = new LinkedHashMap<>(MAX_MODELS, 0.75f,
+			true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<XSModel>> eldest) {
+			return size() > MAX_MODELS;
+		}
+	};
+
+	/** The maximum number of schemas retrieved concurrently by platform threads. */
+	private static final int MAX_THREADS = 8;
+
+	private static final String GRAMMAR_POOL = "http://apache.org/xml/properties/internal/grammar-pool";
+
+	private AppSchemaCache() {
+	}
+
+	/**
+	 * Returns the schema model for the schema located at the given URI. The schema is
+	 * compiled if no model for the current content has been cached.
+	 * @param schemaURI An absolute URI that refers to an XML Schema document (e.g. a
+	 * DescribeFeatureType request).
+	 * @return An XSModel object representing the schema.
+	 * @throws IOException If a schema document cannot be retrieved, or if the schema
+	 * could not be compiled.
+	 */
+	public static XSModel getModel(URI schemaURI) throws IOException {
+		return getModel(Collections.singletonList(schemaURI));
+	}
+
+	/**
+	 * Returns a composite schema model for the schemas located at the given URIs. The
+	 * schema documents are retrieved concurrently (one task per URI); the schemas are then
+	 * compiled together, so that each namespace is represented by a single grammar in the
+	 * resulting model.
+	 * @param schemaURIs A list of absolute URIs that refer to XML Schema documents (e.g.
+	 * DescribeFeatureType requests for different namespaces).
+	 * @return An XSModel object representing all of the schemas.
+	 * @throws IOException If a schema document cannot be retrieved, or if the schemas
+	 * could not be compiled.
+	 */
+	public static XSModel getModel(List<URI> schemaURIs) throws IOException {
+		if (schemaURIs.isEmpty()) {
+			throw new IllegalArgumentException("No schema locations given.");
+		}
+		Map<URI, byte[]> schemaSet = resolveSchemaSets(schemaURIs);
+		String digest = digest(schemaSet);
+		CompletableFuture<XSModel> compilation;
+		boolean compiler = false;
+		synchronized (MODELS) {
+			compilation = MODELS.get(digest);
+			if (null == compilation) {
+				compilation = new CompletableFuture<>();
+				MODELS.put(digest, compilation);
+				compiler = true;
+			}
+		}
+		if (compiler) {
+			try {
+				compilation.complete(compile(schemaURIs, schemaSet));
+			}
+			catch (IOException | RuntimeException ex) {
+				synchronized (MODELS) {
+					MODELS.remove(digest, compilation);
+				}
+				compilation.completeExceptionally(ex);
+			}
+		}
+		XSModel model;
+		try {
+			model = compilation.join();
+		}
+		catch (CompletionException ce) {
+			throw new IOException(ce.getCause().getMessage(), ce.getCause());
+		}
+		TestSuiteLogger.log(Level.CONFIG,
+				String.format("Schema model for %s (%d documents, digest %s)", schemaURIs, schemaSet.size(), digest));
+		return model;
+	}
+
+	/**
+	 * Determines whether a model for the given schema content is cached.
+	 * @param digest The digest of a set of schema documents (see {@link #digest(Map)}).
+	 * @return {@code true} if a model is cached (or being compiled); {@code false}
+	 * otherwise.
+	 */
+	static boolean isCached(String digest) {
+		synchronized (MODELS) {
+			return MODELS.containsKey(digest);
+		}
+	}
+
+	/**
+	 * Retrieves the schema documents that constitute each of the given schemas. If there
+	 * is more than one schema, each set of documents is retrieved in a separate thread.
+	 * @param schemaURIs A list of absolute URIs that refer to XML Schema documents.
+	 * @return A map (sorted by URI) containing the content of all schema documents.
+	 * @throws IOException If a schema document cannot be retrieved or read.
+	 */
+	static Map<URI, byte[]> resolveSchemaSets(List<URI> schemaURIs) throws IOException {
+		if (schemaURIs.size() == 1) {
+			return resolveSchemaSet(schemaURIs.get(0));
+		}
+		// a few short-lived tasks; platform threads are used in either mode
+		ExecutorService executor = TaskExecutors.newIOExecutor(TaskExecutors.Mode.PLATFORM,
+				Math.min(schemaURIs.size(), MAX_THREADS));
+		try {
+			List<Future<Map<URI, byte[]>>> results = new ArrayList<>();
+			for (URI schemaURI : schemaURIs) {
+				results.add(executor.submit(() -> resolveSchemaSet(schemaURI)));
+			}
+			Map<URI, byte[]> schemaSet = new TreeMap<>();
+			for (Future<Map<URI, byte[]>> result : results) {
+				schemaSet.putAll(result.get());
+			}
+			return schemaSet;
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while retrieving schemas.", ie);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Retrieves all schema documents that constitute the schema located at the given
+	 * URI. The references in xsd:import, xsd:include, xsd:redefine and xsd:override
+	 * elements are followed.
+	 * @param schemaURI An absolute URI that refers to an XML Schema document.
+	 * @return A map (sorted by URI) containing the content of each schema document.
+	 * @throws IOException If a schema document cannot be retrieved or read.
+	 */
+	static Map<URI, byte[]> resolveSchemaSet(URI schemaURI) throws IOException {
+		Map<URI, byte[]> schemaSet = new TreeMap<>();
+		Deque<URI> pending = new ArrayDeque<>();
+		pending.add(schemaURI);
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		while (!pending.isEmpty()) {
+			URI docURI = pending.remove();
+			if (schemaSet.containsKey(docURI)) {
+				continue;
+			}
+			byte[] content = fetch(docURI);
+			schemaSet.put(docURI, content);
+			try {
+				XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(content));
+				try {
+					while (reader.hasNext()) {
+						if (reader.next() == XMLStreamConstants.START_ELEMENT
+								&& XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(reader.getNamespaceURI())
+								&& isSchemaReference(reader.getLocalName())) {
+							String location = reader.getAttributeValue(null, "schemaLocation");
+							if (null != location && !location.isEmpty()) {
+								pending.add(docURI.resolve(location.trim()));
+							}
+						}
+					}
+				}
+				finally {
+					reader.close();
+				}
+			}
+			catch (XMLStreamException xse) {
+				throw new IOException("Failed to read schema document at " + docURI, xse);
+			}
+		}
+		return schemaSet;
+	}
+
+	/**
+	 * Computes a digest over the given set of schema documents.
+	 * @param schemaSet A sorted map containing the content of each schema document.
+	 * @return The hexadecimal representation of the digest (SHA-256).
+	 */
+	static String digest(Map<URI, byte[]> schemaSet) {
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException nsa) {
+			// every Java platform implementation must support SHA-256
+			throw new IllegalStateException(nsa);
+		}
+		for (Map.Entry<URI, byte[]> entry : schemaSet.entrySet()) {
+			md.update(entry.getKey().toString().getBytes(StandardCharsets.UTF_8));
+			md.update((byte) 0);
+			md.update(entry.getValue());
+		}
+		return HexFormat.of().formatHex(md.digest());
+	}
+
+	private static boolean isSchemaReference(String localName) {
+		return localName.equals("import") || localName.equals("include") || localName.equals("redefine")
+				|| localName.equals("override");
+	}
+
+	/**
+	 * Reads the content of a schema document. A local copy is read instead if one is
+	 * listed in the entity catalog; a document retrieved over HTTP is saved for use in
+	 * later test runs (see {@link SchemaDocumentStore}).
+	 * @param docURI The (absolute) location of the document.
+	 * @return The content of the document.
+	 * @throws IOException If the document cannot be retrieved.
+	 */
+	private static byte[] fetch(URI docURI) throws IOException {
+		String location = XSD_RESOLVER.resolveSystem(docURI.toString());
+		if (null == location && null != docURI.getScheme()
+				&& (docURI.getScheme().equalsIgnoreCase("http") || docURI.getScheme().equalsIgnoreCase("https"))) {
+			return SchemaDocumentStore.getDefault().fetch(docURI);
+		}
+		URI sourceURI = (null != location) ? URI.create(location) : docURI;
+		try (InputStream inStream = sourceURI.toURL().openStream()) {
+			return inStream.readAllBytes();
+		}
+	}
+
+	/**
+	 * Compiles one or more schemas from documents that have already been retrieved.
+	 * @param schemaURIs The locations of the top-level schema documents.
+	 * @param schemaSet The content of all schema documents.
+	 * @return The resulting schema model.
+	 * @throws IOException If the schemas could not be compiled.
+	 */
+	private static XSModel compile(List<URI> schemaURIs, Map<URI, byte[]> schemaSet) throws IOException {
+		XMLSchemaLoader loader = new XMLSchemaLoader();
+		// grammars are shared by all top-level schemas (one per namespace)
+		loader.setProperty(GRAMMAR_POOL, new XMLGrammarPoolImpl());
+		loader.setParameter("resource-resolver", new LSResourceResolver() {
+			@Override
+			public LSInput resolveResource(String type, String namespaceURI, String publicId, String systemId,
+					String baseURI) {
+				if (null == systemId) {
+					return null;
+				}
+				URI docURI = (null != baseURI) ? URI.create(baseURI).resolve(systemId) : URI.create(systemId);
+				byte[] content = schemaSet.get(docURI);
+				return (null != content) ? createInput(docURI, content) : null;
+			}
+		});
+		List<String> errors = new ArrayList<>();
+		loader.setParameter("error-handler", (DOMErrorHandler) domError -> {
+			if (domError.getSeverity() != DOMError.SEVERITY_WARNING) {
+				errors.add(domError.getMessage());
+			}
+			return true;
+		});
+		long start = System.currentTimeMillis();
+		XSModel model = null;
+		try {
+			LSInput[] inputs = new LSInput[schemaURIs.size()];
+			for (int i = 0; i < inputs.length; i++) {
+				inputs[i] = createInput(schemaURIs.get(i), schemaSet.get(schemaURIs.get(i)));
+			}
+			model = loader.loadInputList(new LSInputListImpl(inputs, inputs.length));
+		}
+		catch (RuntimeException rx) {
+			errors.add(rx.getMessage());
+		}
+		TestSuiteLogger.log(Level.CONFIG, String.format("Compiled schema at %s in %d ms", schemaURIs,
+				System.currentTimeMillis() - start));
+		if (!errors.isEmpty()) {
+			throw new IOException("Failed to compile schema at " + schemaURIs + ": " + errors);
+		}
+		if (null == model) {
+			throw new IOException("Failed to compile schema at " + schemaURIs + ": No schema model produced");
+		}
+		return model;
+	}
+
+	private static LSInput createInput(URI docURI, byte[] content) {
+		return new DOMInputImpl(null, docURI.toString(), null, new ByteArrayInputStream(content), null);
+	}
+
+}
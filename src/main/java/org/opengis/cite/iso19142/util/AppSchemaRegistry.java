@@ -0,0 +1,157 @@
+package org.opengis.cite.iso19142.util;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import javax.xml.namespace.QName;
+
+import org.apache.xerces.xs.XSModel;
+
+/**
+ * Provides schema models for the feature types offered by the WFS under test, which are
+ * loaded on demand by namespace. A separate DescribeFeatureType request is submitted for
+ * each namespace (listing all feature types in that namespace), so the implementation
+ * need only generate, and the test suite need only compile, the schemas for the
+ * namespaces actually used.
+ *
+ * <p>
+ * When feature types from several namespaces are required, the schemas are retrieved
+ * concurrently and compiled together into a composite model (see
+ * {@link AppSchemaCache#getModel(List)}). Models are cached per set of namespaces.
+ * </p>
+ */
+public class AppSchemaRegistry {
+
+	private static final String TNS_PREFIX = "tns";
+
+	private final String endpoint;
+
+	/** Feature type names (local parts) by namespace. */
+	private final Map<String, Set<String>> featureTypes = new TreeMap<>();
+
+	private final Map<Set<String>, XSModel> models = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a registry for the given service.
+	 * @param endpoint The DescribeFeatureType request endpoint (GET method).
+	 * @param featureTypes The feature types offered by the service.
+	 */
+	public AppSchemaRegistry(URI endpoint, Collection<QName> featureTypes) {
+		String uri = endpoint.toString();
+		if (uri.endsWith("?")) {
+			uri = uri.substring(0, uri.length() - 1);
+		}
+		if (uri.indexOf('?') < 0) {
+			uri = uri + '?';
+		}
+		else if (!uri.endsWith("&")) {
+			uri = uri + '&';
+		}
+		this.endpoint = uri;
+		for (QName featureType : featureTypes) {
+			this.featureTypes.computeIfAbsent(featureType.getNamespaceURI(), ns -> new TreeSet<>())
+				.add(featureType.getLocalPart());
+		}
+	}
+
+	/**
+	 * Returns the namespaces of the feature types offered by the service.
+	 * @return An unmodifiable set of namespace names.
+	 */
+	public Set<String> getNamespaces() {
+		return Collections.unmodifiableSet(this.featureTypes.keySet());
+	}
+
+	/**
+	 * Returns a schema model for any of the namespaces; one that has already been loaded
+	 * is preferred. Such a model is suitable for looking up components that every
+	 * application schema imports (e.g. GML types).
+	 * @return An XSModel object representing the application schema for some namespace.
+	 * @throws IOException If the schema cannot be retrieved or compiled.
+	 */
+	public XSModel getModel() throws IOException {
+		Iterator<XSModel> loadedModels = this.models.values().iterator();
+		if (loadedModels.hasNext()) {
+			return loadedModels.next();
+		}
+		if (this.featureTypes.isEmpty()) {
+			throw new IllegalArgumentException("No feature types offered.");
+		}
+		String namespace = this.featureTypes.keySet().iterator().next();
+		return getModel(List.of(new QName(namespace, this.featureTypes.get(namespace).iterator().next())));
+	}
+
+	/**
+	 * Returns a schema model that includes the definition of the given feature type.
+	 * @param featureType The qualified name of a feature type.
+	 * @return An XSModel object representing the application schema for the namespace
+	 * of the feature type.
+	 * @throws IOException If the schema cannot be retrieved or compiled.
+	 */
+	public XSModel getModel(QName featureType) throws IOException {
+		return getModel(List.of(featureType));
+	}
+
+	/**
+	 * Returns a schema model that includes the definitions of all the given feature
+	 * types. The schemas for all of their namespaces are loaded if necessary.
+	 * @param featureTypes A collection of qualified feature type names.
+	 * @return An XSModel object representing the application schemas for the namespaces
+	 * of the given feature types.
+	 * @throws IOException If a schema cannot be retrieved or compiled.
+	 */
+	public XSModel getModel(Collection<QName> featureTypes) throws IOException {
+		Set<String> namespaces = new TreeSet<>();
+		for (QName featureType : featureTypes) {
+			namespaces.add(featureType.getNamespaceURI());
+		}
+		XSModel model = this.models.get(namespaces);
+		if (null == model) {
+			List<URI> schemaURIs = new ArrayList<>();
+			for (String namespace : namespaces) {
+				schemaURIs.add(createRequestURI(namespace));
+			}
+			TestSuiteLogger.log(Level.FINE, "Loading application schemas for namespaces " + namespaces);
+			model = AppSchemaCache.getModel(schemaURIs);
+			this.models.put(namespaces, model);
+		}
+		return model;
+	}
+
+	/**
+	 * Creates a DescribeFeatureType request URI (KVP syntax) for the feature types in
+	 * the given namespace. If the service does not offer any feature types in the
+	 * namespace, the request does not include the TYPENAMES parameter.
+	 * @param namespace A namespace name.
+	 * @return An absolute URI.
+	 */
+	URI createRequestURI(String namespace) {
+		StringBuilder reqURI = new StringBuilder(this.endpoint);
+		reqURI.append("service=WFS&version=2.0.0&request=DescribeFeatureType");
+		Set<String> typeNames = this.featureTypes.get(namespace);
+		if (null != typeNames && !typeNames.isEmpty()) {
+			reqURI.append("&typeNames=");
+			for (String typeName : typeNames) {
+				reqURI.append(TNS_PREFIX).append(':').append(typeName).append(',');
+			}
+			reqURI.setLength(reqURI.length() - 1);
+			String nsBinding = String.format("xmlns(%s,%s)", TNS_PREFIX, namespace);
+			reqURI.append("&namespaces=").append(URLEncoder.encode(nsBinding, StandardCharsets.UTF_8));
+		}
+		return URI.create(reqURI.toString());
+	}
+
+}
@@ -2,19 +2,21 @@ package org.opengis.cite.iso19142.util;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.logging.Level;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 
+import org.apache.xerces.xs.StringList;
 import org.apache.xerces.xs.XSComplexTypeDefinition;
 import org.apache.xerces.xs.XSConstants;
 import org.apache.xerces.xs.XSElementDeclaration;
 import org.apache.xerces.xs.XSModel;
-import org.apache.xerces.xs.XSParticle;
+import org.apache.xerces.xs.XSNamedMap;
+import org.apache.xerces.xs.XSNamespaceItem;
+import org.apache.xerces.xs.XSNamespaceItemList;
+import org.apache.xerces.xs.XSObject;
 import org.apache.xerces.xs.XSSimpleTypeDefinition;
 import org.apache.xerces.xs.XSTypeDefinition;
 import org.opengis.cite.iso19136.util.XMLSchemaModelUtils;
@@ -22,10 +24,18 @@ import org.opengis.cite.iso19142.Namespaces;
 
 /**
  * Utility methods for accessing and analyzing components of GML application schemas.
+ * Methods that inspect the properties of a feature type consult the
+ * {@link FeatureTypeSchemaIndex} for the schema model; they return modifiable copies of
+ * the indexed lists.
  *
  */
 public class AppSchemaUtils {
 
+	/** The kinds of components that can be declared globally in a schema. */
+	private static final short[] GLOBAL_COMPONENTS = { XSConstants.ELEMENT_DECLARATION,
+			XSConstants.ATTRIBUTE_DECLARATION, XSConstants.TYPE_DEFINITION, XSConstants.ATTRIBUTE_GROUP,
+			XSConstants.MODEL_GROUP_DEFINITION, XSConstants.NOTATION_DECLARATION };
+
 	/**
 	 * Produces a list of feature properties where the property value has a type derived
 	 * from the given (simple or complex) type definition.
@@ -38,55 +48,8 @@ public class AppSchemaUtils {
 	 */
 	public static List<XSElementDeclaration> getFeaturePropertiesByType(XSModel model, QName featureTypeName,
 			XSTypeDefinition typeDef) {
-		XSElementDeclaration elemDecl = model.getElementDeclaration(featureTypeName.getLocalPart(),
-				featureTypeName.getNamespaceURI());
-		XSComplexTypeDefinition featureTypeDef = (XSComplexTypeDefinition) elemDecl.getTypeDefinition();
-		List<XSElementDeclaration> featureProps = XMLSchemaModelUtils
-			.getAllElementsInParticle(featureTypeDef.getParticle());
-		removeDeprecatedGMLElements(featureProps, model);
-		List<XSElementDeclaration> props = new ArrayList<XSElementDeclaration>();
-		// set bit mask to indicate acceptable derivation mechanisms
-		short extendOrRestrict = XSConstants.DERIVATION_EXTENSION | XSConstants.DERIVATION_RESTRICTION;
-		for (XSElementDeclaration featureProp : featureProps) {
-			XSTypeDefinition propType = featureProp.getTypeDefinition();
-			switch (propType.getTypeCategory()) {
-				case XSTypeDefinition.SIMPLE_TYPE:
-					if ((typeDef.getTypeCategory() == XSTypeDefinition.SIMPLE_TYPE)
-							&& propType.derivedFromType(typeDef, extendOrRestrict)) {
-						props.add(featureProp);
-					}
-					break;
-				case XSTypeDefinition.COMPLEX_TYPE:
-					if (typeDef.getTypeCategory() == XSTypeDefinition.COMPLEX_TYPE) {
-						// check type of child element(s)
-						XSComplexTypeDefinition complexPropType = (XSComplexTypeDefinition) propType;
-						List<XSElementDeclaration> propValues = XMLSchemaModelUtils
-							.getAllElementsInParticle(complexPropType.getParticle());
-						for (XSElementDeclaration propValue : propValues) {
-							if (propValue.getTypeDefinition().derivedFromType(typeDef, extendOrRestrict)) {
-								props.add(featureProp);
-							}
-						}
-					}
-					else {
-						// complex type may derive from simple type
-						if (propType.derivedFromType(typeDef, extendOrRestrict)) {
-							props.add(featureProp);
-						}
-					}
-					break;
-			}
-		}
-		if (TestSuiteLogger.isLoggable(Level.FINER)) {
-			TestSuiteLogger.log(Level.FINER,
-					new StringBuilder("In feature type defn ").append(featureTypeDef.getName())
-						.append(", found properties with value of type ")
-						.append(typeDef.getName())
-						.append("\n")
-						.append(props)
-						.toString());
-		}
-		return props;
+		return new ArrayList<XSElementDeclaration>(
+				FeatureTypeSchemaIndex.of(model).getPropertiesByType(featureTypeName, typeDef));
 	}
 
 	/**
@@ -99,15 +62,8 @@ public class AppSchemaUtils {
 	 * nil values.
 	 */
 	public static List<XSElementDeclaration> getNillableProperties(XSModel model, QName featureTypeName) {
-		List<XSElementDeclaration> featureProps = getAllFeatureProperties(model, featureTypeName);
-		Iterator<XSElementDeclaration> itr = featureProps.iterator();
-		while (itr.hasNext()) {
-			XSElementDeclaration prop = itr.next();
-			if (!prop.getNillable()) {
-				itr.remove();
-			}
-		}
-		return featureProps;
+		return new ArrayList<XSElementDeclaration>(
+				FeatureTypeSchemaIndex.of(model).getNillableProperties(featureTypeName));
 	}
 
 	/**
@@ -118,10 +74,7 @@ public class AppSchemaUtils {
 	 * declarations defining feature properties.
 	 */
 	public static List<XSElementDeclaration> getAllFeatureProperties(XSModel model, QName featureTypeName) {
-		XSElementDeclaration elemDecl = model.getElementDeclaration(featureTypeName.getLocalPart(),
-				featureTypeName.getNamespaceURI());
-		XSComplexTypeDefinition featureTypeDef = (XSComplexTypeDefinition) elemDecl.getTypeDefinition();
-		return XMLSchemaModelUtils.getAllElementsInParticle(featureTypeDef.getParticle());
+		return new ArrayList<XSElementDeclaration>(FeatureTypeSchemaIndex.of(model).getAllProperties(featureTypeName));
 	}
 
 	/**
@@ -134,25 +87,8 @@ public class AppSchemaUtils {
 	 * declarations defining properties with a simple content model.
 	 */
 	public static List<XSElementDeclaration> getSimpleFeatureProperties(XSModel model, QName featureTypeName) {
-		XSElementDeclaration elemDecl = model.getElementDeclaration(featureTypeName.getLocalPart(),
-				featureTypeName.getNamespaceURI());
-		XSComplexTypeDefinition featureTypeDef = (XSComplexTypeDefinition) elemDecl.getTypeDefinition();
-		List<XSElementDeclaration> props = XMLSchemaModelUtils.getAllElementsInParticle(featureTypeDef.getParticle());
-		Iterator<XSElementDeclaration> propsItr = props.iterator();
-		while (propsItr.hasNext()) {
-			XSElementDeclaration prop = propsItr.next();
-			if (prop.getNamespace().equals(Namespaces.GML)) {
-				propsItr.remove();
-				continue;
-			}
-			if (prop.getTypeDefinition().getTypeCategory() == XSTypeDefinition.COMPLEX_TYPE) {
-				XSComplexTypeDefinition typeDef = (XSComplexTypeDefinition) prop.getTypeDefinition();
-				if (null == typeDef.getSimpleType()) {
-					propsItr.remove();
-				}
-			}
-		}
-		return props;
+		return new ArrayList<XSElementDeclaration>(
+				FeatureTypeSchemaIndex.of(model).getSimpleProperties(featureTypeName));
 	}
 
 	/**
@@ -163,18 +99,8 @@ public class AppSchemaUtils {
 	 * which must occur in a valid instance.
 	 */
 	public static List<XSElementDeclaration> getRequiredProperties(XSModel model, QName featureTypeName) {
-		XSElementDeclaration elemDecl = model.getElementDeclaration(featureTypeName.getLocalPart(),
-				featureTypeName.getNamespaceURI());
-		XSComplexTypeDefinition typeDef = (XSComplexTypeDefinition) elemDecl.getTypeDefinition();
-		List<XSParticle> particles = XMLSchemaModelUtils.getAllElementParticles(typeDef.getParticle());
-		List<XSElementDeclaration> requiredElems = new ArrayList<XSElementDeclaration>();
-		for (XSParticle particle : particles) {
-			if (particle.getMinOccurs() > 0) {
-				XSElementDeclaration elem = (XSElementDeclaration) particle.getTerm();
-				requiredElems.add(elem);
-			}
-		}
-		return requiredElems;
+		return new ArrayList<XSElementDeclaration>(
+				FeatureTypeSchemaIndex.of(model).getRequiredProperties(featureTypeName));
 	}
 
 	/**
@@ -307,13 +233,52 @@ public class AppSchemaUtils {
 	 * temporal values; it may be empty.
 	 */
 	public static List<XSElementDeclaration> getTemporalFeatureProperties(XSModel model, QName featureType) {
-		List<XSElementDeclaration> tmProps = getFeaturePropertiesByType(model, featureType,
-				model.getTypeDefinition("AbstractTimeGeometricPrimitiveType", Namespaces.GML));
-		// also look for simple temporal types
-		for (XSTypeDefinition dataType : getSimpleTemporalDataTypes(model)) {
-			tmProps.addAll(AppSchemaUtils.getFeaturePropertiesByType(model, featureType, dataType));
+		return new ArrayList<XSElementDeclaration>(FeatureTypeSchemaIndex.of(model).getTemporalProperties(featureType));
+	}
+
+	/**
+	 * Completes the parts of a schema model that Xerces otherwise creates when they are
+	 * first read: the maps of global components (for the model and for each namespace),
+	 * the attribute uses of complex types and the facets of simple types. The
+	 * {@link FeatureTypeSchemaIndex} for the model is also built. A model is not safe for
+	 * concurrent use until this has been done, even if it is only read.
+	 * @param model An XSModel object representing an application schema.
+	 */
+	public static void initializeComponents(XSModel model) {
+		StringList namespaces = model.getNamespaces();
+		XSNamespaceItemList namespaceItems = model.getNamespaceItems();
+		for (short componentType : GLOBAL_COMPONENTS) {
+			initializeComponents(model.getComponents(componentType));
+			for (int i = 0; i < namespaces.getLength(); i++) {
+				initializeComponents(model.getComponentsByNamespace(componentType, namespaces.item(i)));
+			}
+			for (int i = 0; i < namespaceItems.getLength(); i++) {
+				XSNamespaceItem namespaceItem = namespaceItems.item(i);
+				initializeComponents(namespaceItem.getComponents(componentType));
+			}
+		}
+		FeatureTypeSchemaIndex.of(model);
+	}
+
+	private static void initializeComponents(XSNamedMap components) {
+		for (int i = 0; i < components.getLength(); i++) {
+			XSObject component = components.item(i);
+			if (component instanceof XSElementDeclaration) {
+				component = ((XSElementDeclaration) component).getTypeDefinition();
+			}
+			if (component instanceof XSComplexTypeDefinition) {
+				XSComplexTypeDefinition complexType = (XSComplexTypeDefinition) component;
+				complexType.getAttributeUses();
+				component = complexType.getSimpleType();
+			}
+			if (component instanceof XSSimpleTypeDefinition) {
+				XSSimpleTypeDefinition simpleType = (XSSimpleTypeDefinition) component;
+				simpleType.getFacets();
+				simpleType.getMultiValueFacets();
+				simpleType.getLexicalEnumeration();
+				simpleType.getLexicalPattern();
+			}
 		}
-		return tmProps;
 	}
 
 }
@@ -0,0 +1,300 @@
+package org.opengis.cite.iso19142.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+
+import org.apache.sis.io.wkt.Convention;
+import org.apache.sis.io.wkt.WKTFormat;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.IdentifiedObjects;
+import org.apache.sis.util.Version;
+import org.opengis.cite.geomatics.GeodesyUtils;
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.util.FactoryException;
+
+/**
+ * A cache of coordinate reference systems, which are identified by the URI values that
+ * appear in the service description (e.g. "urn:ogc:def:crs:EPSG::4326"). Creating a CRS
+ * by code initializes the EPSG factory the first time, which is slow; the CRSs
+ * advertised by the WFS under test can therefore be resolved in advance, in parallel
+ * (see {@link #prefetch(Collection, Executor)}).
+ *
+ * <p>
+ * The definitions are also saved (as single-line WKT 2 strings) in a properties file in
+ * a directory that only the user can access ({@code ${user.home}/.ets-wfs20}), keyed by
+ * the abbreviated identifier (e.g. "EPSG:4326"). In a later run a CRS is parsed from its
+ * saved definition if the factory has not yet produced it, so the first spatial test
+ * does not wait for the factory to start. The file records the versions of Apache SIS
+ * and of the EPSG dataset that produced the definitions; they are discarded if either
+ * one has changed. A saved definition that cannot be parsed, or that does not match its
+ * identifier, is ignored and the CRS is created by the factory.
+ * </p>
+ */
+public class CRSCache {
+
+	private static final String CACHE_FILE_NAME = "crs.properties";
+
+	/** The key of the entry that records the Apache SIS version. */
+	static final String SIS_VERSION_KEY = "sis.version";
+
+	/** The key of the entry that records the EPSG dataset version. */
+	static final String EPSG_VERSION_KEY = "epsg.version";
+
+	private static final Map<String, CoordinateReferenceSystem> CRS_BY_CODE = new ConcurrentHashMap<>();
+
+	/** Saved CRS definitions (WKT) by abbreviated identifier, with their versions. */
+	private static final Properties DEFINITIONS = loadDefinitions();
+
+	private static volatile boolean modified;
+
+	/** Whether the saved definitions have been checked against the EPSG dataset. */
+	private static boolean epsgVersionChecked;
+
+	private CRSCache() {
+	}
+
+	/**
+	 * Returns the coordinate reference system identified by the given URI.
+	 * @param crsRef An absolute URI ('http' or 'urn' scheme) that identifies a CRS in
+	 * accord with OGC 09-048r3.
+	 * @return A CoordinateReferenceSystem object.
+	 * @throws FactoryException If the CRS is not recognized.
+	 * @throws IllegalArgumentException If the URI is not a valid CRS identifier.
+	 */
+	public static CoordinateReferenceSystem forIdentifier(String crsRef) throws FactoryException {
+		// http-based identifier is not recognized by the factory
+		String code = GeodesyUtils.getAbbreviatedCRSIdentifier(crsRef);
+		CoordinateReferenceSystem crs = CRS_BY_CODE.get(code);
+		if (null != crs) {
+			return crs;
+		}
+		crs = parseDefinition(code, DEFINITIONS.getProperty(code));
+		if (null != crs) {
+			CoordinateReferenceSystem existing = CRS_BY_CODE.putIfAbsent(code, crs);
+			return (null != existing) ? existing : crs;
+		}
+		return resolve(code);
+	}
+
+	/**
+	 * Parses a saved CRS definition. The definition is rejected if it is not valid WKT or
+	 * if the identifier of the resulting CRS differs from the given one.
+	 * @param code An abbreviated CRS identifier (e.g. "EPSG:4326").
+	 * @param wkt The saved definition (may be {@code null}).
+	 * @return A CoordinateReferenceSystem object, or {@code null} if there is no usable
+	 * definition.
+	 */
+	static CoordinateReferenceSystem parseDefinition(String code, String wkt) {
+		if (null == wkt) {
+			return null;
+		}
+		try {
+			CoordinateReferenceSystem crs = CRS.fromWKT(wkt);
+			if (isIdentifiedBy(crs, code)) {
+				return crs;
+			}
+			TestSuiteLogger.log(Level.WARNING, "Ignoring saved definition of " + code + " (identifier differs)");
+		}
+		catch (FactoryException | RuntimeException ex) {
+			TestSuiteLogger.log(Level.FINE, "Ignoring saved definition of " + code, ex);
+		}
+		DEFINITIONS.remove(code);
+		return null;
+	}
+
+	/**
+	 * Resolves the given CRS identifiers in parallel using the EPSG factory. The
+	 * definitions are then saved for use in later runs. Identifiers that are not
+	 * recognized are ignored.
+	 * @param crsRefs A collection of CRS identifiers (absolute URI values).
+	 * @param executor The executor that runs the tasks (one per CRS).
+	 * @return A CompletableFuture that completes when all identifiers have been
+	 * resolved and the definitions saved.
+	 */
+	public static CompletableFuture<Void> prefetch(Collection<String> crsRefs, Executor executor) {
+		Set<String> codes = new LinkedHashSet<>();
+		for (String crsRef : crsRefs) {
+			try {
+				codes.add(GeodesyUtils.getAbbreviatedCRSIdentifier(crsRef));
+			}
+			catch (IllegalArgumentException iae) {
+				TestSuiteLogger.log(Level.FINE, "Not a valid CRS identifier: " + crsRef);
+			}
+		}
+		List<CompletableFuture<Void>> tasks = new ArrayList<>();
+		for (String code : codes) {
+			tasks.add(CompletableFuture.runAsync(() -> {
+				try {
+					resolve(code);
+				}
+				catch (FactoryException | RuntimeException ex) {
+					TestSuiteLogger.log(Level.FINE, "CRS not recognized: " + code, ex);
+				}
+			}, executor));
+		}
+		return CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).thenRun(CRSCache::saveDefinitions);
+	}
+
+	/**
+	 * Creates a CRS using the EPSG factory. The result supersedes any CRS parsed from a
+	 * saved definition.
+	 * @param code An abbreviated CRS identifier (e.g. "EPSG:4326").
+	 * @return A CoordinateReferenceSystem object.
+	 * @throws FactoryException If the CRS is not recognized.
+	 */
+	private static CoordinateReferenceSystem resolve(String code) throws FactoryException {
+		CoordinateReferenceSystem crs = CRS.forCode(code);
+		CRS_BY_CODE.put(code, crs);
+		checkEpsgVersion();
+		if (!DEFINITIONS.containsKey(code) && isIdentifiedBy(crs, code)) {
+			String wkt = toWKT(crs);
+			if (null != wkt) {
+				DEFINITIONS.setProperty(code, wkt);
+				modified = true;
+			}
+		}
+		return crs;
+	}
+
+	private static boolean isIdentifiedBy(CoordinateReferenceSystem crs, String code) {
+		return code.equalsIgnoreCase(IdentifiedObjects.toString(IdentifiedObjects.getIdentifier(crs, null)));
+	}
+
+	/**
+	 * Formats a CRS definition as a single line of WKT 2.
+	 * @param crs A CoordinateReferenceSystem object.
+	 * @return A WKT string, or {@code null} if the CRS cannot be represented without
+	 * loss (the formatter reported warnings).
+	 */
+	static String toWKT(CoordinateReferenceSystem crs) {
+		WKTFormat format = new WKTFormat(Locale.ROOT, null);
+		format.setConvention(Convention.WKT2);
+		format.setIndentation(WKTFormat.SINGLE_LINE);
+		String wkt = format.format(crs);
+		return (null == format.getWarnings()) ? wkt : null;
+	}
+
+	/**
+	 * Discards the saved definitions if they were produced from another version of the
+	 * EPSG dataset. This is done once, after the factory has been initialized.
+	 */
+	private static synchronized void checkEpsgVersion() {
+		if (epsgVersionChecked) {
+			return;
+		}
+		epsgVersionChecked = true;
+		String epsgVersion = getEpsgVersion();
+		if (!epsgVersion.equals(DEFINITIONS.getProperty(EPSG_VERSION_KEY))) {
+			if (DEFINITIONS.containsKey(EPSG_VERSION_KEY)) {
+				TestSuiteLogger.log(Level.CONFIG, "Discarding CRS definitions saved for another EPSG dataset version");
+			}
+			DEFINITIONS.clear();
+			DEFINITIONS.setProperty(SIS_VERSION_KEY, Version.SIS.toString());
+			DEFINITIONS.setProperty(EPSG_VERSION_KEY, epsgVersion);
+			modified = true;
+		}
+	}
+
+	/**
+	 * Gets the version (edition) of the EPSG dataset used by the CRS factory.
+	 * @return The version, or an empty string if it is not known.
+	 */
+	static String getEpsgVersion() {
+		try {
+			Citation authority = CRS.getAuthorityFactory("EPSG").getAuthority();
+			if (null != authority && null != authority.getEdition()) {
+				return authority.getEdition().toString();
+			}
+		}
+		catch (FactoryException | RuntimeException ex) {
+			TestSuiteLogger.log(Level.FINE, "EPSG dataset version not available", ex);
+		}
+		return "";
+	}
+
+	private static File getCacheFile() {
+		return UserCacheDirectory.resolve(CACHE_FILE_NAME).toFile();
+	}
+
+	/**
+	 * Loads the saved CRS definitions. They are ignored if they were produced by another
+	 * version of Apache SIS, or if the file can be modified by other users.
+	 * @return The saved definitions (possibly none).
+	 */
+	private static Properties loadDefinitions() {
+		Properties definitions = new Properties();
+		File cacheFile = getCacheFile();
+		if (!cacheFile.isFile()) {
+			return definitions;
+		}
+		try {
+			if (UserCacheDirectory.isWritableByOthers(cacheFile.toPath())) {
+				TestSuiteLogger.log(Level.WARNING, "Ignoring CRS definitions writable by other users: " + cacheFile);
+				return definitions;
+			}
+			try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+				definitions.load(reader);
+			}
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			TestSuiteLogger.log(Level.WARNING, "Failed to read saved CRS definitions from " + cacheFile, ex);
+			definitions.clear();
+		}
+		if (!Version.SIS.toString().equals(definitions.getProperty(SIS_VERSION_KEY))) {
+			definitions.clear();
+		}
+		return definitions;
+	}
+
+	/**
+	 * Saves the CRS definitions if any were added. The file is replaced atomically so
+	 * that concurrent test runs never read a partial file.
+	 */
+	private static synchronized void saveDefinitions() {
+		if (!modified) {
+			return;
+		}
+		modified = false;
+		File cacheFile = getCacheFile();
+		File tmpFile = null;
+		try {
+			Path cacheDir = cacheFile.getParentFile().toPath();
+			UserCacheDirectory.createDirectories(cacheDir);
+			// createTempFile creates the file with owner-only permissions
+			tmpFile = Files.createTempFile(cacheDir, "crs-", ".properties").toFile();
+			try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+				DEFINITIONS.store(writer, "CRS definitions (WKT 2)");
+			}
+			Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException iox) {
+			TestSuiteLogger.log(Level.WARNING, "Failed to save CRS definitions to " + cacheFile, iox);
+		}
+		finally {
+			if (null != tmpFile) {
+				tmpFile.delete();
+			}
+		}
+	}
+
+}
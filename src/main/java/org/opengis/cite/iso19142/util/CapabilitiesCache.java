@@ -0,0 +1,105 @@
+package org.opengis.cite.iso19142.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.opengis.cite.iso19142.CapabilitiesSection;
+import org.opengis.cite.iso19142.Namespaces;
+import org.opengis.cite.iso19142.WFS2;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Maintains a capabilities model that is kept current by retrieving individual sections
+ * of the capabilities document from the WFS under test. Only the requested sections are
+ * transferred (if the implementation supports the <code>sections</code> parameter), so a
+ * check that needs, say, the operations metadata does not retrieve a large feature type
+ * list. The content of each response is merged into the cached model.
+ */
+public class CapabilitiesCache {
+
+	private static final Logger LOGR = Logger.getLogger(CapabilitiesCache.class.getPackage().getName());
+
+	private CapabilitiesModel model;
+
+	private final Set<CapabilitiesSection> retrievedSections = EnumSet.noneOf(CapabilitiesSection.class);
+
+	/**
+	 * Creates a cache initialized with the given model (typically built from the service
+	 * description submitted for testing).
+	 * @param model The initial capabilities model.
+	 */
+	public CapabilitiesCache(CapabilitiesModel model) {
+		if (null == model) {
+			throw new NullPointerException("Capabilities model is required.");
+		}
+		this.model = model;
+	}
+
+	/**
+	 * Returns the current model.
+	 * @return A CapabilitiesModel reflecting the most recently retrieved sections.
+	 */
+	public synchronized CapabilitiesModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Returns the sections that have been retrieved from the WFS.
+	 * @return An unmodifiable set of capabilities sections.
+	 */
+	public synchronized Set<CapabilitiesSection> getRetrievedSections() {
+		return Collections.unmodifiableSet(EnumSet.copyOf(retrievedSections));
+	}
+
+	/**
+	 * Returns a model in which the specified sections reflect the capabilities currently
+	 * reported by the WFS. Sections that have already been retrieved are not requested
+	 * again.
+	 * @param wfsClient A client for the WFS under test.
+	 * @param sections The sections required.
+	 * @return The (possibly updated) CapabilitiesModel.
+	 */
+	public synchronized CapabilitiesModel getModel(WFSClient wfsClient, CapabilitiesSection... sections) {
+		Set<CapabilitiesSection> missing = EnumSet.noneOf(CapabilitiesSection.class);
+		missing.addAll(Arrays.asList(sections));
+		missing.removeAll(retrievedSections);
+		if (!missing.isEmpty()) {
+			refresh(wfsClient, missing.toArray(new CapabilitiesSection[missing.size()]));
+		}
+		return model;
+	}
+
+	/**
+	 * Retrieves the specified sections of the capabilities document and merges them into
+	 * the cached model. If the response is not a capabilities document (e.g. an
+	 * exception report) the model is left unchanged.
+	 * @param wfsClient A client for the WFS under test.
+	 * @param sections The sections to retrieve; if none are specified, the complete
+	 * document is requested.
+	 * @return The response entity, or {@code null} if there is none.
+	 */
+	public synchronized Document refresh(WFSClient wfsClient, CapabilitiesSection... sections) {
+		Document capabilities = wfsClient.getCapabilities(sections);
+		if (null == capabilities) {
+			return null;
+		}
+		Element docElem = capabilities.getDocumentElement();
+		if (!Namespaces.WFS.equals(docElem.getNamespaceURI())
+				|| !WFS2.WFS_CAPABILITIES.equals(docElem.getLocalName())) {
+			LOGR.log(Level.INFO, "Capabilities sections {0} not retrieved; received {1}",
+					new Object[] { Arrays.toString(sections), docElem.getLocalName() });
+			return capabilities;
+		}
+		Set<CapabilitiesSection> merged = (sections.length > 0) ? EnumSet.copyOf(Arrays.asList(sections))
+				: EnumSet.allOf(CapabilitiesSection.class);
+		model = model.merge(CapabilitiesModel.of(capabilities), merged);
+		retrievedSections.addAll(merged);
+		return capabilities;
+	}
+
+}
@@ -0,0 +1,784 @@
+package org.opengis.cite.iso19142.util;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.opengis.cite.geomatics.Extents;
+import org.opengis.cite.iso19142.CapabilitiesSection;
+import org.opengis.cite.iso19142.ConformanceClass;
+import org.opengis.cite.iso19142.FeatureTypeInfo;
+import org.opengis.cite.iso19142.Namespaces;
+import org.opengis.cite.iso19142.ProtocolBinding;
+import org.opengis.cite.iso19142.WFS2;
+import org.opengis.geometry.Envelope;
+import org.opengis.util.FactoryException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * An immutable summary of the service metadata (capabilities document) that is consulted
+ * repeatedly while testing. The document is read once and the following items are kept
+ * in memory:
+ *
+ * <ul>
+ * <li>request endpoints for each operation and protocol binding;</li>
+ * <li>the protocol bindings supported globally and for each operation;</li>
+ * <li>the effective values of all service and operation constraints;</li>
+ * <li>the conformance classes claimed (constraints with the value "TRUE");</li>
+ * <li>the spatial and temporal operators implemented;</li>
+ * <li>the feature types offered, with their supported CRS identifiers and spatial
+ * extents.</li>
+ * </ul>
+ *
+ * <p>
+ * Models are cached per Document instance (weakly referenced), so
+ * {@link #of(Document)} may be called freely; the static methods in
+ * {@link ServiceMetadataUtils} delegate to the model. The source document must not be
+ * modified once a model has been built from it. A model derived from another one (e.g.
+ * one that offers a subset of the feature types) can be associated with the document
+ * instead. A model can also be built without a DOM by a {@link CapabilitiesReader}.
+ * </p>
+ */
+public class CapabilitiesModel {
+
+	private static final Map<Document, CapabilitiesModel> MODELS = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/** The value of the version attribute of the document element. */
+	private final String version;
+
+	/** Request endpoints (unmodified xlink:href values) by operation and binding. */
+	private final Map<String, Map<ProtocolBinding, String>> endpoints;
+
+	/** Protocol bindings declared for each operation (not including global ones). */
+	private final Map<String, Set<ProtocolBinding>> operationBindings;
+
+	private final Set<ProtocolBinding> globalBindings;
+
+	private final Map<String, String> constraintValues;
+
+	/** Service and operation constraints (ows) with an allowed or default value of "TRUE". */
+	private final Set<String> serviceClaims;
+
+	/** Filter conformance constraints (fes) with an allowed or default value of "TRUE". */
+	private final Set<String> filterClaims;
+
+	/** Constraints (ows) with the default value "TRUE". */
+	private final Set<String> defaultTrueConstraints;
+
+	private final Set<String> spatialOperators;
+
+	private final Set<String> temporalOperators;
+
+	private final List<QName> featureTypes;
+
+	private final Map<QName, List<String>> supportedCRS;
+
+	private final Map<QName, Envelope> spatialExtents;
+
+	private CapabilitiesModel(Builder builder) {
+		this.version = builder.version;
+		Map<String, Map<ProtocolBinding, String>> endpointMap = new HashMap<>();
+		for (String opName : builder.operationBindings.keySet()) {
+			endpointMap.put(opName, Collections.unmodifiableMap(builder.buildEndpoints(opName)));
+		}
+		this.endpoints = Collections.unmodifiableMap(endpointMap);
+		this.operationBindings = Collections.unmodifiableMap(builder.operationBindings);
+		this.globalBindings = Collections.unmodifiableSet(builder.globalBindings);
+		this.constraintValues = Collections.unmodifiableMap(builder.constraintValues);
+		this.serviceClaims = Collections.unmodifiableSet(builder.serviceClaims);
+		this.filterClaims = Collections.unmodifiableSet(builder.filterClaims);
+		this.defaultTrueConstraints = Collections.unmodifiableSet(builder.defaultTrueConstraints);
+		this.spatialOperators = Collections.unmodifiableSet(builder.spatialOperators);
+		this.temporalOperators = Collections.unmodifiableSet(builder.temporalOperators);
+		this.featureTypes = Collections.unmodifiableList(new ArrayList<>(builder.supportedCRS.keySet()));
+		this.supportedCRS = Collections.unmodifiableMap(builder.supportedCRS);
+		this.spatialExtents = Collections.unmodifiableMap(builder.spatialExtents);
+	}
+
+	private CapabilitiesModel(CapabilitiesModel base, CapabilitiesModel update, Set<CapabilitiesSection> sections) {
+		this.version = base.version;
+		CapabilitiesModel ops = sections.contains(CapabilitiesSection.OPERATIONS_METADATA) ? update : base;
+		this.endpoints = ops.endpoints;
+		this.operationBindings = ops.operationBindings;
+		this.globalBindings = ops.globalBindings;
+		this.constraintValues = ops.constraintValues;
+		this.serviceClaims = ops.serviceClaims;
+		this.defaultTrueConstraints = ops.defaultTrueConstraints;
+		CapabilitiesModel types = sections.contains(CapabilitiesSection.FEATURE_TYPE_LIST) ? update : base;
+		this.featureTypes = types.featureTypes;
+		this.supportedCRS = types.supportedCRS;
+		this.spatialExtents = types.spatialExtents;
+		CapabilitiesModel filter = sections.contains(CapabilitiesSection.FILTER_CAPABILITIES) ? update : base;
+		this.filterClaims = filter.filterClaims;
+		this.spatialOperators = filter.spatialOperators;
+		this.temporalOperators = filter.temporalOperators;
+	}
+
+	private CapabilitiesModel(CapabilitiesModel base, Predicate<QName> typeFilter) {
+		this.version = base.version;
+		this.endpoints = base.endpoints;
+		this.operationBindings = base.operationBindings;
+		this.globalBindings = base.globalBindings;
+		this.constraintValues = base.constraintValues;
+		this.serviceClaims = base.serviceClaims;
+		this.defaultTrueConstraints = base.defaultTrueConstraints;
+		this.filterClaims = base.filterClaims;
+		this.spatialOperators = base.spatialOperators;
+		this.temporalOperators = base.temporalOperators;
+		List<QName> typeNames = new ArrayList<>();
+		Map<QName, List<String>> crsMap = new LinkedHashMap<>();
+		Map<QName, Envelope> extentMap = new HashMap<>();
+		for (QName typeName : base.featureTypes) {
+			if (!typeFilter.test(typeName)) {
+				continue;
+			}
+			typeNames.add(typeName);
+			crsMap.put(typeName, base.supportedCRS.get(typeName));
+			if (base.spatialExtents.containsKey(typeName)) {
+				extentMap.put(typeName, base.spatialExtents.get(typeName));
+			}
+		}
+		this.featureTypes = Collections.unmodifiableList(typeNames);
+		this.supportedCRS = Collections.unmodifiableMap(crsMap);
+		this.spatialExtents = Collections.unmodifiableMap(extentMap);
+	}
+
+	/**
+	 * Returns the model for the given service description, building it if necessary.
+	 * @param wfsMetadata A service metadata document (wfs:WFS_Capabilities).
+	 * @return The CapabilitiesModel for the document.
+	 */
+	public static CapabilitiesModel of(final Document wfsMetadata) {
+		if (null == wfsMetadata) {
+			throw new NullPointerException("WFS metadata document is null.");
+		}
+		CapabilitiesModel model = MODELS.get(wfsMetadata);
+		if (null == model) {
+			model = readDocument(wfsMetadata);
+			MODELS.put(wfsMetadata, model);
+		}
+		return model;
+	}
+
+	/**
+	 * Associates a model with a service description, replacing the one built from its
+	 * content. The model is then returned by {@link #of(Document)}.
+	 * @param wfsMetadata A service metadata document (wfs:WFS_Capabilities).
+	 * @param model The model to use for the document (e.g. one that offers only some of
+	 * its feature types).
+	 */
+	public static void associate(final Document wfsMetadata, CapabilitiesModel model) {
+		if (null == wfsMetadata || null == model) {
+			throw new NullPointerException("WFS metadata document and model are required.");
+		}
+		MODELS.put(wfsMetadata, model);
+	}
+
+	/**
+	 * Creates a document that stands in for the service description wherever only the
+	 * information in this model is needed. It contains nothing but the document element
+	 * (wfs:WFS_Capabilities, with its version attribute) and is associated with this
+	 * model, so it can be passed to a {@link WFSClient}, a {@link DataSampler} or the
+	 * methods in {@link ServiceMetadataUtils} that consult the model. It must not be
+	 * used to evaluate XPath expressions or to validate the service description.
+	 * @param documentURI The location of the service description.
+	 * @return A new Document associated with this model.
+	 */
+	public Document createSummaryDocument(String documentURI) {
+		Document doc;
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			doc = factory.newDocumentBuilder().newDocument();
+		}
+		catch (ParserConfigurationException e) {
+			throw new IllegalStateException("Failed to create DocumentBuilder.", e);
+		}
+		Element docElem = doc.createElementNS(Namespaces.WFS, "wfs:" + WFS2.WFS_CAPABILITIES);
+		docElem.setAttribute("version", version);
+		doc.appendChild(docElem);
+		doc.setDocumentURI(documentURI);
+		associate(doc, this);
+		return doc;
+	}
+
+	/**
+	 * Creates a new model that combines this one with some sections of another (e.g. one
+	 * built from the response to a GetCapabilities request that asked for particular
+	 * sections). The content of the given sections is taken from the update; everything
+	 * else is taken from this model. Only the OperationsMetadata, FeatureTypeList and
+	 * Filter_Capabilities sections contribute to a model.
+	 * @param update A model containing more recent information.
+	 * @param sections The sections to take from the update.
+	 * @return A new CapabilitiesModel.
+	 */
+	public CapabilitiesModel merge(CapabilitiesModel update, Set<CapabilitiesSection> sections) {
+		return new CapabilitiesModel(this, update, sections);
+	}
+
+	/**
+	 * Creates a new model that offers only some of the feature types in this one (e.g.
+	 * those assigned to a {@link org.opengis.cite.iso19142.FeatureTypeShard shard} of a
+	 * test run). Everything else is taken from this model.
+	 * @param typeFilter A predicate that selects the feature types to keep.
+	 * @return A new CapabilitiesModel.
+	 */
+	public CapabilitiesModel selectFeatureTypes(Predicate<QName> typeFilter) {
+		return new CapabilitiesModel(this, typeFilter);
+	}
+
+	/**
+	 * Returns the names of the operations described in the service metadata.
+	 * @return An unmodifiable set of operation names.
+	 */
+	public Set<String> getOperationNames() {
+		return endpoints.keySet();
+	}
+
+	/**
+	 * Gets a request endpoint. If the request URI contains an empty query component the
+	 * trailing '?' is removed; a non-empty query component is terminated with '&amp;' so
+	 * that additional parameters can be appended. For the SOAP binding, a POST endpoint
+	 * constrained to the "SOAP" value is preferred.
+	 * @param opName The operation (request) name.
+	 * @param binding The message binding to use (if {@code null} any supported binding
+	 * will be used).
+	 * @return A URI referring to a request endpoint; the URI is empty if no matching
+	 * endpoint is found.
+	 */
+	public URI getOperationEndpoint(String opName, ProtocolBinding binding) {
+		if (null == binding || binding.equals(ProtocolBinding.ANY)) {
+			binding = getOperationBindings(opName).iterator().next();
+		}
+		Map<ProtocolBinding, String> opEndpoints = endpoints.get(opName);
+		String href = (null != opEndpoints) ? opEndpoints.get(binding) : null;
+		URI endpoint = URI.create((null != href) ? href : "");
+		String queryString = endpoint.getQuery();
+		if (null != queryString) {
+			String uri = endpoint.toString();
+			if (queryString.trim().isEmpty()) {
+				// remove trailing '?'
+				endpoint = URI.create(uri.substring(0, uri.indexOf('?')));
+			}
+			else if (!uri.endsWith("&")) {
+				// make sure the query component is ready for appending extra params
+				endpoint = URI.create(uri + "&");
+			}
+		}
+		return endpoint;
+	}
+
+	/**
+	 * Gets the HTTP endpoints for a service request. Any query component is removed.
+	 * @param opName The operation (request) name.
+	 * @return A modifiable map that associates an HTTP method name ("GET", "POST") with
+	 * a URI, or {@code null} if the request is not implemented.
+	 */
+	public Map<String, URI> getRequestEndpoints(String opName) {
+		Map<ProtocolBinding, String> opEndpoints = endpoints.get(opName);
+		if (null == opEndpoints || opEndpoints.isEmpty()) {
+			return null;
+		}
+		Map<String, URI> requestEndpoints = new HashMap<>();
+		for (ProtocolBinding method : EnumSet.of(ProtocolBinding.GET, ProtocolBinding.POST)) {
+			String href = opEndpoints.get(method);
+			if (null != href) {
+				int query = href.indexOf('?');
+				requestEndpoints.put(method.name(), URI.create((query > 0) ? href.substring(0, query) : href));
+			}
+		}
+		return requestEndpoints;
+	}
+
+	/**
+	 * Returns the protocol bindings that are broadly implemented (KVPEncoding,
+	 * XMLEncoding, SOAPEncoding service constraints).
+	 * @return A modifiable copy of the set of global bindings.
+	 */
+	public Set<ProtocolBinding> getGlobalBindings() {
+		Set<ProtocolBinding> bindings = EnumSet.noneOf(ProtocolBinding.class);
+		bindings.addAll(globalBindings);
+		return bindings;
+	}
+
+	/**
+	 * Returns the protocol bindings supported for a given operation: the union of the
+	 * bindings declared for the operation and the global bindings. The GET binding is
+	 * never included for Transaction requests.
+	 * @param opName The name of a WFS operation.
+	 * @return A modifiable set of protocol bindings.
+	 */
+	public Set<ProtocolBinding> getOperationBindings(String opName) {
+		Set<ProtocolBinding> bindings = new HashSet<>();
+		Set<ProtocolBinding> declared = operationBindings.get(opName);
+		if (null != declared) {
+			bindings.addAll(declared);
+		}
+		bindings.addAll(globalBindings);
+		if (opName.equals(WFS2.TRANSACTION)) {
+			// KVP content type not defined for Transaction requests
+			bindings.remove(ProtocolBinding.GET);
+		}
+		return bindings;
+	}
+
+	/**
+	 * Gets the effective value of a service or operation constraint: the default value
+	 * if there is one, otherwise the first allowed value.
+	 * @param constraintName The name of the constraint.
+	 * @return The constraint value, or an empty string if the constraint does not occur.
+	 */
+	public String getConstraintValue(String constraintName) {
+		String value = constraintValues.get(constraintName);
+		return (null != value) ? value : "";
+	}
+
+	/**
+	 * Indicates whether or not the specified WFS or FES conformance class is claimed.
+	 * @param conformanceClass The name of a constraint that identifies a conformance
+	 * class.
+	 * @return true if the conformance class is implemented; false if not.
+	 */
+	public boolean implementsConformanceClass(String conformanceClass) {
+		return serviceClaims.contains(conformanceClass) || filterClaims.contains(conformanceClass);
+	}
+
+	/**
+	 * Returns the (standard) conformance classes that the WFS claims to satisfy.
+	 * @return A modifiable set of conformance classes.
+	 */
+	public Set<ConformanceClass> getConformanceClaims() {
+		Set<ConformanceClass> claims = EnumSet.noneOf(ConformanceClass.class);
+		for (ConformanceClass conformClass : ConformanceClass.values()) {
+			if (defaultTrueConstraints.contains(conformClass.getConstraintName())) {
+				claims.add(conformClass);
+			}
+		}
+		return claims;
+	}
+
+	/**
+	 * Indicates whether or not the specified spatial operator is implemented.
+	 * @param operatorName The name of a spatial operator (e.g. "Intersects").
+	 * @return true if the operator is supported; false if not.
+	 */
+	public boolean implementsSpatialOperator(String operatorName) {
+		return spatialOperators.contains(operatorName);
+	}
+
+	/**
+	 * Indicates whether or not the specified temporal operator is implemented.
+	 * @param operatorName The name of a temporal operator (e.g. "During").
+	 * @return true if the operator is supported; false if not.
+	 */
+	public boolean implementsTemporalOperator(String operatorName) {
+		return temporalOperators.contains(operatorName);
+	}
+
+	/**
+	 * Returns the version of the service description.
+	 * @return The value of the version attribute of the document element (an empty
+	 * string if there is none).
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the names of the feature types offered by the WFS.
+	 * @return An unmodifiable list of feature type names, in document order.
+	 */
+	public List<QName> getFeatureTypes() {
+		return featureTypes;
+	}
+
+	/**
+	 * Creates a new set of (mutable) FeatureTypeInfo objects describing the feature
+	 * types offered by the WFS. Each object is initialized with the type name, the
+	 * supported CRS identifiers and the spatial extent (if known).
+	 * @return A Map where a feature type name is associated with a new FeatureTypeInfo
+	 * object.
+	 */
+	public Map<QName, FeatureTypeInfo> createFeatureTypeInfo() {
+		Map<QName, FeatureTypeInfo> featureInfo = new HashMap<QName, FeatureTypeInfo>();
+		for (QName typeName : featureTypes) {
+			FeatureTypeInfo typeInfo = new FeatureTypeInfo();
+			typeInfo.setTypeName(typeName);
+			typeInfo.addCRSIdentifiers(supportedCRS.get(typeName).toArray(new String[0]));
+			Envelope extent = spatialExtents.get(typeName);
+			if (null != extent) {
+				typeInfo.setSpatialExtent(extent);
+			}
+			featureInfo.put(typeName, typeInfo);
+		}
+		return featureInfo;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder("CapabilitiesModel {");
+		str.append("operations: ").append(endpoints.keySet());
+		str.append(", global bindings: ").append(globalBindings);
+		str.append(", conformance claims: ").append(serviceClaims).append(filterClaims);
+		str.append(", feature types: ").append(featureTypes.size());
+		str.append('}');
+		return str.toString();
+	}
+
+	/**
+	 * Builds a model by traversing a DOM Document.
+	 */
+	private static CapabilitiesModel readDocument(Document wfsMetadata) {
+		Builder builder = new Builder();
+		builder.setVersion(wfsMetadata.getDocumentElement().getAttribute("version"));
+		NodeList operations = wfsMetadata.getElementsByTagNameNS(Namespaces.OWS, "Operation");
+		for (int i = 0; i < operations.getLength(); i++) {
+			readOperation((Element) operations.item(i), builder);
+		}
+		NodeList opsMetadata = wfsMetadata.getElementsByTagNameNS(Namespaces.OWS, "OperationsMetadata");
+		for (int i = 0; i < opsMetadata.getLength(); i++) {
+			for (Element constraint : childElements((Element) opsMetadata.item(i), "Constraint")) {
+				builder.addServiceConstraint(constraint.getAttribute("name"), hasDefaultTrue(constraint));
+			}
+		}
+		for (String nsName : new String[] { Namespaces.OWS, Namespaces.FES }) {
+			NodeList constraints = wfsMetadata.getElementsByTagNameNS(nsName, "Constraint");
+			for (int i = 0; i < constraints.getLength(); i++) {
+				Element constraint = (Element) constraints.item(i);
+				builder.addConstraint(constraint.getAttribute("name"), nsName.equals(Namespaces.OWS),
+						hasDefaultTrue(constraint), hasAllowedTrue(constraint));
+			}
+		}
+		readConstraintValues(wfsMetadata, builder);
+		NodeList operators = wfsMetadata.getElementsByTagNameNS(Namespaces.FES, "SpatialOperator");
+		for (int i = 0; i < operators.getLength(); i++) {
+			builder.addSpatialOperator(((Element) operators.item(i)).getAttribute("name"));
+		}
+		operators = wfsMetadata.getElementsByTagNameNS(Namespaces.FES, "TemporalOperator");
+		for (int i = 0; i < operators.getLength(); i++) {
+			builder.addTemporalOperator(((Element) operators.item(i)).getAttribute("name"));
+		}
+		NodeList featureTypes = wfsMetadata.getElementsByTagNameNS(Namespaces.WFS, "FeatureType");
+		for (int i = 0; i < featureTypes.getLength(); i++) {
+			readFeatureType((Element) featureTypes.item(i), builder);
+		}
+		return builder.build();
+	}
+
+	private static void readOperation(Element operation, Builder builder) {
+		String opName = operation.getAttribute("name");
+		builder.addOperation(opName);
+		NodeList methods = operation.getElementsByTagNameNS(Namespaces.OWS, "*");
+		for (int i = 0; i < methods.getLength(); i++) {
+			Element methodElem = (Element) methods.item(i);
+			ProtocolBinding method = Builder.requestMethod(methodElem.getLocalName());
+			if (null == method) {
+				continue;
+			}
+			if (methodElem.hasAttributeNS(Namespaces.XLINK, "href")) {
+				builder.addRequestEndpoint(opName, method, methodElem.getAttributeNS(Namespaces.XLINK, "href"));
+			}
+			for (Element constraint : childElements(methodElem, "Constraint")) {
+				for (Element allowed : childElements(constraint, "AllowedValues")) {
+					for (Element value : childElements(allowed, "Value")) {
+						builder.addAllowedValue(opName, method, value.getTextContent());
+					}
+				}
+			}
+		}
+		for (Element constraint : childElements(operation, "Constraint")) {
+			builder.addOperationConstraint(opName, constraint.getAttribute("name"), hasDefaultTrue(constraint));
+		}
+	}
+
+	/**
+	 * Determines the effective constraint values. Every ows:DefaultValue element, and
+	 * every ows:Value element that is the first value in its list, supplies a value to
+	 * the enclosing ows:Constraint elements.
+	 */
+	private static void readConstraintValues(Document wfsMetadata, Builder builder) {
+		NodeList owsElements = wfsMetadata.getElementsByTagNameNS(Namespaces.OWS, "*");
+		for (int i = 0; i < owsElements.getLength(); i++) {
+			Element elem = (Element) owsElements.item(i);
+			boolean isDefault = elem.getLocalName().equals("DefaultValue");
+			if (!isDefault && !(elem.getLocalName().equals("Value") && isFirstValue(elem))) {
+				continue;
+			}
+			Set<String> constraintNames = new LinkedHashSet<>();
+			for (Node node = elem.getParentNode(); null != node
+					&& node.getNodeType() == Node.ELEMENT_NODE; node = node.getParentNode()) {
+				if (Namespaces.OWS.equals(node.getNamespaceURI()) && node.getLocalName().equals("Constraint")) {
+					constraintNames.add(((Element) node).getAttribute("name"));
+				}
+			}
+			builder.addConstraintValue(constraintNames, elem.getTextContent(), isDefault);
+		}
+	}
+
+	private static boolean isFirstValue(Element valueElem) {
+		for (Node sibling = valueElem.getPreviousSibling(); null != sibling; sibling = sibling.getPreviousSibling()) {
+			if (sibling.getNodeType() == Node.ELEMENT_NODE && Namespaces.OWS.equals(sibling.getNamespaceURI())
+					&& sibling.getLocalName().equals("Value")) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void readFeatureType(Element featureTypeElem, Builder builder) {
+		Node nameNode = featureTypeElem.getElementsByTagNameNS(Namespaces.WFS, "Name").item(0);
+		if (null == nameNode) {
+			return;
+		}
+		List<String> crsIds = new ArrayList<>();
+		Node defaultCRSNode = featureTypeElem.getElementsByTagNameNS(Namespaces.WFS, "DefaultCRS").item(0);
+		if (null != defaultCRSNode) {
+			crsIds.add(defaultCRSNode.getTextContent());
+		}
+		NodeList otherCRSNodes = featureTypeElem.getElementsByTagNameNS(Namespaces.WFS, "OtherCRS");
+		for (int n = 0; n < otherCRSNodes.getLength(); n++) {
+			crsIds.add(otherCRSNodes.item(n).getTextContent());
+		}
+		Node bboxNode = featureTypeElem.getElementsByTagNameNS(Namespaces.OWS, "WGS84BoundingBox").item(0);
+		builder.addFeatureType(ServiceMetadataUtils.buildQName(nameNode), crsIds, bboxNode);
+	}
+
+	private static boolean hasDefaultTrue(Element constraint) {
+		for (Element defaultValue : childElements(constraint, "DefaultValue")) {
+			if (defaultValue.getTextContent().equals("TRUE")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasAllowedTrue(Element constraint) {
+		NodeList values = constraint.getElementsByTagNameNS(Namespaces.OWS, "Value");
+		for (int i = 0; i < values.getLength(); i++) {
+			if (values.item(i).getTextContent().equals("TRUE")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the child elements in the OWS namespace that have the given local name.
+	 */
+	private static List<Element> childElements(Element parent, String localName) {
+		List<Element> children = new ArrayList<>();
+		for (Node child = parent.getFirstChild(); null != child; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.ELEMENT_NODE && Namespaces.OWS.equals(child.getNamespaceURI())
+					&& child.getLocalName().equals(localName)) {
+				children.add((Element) child);
+			}
+		}
+		return children;
+	}
+
+	/**
+	 * Accumulates the content of a capabilities document as it is read (in document
+	 * order) and then creates an immutable model.
+	 */
+	static class Builder {
+
+		private String version = "";
+
+		private final Map<String, Set<ProtocolBinding>> operationBindings = new LinkedHashMap<>();
+
+		private final Map<String, List<String>> getRefs = new HashMap<>();
+
+		private final Map<String, List<String>> postRefs = new HashMap<>();
+
+		private final Map<String, List<String>> postAllowedValues = new HashMap<>();
+
+		private final Set<ProtocolBinding> globalBindings = EnumSet.noneOf(ProtocolBinding.class);
+
+		private final Map<String, String> constraintValues = new HashMap<>();
+
+		/** Constraints for which a default value has been found. */
+		private final Set<String> settledConstraints = new HashSet<>();
+
+		private final Set<String> serviceClaims = new HashSet<>();
+
+		private final Set<String> filterClaims = new HashSet<>();
+
+		private final Set<String> defaultTrueConstraints = new HashSet<>();
+
+		private final Set<String> spatialOperators = new HashSet<>();
+
+		private final Set<String> temporalOperators = new HashSet<>();
+
+		private final Map<QName, List<String>> supportedCRS = new LinkedHashMap<>();
+
+		private final Map<QName, Envelope> spatialExtents = new HashMap<>();
+
+		/**
+		 * Returns the binding corresponding to a request method element (ows:Get or
+		 * ows:Post).
+		 * @param localName The local name of an element in the OWS namespace.
+		 * @return GET, POST, or {@code null} if the element does not denote a request
+		 * method.
+		 */
+		static ProtocolBinding requestMethod(String localName) {
+			switch (localName) {
+				case "Get":
+					return ProtocolBinding.GET;
+				case "Post":
+					return ProtocolBinding.POST;
+				default:
+					return null;
+			}
+		}
+
+		void setVersion(String version) {
+			this.version = (null != version) ? version : "";
+		}
+
+		void addOperation(String opName) {
+			operationBindings.computeIfAbsent(opName, k -> EnumSet.noneOf(ProtocolBinding.class));
+		}
+
+		void addRequestEndpoint(String opName, ProtocolBinding method, String href) {
+			Map<String, List<String>> refs = method.equals(ProtocolBinding.GET) ? getRefs : postRefs;
+			refs.computeIfAbsent(opName, k -> new ArrayList<>()).add(href);
+		}
+
+		void addAllowedValue(String opName, ProtocolBinding method, String value) {
+			if (method.equals(ProtocolBinding.POST)) {
+				postAllowedValues.computeIfAbsent(opName, k -> new ArrayList<>()).add(value);
+			}
+		}
+
+		void addOperationConstraint(String opName, String constraintName, boolean defaultTrue) {
+			if (!defaultTrue) {
+				return;
+			}
+			for (ProtocolBinding binding : ProtocolBinding.values()) {
+				if (binding.getConstraintName().equals(constraintName)) {
+					// historically any declared encoding implies KVP support
+					operationBindings.get(opName).add(ProtocolBinding.GET);
+				}
+			}
+		}
+
+		void addServiceConstraint(String constraintName, boolean defaultTrue) {
+			if (!defaultTrue) {
+				return;
+			}
+			if (constraintName.equals(WFS2.KVP_ENC)) {
+				globalBindings.add(ProtocolBinding.GET);
+			}
+			else if (constraintName.equals(WFS2.XML_ENC)) {
+				globalBindings.add(ProtocolBinding.POST);
+			}
+			else if (constraintName.equals(WFS2.SOAP_ENC)) {
+				globalBindings.add(ProtocolBinding.SOAP);
+			}
+		}
+
+		void addConstraint(String constraintName, boolean owsConstraint, boolean defaultTrue, boolean allowedTrue) {
+			if (defaultTrue && owsConstraint) {
+				defaultTrueConstraints.add(constraintName);
+			}
+			if (defaultTrue || allowedTrue) {
+				(owsConstraint ? serviceClaims : filterClaims).add(constraintName);
+			}
+		}
+
+		/**
+		 * Supplies a value to the given constraints: a default value takes precedence,
+		 * otherwise the last (first-in-list) allowed value is kept.
+		 */
+		void addConstraintValue(Collection<String> constraintNames, String value, boolean isDefault) {
+			for (String constraintName : constraintNames) {
+				if (settledConstraints.contains(constraintName)) {
+					continue;
+				}
+				constraintValues.put(constraintName, value.trim());
+				if (isDefault) {
+					settledConstraints.add(constraintName);
+				}
+			}
+		}
+
+		void addSpatialOperator(String operatorName) {
+			spatialOperators.add(operatorName);
+		}
+
+		void addTemporalOperator(String operatorName) {
+			temporalOperators.add(operatorName);
+		}
+
+		/**
+		 * Adds a feature type.
+		 * @param typeName The feature type name.
+		 * @param crsIds The supported CRS identifiers (the default CRS first).
+		 * @param bboxNode An ows:WGS84BoundingBox element (may be {@code null}).
+		 */
+		void addFeatureType(QName typeName, List<String> crsIds, Node bboxNode) {
+			supportedCRS.put(typeName, Collections.unmodifiableList(crsIds));
+			if (null == bboxNode) {
+				return;
+			}
+			try {
+				spatialExtents.put(typeName, Extents.createEnvelope(bboxNode));
+			}
+			catch (FactoryException e) {
+				TestSuiteLogger.log(Level.WARNING, e.getMessage());
+			}
+		}
+
+		/**
+		 * Determines the endpoints for an operation. The SOAP endpoint is the POST
+		 * endpoint whose allowed value is "SOAP" (if any), otherwise the first POST
+		 * endpoint.
+		 */
+		Map<ProtocolBinding, String> buildEndpoints(String opName) {
+			Map<ProtocolBinding, String> opEndpoints = new EnumMap<>(ProtocolBinding.class);
+			List<String> gets = getRefs.getOrDefault(opName, Collections.emptyList());
+			List<String> posts = postRefs.getOrDefault(opName, Collections.emptyList());
+			if (!gets.isEmpty()) {
+				opEndpoints.put(ProtocolBinding.GET, gets.get(0));
+			}
+			if (!posts.isEmpty()) {
+				opEndpoints.put(ProtocolBinding.POST, posts.get(0));
+				String soapEndpoint = null;
+				List<String> allowedValues = postAllowedValues.getOrDefault(opName, Collections.emptyList());
+				for (int i = 0; i < posts.size() && i < allowedValues.size(); i++) {
+					if (allowedValues.get(i).equalsIgnoreCase("soap")) {
+						soapEndpoint = posts.get(i);
+					}
+				}
+				opEndpoints.put(ProtocolBinding.SOAP, (null != soapEndpoint) ? soapEndpoint : posts.get(0));
+			}
+			return opEndpoints;
+		}
+
+		CapabilitiesModel build() {
+			return new CapabilitiesModel(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,403 @@
+package org.opengis.cite.iso19142.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.opengis.cite.iso19142.Namespaces;
+import org.opengis.cite.iso19142.ProtocolBinding;
+import org.opengis.cite.iso19142.WFS2;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Reads a WFS capabilities document as a stream and builds a {@link CapabilitiesModel}
+ * in a single pass. Only the information retained by the model is kept in memory, so
+ * very large service descriptions (e.g. with thousands of feature types) can be
+ * processed without constructing a DOM tree. The resulting model is identical to the
+ * one obtained from the corresponding Document by {@link CapabilitiesModel#of(Document)}.
+ *
+ * <p>
+ * XML inclusions are not processed; if an xi:include element is encountered an
+ * XMLStreamException is thrown, and the model should instead be built from an
+ * XInclude-aware DOM. The same exception is thrown if the document element is not
+ * wfs:WFS_Capabilities.
+ * </p>
+ */
+public class CapabilitiesReader {
+
+	/** The XInclude namespace. */
+	static final String XINCLUDE_NS = "http://www.w3.org/2001/XInclude";
+
+	private final XMLStreamReader reader;
+
+	private final CapabilitiesModel.Builder builder = new CapabilitiesModel.Builder();
+
+	/** The elements currently open (apart from those read as text only). */
+	private final Deque<Frame> openElements = new ArrayDeque<>();
+
+	private String opName;
+
+	private FeatureTypeEntry featureType;
+
+	private CapabilitiesReader(XMLStreamReader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads a capabilities document from a file.
+	 * @param file A file containing a wfs:WFS_Capabilities document.
+	 * @return A CapabilitiesModel summarizing the document.
+	 * @throws IOException If the file cannot be read.
+	 * @throws XMLStreamException If the document cannot be parsed, is not a WFS
+	 * capabilities document or contains XML inclusions.
+	 */
+	public static CapabilitiesModel read(File file) throws IOException, XMLStreamException {
+		try (FileInputStream fis = new FileInputStream(file)) {
+			return read(fis);
+		}
+	}
+
+	/**
+	 * Reads a capabilities document from an input stream. The stream is not closed.
+	 * @param inStream An input stream for reading a wfs:WFS_Capabilities document.
+	 * @return A CapabilitiesModel summarizing the document.
+	 * @throws XMLStreamException If the document cannot be parsed, is not a WFS
+	 * capabilities document or contains XML inclusions.
+	 */
+	public static CapabilitiesModel read(InputStream inStream) throws XMLStreamException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		XMLStreamReader reader = factory.createXMLStreamReader(inStream);
+		try {
+			return new CapabilitiesReader(reader).readDocument();
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	private CapabilitiesModel readDocument() throws XMLStreamException {
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				startElement();
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT) {
+				endElement(openElements.pop());
+			}
+		}
+		return builder.build();
+	}
+
+	private void startElement() throws XMLStreamException {
+		String nsName = reader.getNamespaceURI();
+		String localName = reader.getLocalName();
+		if (XINCLUDE_NS.equals(nsName)) {
+			throw new XMLStreamException("XML inclusions are not supported.", reader.getLocation());
+		}
+		Frame parent = openElements.peek();
+		if (null == parent) {
+			if (!Namespaces.WFS.equals(nsName) || !WFS2.WFS_CAPABILITIES.equals(localName)) {
+				throw new XMLStreamException("Not a WFS capabilities document: " + new QName(nsName, localName),
+						reader.getLocation());
+			}
+			builder.setVersion(attributeValue("version"));
+		}
+		if (Namespaces.OWS.equals(nsName)) {
+			switch (localName) {
+				case "DefaultValue":
+					constraintValue(parent, reader.getElementText(), true);
+					return;
+				case "Value":
+					boolean isFirst = (null == parent) || !parent.hasValue;
+					if (null != parent) {
+						parent.hasValue = true;
+					}
+					String value = reader.getElementText();
+					allowedValue(value);
+					if (isFirst) {
+						constraintValue(parent, value, false);
+					}
+					return;
+				case "WGS84BoundingBox":
+					if (null != featureType && null == featureType.bbox) {
+						featureType.bbox = readSubtree();
+						return;
+					}
+					break;
+				case "Operation":
+					opName = attributeValue("name");
+					builder.addOperation(opName);
+					break;
+				default:
+					ProtocolBinding method = CapabilitiesModel.Builder.requestMethod(localName);
+					String href = reader.getAttributeValue(Namespaces.XLINK, "href");
+					if (null != opName && null != method && null != href) {
+						builder.addRequestEndpoint(opName, method, href);
+					}
+			}
+		}
+		else if (Namespaces.FES.equals(nsName)) {
+			if (localName.equals("SpatialOperator")) {
+				builder.addSpatialOperator(attributeValue("name"));
+			}
+			else if (localName.equals("TemporalOperator")) {
+				builder.addTemporalOperator(attributeValue("name"));
+			}
+		}
+		else if (Namespaces.WFS.equals(nsName)) {
+			if (localName.equals("FeatureType")) {
+				featureType = new FeatureTypeEntry();
+			}
+			else if (null != featureType) {
+				switch (localName) {
+					case "Name":
+						if (null == featureType.typeName) {
+							featureType.typeName = readQName();
+							return;
+						}
+						break;
+					case "DefaultCRS":
+						if (null == featureType.defaultCRS) {
+							featureType.defaultCRS = reader.getElementText();
+							return;
+						}
+						break;
+					case "OtherCRS":
+						featureType.otherCRS.add(reader.getElementText());
+						return;
+					default:
+						break;
+				}
+			}
+		}
+		Frame frame = new Frame(nsName, localName);
+		if (frame.isConstraint()) {
+			frame.constraintName = attributeValue("name");
+		}
+		openElements.push(frame);
+	}
+
+	private void endElement(Frame frame) {
+		if (frame.is(Namespaces.OWS, "Operation")) {
+			opName = null;
+		}
+		else if (frame.is(Namespaces.WFS, "FeatureType")) {
+			if (null != featureType.typeName) {
+				List<String> crsIds = new ArrayList<>();
+				if (null != featureType.defaultCRS) {
+					crsIds.add(featureType.defaultCRS);
+				}
+				crsIds.addAll(featureType.otherCRS);
+				builder.addFeatureType(featureType.typeName, crsIds, featureType.bbox);
+			}
+			featureType = null;
+		}
+		else if (frame.isConstraint()) {
+			Frame parent = openElements.peek();
+			boolean isOwsConstraint = frame.nsName.equals(Namespaces.OWS);
+			if (isOwsConstraint && null != parent && parent.is(Namespaces.OWS, "Operation")) {
+				builder.addOperationConstraint(opName, frame.constraintName, frame.defaultTrue);
+			}
+			if (isOwsConstraint && null != parent && parent.is(Namespaces.OWS, "OperationsMetadata")) {
+				builder.addServiceConstraint(frame.constraintName, frame.defaultTrue);
+			}
+			builder.addConstraint(frame.constraintName, isOwsConstraint, frame.defaultTrue, frame.allowedTrue);
+		}
+	}
+
+	/**
+	 * Handles an ows:DefaultValue element or the first ows:Value element in a list.
+	 */
+	private void constraintValue(Frame parent, String value, boolean isDefault) {
+		if (isDefault && null != parent && parent.isConstraint() && value.equals("TRUE")) {
+			parent.defaultTrue = true;
+		}
+		Set<String> constraintNames = new LinkedHashSet<>();
+		for (Frame frame : openElements) {
+			if (frame.is(Namespaces.OWS, "Constraint")) {
+				constraintNames.add(frame.constraintName);
+			}
+		}
+		builder.addConstraintValue(constraintNames, value, isDefault);
+	}
+
+	/**
+	 * Handles any ows:Value element: it may contribute to a conformance claim or be a
+	 * value allowed for a request method (ows:Post/ows:Constraint/ows:AllowedValues).
+	 */
+	private void allowedValue(String value) {
+		if (value.equals("TRUE")) {
+			for (Frame frame : openElements) {
+				if (frame.isConstraint()) {
+					frame.allowedTrue = true;
+				}
+			}
+		}
+		if (null == opName || openElements.size() < 3) {
+			return;
+		}
+		Frame[] ancestors = openElements.stream().limit(3).toArray(Frame[]::new);
+		if (ancestors[0].is(Namespaces.OWS, "AllowedValues") && ancestors[1].is(Namespaces.OWS, "Constraint")
+				&& ancestors[2].nsName.equals(Namespaces.OWS)) {
+			ProtocolBinding method = CapabilitiesModel.Builder.requestMethod(ancestors[2].localName);
+			if (null != method) {
+				builder.addAllowedValue(opName, method, value);
+			}
+		}
+	}
+
+	private String attributeValue(String name) {
+		String value = reader.getAttributeValue(XMLConstants.NULL_NS_URI, name);
+		return (null != value) ? value : "";
+	}
+
+	/**
+	 * Reads an element containing an xsd:QName value; the reader is positioned at the
+	 * end tag afterwards.
+	 */
+	private QName readQName() throws XMLStreamException {
+		NamespaceContext nsContext = reader.getNamespaceContext();
+		String name = reader.getElementText();
+		int indexOfColon = name.indexOf(':');
+		if (indexOfColon > 0) {
+			String prefix = name.substring(0, indexOfColon);
+			String nsName = nsContext.getNamespaceURI(prefix);
+			String localPart = name.substring(indexOfColon + 1);
+			if (null == nsName || nsName.isEmpty()) {
+				return new QName(localPart);
+			}
+			return new QName(nsName, localPart, prefix);
+		}
+		return new QName(nsContext.getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX), name);
+	}
+
+	/**
+	 * Reads the current element (and its content) into a new DOM Element; the reader is
+	 * positioned at the end tag afterwards.
+	 */
+	private Element readSubtree() throws XMLStreamException {
+		Document doc;
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			doc = factory.newDocumentBuilder().newDocument();
+		}
+		catch (ParserConfigurationException e) {
+			throw new XMLStreamException(e);
+		}
+		Node current = doc;
+		int depth = 0;
+		do {
+			int event = (depth == 0) ? XMLStreamConstants.START_ELEMENT : reader.next();
+			switch (event) {
+				case XMLStreamConstants.START_ELEMENT:
+					Element elem = doc.createElementNS(reader.getNamespaceURI(),
+							qualifiedName(reader.getPrefix(), reader.getLocalName()));
+					for (int i = 0; i < reader.getNamespaceCount(); i++) {
+						String prefix = reader.getNamespacePrefix(i);
+						String attrName = (null == prefix || prefix.isEmpty()) ? XMLConstants.XMLNS_ATTRIBUTE
+								: qualifiedName(XMLConstants.XMLNS_ATTRIBUTE, prefix);
+						elem.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attrName, reader.getNamespaceURI(i));
+					}
+					for (int i = 0; i < reader.getAttributeCount(); i++) {
+						elem.setAttributeNS(reader.getAttributeNamespace(i),
+								qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+								reader.getAttributeValue(i));
+					}
+					current.appendChild(elem);
+					current = elem;
+					depth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					current = current.getParentNode();
+					depth--;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					current.appendChild(doc.createTextNode(reader.getText()));
+					break;
+				default:
+					break;
+			}
+		}
+		while (depth > 0);
+		return doc.getDocumentElement();
+	}
+
+	private static String qualifiedName(String prefix, String localName) {
+		if (null == prefix || prefix.isEmpty()) {
+			return localName;
+		}
+		return prefix + ':' + localName;
+	}
+
+	/**
+	 * An open element.
+	 */
+	private static class Frame {
+
+		final String nsName;
+
+		final String localName;
+
+		String constraintName;
+
+		boolean hasValue;
+
+		boolean defaultTrue;
+
+		boolean allowedTrue;
+
+		Frame(String nsName, String localName) {
+			this.nsName = (null != nsName) ? nsName : XMLConstants.NULL_NS_URI;
+			this.localName = localName;
+		}
+
+		boolean is(String ns, String name) {
+			return nsName.equals(ns) && localName.equals(name);
+		}
+
+		boolean isConstraint() {
+			return localName.equals("Constraint") && (nsName.equals(Namespaces.OWS) || nsName.equals(Namespaces.FES));
+		}
+
+	}
+
+	/**
+	 * The information collected about a feature type.
+	 */
+	private static class FeatureTypeEntry {
+
+		QName typeName;
+
+		String defaultCRS;
+
+		final List<String> otherCRS = new ArrayList<>();
+
+		Element bbox;
+
+	}
+
+}
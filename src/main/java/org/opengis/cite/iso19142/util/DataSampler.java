@@ -1,25 +1,38 @@
 package org.opengis.cite.iso19142.util;
 
 import static org.opengis.cite.iso19142.Namespaces.GML;
+import static org.opengis.cite.iso19142.paging.ResponsePaging.COUNT_DEFAULT;
+import static org.opengis.cite.iso19142.paging.ResponsePaging.IMPL_RESULT_PAGING;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,6 +41,10 @@ import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
@@ -38,7 +55,6 @@ import org.apache.xerces.xs.XSComplexTypeDefinition;
 import org.apache.xerces.xs.XSElementDeclaration;
 import org.apache.xerces.xs.XSModel;
 import org.apache.xerces.xs.XSTypeDefinition;
-import org.opengis.cite.geomatics.Extents;
 import org.opengis.cite.geomatics.gml.GmlUtils;
 import org.opengis.cite.geomatics.time.TemporalComparator;
 import org.opengis.cite.geomatics.time.TemporalUtils;
@@ -53,11 +69,11 @@ import org.opengis.temporal.TemporalGeometricPrimitive;
 import org.testng.SkipException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
-import jakarta.xml.bind.JAXBException;
 import net.sf.saxon.s9api.SaxonApiException;
 import net.sf.saxon.s9api.XdmItem;
 import net.sf.saxon.s9api.XdmValue;
@@ -73,8 +89,33 @@ public class DataSampler {
 
 	public static final QName BOUNDED_BY = new QName(GML, "boundedBy");
 
+	/** The name of the index file in a sample data snapshot. */
+	public static final String SNAPSHOT_INDEX = "sample-data.properties";
+
+	private static final String SNAPSHOT_RANDOM_SEED = "randomSeed";
+
+	/**
+	 * The largest number of features requested in one response entity if the WFS does
+	 * not advertise a default count (CountDefault constraint).
+	 */
+	static final int MAX_PAGE_SIZE = 1000;
+
+	/**
+	 * The number of pages of results retrieved when harvesting sample data, as a multiple
+	 * of the number of full pages needed to reach the sample size.
+	 */
+	static final int PAGE_LIMIT_FACTOR = 2;
+
 	private int maxFeatures = 25;
 
+	private int sampleSize;
+
+	private boolean collectStatistics = true;
+
+	private long randomSeed;
+
+	private Random random;
+
 	private Document serviceDescription;
 
 	private Map<QName, FeatureTypeInfo> featureInfo;
@@ -83,7 +124,11 @@ public class DataSampler {
 
 	private Map<FeatureProperty, Period> temporalPropertyExtents;
 
-	private final Map<QName, List<QName>> nillableProperties = new HashMap<>();
+	private final Map<FeatureProperty, TemporalIntervalIndex> temporalIndexes = new ConcurrentHashMap<>();
+
+	private final Map<QName, List<QName>> nillableProperties = new ConcurrentHashMap<>();
+
+	private final Map<QName, Map<QName, PropertyStatistics>> propertyStatistics = new ConcurrentHashMap<>();
 
 	private DocumentBuilder documentBuilder;
 
@@ -102,8 +147,10 @@ public class DataSampler {
 		if (this.featureInfo.isEmpty()) {
 			throw new RuntimeException("No feature type info available.");
 		}
-		this.spatialExtents = new HashMap<>();
-		this.temporalPropertyExtents = new HashMap<>();
+		// cached results may be requested by tests that run concurrently
+		this.spatialExtents = new ConcurrentHashMap<>();
+		this.temporalPropertyExtents = new ConcurrentHashMap<>();
+		setRandomSeed(System.nanoTime());
 		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
 
 		try {
@@ -118,7 +165,8 @@ public class DataSampler {
 	}
 
 	/**
-	 * Sets the maximum number of features to include in the response entity.
+	 * Sets the maximum number of features to include in the response entity if no sample
+	 * size is set (see {@link #setSampleSize(int)}).
 	 * @param maxFeatures An integer value &gt; 0 (the default value is 25).
 	 */
 	public void setMaxFeatures(int maxFeatures) {
@@ -127,6 +175,61 @@ public class DataSampler {
 		}
 	}
 
+	/**
+	 * Sets the total number of features of each type to harvest. This is also the number
+	 * of features requested in one response entity, unless it exceeds the default count
+	 * advertised by the WFS (see {@link #getPageSize()}). In that case, if the WFS
+	 * implements response paging (<em>ImplementsResultPaging</em>), the sample data are
+	 * collected by following the <code>next</code> links in successive pages of results;
+	 * at most one page is held in memory at any time. Otherwise only a single page is
+	 * retrieved.
+	 * @param sampleSize An integer value &gt; 0 (by default only one page is retrieved).
+	 */
+	public void setSampleSize(int sampleSize) {
+		if (sampleSize > 0) {
+			this.sampleSize = sampleSize;
+		}
+	}
+
+	/**
+	 * Determines the number of features to request in one response entity. If a sample
+	 * size is set, this is the sample size but not more than the default count advertised
+	 * by the WFS (the CountDefault constraint, i.e. the most features it returns in one
+	 * response), or {@value #MAX_PAGE_SIZE} if there is none. Otherwise it is the value
+	 * set by {@link #setMaxFeatures(int)}.
+	 * @return A positive integer.
+	 */
+	int getPageSize() {
+		if (sampleSize <= 0) {
+			return maxFeatures;
+		}
+		long limit = MAX_PAGE_SIZE;
+		String countDefault = ServiceMetadataUtils.getConstraintValue(serviceDescription, COUNT_DEFAULT).trim();
+		if (!countDefault.isEmpty()) {
+			try {
+				long count = Long.parseLong(countDefault);
+				if (count > 0) {
+					limit = count;
+				}
+			}
+			catch (NumberFormatException nfe) {
+				LOGR.log(Level.FINE, "Ignoring invalid {0} value: {1}", new Object[] { COUNT_DEFAULT, countDefault });
+			}
+		}
+		return (int) Math.min(sampleSize, limit);
+	}
+
+	/**
+	 * Determines the number of pages of results that may be retrieved when harvesting
+	 * sample data. This allows for some pages that are not full.
+	 * @param pageSize The number of features requested in one response entity.
+	 * @return A positive integer.
+	 */
+	int getMaxPages(int pageSize) {
+		int fullPages = (sampleSize + pageSize - 1) / pageSize;
+		return Math.max(2, PAGE_LIMIT_FACTOR * fullPages);
+	}
+
 	/**
 	 * Returns a set of identifiers for available feature instances of a given type. The
 	 * identifiers are randomly selected from the sample data.
@@ -137,32 +240,19 @@ public class DataSampler {
 	public Set<String> selectRandomFeatureIdentifiers(QName featureType, int numId) {
 		FeatureTypeInfo typeInfo = featureInfo.get(featureType);
 		File dataFile = typeInfo.getSampleData();
-		Set<String> idSet = new HashSet<String>();
+		Set<String> idSet = new LinkedHashSet<String>();
 		if (null == dataFile || !dataFile.exists()) {
 			return idSet;
 		}
-		String xpath = "//wfs:member/*/@gml:id";
-		Map<String, String> nsBindings = new HashMap<String, String>();
-		nsBindings.put(Namespaces.GML, "gml");
-		nsBindings.put(Namespaces.WFS, "wfs");
-		XdmValue result = null;
+		ReservoirSampler<String> sampler = new ReservoirSampler<>(Math.max(numId, 0), this.random);
 		try {
-			result = XMLUtils.evaluateXPath2(new StreamSource(dataFile), xpath, nsBindings);
+			streamFeatureIdentifiers(dataFile, sampler);
 		}
-		catch (SaxonApiException e) {
+		catch (IOException | XMLStreamException e) {
 			LOGR.log(Level.WARNING, String.format("Failed to extract feature identifiers from data file at %s",
-					dataFile.getAbsolutePath()));
-		}
-		int sampleSize = result.size();
-		numId = (numId > sampleSize) ? sampleSize : numId;
-		Set<Integer> randomSet = new HashSet<>();
-		Random random = new Random();
-		while (randomSet.size() < numId) {
-			int randomInt = random.nextInt(sampleSize);
-			randomSet.add(randomInt);
-		}
-		for (int randomInt : randomSet) {
-			String featureIdentifier = result.itemAt(randomInt).getStringValue();
+					dataFile.getAbsolutePath()), e);
+		}
+		for (String featureIdentifier : sampler.getSample()) {
 			if (idSet.contains(featureIdentifier))
 				throw new IllegalArgumentException("Feature id " + featureIdentifier
 						+ " exists multiple times in Feature Type " + featureType.toString()
@@ -172,6 +262,67 @@ public class DataSampler {
 		return idSet;
 	}
 
+	/**
+	 * Sets the seed for the random number generator used to select sample data. Runs
+	 * using the same seed (and the same data) make the same selections.
+	 * @param seed The initial seed.
+	 */
+	public void setRandomSeed(long seed) {
+		this.randomSeed = seed;
+		this.random = new Random(seed);
+		LOGR.log(Level.INFO, "Random seed for sample data selection: {0}", Long.toString(seed));
+	}
+
+	/**
+	 * Returns the seed used to initialize the random number generator. It can be supplied
+	 * as a test run argument in order to repeat the selections made in this run.
+	 * @return The initial seed.
+	 */
+	public long getRandomSeed() {
+		return randomSeed;
+	}
+
+	/**
+	 * Presents the identifiers (gml:id attribute values) of all features in a sample data
+	 * file to the given sampler, in document order. The file is read as a stream; a
+	 * feature is an element that is a child of wfs:member.
+	 * @param dataFile A file containing a feature collection.
+	 * @param sampler A reservoir sampler.
+	 * @throws IOException If the file cannot be read.
+	 * @throws XMLStreamException If the file cannot be parsed.
+	 */
+	private static void streamFeatureIdentifiers(File dataFile, ReservoirSampler<String> sampler)
+			throws IOException, XMLStreamException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		try (FileInputStream fis = new FileInputStream(dataFile)) {
+			XMLStreamReader reader = factory.createXMLStreamReader(fis);
+			// one entry per open element: is it a wfs:member element?
+			Deque<Boolean> openElements = new ArrayDeque<>();
+			try {
+				while (reader.hasNext()) {
+					int event = reader.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						if (Boolean.TRUE.equals(openElements.peek())) {
+							String id = reader.getAttributeValue(Namespaces.GML, "id");
+							if (null != id) {
+								sampler.offer(id);
+							}
+						}
+						openElements.push(Namespaces.WFS.equals(reader.getNamespaceURI())
+								&& WFS2.MEMBER.equals(reader.getLocalName()));
+					}
+					else if (event == XMLStreamConstants.END_ELEMENT) {
+						openElements.pop();
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+	}
+
 	/**
 	 * Returns a list containing the values (in document order) of the specified feature
 	 * property in the sample data set. The property value is converted to a string as if
@@ -230,6 +381,20 @@ public class DataSampler {
 		return values;
 	}
 
+	/**
+	 * Returns summary statistics for the values of a simple feature property. The
+	 * statistics are computed while the sample data are acquired; properties with complex
+	 * content are not summarized.
+	 * @param featureType A QName representing the qualified name of some feature type.
+	 * @param propName The name of the property.
+	 * @return A PropertyStatistics object, or {@code null} if the property does not occur
+	 * in the sample data (or has complex content).
+	 */
+	public PropertyStatistics getPropertyStatistics(QName featureType, QName propName) {
+		Map<QName, PropertyStatistics> statsMap = propertyStatistics.get(featureType);
+		return (null != statsMap) ? statsMap.get(propName) : null;
+	}
+
 	/**
 	 * Deletes all saved data files.
 	 * @return {@code true} if all data files were deleted; {@code false} otherwise (see
@@ -238,7 +403,11 @@ public class DataSampler {
 	public boolean deleteData() {
 		boolean allDeleted = true;
 		for (QName typeName : featureInfo.keySet()) {
-			File file = featureInfo.get(typeName).getSampleData();
+			FeatureTypeInfo typeInfo = featureInfo.get(typeName);
+			if (typeInfo.isSampleDataDeferred()) {
+				continue;
+			}
+			File file = typeInfo.getSampleData();
 			if ((file != null) && file.exists()) {
 				if (!file.delete()) {
 					allDeleted = false;
@@ -256,19 +425,139 @@ public class DataSampler {
 	 * type, {@link FeatureTypeInfo#isInstantiated()} returns {@code false}.
 	 */
 	public void acquireFeatureData() {
+		acquireFeatureData(SamplingPlan.COMPLETE);
+	}
+
+	/**
+	 * Acquires instances of the feature types supported by the WFS according to the given
+	 * sampling plan. If the plan does not require all feature types, sampling stops as
+	 * soon as data are found for one type; the acquisition of data for the remaining
+	 * types is deferred until their sample data (or availability) are first requested.
+	 * @param plan A plan that specifies which data must be acquired up front.
+	 */
+	public void acquireFeatureData(SamplingPlan plan) {
 		WFSClient wfsClient = new WFSClient(this.serviceDescription);
 		Set<ProtocolBinding> getFeatureBindings = ServiceMetadataUtils.getOperationBindings(serviceDescription,
 				WFS2.GET_FEATURE);
 		if (getFeatureBindings.isEmpty())
 			throw new IllegalArgumentException("No bindings available for GetFeature request.");
+		int pageSize = getPageSize();
+		if (sampleSize > pageSize
+				&& !ServiceMetadataUtils.implementsConformanceClass(serviceDescription, IMPL_RESULT_PAGING)) {
+			LOGR.log(Level.INFO, "Response paging is not implemented; sample size is limited to {0} features.",
+					pageSize);
+		}
+		this.collectStatistics = plan.requiresPropertyStatistics();
+		boolean dataFound = false;
 		for (Map.Entry<QName, FeatureTypeInfo> entry : featureInfo.entrySet()) {
 			QName typeName = entry.getKey();
 			FeatureTypeInfo featureTypeInfo = entry.getValue();
-			acquireFeatureData(wfsClient, getFeatureBindings, typeName, featureTypeInfo);
+			if (plan.requiresAllFeatureTypes() || !dataFound) {
+				acquireFeatureData(wfsClient, getFeatureBindings, typeName, featureTypeInfo);
+				dataFound = featureTypeInfo.isInstantiated();
+			}
+			else {
+				featureTypeInfo.setSampleDataLoader(
+						typeInfo -> acquireFeatureData(wfsClient, getFeatureBindings, typeName, typeInfo));
+			}
 		}
 		LOGR.log(Level.INFO, featureInfo.toString());
 	}
 
+	/**
+	 * Saves a snapshot of the sample data in the given directory, so that a later test
+	 * run can {@link #restoreFeatureData(File, SamplingPlan) restore} them instead of
+	 * acquiring them again. The directory contains a copy of each data file and an index
+	 * ({@value #SNAPSHOT_INDEX}) that lists the feature types for which data were sought;
+	 * feature types whose data acquisition was deferred and never took place are omitted.
+	 * @param dir The directory in which the snapshot is saved; it is created if it does
+	 * not exist.
+	 * @throws IOException If the snapshot cannot be written.
+	 */
+	public void saveSnapshot(File dir) throws IOException {
+		Files.createDirectories(dir.toPath());
+		Properties index = new Properties();
+		index.setProperty(SNAPSHOT_RANDOM_SEED, Long.toString(this.randomSeed));
+		int typeCount = 0;
+		for (Map.Entry<QName, FeatureTypeInfo> entry : featureInfo.entrySet()) {
+			FeatureTypeInfo typeInfo = entry.getValue();
+			if (typeInfo.isSampleDataDeferred()) {
+				continue;
+			}
+			typeCount++;
+			index.setProperty("type." + typeCount, entry.getKey().toString());
+			File dataFile = typeInfo.getSampleData();
+			if (typeInfo.isInstantiated() && null != dataFile && dataFile.exists()) {
+				String fileName = "type-" + typeCount + ".xml";
+				Files.copy(dataFile.toPath(), new File(dir, fileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+				index.setProperty("file." + typeCount, fileName);
+			}
+		}
+		try (OutputStream out = new FileOutputStream(new File(dir, SNAPSHOT_INDEX))) {
+			index.store(out, "Sample data");
+		}
+	}
+
+	/**
+	 * Restores the sample data saved in a snapshot (see {@link #saveSnapshot(File)})
+	 * instead of acquiring them from the WFS. The data files are copied, the property
+	 * statistics are computed from them if the sampling plan requires them, and the
+	 * random seed of the original run is reused so that the same selections are made.
+	 * The acquisition of data for feature types that are not in the snapshot is
+	 * deferred until they are first requested.
+	 * @param dir The directory containing a sample data snapshot.
+	 * @param plan A plan that specifies which data are required.
+	 * @throws IOException If the snapshot cannot be read.
+	 */
+	public void restoreFeatureData(File dir, SamplingPlan plan) throws IOException {
+		Properties index = new Properties();
+		try (InputStream in = new FileInputStream(new File(dir, SNAPSHOT_INDEX))) {
+			index.load(in);
+		}
+		this.collectStatistics = plan.requiresPropertyStatistics();
+		Set<QName> restoredTypes = new HashSet<>();
+		for (int i = 1; null != index.getProperty("type." + i); i++) {
+			QName typeName = QName.valueOf(index.getProperty("type." + i));
+			FeatureTypeInfo typeInfo = featureInfo.get(typeName);
+			if (null == typeInfo) {
+				// no longer advertised
+				continue;
+			}
+			String fileName = index.getProperty("file." + i);
+			if (null != fileName) {
+				File dataFile = File.createTempFile(typeName.getLocalPart() + "-", ".xml");
+				Files.copy(new File(dir, fileName).toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				typeInfo.setSampleData(dataFile);
+				typeInfo.setInstantiated(true);
+				if (collectStatistics) {
+					collectPropertyStatistics(typeName, dataFile);
+				}
+			}
+			else {
+				typeInfo.setInstantiated(false);
+			}
+			restoredTypes.add(typeName);
+		}
+		String randomSeed = index.getProperty(SNAPSHOT_RANDOM_SEED);
+		if (null != randomSeed) {
+			setRandomSeed(Long.parseLong(randomSeed));
+		}
+		if (restoredTypes.size() < featureInfo.size()) {
+			WFSClient wfsClient = new WFSClient(this.serviceDescription);
+			Set<ProtocolBinding> getFeatureBindings = ServiceMetadataUtils.getOperationBindings(serviceDescription,
+					WFS2.GET_FEATURE);
+			for (Map.Entry<QName, FeatureTypeInfo> entry : featureInfo.entrySet()) {
+				QName typeName = entry.getKey();
+				if (!restoredTypes.contains(typeName)) {
+					entry.getValue()
+						.setSampleDataLoader(
+								typeInfo -> acquireFeatureData(wfsClient, getFeatureBindings, typeName, typeInfo));
+				}
+			}
+		}
+		LOGR.log(Level.INFO, "Restored sample data from {0}: {1}", new Object[] { dir, featureInfo });
+	}
+
 	/**
 	 * Returns a Map containing information about the feature types supported by the WFS.
 	 * @return A Map where the keys are QName objects representing the names of feature
@@ -356,7 +645,8 @@ public class DataSampler {
 	/**
 	 * Determines the spatial extent of the feature instances in the sample data. If a
 	 * feature type defines more than one geometry property, the envelope is calculated
-	 * using the first non-empty property.
+	 * using the first non-empty property. The coordinates are read in a single pass over
+	 * the data (see {@link EnvelopeScanner}).
 	 * @param model A model representing the supported GML application schema.
 	 * @param featureType The name of the feature type.
 	 * @return An Envelope, or null if one cannot be created or the feature type has no
@@ -372,47 +662,34 @@ public class DataSampler {
 		if (geomProps.isEmpty()) {
 			return null;
 		}
-		Iterator<XSElementDeclaration> itr = geomProps.iterator();
-		NamespaceBindings nsBindings = NamespaceBindings.withStandardBindings();
-		XPathFactory factory = XPathFactory.newInstance();
-		NodeList geomNodes = null;
-		File dataFile = this.featureInfo.get(featureType).getSampleData();
-		do {
-			XSElementDeclaration geomProp = itr.next();
-			nsBindings.addNamespaceBinding(geomProp.getNamespace(), "ns1");
-			String expr = String.format("//ns1:%s/*[1]", geomProp.getName());
-			XPath xpath = factory.newXPath();
-			xpath.setNamespaceContext(nsBindings);
-			try {
-				geomNodes = (NodeList) xpath.evaluate(expr, new InputSource(new FileInputStream(dataFile)),
-						XPathConstants.NODESET);
-			}
-			catch (XPathExpressionException | FileNotFoundException e) {
-				LOGR.log(Level.WARNING, String.format("Failed to evaluate XPath %s against data file at %s.\n %s", expr,
-						dataFile.getAbsolutePath(), e.getMessage()));
-			}
-			if (null != geomNodes && geomNodes.getLength() > 0) {
-				break;
-			}
+		List<QName> geomPropNames = new ArrayList<>(geomProps.size());
+		for (XSElementDeclaration geomProp : geomProps) {
+			geomPropNames.add(new QName(geomProp.getNamespace(), geomProp.getName()));
 		}
-		while (itr.hasNext());
-		if (null != geomNodes && geomNodes.getLength() > 0) {
-			try {
-				envelope = Extents.calculateEnvelopeUsingSingleGeometry(geomNodes);
-			}
-			catch (JAXBException e) {
-				LOGR.log(Level.WARNING,
-						String.format("Failed to create envelope from geometry nodes.", e.getMessage()));
-			}
+		FeatureTypeInfo typeInfo = this.featureInfo.get(featureType);
+		File dataFile = typeInfo.getSampleData();
+		if (null == dataFile) {
+			return null;
+		}
+		try {
+			envelope = EnvelopeScanner.scan(dataFile, geomPropNames, typeInfo.getDefaultCRS());
+		}
+		catch (IOException iox) {
+			LOGR.log(Level.WARNING, String.format("Failed to compute envelope from data file at %s.\n %s",
+					dataFile.getAbsolutePath(), iox.getMessage()));
+		}
+		if (null != envelope) {
+			this.spatialExtents.put(featureType, envelope);
 		}
-		this.spatialExtents.put(featureType, envelope);
 		return envelope;
 	}
 
 	/**
 	 * Determines the temporal extent of all instances of the specified feature property
 	 * in the sample data. The temporal extent is extend by 1 day and 1 hour in the
-	 * beginning and the end.
+	 * beginning and the end. A {@link TemporalIntervalIndex} of the property values is
+	 * built in the same pass (see
+	 * {@link #getTemporalIndex(XSModel, QName, XSElementDeclaration)}).
 	 * @param model A model representing the relevant GML application schema.
 	 * @param featureType The name of the feature type.
 	 * @param tmPropDecl A declaration of a temporal property.
@@ -442,6 +719,7 @@ public class DataSampler {
 					String.format("Failed to parse data file at %s.\n %s", dataFile.getAbsolutePath(), e.getMessage()));
 		}
 		TreeSet<TemporalGeometricPrimitive> tmSet = new TreeSet<>(new TemporalComparator());
+		TemporalIntervalIndex.Builder indexBuilder = new TemporalIntervalIndex.Builder();
 		NodeList propNodes = data.getElementsByTagNameNS(tmPropDecl.getNamespace(), tmPropDecl.getName());
 		for (int i = 0; i < propNodes.getLength(); i++) {
 			TemporalGeometricPrimitive tVal;
@@ -457,6 +735,7 @@ public class DataSampler {
 					tVal = GmlUtils.gmlToTemporalGeometricPrimitive(propValue);
 				}
 				tmSet.add(tVal);
+				indexBuilder.add(tVal);
 			}
 			catch (RuntimeException re) {
 				LOGR.log(Level.WARNING, re.getMessage());
@@ -473,10 +752,33 @@ public class DataSampler {
 			TemporalUtils.add(period.getBeginning(), -2, ChronoUnit.DAYS);
 		}
 		period = TemporalUtils.temporalExtent(tmSet);
-		this.temporalPropertyExtents.put(tmProp, period);
+		// publish the index first: once the extent is cached it is not computed again
+		this.temporalIndexes.put(tmProp, indexBuilder.build());
+		if (null != period) {
+			this.temporalPropertyExtents.put(tmProp, period);
+		}
 		return period;
 	}
 
+	/**
+	 * Returns an index of the values of the specified temporal property in the sample
+	 * data. The index is built only once for each feature property; each value is parsed
+	 * a single time.
+	 * @param model A model representing the relevant GML application schema.
+	 * @param featureType The name of the feature type.
+	 * @param tmPropDecl A declaration of a temporal property.
+	 * @return A TemporalIntervalIndex (it may be empty if the property does not occur).
+	 */
+	public TemporalIntervalIndex getTemporalIndex(XSModel model, QName featureType, XSElementDeclaration tmPropDecl) {
+		FeatureProperty tmProp = new FeatureProperty(featureType, tmPropDecl);
+		TemporalIntervalIndex index = this.temporalIndexes.get(tmProp);
+		if (null == index) {
+			getTemporalExtentOfProperty(model, featureType, tmPropDecl);
+			index = this.temporalIndexes.get(tmProp);
+		}
+		return index;
+	}
+
 	/**
 	 * Determines a property which is nillable and contains nilled properties for the
 	 * specified feature type in the sample data.
@@ -605,12 +907,23 @@ public class DataSampler {
 			FeatureTypeInfo featureTypeInfo) {
 		for (ProtocolBinding binding : getFeatureBindings) {
 			try {
-				Document rspEntity = wfsClient.getFeatureByType(typeName, maxFeatures, binding);
+				Document rspEntity = wfsClient.getFeatureByType(typeName, getPageSize(), binding);
 				NodeList features = rspEntity.getElementsByTagNameNS(typeName.getNamespaceURI(),
 						typeName.getLocalPart());
 				boolean hasFeatures = features.getLength() > 0;
 				if (hasFeatures) {
-					saveFeatureDataFile(featureTypeInfo, typeName, rspEntity);
+					if (isHarvesting()) {
+						harvestFeatureData(wfsClient, featureTypeInfo, typeName, rspEntity);
+					}
+					else {
+						saveFeatureDataFile(featureTypeInfo, typeName, rspEntity);
+						Element collection = FeatureDataWriter.findFeatureCollection(rspEntity);
+						if (collectStatistics && null != collection) {
+							StatisticsCollector collector = new StatisticsCollector(typeName);
+							forEachMember(collection, collector);
+							collector.publish();
+						}
+					}
 					return;
 				}
 			}
@@ -624,6 +937,195 @@ public class DataSampler {
 		}
 	}
 
+	private boolean isHarvesting() {
+		return sampleSize > getPageSize()
+				&& ServiceMetadataUtils.implementsConformanceClass(serviceDescription, IMPL_RESULT_PAGING);
+	}
+
+	/**
+	 * Saves the members of the first page of results and then follows the chain of
+	 * <code>next</code> links until the desired sample size is reached or no more
+	 * results are available. Each page is discarded once its members have been written.
+	 * Harvesting also stops if a page contains no new members, if a <code>next</code>
+	 * link refers to a page already retrieved, or after {@value #PAGE_LIMIT_FACTOR} times
+	 * as many pages as are needed to reach the sample size (see
+	 * {@link #getMaxPages(int)}).
+	 * @param wfsClient The client component used to retrieve subsequent pages.
+	 * @param featureTypeInfo Information about the feature type.
+	 * @param typeName The qualified name of the feature type.
+	 * @param firstPage The first page of results.
+	 */
+	void harvestFeatureData(WFSClient wfsClient, FeatureTypeInfo featureTypeInfo, QName typeName,
+			Document firstPage) {
+		File file;
+		int pageCount = 1;
+		int maxPages = getMaxPages(getPageSize());
+		try {
+			file = File.createTempFile(typeName.getLocalPart() + "-", ".xml");
+		}
+		catch (IOException e) {
+			LOGR.log(Level.WARNING, "Failed to save feature data.", e);
+			return;
+		}
+		StatisticsCollector collector = collectStatistics ? new StatisticsCollector(typeName) : null;
+		try (FeatureDataWriter writer = new FeatureDataWriter(file)) {
+			Set<String> pageRefs = new HashSet<>();
+			Document page = firstPage;
+			while (null != page) {
+				int memberCount = writer.getMemberCount();
+				writer.appendMembers(page, sampleSize - memberCount, collector);
+				String next = nextPageReference(page);
+				page = null;
+				if (writer.getMemberCount() >= sampleSize || next.isEmpty()) {
+					break;
+				}
+				if (writer.getMemberCount() == memberCount || !pageRefs.add(next) || pageCount >= maxPages) {
+					LOGR.log(Level.WARNING, String.format(
+							"Stopped harvesting %s after %d pages: page was empty, repeated or over the limit (%s)",
+							typeName, pageCount, next));
+					break;
+				}
+				try {
+					page = wfsClient.getResultPage(URI.create(next));
+					pageCount++;
+				}
+				catch (RuntimeException e) {
+					LOGR.log(Level.WARNING, "Failed to retrieve next page of results from " + next, e);
+				}
+			}
+			LOGR.log(Level.CONFIG, String.format("%s - wrote %d features (%d pages) to %s", getClass().getName(),
+					writer.getMemberCount(), pageCount, file.getAbsolutePath()));
+		}
+		catch (IOException e) {
+			LOGR.log(Level.WARNING, "Failed to save feature data.", e);
+			return;
+		}
+		if (null != collector) {
+			collector.publish();
+		}
+		featureTypeInfo.setSampleData(file);
+		featureTypeInfo.setInstantiated(true);
+	}
+
+	private static void forEachMember(Element collection, Consumer<Element> memberHandler) {
+		for (Node child = collection.getFirstChild(); null != child; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.ELEMENT_NODE && Namespaces.WFS.equals(child.getNamespaceURI())
+					&& WFS2.MEMBER.equals(child.getLocalName())) {
+				memberHandler.accept((Element) child);
+			}
+		}
+	}
+
+	/**
+	 * Computes the statistics for the simple properties of the features in a data file.
+	 * @param typeName The qualified name of the feature type.
+	 * @param dataFile A file containing a feature collection.
+	 */
+	private void collectPropertyStatistics(QName typeName, File dataFile) {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			Element collection = FeatureDataWriter
+				.findFeatureCollection(factory.newDocumentBuilder().parse(dataFile));
+			if (null != collection) {
+				StatisticsCollector collector = new StatisticsCollector(typeName);
+				forEachMember(collection, collector);
+				collector.publish();
+			}
+		}
+		catch (SAXException | IOException | ParserConfigurationException e) {
+			LOGR.log(Level.WARNING, "Failed to read sample data from " + dataFile, e);
+		}
+	}
+
+	/**
+	 * Accumulates the statistics for the simple properties of the instances of one
+	 * feature type while its sample data are acquired. A property is considered simple if
+	 * it has no child elements. The statistics are confined to the thread that acquires
+	 * the data; they are made available to tests (as an unmodifiable map) only once all
+	 * members have been processed.
+	 */
+	private final class StatisticsCollector implements Consumer<Element> {
+
+		private final QName typeName;
+
+		private final Map<QName, PropertyStatistics> statsMap = new LinkedHashMap<>();
+
+		private long featureCount;
+
+		StatisticsCollector(QName typeName) {
+			this.typeName = typeName;
+		}
+
+		/**
+		 * Updates the statistics with the properties of a feature instance.
+		 * @param member A wfs:member element containing a feature instance.
+		 */
+		@Override
+		public void accept(Element member) {
+			Element feature = null;
+			for (Node child = member.getFirstChild(); null != child; child = child.getNextSibling()) {
+				if (child.getNodeType() == Node.ELEMENT_NODE) {
+					feature = (Element) child;
+					break;
+				}
+			}
+			if (null == feature || !typeName.getNamespaceURI().equals(feature.getNamespaceURI())
+					|| !typeName.getLocalPart().equals(feature.getLocalName())) {
+				return;
+			}
+			Set<QName> occurringProperties = new HashSet<>();
+			for (Node child = feature.getFirstChild(); null != child; child = child.getNextSibling()) {
+				if (child.getNodeType() != Node.ELEMENT_NODE) {
+					continue;
+				}
+				Element property = (Element) child;
+				if (hasChildElement(property)) {
+					continue;
+				}
+				QName propName = new QName(property.getNamespaceURI(), property.getLocalName());
+				PropertyStatistics stats = statsMap.computeIfAbsent(propName, PropertyStatistics::new);
+				if (occurringProperties.add(propName)) {
+					stats.addOccurrence();
+				}
+				String nil = property.getAttributeNS(Namespaces.XSI, "nil").trim();
+				if (nil.equals("true") || nil.equals("1")) {
+					stats.addNil();
+				}
+				else {
+					stats.add(property.getTextContent());
+				}
+			}
+			featureCount++;
+		}
+
+		/**
+		 * Makes the statistics available, replacing any computed earlier for the feature
+		 * type. The collector must not be used afterwards.
+		 */
+		void publish() {
+			for (PropertyStatistics stats : statsMap.values()) {
+				stats.setFeatureCount(featureCount);
+			}
+			propertyStatistics.put(typeName, Collections.unmodifiableMap(statsMap));
+		}
+
+	}
+
+	private static boolean hasChildElement(Element element) {
+		for (Node child = element.getFirstChild(); null != child; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.ELEMENT_NODE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String nextPageReference(Document page) {
+		Element collection = FeatureDataWriter.findFeatureCollection(page);
+		return (null != collection) ? collection.getAttribute("next").trim() : "";
+	}
+
 	private void saveFeatureDataFile(FeatureTypeInfo featureTypeInfo, QName typeName, Document rspEntity) {
 		try {
 			File file = File.createTempFile(typeName.getLocalPart() + "-", ".xml");
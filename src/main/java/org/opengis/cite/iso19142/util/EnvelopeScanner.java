@@ -0,0 +1,366 @@
+package org.opengis.cite.iso19142.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.crs.AbstractCRS;
+import org.apache.sis.referencing.cs.AxesConvention;
+import org.opengis.cite.iso19142.Namespaces;
+import org.opengis.geometry.Envelope;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.util.FactoryException;
+
+/**
+ * Computes the envelope of the geometry values in a GML instance document in a single
+ * streaming pass. Coordinates are read from the gml:pos, gml:posList and gml:coordinates
+ * elements and from the corners of gml:Envelope elements (gml:lowerCorner,
+ * gml:upperCorner) directly into arrays of minimum and maximum values; no geometry
+ * objects are created.
+ *
+ * <p>
+ * Coordinate tuples are grouped according to the srsDimension attribute, which may
+ * appear on the position element or on any enclosing element of the geometry value (the
+ * default is 2). Ordinates are kept in the order in which they appear, which is the
+ * axis order of the CRS identified by the srsName attribute of the first geometry found
+ * (for a legacy identifier such as "EPSG:4326" or
+ * "http://www.opengis.net/gml/srs/epsg.xml#4326" this is longitude first). If there is no
+ * srsName attribute, the default CRS of the feature type applies. Geometries that refer
+ * to a different CRS are ignored.
+ * </p>
+ *
+ * <p>
+ * An envelope always has a CRS: the values of a property are skipped if the CRS is not
+ * recognized or its dimension differs from that of the coordinate tuples.
+ * </p>
+ */
+public class EnvelopeScanner {
+
+	private static final String SRS_NAME = "srsName";
+
+	private static final String SRS_DIMENSION = "srsDimension";
+
+	private static final int DEFAULT_DIMENSION = 2;
+
+	/**
+	 * Identifies a CRS by EPSG code with the axis order (x,y) in older GML versions (e.g.
+	 * "EPSG:4326", "http://www.opengis.net/gml/srs/epsg.xml#4326").
+	 */
+	private static final Pattern LEGACY_EPSG_REF = Pattern.compile("(?i)(?:EPSG:|.*/epsg\\.xml#)(\\d+)");
+
+	private EnvelopeScanner() {
+	}
+
+	/**
+	 * Computes the envelope of the values of a geometry property. The first property
+	 * (in the given order) that occurs with at least one coordinate tuple is used.
+	 * @param dataFile A file containing a GML instance document (e.g. a
+	 * wfs:FeatureCollection).
+	 * @param geomProps A list of geometry property names.
+	 * @param defaultCRS The identifier of the CRS that applies if a geometry has no
+	 * srsName attribute (the default CRS of the feature type); may be {@code null}.
+	 * @return An Envelope with a CRS, or {@code null} if none of the properties has any
+	 * coordinate values in a recognized CRS.
+	 * @throws IOException If the file cannot be read, is not well-formed, or contains an
+	 * invalid coordinate value.
+	 */
+	public static Envelope scan(File dataFile, List<QName> geomProps, String defaultCRS) throws IOException {
+		Accumulator[] accumulators = new Accumulator[geomProps.size()];
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		try (InputStream inStream = Files.newInputStream(dataFile.toPath())) {
+			XMLStreamReader reader = factory.createXMLStreamReader(inStream);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+						int index = geomProps.indexOf(reader.getName());
+						if (index >= 0) {
+							if (null == accumulators[index]) {
+								accumulators[index] = new Accumulator();
+							}
+							scanProperty(reader, accumulators[index]);
+						}
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (XMLStreamException | NumberFormatException ex) {
+			throw new IOException("Failed to read GML data from " + dataFile, ex);
+		}
+		for (Accumulator accumulator : accumulators) {
+			if (null != accumulator && accumulator.count > 0) {
+				GeneralEnvelope envelope = accumulator.toEnvelope(defaultCRS);
+				if (null != envelope) {
+					return envelope;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the CRS identified by the value of a srsName attribute. A legacy EPSG
+	 * identifier denotes the CRS with the axis order (x,y), i.e. longitude first.
+	 * @param srsName A CRS identifier.
+	 * @return A CoordinateReferenceSystem object.
+	 * @throws FactoryException If the CRS is not recognized.
+	 * @throws IllegalArgumentException If the value is not a valid CRS identifier.
+	 */
+	static CoordinateReferenceSystem resolveCRS(String srsName) throws FactoryException {
+		Matcher legacyRef = LEGACY_EPSG_REF.matcher(srsName.trim());
+		if (legacyRef.matches()) {
+			CoordinateReferenceSystem crs = CRSCache.forIdentifier("urn:ogc:def:crs:EPSG::" + legacyRef.group(1));
+			return AbstractCRS.castOrCopy(crs).forConvention(AxesConvention.RIGHT_HANDED);
+		}
+		return CRSCache.forIdentifier(srsName);
+	}
+
+	/**
+	 * Reads the value of a geometry property. The reader is positioned at the start tag
+	 * of the property element; on return it is positioned at the matching end tag.
+	 * @param reader An XMLStreamReader.
+	 * @param accumulator The accumulator for the property.
+	 * @throws XMLStreamException If the content is not well-formed.
+	 */
+	private static void scanProperty(XMLStreamReader reader, Accumulator accumulator) throws XMLStreamException {
+		// srsName and srsDimension are inherited by descendant elements
+		String[] srsNames = new String[8];
+		int[] dimensions = new int[8];
+		int depth = 0;
+		srsNames[0] = null;
+		dimensions[0] = DEFAULT_DIMENSION;
+		while (depth >= 0 && reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+			else if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+				if (depth == srsNames.length) {
+					srsNames = Arrays.copyOf(srsNames, depth * 2);
+					dimensions = Arrays.copyOf(dimensions, depth * 2);
+				}
+				String srsName = reader.getAttributeValue(null, SRS_NAME);
+				srsNames[depth] = (null != srsName) ? srsName : srsNames[depth - 1];
+				String srsDim = reader.getAttributeValue(null, SRS_DIMENSION);
+				dimensions[depth] = (null != srsDim) ? parseDimension(srsDim) : dimensions[depth - 1];
+				if (!Namespaces.GML.equals(reader.getNamespaceURI()) || !accumulator.accepts(srsNames[depth])) {
+					continue;
+				}
+				switch (reader.getLocalName()) {
+					case "pos":
+					case "lowerCorner":
+					case "upperCorner":
+						// one position; the number of ordinates defines the dimension
+						accumulator.addTuples(reader.getElementText(), 0);
+						depth--;
+						break;
+					case "posList":
+						accumulator.addTuples(reader.getElementText(), dimensions[depth]);
+						depth--;
+						break;
+					case "coordinates":
+						accumulator.addCoordinates(reader.getAttributeValue(null, "decimal"),
+								reader.getAttributeValue(null, "cs"), reader.getAttributeValue(null, "ts"),
+								reader.getElementText());
+						depth--;
+						break;
+					default:
+						break;
+				}
+			}
+		}
+	}
+
+	private static int parseDimension(String srsDim) {
+		try {
+			int dim = Integer.parseInt(srsDim.trim());
+			return (dim > 0) ? dim : DEFAULT_DIMENSION;
+		}
+		catch (NumberFormatException nfe) {
+			return DEFAULT_DIMENSION;
+		}
+	}
+
+	/**
+	 * Accumulates the minimum and maximum ordinate values of the coordinate tuples.
+	 */
+	static class Accumulator {
+
+		private String srsName;
+
+		private double[] min;
+
+		private double[] max;
+
+		/** The number of coordinate tuples. */
+		private long count;
+
+		/**
+		 * Determines whether coordinates in the given CRS are accepted; the CRS of the
+		 * first geometry is used throughout.
+		 * @param crsRef A CRS identifier, or {@code null} if none applies.
+		 * @return {@code true} if the coordinates should be included.
+		 */
+		boolean accepts(String crsRef) {
+			if (0 == count) {
+				this.srsName = crsRef;
+				return true;
+			}
+			boolean accepted = (null == crsRef) ? (null == srsName) : crsRef.equals(srsName);
+			if (!accepted) {
+				TestSuiteLogger.log(Level.FINE, String.format("Ignoring geometry in CRS %s (not %s)", crsRef, srsName));
+			}
+			return accepted;
+		}
+
+		/**
+		 * Adds a sequence of coordinate tuples separated by whitespace.
+		 * @param text The ordinate values.
+		 * @param dimension The number of ordinates per tuple, or 0 if the text contains a
+		 * single tuple.
+		 */
+		void addTuples(String text, int dimension) {
+			int dim = (dimension > 0) ? dimension : countTokens(text);
+			if (dim == 0) {
+				return;
+			}
+			double[] tuple = new double[dim];
+			int i = 0;
+			int length = text.length();
+			int pos = 0;
+			while (pos < length) {
+				while (pos < length && Character.isWhitespace(text.charAt(pos))) {
+					pos++;
+				}
+				int start = pos;
+				while (pos < length && !Character.isWhitespace(text.charAt(pos))) {
+					pos++;
+				}
+				if (pos > start) {
+					tuple[i++] = Double.parseDouble(text.substring(start, pos));
+					if (i == dim) {
+						add(tuple);
+						i = 0;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Adds the tuples in a gml:coordinates element.
+		 * @param decimal The decimal separator (default ".").
+		 * @param cs The coordinate separator (default ",").
+		 * @param ts The tuple separator (default " ").
+		 * @param text The content of the element.
+		 */
+		void addCoordinates(String decimal, String cs, String ts, String text) {
+			char decimalSep = (null != decimal && !decimal.isEmpty()) ? decimal.charAt(0) : '.';
+			String coordSep = (null != cs && !cs.isEmpty()) ? cs : ",";
+			String tupleSep = (null != ts && !ts.isEmpty()) ? ts : " ";
+			String content = text.trim();
+			if (content.isEmpty()) {
+				return;
+			}
+			String[] tuples = tupleSep.trim().isEmpty() ? content.split("\\s+")
+					: content.split(Pattern.quote(tupleSep));
+			for (String tupleValue : tuples) {
+				String[] ordinates = tupleValue.trim().split(Pattern.quote(coordSep));
+				double[] tuple = new double[ordinates.length];
+				for (int i = 0; i < ordinates.length; i++) {
+					String ordinate = ordinates[i].trim();
+					if (decimalSep != '.') {
+						ordinate = ordinate.replace(decimalSep, '.');
+					}
+					tuple[i] = Double.parseDouble(ordinate);
+				}
+				add(tuple);
+			}
+		}
+
+		private void add(double[] tuple) {
+			if (null == min) {
+				min = tuple.clone();
+				max = tuple.clone();
+			}
+			else {
+				int dim = Math.min(min.length, tuple.length);
+				if (dim < min.length) {
+					min = Arrays.copyOf(min, dim);
+					max = Arrays.copyOf(max, dim);
+				}
+				for (int i = 0; i < dim; i++) {
+					if (tuple[i] < min[i]) {
+						min[i] = tuple[i];
+					}
+					if (tuple[i] > max[i]) {
+						max[i] = tuple[i];
+					}
+				}
+			}
+			count++;
+		}
+
+		private static int countTokens(String text) {
+			int count = 0;
+			boolean inToken = false;
+			for (int i = 0; i < text.length(); i++) {
+				boolean space = Character.isWhitespace(text.charAt(i));
+				if (!space && !inToken) {
+					count++;
+				}
+				inToken = !space;
+			}
+			return count;
+		}
+
+		/**
+		 * Creates an envelope from the accumulated values. The CRS is identified by the
+		 * srsName attribute of the geometries, or else by the given default.
+		 * @param defaultCRS The identifier of the default CRS (may be {@code null}).
+		 * @return A GeneralEnvelope object, or {@code null} if the CRS is not recognized
+		 * or does not have the same dimension as the coordinate tuples.
+		 */
+		GeneralEnvelope toEnvelope(String defaultCRS) {
+			String crsRef = (null != srsName) ? srsName : defaultCRS;
+			if (null == crsRef) {
+				TestSuiteLogger.log(Level.FINE, "Ignoring geometry values without a CRS");
+				return null;
+			}
+			CoordinateReferenceSystem crs;
+			try {
+				crs = resolveCRS(crsRef);
+			}
+			catch (FactoryException | IllegalArgumentException ex) {
+				TestSuiteLogger.log(Level.WARNING, "CRS not recognized: " + crsRef, ex);
+				return null;
+			}
+			if (crs.getCoordinateSystem().getDimension() != min.length) {
+				TestSuiteLogger.log(Level.FINE, String.format("Ignoring %d-dimensional geometry values in CRS %s",
+						min.length, crsRef));
+				return null;
+			}
+			GeneralEnvelope envelope = new GeneralEnvelope(min, max);
+			envelope.setCoordinateReferenceSystem(crs);
+			return envelope;
+		}
+
+	}
+
+}
@@ -0,0 +1,164 @@
+package org.opengis.cite.iso19142.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.opengis.cite.iso19142.Namespaces;
+import org.opengis.cite.iso19142.WFS2;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Writes feature data to a file incrementally. The members of successive response
+ * entities (pages of results) are appended to a single wfs:FeatureCollection element, so
+ * only one page needs to be held in memory at any time.
+ */
+public class FeatureDataWriter implements Closeable {
+
+	private final OutputStream out;
+
+	private final Transformer transformer;
+
+	private int memberCount;
+
+	private boolean closed;
+
+	/**
+	 * Creates a writer that saves feature data to the given file. Any existing content
+	 * is overwritten.
+	 * @param file The destination file.
+	 * @throws IOException If the file cannot be opened for writing.
+	 */
+	public FeatureDataWriter(File file) throws IOException {
+		try {
+			this.transformer = TransformerFactory.newInstance().newTransformer();
+		}
+		catch (TransformerConfigurationException e) {
+			throw new IOException("Failed to create serializer.", e);
+		}
+		this.transformer.setOutputProperty(OutputKeys.METHOD, "xml");
+		this.transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+		this.transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+		this.out = new BufferedOutputStream(new FileOutputStream(file));
+		write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		write(String.format("<wfs:%s xmlns:wfs=\"%s\" xmlns:gml=\"%s\">\n", WFS2.FEATURE_COLLECTION, Namespaces.WFS,
+				Namespaces.GML));
+	}
+
+	/**
+	 * Returns the number of members written so far.
+	 * @return The number of wfs:member elements in the output.
+	 */
+	public int getMemberCount() {
+		return memberCount;
+	}
+
+	/**
+	 * Appends the members of a feature collection to the output.
+	 * @param rspEntity A response entity containing a wfs:FeatureCollection element
+	 * (possibly wrapped in a SOAP envelope).
+	 * @param limit The maximum number of members to append; a negative value means no
+	 * limit.
+	 * @return The number of members actually appended.
+	 * @throws IOException If the members cannot be written.
+	 */
+	public int appendMembers(Document rspEntity, int limit) throws IOException {
+		return appendMembers(rspEntity, limit, null);
+	}
+
+	/**
+	 * Appends the members of a feature collection to the output and passes each appended
+	 * member to the given handler.
+	 * @param rspEntity A response entity containing a wfs:FeatureCollection element
+	 * (possibly wrapped in a SOAP envelope).
+	 * @param limit The maximum number of members to append; a negative value means no
+	 * limit.
+	 * @param memberHandler A handler that receives each wfs:member element that was
+	 * written (may be {@code null}).
+	 * @return The number of members actually appended.
+	 * @throws IOException If the members cannot be written.
+	 */
+	public int appendMembers(Document rspEntity, int limit, Consumer<Element> memberHandler) throws IOException {
+		Element collection = findFeatureCollection(rspEntity);
+		if (null == collection) {
+			return 0;
+		}
+		int count = 0;
+		for (Node child = collection.getFirstChild(); null != child; child = child.getNextSibling()) {
+			if (limit >= 0 && count >= limit) {
+				break;
+			}
+			if (child.getNodeType() != Node.ELEMENT_NODE || !Namespaces.WFS.equals(child.getNamespaceURI())
+					|| !WFS2.MEMBER.equals(child.getLocalName())) {
+				continue;
+			}
+			try {
+				transformer.transform(new DOMSource(child), new StreamResult(out));
+			}
+			catch (TransformerException e) {
+				throw new IOException("Failed to serialize member of feature collection.", e);
+			}
+			write("\n");
+			count++;
+			if (null != memberHandler) {
+				memberHandler.accept((Element) child);
+			}
+		}
+		memberCount += count;
+		return count;
+	}
+
+	/**
+	 * Completes the feature collection and closes the underlying stream.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			write(String.format("</wfs:%s>\n", WFS2.FEATURE_COLLECTION));
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Finds the wfs:FeatureCollection element in a response entity.
+	 * @param rspEntity A response entity, possibly wrapped in a SOAP envelope.
+	 * @return The (outermost) feature collection, or {@code null} if there isn't one.
+	 */
+	static Element findFeatureCollection(Document rspEntity) {
+		Element docElem = rspEntity.getDocumentElement();
+		if (Namespaces.WFS.equals(docElem.getNamespaceURI())
+				&& WFS2.FEATURE_COLLECTION.equals(docElem.getLocalName())) {
+			return docElem;
+		}
+		NodeList collections = rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.FEATURE_COLLECTION);
+		return (collections.getLength() > 0) ? (Element) collections.item(0) : null;
+	}
+
+	private void write(String str) throws IOException {
+		out.write(str.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
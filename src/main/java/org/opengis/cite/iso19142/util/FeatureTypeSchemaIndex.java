@@ -0,0 +1,423 @@
+package org.opengis.cite.iso19142.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+
+import org.apache.xerces.xs.XSComplexTypeDefinition;
+import org.apache.xerces.xs.XSConstants;
+import org.apache.xerces.xs.XSElementDeclaration;
+import org.apache.xerces.xs.XSModel;
+import org.apache.xerces.xs.XSNamedMap;
+import org.apache.xerces.xs.XSParticle;
+import org.apache.xerces.xs.XSTypeDefinition;
+import org.opengis.cite.iso19136.util.XMLSchemaModelUtils;
+import org.opengis.cite.iso19142.Namespaces;
+
+/**
+ * An index of the feature properties defined in a GML application schema. The content
+ * model of every feature type is analyzed once, and its properties are classified as
+ * follows:
+ *
+ * <ul>
+ * <li>all, required, nillable and simple properties;</li>
+ * <li>geometry properties (by GML geometry type);</li>
+ * <li>temporal properties (GML temporal primitives and simple temporal types);</li>
+ * <li>numeric and string properties;</li>
+ * <li>the built-in datatype of each simple property.</li>
+ * </ul>
+ *
+ * <p>
+ * Feature types are identified by substitution group affiliation (gml:AbstractFeature);
+ * any other global element declaration is indexed when first requested. Indexes are
+ * cached per XSModel instance (weakly referenced), so {@link #of(XSModel)} may be called
+ * freely; the corresponding static methods in {@link AppSchemaUtils} delegate to the
+ * index. The lists returned by an index are unmodifiable.
+ * </p>
+ */
+public class FeatureTypeSchemaIndex {
+
+	private static final Map<XSModel, FeatureTypeSchemaIndex> INDEXES = Collections
+		.synchronizedMap(new WeakHashMap<>());
+
+	/** Global element declarations by qualified name. */
+	private final Map<QName, XSElementDeclaration> elementDecls;
+
+	/** Type definitions in the GML namespace by (local) name. */
+	private final Map<String, XSTypeDefinition> gmlTypes;
+
+	private final List<XSTypeDefinition> temporalDataTypes;
+
+	private final List<XSTypeDefinition> numericDataTypes;
+
+	private final XSTypeDefinition stringType;
+
+	private final List<XSElementDeclaration> deprecatedGMLElements;
+
+	private final Map<QName, FeatureTypeProperties> index = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the index for the given schema model, building it if necessary.
+	 * @param model An XSModel object representing a GML application schema.
+	 * @return The FeatureTypeSchemaIndex for the model.
+	 */
+	public static FeatureTypeSchemaIndex of(final XSModel model) {
+		if (null == model) {
+			throw new NullPointerException("Schema model is null.");
+		}
+		synchronized (INDEXES) {
+			FeatureTypeSchemaIndex schemaIndex = INDEXES.get(model);
+			if (null == schemaIndex) {
+				schemaIndex = new FeatureTypeSchemaIndex(model);
+				INDEXES.put(model, schemaIndex);
+			}
+			return schemaIndex;
+		}
+	}
+
+	/**
+	 * Builds an index of the feature types declared in the given schema model. The model
+	 * itself is not retained.
+	 * @param model An XSModel object representing a GML application schema.
+	 */
+	FeatureTypeSchemaIndex(XSModel model) {
+		this.elementDecls = new HashMap<>();
+		XSNamedMap elems = model.getComponents(XSConstants.ELEMENT_DECLARATION);
+		for (int i = 0; i < elems.getLength(); i++) {
+			XSElementDeclaration elemDecl = (XSElementDeclaration) elems.item(i);
+			this.elementDecls.put(new QName(elemDecl.getNamespace(), elemDecl.getName()), elemDecl);
+		}
+		this.gmlTypes = new HashMap<>();
+		XSNamedMap types = model.getComponentsByNamespace(XSConstants.TYPE_DEFINITION, Namespaces.GML);
+		for (int i = 0; i < types.getLength(); i++) {
+			XSTypeDefinition typeDef = (XSTypeDefinition) types.item(i);
+			this.gmlTypes.put(typeDef.getName(), typeDef);
+		}
+		this.temporalDataTypes = new ArrayList<>(AppSchemaUtils.getSimpleTemporalDataTypes(model));
+		this.numericDataTypes = new ArrayList<>();
+		for (String dataType : new String[] { "decimal", "double", "float" }) {
+			this.numericDataTypes.add(model.getTypeDefinition(dataType, XMLConstants.W3C_XML_SCHEMA_NS_URI));
+		}
+		this.stringType = model.getTypeDefinition("string", XMLConstants.W3C_XML_SCHEMA_NS_URI);
+		this.deprecatedGMLElements = new ArrayList<>();
+		this.deprecatedGMLElements.add(model.getElementDeclaration("location", Namespaces.GML));
+		this.deprecatedGMLElements.add(model.getElementDeclaration("metaDataProperty", Namespaces.GML));
+		for (Map.Entry<QName, XSElementDeclaration> entry : this.elementDecls.entrySet()) {
+			XSElementDeclaration elemDecl = entry.getValue();
+			if (elemDecl.getAbstract() || Namespaces.GML.equals(elemDecl.getNamespace()) || !isFeature(elemDecl)) {
+				continue;
+			}
+			try {
+				this.index.put(entry.getKey(), new FeatureTypeProperties(elemDecl));
+			}
+			catch (RuntimeException rx) {
+				TestSuiteLogger.log(Level.FINE, "Failed to index feature type " + entry.getKey(), rx);
+			}
+		}
+		TestSuiteLogger.log(Level.CONFIG, "Indexed feature types: " + this.index.keySet());
+	}
+
+	/**
+	 * Returns the names of the (concrete) feature types that have been indexed.
+	 * @return An unmodifiable set of qualified feature type names.
+	 */
+	public Set<QName> getFeatureTypes() {
+		return Collections.unmodifiableSet(this.index.keySet());
+	}
+
+	/**
+	 * Returns all properties of the specified feature type.
+	 * @param featureType A qualified feature type name.
+	 * @return A list of element declarations (in document order).
+	 */
+	public List<XSElementDeclaration> getAllProperties(QName featureType) {
+		return properties(featureType).allProps;
+	}
+
+	/**
+	 * Returns the properties of the specified feature type that must occur in a valid
+	 * instance.
+	 * @param featureType A qualified feature type name.
+	 * @return A list of element declarations; it may be empty.
+	 */
+	public List<XSElementDeclaration> getRequiredProperties(QName featureType) {
+		return properties(featureType).requiredProps;
+	}
+
+	/**
+	 * Returns the properties of the specified feature type that may have nil values.
+	 * @param featureType A qualified feature type name.
+	 * @return A list of element declarations; it may be empty.
+	 */
+	public List<XSElementDeclaration> getNillableProperties(QName featureType) {
+		return properties(featureType).nillableProps;
+	}
+
+	/**
+	 * Returns the properties of the specified feature type that have a simple content
+	 * model. The standard GML properties are not included.
+	 * @param featureType A qualified feature type name.
+	 * @return A list of element declarations; it may be empty.
+	 */
+	public List<XSElementDeclaration> getSimpleProperties(QName featureType) {
+		return properties(featureType).simpleProps;
+	}
+
+	/**
+	 * Returns the geometry properties of the specified feature type (with values derived
+	 * from gml:AbstractGeometryType).
+	 * @param featureType A qualified feature type name.
+	 * @return A list of element declarations; it may be empty.
+	 */
+	public List<XSElementDeclaration> getGeometryProperties(QName featureType) {
+		return properties(featureType).geometryProps;
+	}
+
+	/**
+	 * Returns the geometry properties of the specified feature type with values derived
+	 * from the given GML geometry type.
+	 * @param featureType A qualified feature type name.
+	 * @param gmlTypeName The local name of a GML geometry type (e.g.
+	 * "AbstractCurveType").
+	 * @return A list of element declarations; it is empty if no such GML type is
+	 * defined.
+	 */
+	public List<XSElementDeclaration> getGeometryProperties(QName featureType, String gmlTypeName) {
+		XSTypeDefinition geomType = this.gmlTypes.get(gmlTypeName);
+		if (null == geomType) {
+			return Collections.emptyList();
+		}
+		return getPropertiesByType(featureType, geomType);
+	}
+
+	/**
+	 * Returns the temporal properties of the specified feature type; that is, those with
+	 * values that are GML temporal primitives or simple temporal types (see
+	 * {@link AppSchemaUtils#getSimpleTemporalDataTypes(XSModel)}).
+	 * @param featureType A qualified feature type name.
+	 * @return A list of element declarations; it may be empty.
+	 */
+	public List<XSElementDeclaration> getTemporalProperties(QName featureType) {
+		return properties(featureType).temporalProps;
+	}
+
+	/**
+	 * Returns the properties of the specified feature type that have a numeric type
+	 * (derived from xsd:decimal, xsd:double or xsd:float).
+	 * @param featureType A qualified feature type name.
+	 * @return A list of element declarations; it may be empty.
+	 */
+	public List<XSElementDeclaration> getNumericProperties(QName featureType) {
+		return properties(featureType).numericProps;
+	}
+
+	/**
+	 * Returns the properties of the specified feature type that have a type derived from
+	 * xsd:string.
+	 * @param featureType A qualified feature type name.
+	 * @return A list of element declarations; it may be empty.
+	 */
+	public List<XSElementDeclaration> getStringProperties(QName featureType) {
+		return properties(featureType).stringProps;
+	}
+
+	/**
+	 * Returns the built-in XML Schema datatype of each simple property of the specified
+	 * feature type (as determined by
+	 * {@link AppSchemaUtils#getBuiltInDatatype(XSElementDeclaration)}).
+	 * @param featureType A qualified feature type name.
+	 * @return An unmodifiable map with an entry for each simple property.
+	 */
+	public Map<XSElementDeclaration, QName> getBuiltInDatatypes(QName featureType) {
+		return properties(featureType).datatypes;
+	}
+
+	/**
+	 * Returns the properties of the specified feature type where the property value has
+	 * a type derived from the given (simple or complex) type definition. The result is
+	 * computed once for each type definition.
+	 * @param featureType A qualified feature type name.
+	 * @param typeDef A type definition that characterizes the property value domain.
+	 * @return A list of element declarations; it may be empty.
+	 */
+	public List<XSElementDeclaration> getPropertiesByType(QName featureType, XSTypeDefinition typeDef) {
+		return properties(featureType).byType(typeDef);
+	}
+
+	private FeatureTypeProperties properties(QName featureType) {
+		FeatureTypeProperties props = this.index.get(featureType);
+		if (null == props) {
+			XSElementDeclaration elemDecl = this.elementDecls.get(featureType);
+			if (null == elemDecl) {
+				throw new IllegalArgumentException("Element declaration not found: " + featureType);
+			}
+			props = this.index.computeIfAbsent(featureType, key -> new FeatureTypeProperties(elemDecl));
+		}
+		return props;
+	}
+
+	/**
+	 * Determines whether or not the given element declaration is in the substitution
+	 * group of gml:AbstractFeature (directly or indirectly).
+	 * @param elemDecl An element declaration.
+	 * @return true if the element represents a feature; false otherwise.
+	 */
+	private static boolean isFeature(XSElementDeclaration elemDecl) {
+		XSElementDeclaration head = elemDecl.getSubstitutionGroupAffiliation();
+		while (null != head) {
+			if (head.getName().equals("AbstractFeature") && Namespaces.GML.equals(head.getNamespace())) {
+				return true;
+			}
+			head = head.getSubstitutionGroupAffiliation();
+		}
+		return false;
+	}
+
+	/**
+	 * The classified properties of a single feature type.
+	 */
+	private class FeatureTypeProperties {
+
+		private final XSComplexTypeDefinition featureTypeDef;
+
+		/** All properties, excluding deprecated GML properties. */
+		private final List<XSElementDeclaration> currentProps;
+
+		private final List<XSElementDeclaration> allProps;
+
+		private final List<XSElementDeclaration> requiredProps;
+
+		private final List<XSElementDeclaration> nillableProps;
+
+		private final List<XSElementDeclaration> simpleProps;
+
+		private final Map<XSElementDeclaration, QName> datatypes;
+
+		private final Map<XSTypeDefinition, List<XSElementDeclaration>> propsByType = new ConcurrentHashMap<>();
+
+		private final List<XSElementDeclaration> geometryProps;
+
+		private final List<XSElementDeclaration> temporalProps;
+
+		private final List<XSElementDeclaration> numericProps;
+
+		private final List<XSElementDeclaration> stringProps;
+
+		FeatureTypeProperties(XSElementDeclaration elemDecl) {
+			this.featureTypeDef = (XSComplexTypeDefinition) elemDecl.getTypeDefinition();
+			List<XSElementDeclaration> props = XMLSchemaModelUtils
+				.getAllElementsInParticle(this.featureTypeDef.getParticle());
+			this.allProps = Collections.unmodifiableList(props);
+			List<XSElementDeclaration> current = new ArrayList<>(props);
+			current.removeAll(deprecatedGMLElements);
+			this.currentProps = current;
+			List<XSElementDeclaration> required = new ArrayList<>();
+			for (XSParticle particle : XMLSchemaModelUtils.getAllElementParticles(this.featureTypeDef.getParticle())) {
+				if (particle.getMinOccurs() > 0) {
+					required.add((XSElementDeclaration) particle.getTerm());
+				}
+			}
+			this.requiredProps = Collections.unmodifiableList(required);
+			List<XSElementDeclaration> nillable = new ArrayList<>();
+			List<XSElementDeclaration> simple = new ArrayList<>();
+			Map<XSElementDeclaration, QName> simpleTypes = new LinkedHashMap<>();
+			for (XSElementDeclaration prop : props) {
+				if (prop.getNillable()) {
+					nillable.add(prop);
+				}
+				if (prop.getNamespace().equals(Namespaces.GML)) {
+					continue;
+				}
+				XSTypeDefinition propType = prop.getTypeDefinition();
+				if (propType.getTypeCategory() == XSTypeDefinition.COMPLEX_TYPE
+						&& null == ((XSComplexTypeDefinition) propType).getSimpleType()) {
+					continue;
+				}
+				simple.add(prop);
+				simpleTypes.put(prop, AppSchemaUtils.getBuiltInDatatype(prop));
+			}
+			this.nillableProps = Collections.unmodifiableList(nillable);
+			this.simpleProps = Collections.unmodifiableList(simple);
+			this.datatypes = Collections.unmodifiableMap(simpleTypes);
+			this.geometryProps = byType(gmlTypes.get("AbstractGeometryType"));
+			List<XSElementDeclaration> temporal = new ArrayList<>(
+					byType(gmlTypes.get("AbstractTimeGeometricPrimitiveType")));
+			for (XSTypeDefinition dataType : temporalDataTypes) {
+				temporal.addAll(byType(dataType));
+			}
+			this.temporalProps = Collections.unmodifiableList(temporal);
+			Set<XSElementDeclaration> numeric = new LinkedHashSet<>();
+			for (XSTypeDefinition dataType : numericDataTypes) {
+				numeric.addAll(byType(dataType));
+			}
+			this.numericProps = Collections.unmodifiableList(new ArrayList<>(numeric));
+			this.stringProps = byType(stringType);
+		}
+
+		List<XSElementDeclaration> byType(XSTypeDefinition typeDef) {
+			if (null == typeDef) {
+				return Collections.emptyList();
+			}
+			return this.propsByType.computeIfAbsent(typeDef, this::findPropertiesByType);
+		}
+
+		private List<XSElementDeclaration> findPropertiesByType(XSTypeDefinition typeDef) {
+			List<XSElementDeclaration> props = new ArrayList<XSElementDeclaration>();
+			// set bit mask to indicate acceptable derivation mechanisms
+			short extendOrRestrict = XSConstants.DERIVATION_EXTENSION | XSConstants.DERIVATION_RESTRICTION;
+			for (XSElementDeclaration featureProp : this.currentProps) {
+				XSTypeDefinition propType = featureProp.getTypeDefinition();
+				switch (propType.getTypeCategory()) {
+					case XSTypeDefinition.SIMPLE_TYPE:
+						if ((typeDef.getTypeCategory() == XSTypeDefinition.SIMPLE_TYPE)
+								&& propType.derivedFromType(typeDef, extendOrRestrict)) {
+							props.add(featureProp);
+						}
+						break;
+					case XSTypeDefinition.COMPLEX_TYPE:
+						if (typeDef.getTypeCategory() == XSTypeDefinition.COMPLEX_TYPE) {
+							// check type of child element(s)
+							XSComplexTypeDefinition complexPropType = (XSComplexTypeDefinition) propType;
+							List<XSElementDeclaration> propValues = XMLSchemaModelUtils
+								.getAllElementsInParticle(complexPropType.getParticle());
+							for (XSElementDeclaration propValue : propValues) {
+								if (propValue.getTypeDefinition().derivedFromType(typeDef, extendOrRestrict)) {
+									props.add(featureProp);
+								}
+							}
+						}
+						else {
+							// complex type may derive from simple type
+							if (propType.derivedFromType(typeDef, extendOrRestrict)) {
+								props.add(featureProp);
+							}
+						}
+						break;
+				}
+			}
+			if (TestSuiteLogger.isLoggable(Level.FINER)) {
+				TestSuiteLogger.log(Level.FINER,
+						new StringBuilder("In feature type defn ").append(this.featureTypeDef.getName())
+							.append(", found properties with value of type ")
+							.append(typeDef.getName())
+							.append("\n")
+							.append(props)
+							.toString());
+			}
+			return Collections.unmodifiableList(props);
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+package org.opengis.cite.iso19142.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Estimates the number of distinct values in a stream using the HyperLogLog algorithm.
+ * The memory required is fixed (one byte per register) regardless of the number of
+ * values presented; with the default precision (1024 registers) the standard error of
+ * the estimate is about 3%. Small cardinalities are estimated by linear counting, which
+ * is practically exact for the sizes of typical data samples.
+ *
+ * @see <a href="https://doi.org/10.46298/dmtcs.3545">Flajolet et al., "HyperLogLog: the
+ * analysis of a near-optimal cardinality estimation algorithm" (2007)</a>
+ */
+public class HyperLogLog {
+
+	/** The default number of index bits. */
+	public static final int DEFAULT_PRECISION = 10;
+
+	private final int precision;
+
+	private final byte[] registers;
+
+	/**
+	 * Creates an estimator with the default precision.
+	 */
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Creates an estimator with the given precision.
+	 * @param precision The number of bits used to select a register (4..16); there are
+	 * 2<sup>precision</sup> registers.
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 16) {
+			throw new IllegalArgumentException("Precision must be in the range 4..16: " + precision);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds a value to the set being counted.
+	 * @param value A string value (not {@code null}).
+	 */
+	public void add(String value) {
+		long hash = hash64(value.getBytes(StandardCharsets.UTF_8));
+		int index = (int) (hash >>> (Long.SIZE - precision));
+		// position of the leftmost 1-bit in the remaining bits (sentinel bit bounds it)
+		long rest = (hash << precision) | (1L << (precision - 1));
+		byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * Returns the estimated number of distinct values added so far.
+	 * @return The estimated cardinality.
+	 */
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte r : registers) {
+			sum += 1.0 / (1L << r);
+			if (r == 0) {
+				zeros++;
+			}
+		}
+		double estimate = alpha(m) * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	private static double alpha(int m) {
+		switch (m) {
+			case 16:
+				return 0.673;
+			case 32:
+				return 0.697;
+			case 64:
+				return 0.709;
+			default:
+				return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+
+	/**
+	 * Computes a 64-bit hash code (FNV-1a followed by the MurmurHash3 finalizer to
+	 * spread the bits).
+	 */
+	private static long hash64(byte[] data) {
+		long h = 0xcbf29ce484222325L;
+		for (byte b : data) {
+			h ^= (b & 0xff);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
@@ -0,0 +1,316 @@
+package org.opengis.cite.iso19142.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.namespace.QName;
+
+/**
+ * Summarizes the values of a simple feature property in the sample data. The statistics
+ * are accumulated while the data are acquired, so that filter tests can choose suitable
+ * literal values without inspecting the sample data again.
+ *
+ * <p>
+ * The type of value is inferred from the lexical form: if every value is a number the
+ * property is considered numeric; if every value is an xsd:date or xsd:dateTime value it
+ * is considered temporal; otherwise values are compared as strings (in lexicographic
+ * order). The minimum and maximum values are reported in their original lexical form.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe. They are only read once complete (see
+ * {@link DataSampler#getPropertyStatistics(javax.xml.namespace.QName, javax.xml.namespace.QName)}).
+ * </p>
+ */
+public class PropertyStatistics {
+
+	/** The maximum number of sample values retained. */
+	public static final int MAX_SAMPLE_VALUES = 5;
+
+	/**
+	 * The type of a property value as inferred from its lexical form.
+	 */
+	public enum ValueType {
+
+		/** Numeric values (e.g. xsd:decimal, xsd:double). */
+		NUMERIC,
+		/** Temporal values (xsd:date or xsd:dateTime). */
+		TEMPORAL,
+		/** Any other values (compared as strings). */
+		STRING
+
+	}
+
+	private static final DatatypeFactory DATATYPE_FACTORY;
+
+	static {
+		try {
+			DATATYPE_FACTORY = DatatypeFactory.newInstance();
+		}
+		catch (DatatypeConfigurationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final QName propertyName;
+
+	private final HyperLogLog distinctValues = new HyperLogLog();
+
+	private final List<String> sampleValues = new ArrayList<>();
+
+	private long valueCount;
+
+	private long nilCount;
+
+	private long featureCount;
+
+	private long occurrenceCount;
+
+	private boolean allNumeric = true;
+
+	private boolean allTemporal = true;
+
+	private String minNumeric;
+
+	private String maxNumeric;
+
+	private BigDecimal minNumber;
+
+	private BigDecimal maxNumber;
+
+	private String minTemporal;
+
+	private String maxTemporal;
+
+	private long minInstant;
+
+	private long maxInstant;
+
+	private String minString;
+
+	private String maxString;
+
+	/**
+	 * Creates an empty summary for the given property.
+	 * @param propertyName The qualified name of a feature property.
+	 */
+	public PropertyStatistics(QName propertyName) {
+		this.propertyName = propertyName;
+	}
+
+	/**
+	 * Returns the name of the property.
+	 * @return A QName identifying the property.
+	 */
+	public QName getPropertyName() {
+		return propertyName;
+	}
+
+	/**
+	 * Returns the number of (non-nil) values.
+	 * @return The number of property values in the sample data.
+	 */
+	public long getValueCount() {
+		return valueCount;
+	}
+
+	/**
+	 * Returns the number of nil values (xsi:nil="true").
+	 * @return The number of nilled property elements.
+	 */
+	public long getNilCount() {
+		return nilCount;
+	}
+
+	/**
+	 * Returns the number of features in the sample data that do not have the property.
+	 * @return The number of features where the property is absent.
+	 */
+	public long getNullCount() {
+		return Math.max(0, featureCount - occurrenceCount);
+	}
+
+	/**
+	 * Returns the estimated number of distinct values.
+	 * @return The approximate number of distinct property values.
+	 */
+	public long getDistinctCount() {
+		return (valueCount == 0) ? 0 : distinctValues.estimate();
+	}
+
+	/**
+	 * Returns the type of value inferred from the lexical forms of all values.
+	 * @return The value type, or {@code null} if there are no values.
+	 */
+	public ValueType getValueType() {
+		if (valueCount == 0) {
+			return null;
+		}
+		if (allNumeric) {
+			return ValueType.NUMERIC;
+		}
+		return allTemporal ? ValueType.TEMPORAL : ValueType.STRING;
+	}
+
+	/**
+	 * Returns the smallest value according to the inferred value type.
+	 * @return The minimum value in its original lexical form, or {@code null} if there
+	 * are no values.
+	 */
+	public String getMinimum() {
+		ValueType type = getValueType();
+		if (null == type) {
+			return null;
+		}
+		switch (type) {
+			case NUMERIC:
+				return minNumeric;
+			case TEMPORAL:
+				return minTemporal;
+			default:
+				return minString;
+		}
+	}
+
+	/**
+	 * Returns the largest value according to the inferred value type.
+	 * @return The maximum value in its original lexical form, or {@code null} if there
+	 * are no values.
+	 */
+	public String getMaximum() {
+		ValueType type = getValueType();
+		if (null == type) {
+			return null;
+		}
+		switch (type) {
+			case NUMERIC:
+				return maxNumeric;
+			case TEMPORAL:
+				return maxTemporal;
+			default:
+				return maxString;
+		}
+	}
+
+	/**
+	 * Returns a few of the distinct values in the order they were encountered.
+	 * @return An unmodifiable list containing at most {@value #MAX_SAMPLE_VALUES} values.
+	 */
+	public List<String> getSampleValues() {
+		return Collections.unmodifiableList(sampleValues);
+	}
+
+	/**
+	 * Adds a property value.
+	 * @param value The (string) value of the property.
+	 */
+	public void add(String value) {
+		valueCount++;
+		distinctValues.add(value);
+		if (sampleValues.size() < MAX_SAMPLE_VALUES && !sampleValues.contains(value)) {
+			sampleValues.add(value);
+		}
+		String token = value.trim();
+		if (null == minString || token.compareTo(minString) < 0) {
+			minString = token;
+		}
+		if (null == maxString || token.compareTo(maxString) > 0) {
+			maxString = token;
+		}
+		if (allNumeric) {
+			addNumber(token);
+		}
+		if (allTemporal) {
+			addInstant(token);
+		}
+	}
+
+	/**
+	 * Adds a nil value.
+	 */
+	public void addNil() {
+		nilCount++;
+	}
+
+	/**
+	 * Records that a feature has at least one occurrence of the property.
+	 */
+	void addOccurrence() {
+		occurrenceCount++;
+	}
+
+	/**
+	 * Sets the total number of features of the type in the sample data.
+	 * @param featureCount The number of features inspected.
+	 */
+	void setFeatureCount(long featureCount) {
+		this.featureCount = featureCount;
+	}
+
+	private void addNumber(String token) {
+		BigDecimal number;
+		try {
+			number = new BigDecimal(token);
+		}
+		catch (NumberFormatException nfe) {
+			allNumeric = false;
+			return;
+		}
+		if (null == minNumber || number.compareTo(minNumber) < 0) {
+			minNumber = number;
+			minNumeric = token;
+		}
+		if (null == maxNumber || number.compareTo(maxNumber) > 0) {
+			maxNumber = number;
+			maxNumeric = token;
+		}
+	}
+
+	private void addInstant(String token) {
+		long instant;
+		try {
+			XMLGregorianCalendar cal = DATATYPE_FACTORY.newXMLGregorianCalendar(token);
+			QName schemaType = cal.getXMLSchemaType();
+			if (!schemaType.equals(DatatypeConstants.DATE) && !schemaType.equals(DatatypeConstants.DATETIME)) {
+				allTemporal = false;
+				return;
+			}
+			instant = cal.toGregorianCalendar().getTimeInMillis();
+		}
+		catch (IllegalArgumentException | IllegalStateException e) {
+			allTemporal = false;
+			return;
+		}
+		if (null == minTemporal || instant < minInstant) {
+			minInstant = instant;
+			minTemporal = token;
+		}
+		if (null == maxTemporal || instant > maxInstant) {
+			maxInstant = instant;
+			maxTemporal = token;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder("PropertyStatistics {");
+		str.append(propertyName);
+		str.append(", values: ").append(valueCount);
+		str.append(", distinct: ~").append(getDistinctCount());
+		str.append(", nil: ").append(nilCount);
+		str.append(", null: ").append(getNullCount());
+		if (valueCount > 0) {
+			str.append(", type: ").append(getValueType());
+			str.append(", range: [").append(getMinimum()).append(", ").append(getMaximum()).append(']');
+		}
+		str.append('}');
+		return str.toString();
+	}
+
+}
@@ -0,0 +1,78 @@
+package org.opengis.cite.iso19142.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Selects a simple random sample of fixed size from a sequence of items of unknown length
+ * in a single pass (reservoir sampling, Algorithm R). Only the selected items are
+ * retained, so the memory required is proportional to the sample size. Given a random
+ * number generator initialized with the same seed, the same sequence of items always
+ * yields the same sample.
+ *
+ * @param <T> The type of item being sampled.
+ */
+public class ReservoirSampler<T> {
+
+	private final int capacity;
+
+	private final Random random;
+
+	private final List<T> reservoir;
+
+	private long count;
+
+	/**
+	 * Creates a new sampler.
+	 * @param capacity The desired sample size (a non-negative integer).
+	 * @param random The source of randomness.
+	 */
+	public ReservoirSampler(int capacity, Random random) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Sample size must not be negative: " + capacity);
+		}
+		this.capacity = capacity;
+		this.random = random;
+		this.reservoir = new ArrayList<>(Math.min(capacity, 64));
+	}
+
+	/**
+	 * Presents the next item in the sequence.
+	 * @param item An item (may be {@code null}).
+	 */
+	public void offer(T item) {
+		count++;
+		if (reservoir.size() < capacity) {
+			reservoir.add(item);
+			return;
+		}
+		if (capacity == 0) {
+			return;
+		}
+		long pos = (count <= Integer.MAX_VALUE) ? random.nextInt((int) count)
+				: (random.nextLong() & Long.MAX_VALUE) % count;
+		if (pos < capacity) {
+			reservoir.set((int) pos, item);
+		}
+	}
+
+	/**
+	 * Returns the number of items presented so far.
+	 * @return The length of the sequence seen by this sampler.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the items selected so far. If fewer items than the desired sample size were
+	 * presented, all of them are returned.
+	 * @return An unmodifiable list of sampled items.
+	 */
+	public List<T> getSample() {
+		return Collections.unmodifiableList(reservoir);
+	}
+
+}
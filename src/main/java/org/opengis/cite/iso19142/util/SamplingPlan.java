@@ -0,0 +1,170 @@
+package org.opengis.cite.iso19142.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.opengis.cite.iso19142.WFS2;
+import org.opengis.cite.iso19142.basic.filter.temporal.TemporalFilter;
+import org.opengis.cite.iso19142.joins.SpatialJoinTests;
+import org.opengis.cite.iso19142.paging.ResponsePaging;
+import org.opengis.cite.iso19142.querymgmt.StoredQueryManagement;
+import org.opengis.cite.iso19142.versioning.FeatureVersioning;
+import org.w3c.dom.Document;
+
+/**
+ * Determines which sample data must be acquired before testing begins. The plan is
+ * derived from the test sets (<code>&lt;test&gt;</code> elements) included in the suite
+ * definition and the conformance classes claimed in the service description; a test set
+ * is applicable only if the IUT claims all of the conformance classes it covers.
+ *
+ * <ul>
+ * <li>If only the "Simple WFS" tests apply, it suffices to find one feature type for
+ * which data are available; the remaining types are sampled on first access.</li>
+ * <li>If any other test set that uses sample data applies, all feature types are
+ * sampled up front.</li>
+ * <li>Property statistics (see {@link PropertyStatistics}) are compiled only if the
+ * "Basic WFS" tests apply.</li>
+ * </ul>
+ *
+ * <p>
+ * A test set that is not recognized is assumed to require all sample data.
+ * </p>
+ */
+public class SamplingPlan {
+
+	private static final Logger LOGR = Logger.getLogger(SamplingPlan.class.getPackage().getName());
+
+	/** Test sets that do not use sample data. */
+	private static final Set<String> NO_DATA_TESTS = Set.of("Preconditions", "All GML application schemas",
+			"GML application schemas defining features");
+
+	/** The "Simple WFS" test set (sample data for any one feature type suffices). */
+	static final String SIMPLE_WFS_TESTS = "Simple WFS";
+
+	/** The "Basic WFS" test set (which uses property statistics). */
+	static final String BASIC_WFS_TESTS = "Basic WFS";
+
+	/**
+	 * The conformance classes (constraint names) covered by each test set that uses
+	 * sample data.
+	 */
+	private static final Map<String, String[]> TEST_CONFORMANCE = new HashMap<>();
+
+	static {
+		TEST_CONFORMANCE.put(SIMPLE_WFS_TESTS, new String[0]);
+		TEST_CONFORMANCE.put(BASIC_WFS_TESTS, new String[] { WFS2.BASIC_WFS });
+		TEST_CONFORMANCE.put("Temporal filter",
+				new String[] { WFS2.BASIC_WFS, TemporalFilter.IMPL_MIN_TEMPORAL_FILTER });
+		TEST_CONFORMANCE.put("Spatial filter", new String[] { WFS2.BASIC_WFS });
+		TEST_CONFORMANCE.put("Spatial joins", new String[] { SpatialJoinTests.IMPL_SPATIAL_JOINS });
+		TEST_CONFORMANCE.put("Transactional WFS", new String[] { WFS2.TRX_WFS });
+		TEST_CONFORMANCE.put("Locking WFS", new String[] { WFS2.LOCKING_WFS });
+		TEST_CONFORMANCE.put("Response paging", new String[] { ResponsePaging.IMPL_RESULT_PAGING });
+		TEST_CONFORMANCE.put("Manage stored queries", new String[] { StoredQueryManagement.MANAGE_STORED_QRY });
+		TEST_CONFORMANCE.put("Feature versions", new String[] { FeatureVersioning.IMPL_FEATURE_VERSIONING });
+	}
+
+	/** A plan that samples all feature types up front and compiles all statistics. */
+	public static final SamplingPlan COMPLETE = new SamplingPlan(Collections.emptySet(), true, true);
+
+	private final Set<String> applicableTests;
+
+	private final boolean allFeatureTypes;
+
+	private final boolean propertyStatistics;
+
+	private SamplingPlan(Set<String> applicableTests, boolean allFeatureTypes, boolean propertyStatistics) {
+		this.applicableTests = Collections.unmodifiableSet(applicableTests);
+		this.allFeatureTypes = allFeatureTypes;
+		this.propertyStatistics = propertyStatistics;
+	}
+
+	/**
+	 * Creates a sampling plan for a test run.
+	 * @param wfsMetadata A WFS capabilities document.
+	 * @param testNames The names of the test sets included in the test suite.
+	 * @return A SamplingPlan object.
+	 */
+	public static SamplingPlan create(Document wfsMetadata, Collection<String> testNames) {
+		Set<String> applicable = new LinkedHashSet<>();
+		boolean allTypes = false;
+		boolean statistics = false;
+		for (String testName : testNames) {
+			if (NO_DATA_TESTS.contains(testName)) {
+				continue;
+			}
+			String[] conformanceClasses = TEST_CONFORMANCE.get(testName);
+			if (null == conformanceClasses) {
+				LOGR.log(Level.CONFIG, "Unrecognized test set requires all sample data: {0}", testName);
+				applicable.add(testName);
+				allTypes = true;
+				statistics = true;
+				continue;
+			}
+			if (!claimsAll(wfsMetadata, conformanceClasses)) {
+				continue;
+			}
+			applicable.add(testName);
+			if (!testName.equals(SIMPLE_WFS_TESTS)) {
+				allTypes = true;
+			}
+			if (testName.equals(BASIC_WFS_TESTS)) {
+				statistics = true;
+			}
+		}
+		SamplingPlan plan = new SamplingPlan(applicable, allTypes, statistics);
+		LOGR.log(Level.CONFIG, plan.toString());
+		return plan;
+	}
+
+	/**
+	 * Returns the names of the test sets that will use sample data.
+	 * @return An unmodifiable set of test set names (empty for the complete plan).
+	 */
+	public Set<String> getApplicableTests() {
+		return applicableTests;
+	}
+
+	/**
+	 * Indicates whether or not every feature type must be sampled before testing begins.
+	 * @return {@code true} if all types are sampled up front; {@code false} if only one
+	 * type with available data is needed (the others are sampled on first access).
+	 */
+	public boolean requiresAllFeatureTypes() {
+		return allFeatureTypes;
+	}
+
+	/**
+	 * Indicates whether or not property statistics must be compiled.
+	 * @return {@code true} if statistics are needed; {@code false} otherwise.
+	 */
+	public boolean requiresPropertyStatistics() {
+		return propertyStatistics;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder("SamplingPlan {");
+		str.append("applicable tests: ").append(applicableTests);
+		str.append(", all feature types: ").append(allFeatureTypes);
+		str.append(", property statistics: ").append(propertyStatistics);
+		str.append('}');
+		return str.toString();
+	}
+
+	private static boolean claimsAll(Document wfsMetadata, String[] conformanceClasses) {
+		for (String conformanceClass : conformanceClasses) {
+			if (!ServiceMetadataUtils.implementsConformanceClass(wfsMetadata, conformanceClass)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
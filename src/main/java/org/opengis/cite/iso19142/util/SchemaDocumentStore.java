@@ -0,0 +1,254 @@
+package org.opengis.cite.iso19142.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A store of schema documents retrieved over HTTP. Each document is saved, along with
+ * the cache validators and freshness information sent by the server, in a directory that
+ * only the user can access ({@code ${user.home}/.ets-wfs20/schemas}), so that later test
+ * runs need not download it again.
+ *
+ * <p>
+ * A saved document is used without contacting the server while it is fresh (according
+ * to the Cache-Control max-age directive or the Expires header). Otherwise it is
+ * revalidated with a conditional request (If-None-Match, If-Modified-Since); the content
+ * is transferred again only if it has changed. A document is not saved if the response
+ * contains neither a validator nor freshness information (as is usual for a
+ * DescribeFeatureType response), or if it forbids storage (no-store).
+ * </p>
+ */
+final class SchemaDocumentStore {
+
+	private static final Pattern MAX_AGE = Pattern.compile("max-age\\s*=\\s*\"?(\\d+)");
+
+	private static final String URI_KEY = "uri";
+
+	private static final String ETAG_KEY = "etag";
+
+	private static final String LAST_MODIFIED_KEY = "last-modified";
+
+	private static final String EXPIRES_KEY = "expires";
+
+	private static final SchemaDocumentStore DEFAULT_STORE = new SchemaDocumentStore(
+			UserCacheDirectory.resolve("schemas"));
+
+	private final Path dir;
+
+	/**
+	 * Constructs a store that keeps documents in the given directory.
+	 * @param dir The directory (it is created when a document is first saved).
+	 */
+	SchemaDocumentStore(Path dir) {
+		this.dir = dir;
+	}
+
+	/**
+	 * Returns the store that keeps documents in the user's cache directory.
+	 * @return The default SchemaDocumentStore.
+	 */
+	static SchemaDocumentStore getDefault() {
+		return DEFAULT_STORE;
+	}
+
+	/**
+	 * Reads the content of a document, using a saved copy if possible.
+	 * @param docURI An absolute 'http' or 'https' URI that refers to a document.
+	 * @return The content of the document.
+	 * @throws IOException If the document cannot be retrieved.
+	 */
+	byte[] fetch(URI docURI) throws IOException {
+		String key = key(docURI);
+		Path contentFile = dir.resolve(key + ".xsd");
+		Path infoFile = dir.resolve(key + ".properties");
+		Properties info = loadInfo(docURI, infoFile, contentFile);
+		long now = System.currentTimeMillis();
+		if (null != info && Long.parseLong(info.getProperty(EXPIRES_KEY, "0")) > now) {
+			return Files.readAllBytes(contentFile);
+		}
+		HttpURLConnection connection = (HttpURLConnection) docURI.toURL().openConnection();
+		try {
+			if (null != info) {
+				String etag = info.getProperty(ETAG_KEY);
+				if (null != etag) {
+					connection.setRequestProperty("If-None-Match", etag);
+				}
+				String lastModified = info.getProperty(LAST_MODIFIED_KEY);
+				if (null != lastModified) {
+					connection.setRequestProperty("If-Modified-Since", lastModified);
+				}
+			}
+			int status = connection.getResponseCode();
+			if (status == HttpURLConnection.HTTP_NOT_MODIFIED && null != info) {
+				byte[] content = Files.readAllBytes(contentFile);
+				info.setProperty(EXPIRES_KEY, Long.toString(expiration(connection, now)));
+				save(infoFile, info, null, null);
+				return content;
+			}
+			if (status != HttpURLConnection.HTTP_OK) {
+				throw new IOException(String.format("Failed to retrieve %s (status %d)", docURI, status));
+			}
+			byte[] content;
+			try (InputStream inStream = connection.getInputStream()) {
+				content = inStream.readAllBytes();
+			}
+			Properties newInfo = createInfo(docURI, connection, now);
+			if (null != newInfo) {
+				save(infoFile, newInfo, contentFile, content);
+			}
+			else if (null != info) {
+				Files.deleteIfExists(infoFile);
+			}
+			return content;
+		}
+		finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Reads the information about a saved document. It is ignored if the files can be
+	 * modified by other users or if it refers to another document.
+	 * @return The saved information, or {@code null} if there is no usable copy.
+	 */
+	private Properties loadInfo(URI docURI, Path infoFile, Path contentFile) {
+		if (!Files.isRegularFile(infoFile) || !Files.isRegularFile(contentFile)) {
+			return null;
+		}
+		Properties info = new Properties();
+		try {
+			if (UserCacheDirectory.isWritableByOthers(infoFile)
+					|| UserCacheDirectory.isWritableByOthers(contentFile)) {
+				TestSuiteLogger.log(Level.WARNING, "Ignoring schema document writable by other users: " + contentFile);
+				return null;
+			}
+			try (Reader reader = Files.newBufferedReader(infoFile, StandardCharsets.UTF_8)) {
+				info.load(reader);
+			}
+			Long.parseLong(info.getProperty(EXPIRES_KEY, "0"));
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			TestSuiteLogger.log(Level.FINE, "Ignoring saved schema document " + contentFile, ex);
+			return null;
+		}
+		return docURI.toString().equals(info.getProperty(URI_KEY)) ? info : null;
+	}
+
+	/**
+	 * Creates the information to be saved about a retrieved document.
+	 * @return The information, or {@code null} if the document should not be saved.
+	 */
+	private static Properties createInfo(URI docURI, HttpURLConnection connection, long now) {
+		String cacheControl = connection.getHeaderField("Cache-Control");
+		if (null != cacheControl && cacheControl.toLowerCase(Locale.ROOT).contains("no-store")) {
+			return null;
+		}
+		Properties info = new Properties();
+		info.setProperty(URI_KEY, docURI.toString());
+		String etag = connection.getHeaderField("ETag");
+		if (null != etag) {
+			info.setProperty(ETAG_KEY, etag);
+		}
+		String lastModified = connection.getHeaderField("Last-Modified");
+		if (null != lastModified) {
+			info.setProperty(LAST_MODIFIED_KEY, lastModified);
+		}
+		long expires = expiration(connection, now);
+		info.setProperty(EXPIRES_KEY, Long.toString(expires));
+		return (null != etag || null != lastModified || expires > now) ? info : null;
+	}
+
+	/**
+	 * Determines until when a response is fresh. The Cache-Control header takes
+	 * precedence over the Expires header.
+	 * @return The expiration time (milliseconds since the epoch); it is not later than
+	 * {@code now} if the response must be revalidated.
+	 */
+	private static long expiration(HttpURLConnection connection, long now) {
+		String cacheControl = connection.getHeaderField("Cache-Control");
+		if (null != cacheControl) {
+			String directives = cacheControl.toLowerCase(Locale.ROOT);
+			if (directives.contains("no-cache")) {
+				return 0;
+			}
+			Matcher maxAge = MAX_AGE.matcher(directives);
+			if (maxAge.find()) {
+				try {
+					return now + Long.parseLong(maxAge.group(1)) * 1000;
+				}
+				catch (NumberFormatException nfe) {
+					return 0;
+				}
+			}
+		}
+		return connection.getExpiration();
+	}
+
+	/**
+	 * Saves a document and the information about it. Each file is replaced atomically so
+	 * that concurrent test runs never read a partial file; the content (if any) is
+	 * written first.
+	 */
+	private void save(Path infoFile, Properties info, Path contentFile, byte[] content) {
+		try {
+			UserCacheDirectory.createDirectories(dir);
+			if (null != contentFile) {
+				Path tmpFile = Files.createTempFile(dir, "schema-", ".tmp");
+				try {
+					Files.write(tmpFile, content);
+					Files.move(tmpFile, contentFile, StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				}
+				finally {
+					Files.deleteIfExists(tmpFile);
+				}
+			}
+			// createTempFile creates the file with owner-only permissions
+			Path tmpFile = Files.createTempFile(dir, "schema-", ".tmp");
+			try {
+				try (Writer writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+					info.store(writer, null);
+				}
+				Files.move(tmpFile, infoFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				Files.deleteIfExists(tmpFile);
+			}
+		}
+		catch (IOException iox) {
+			TestSuiteLogger.log(Level.WARNING, "Failed to save schema document in " + dir, iox);
+		}
+	}
+
+	/**
+	 * Derives the name of the files that hold a document from its location.
+	 * @return The hexadecimal representation of a digest (SHA-256) of the URI.
+	 */
+	private static String key(URI docURI) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(md.digest(docURI.toString().getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException nsa) {
+			// every Java platform implementation must support SHA-256
+			throw new IllegalStateException(nsa);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package org.opengis.cite.iso19142.util;
+
+import javax.xml.transform.Result;
+
+/**
+ * The outcome of checking an XML resource against the rules defined in a Schematron
+ * schema.
+ *
+ * @see ValidationUtils#validateSchematron(String, String, javax.xml.transform.Source,
+ * boolean)
+ */
+public class SchematronResult {
+
+	private final Result result;
+
+	private final boolean ruleViolationsDetected;
+
+	private final int ruleViolationCount;
+
+	SchematronResult(Result result, boolean ruleViolationsDetected, int ruleViolationCount) {
+		this.result = result;
+		this.ruleViolationsDetected = ruleViolationsDetected;
+		this.ruleViolationCount = ruleViolationCount;
+	}
+
+	/**
+	 * Returns the validation report.
+	 * @return A Result object containing the report.
+	 */
+	public Result getResult() {
+		return result;
+	}
+
+	/**
+	 * Indicates whether or not any rule violations were detected.
+	 * @return {@code true} if one or more rules were violated; {@code false} otherwise.
+	 */
+	public boolean ruleViolationsDetected() {
+		return ruleViolationsDetected;
+	}
+
+	/**
+	 * Returns the number of rule violations that were detected.
+	 * @return The number of failed assertions and successful reports.
+	 */
+	public int getRuleViolationCount() {
+		return ruleViolationCount;
+	}
+
+}
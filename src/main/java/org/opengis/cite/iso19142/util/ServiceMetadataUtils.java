@@ -3,31 +3,20 @@ package org.opengis.cite.iso19142.util;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.xml.namespace.QName;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
-import org.opengis.cite.geomatics.Extents;
 import org.opengis.cite.geomatics.SpatialOperator;
 import org.opengis.cite.iso19142.ConformanceClass;
 import org.opengis.cite.iso19142.FeatureTypeInfo;
 import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
-import org.opengis.cite.iso19142.WFS2;
-import org.opengis.geometry.Envelope;
-import org.opengis.util.FactoryException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -62,69 +51,7 @@ public class ServiceMetadataUtils {
 	 * endpoint is found.
 	 */
 	public static URI getOperationEndpoint(final Document wfsMetadata, String opName, ProtocolBinding binding) {
-		if (null == binding || binding.equals(ProtocolBinding.ANY)) {
-			binding = getOperationBindings(wfsMetadata, opName).iterator().next();
-		}
-		ProtocolBinding originalBinding = binding;
-		if (binding.equals(ProtocolBinding.SOAP)) {
-			// use POST method for SOAP request
-			binding = ProtocolBinding.POST;
-		}
-		// method name in OGC capabilities doc has initial capital
-		StringBuilder method = new StringBuilder(binding.toString());
-		method.replace(1, method.length(), method.substring(1).toLowerCase());
-		NamespaceBindings nsBindings = new NamespaceBindings();
-		nsBindings.addNamespaceBinding(Namespaces.OWS, "ows");
-		nsBindings.addNamespaceBinding(Namespaces.XLINK, "xlink");
-		String expr = String.format("//ows:Operation[@name='%s']//ows:%s/@xlink:href", opName, method.toString());
-		XPath xpath = XPathFactory.newInstance().newXPath();
-		xpath.setNamespaceContext(nsBindings);
-		URI endpoint = null;
-		try {
-			String pathToEvaluate = String.format(
-					"//ows:Operation[@name='%s']//ows:%s/ows:Constraint/ows:AllowedValues/ows:Value", opName,
-					method.toString());
-			Object evalResult = xpath.evaluate(pathToEvaluate, wfsMetadata, XPathConstants.NODESET);
-			NodeList allowedValues = (NodeList) evalResult;
-
-			// To get SOAP end point on basis of allowed values
-			if (originalBinding.equals(ProtocolBinding.SOAP) && allowedValues.getLength() > 0) {
-				evalResult = xpath.evaluate(expr, wfsMetadata, XPathConstants.NODESET);
-				NodeList hrefList = (NodeList) evalResult;
-
-				for (int i = 0; i < hrefList.getLength(); i++) {
-					if (allowedValues.item(i).getTextContent().equalsIgnoreCase("soap")) {
-						String href = hrefList.item(i).getNodeValue();
-						endpoint = URI.create(href);
-					}
-				}
-				if (null == endpoint) {
-					String href = xpath.evaluate(expr, wfsMetadata);
-					endpoint = URI.create(href);
-				}
-			}
-			else {
-				String href = xpath.evaluate(expr, wfsMetadata);
-				endpoint = URI.create(href);
-			}
-		}
-		catch (XPathExpressionException ex) {
-			// XPath expression is correct
-			TestSuiteLogger.log(Level.INFO, ex.getMessage());
-		}
-		String queryString = endpoint.getQuery();
-		if (null != queryString) {
-			String uri = endpoint.toString();
-			if (queryString.trim().isEmpty()) {
-				// remove trailing '?'
-				endpoint = URI.create(uri.substring(0, uri.indexOf('?')));
-			}
-			else if (!uri.endsWith("&")) {
-				// make sure the query component is ready for appending extra params
-				endpoint = URI.create(uri + "&");
-			}
-		}
-		return endpoint;
+		return CapabilitiesModel.of(wfsMetadata).getOperationEndpoint(opName, binding);
 	}
 
 	/**
@@ -136,32 +63,7 @@ public class ServiceMetadataUtils {
 	 * with a URI, or {@code null} if the request is not implemented.
 	 */
 	public static Map<String, URI> getRequestEndpoints(final Document wfsMetadata, String reqName) {
-		NamespaceBindings nsBindings = NamespaceBindings.withStandardBindings();
-		String expr = String.format("//ows:Operation[@name='%s']/descendant::*[@xlink:href]", reqName);
-		XPath xpath = XPathFactory.newInstance().newXPath();
-		xpath.setNamespaceContext(nsBindings);
-		Map<String, URI> endpoints = null;
-		try {
-			NodeList methodNodes = (NodeList) xpath.evaluate(expr, wfsMetadata, XPathConstants.NODESET);
-			if ((null == methodNodes) || methodNodes.getLength() == 0) {
-				return null;
-			}
-			endpoints = new HashMap<String, URI>();
-			for (int i = 0; i < methodNodes.getLength(); i++) {
-				Element methodElem = (Element) methodNodes.item(i);
-				String methodName = methodElem.getLocalName().toUpperCase();
-				String href = methodElem.getAttributeNS(Namespaces.XLINK, "href");
-				if (href.indexOf('?') > 0) {
-					// prune query component if present
-					href = href.substring(0, href.indexOf('?'));
-				}
-				endpoints.put(methodName, URI.create(href));
-			}
-		}
-		catch (XPathExpressionException xpe) {
-			TestSuiteLogger.log(Level.INFO, xpe.getMessage());
-		}
-		return endpoints;
+		return CapabilitiesModel.of(wfsMetadata).getRequestEndpoints(reqName);
 	}
 
 	/**
@@ -170,21 +72,7 @@ public class ServiceMetadataUtils {
 	 * @return A List containing one or more QName items.
 	 */
 	public static List<QName> getFeatureTypes(final Document wfsMetadata) {
-		String xpath = "//wfs:FeatureType/wfs:Name";
-		Map<String, String> nsBindings = new HashMap<String, String>();
-		nsBindings.put(Namespaces.WFS, "wfs");
-		NodeList typeNames = null;
-		try {
-			typeNames = XMLUtils.evaluateXPath(wfsMetadata, xpath, nsBindings);
-		}
-		catch (XPathExpressionException xpe) {
-			TestSuiteLogger.log(Level.INFO, "Failed to evaluate XPath expression: " + xpath, xpe);
-		}
-		List<QName> featureTypes = new ArrayList<QName>();
-		for (int i = 0; i < typeNames.getLength(); i++) {
-			Node typeName = typeNames.item(i);
-			featureTypes.add(buildQName(typeName));
-		}
+		List<QName> featureTypes = new ArrayList<QName>(CapabilitiesModel.of(wfsMetadata).getFeatureTypes());
 		LOGR.fine(featureTypes.toString());
 		return featureTypes;
 	}
@@ -203,37 +91,7 @@ public class ServiceMetadataUtils {
 	 * associated with a FeatureTypeInfo value object.
 	 */
 	public static Map<QName, FeatureTypeInfo> extractFeatureTypeInfo(final Document wfsCapabilities) {
-		Map<QName, FeatureTypeInfo> featureInfo = new HashMap<QName, FeatureTypeInfo>();
-		NodeList featureTypes = wfsCapabilities.getElementsByTagNameNS(Namespaces.WFS, "FeatureType");
-		for (int i = 0; i < featureTypes.getLength(); i++) {
-			FeatureTypeInfo typeInfo = new FeatureTypeInfo();
-			Element featureTypeElem = (Element) featureTypes.item(i);
-			Node nameNode = featureTypeElem.getElementsByTagNameNS(WFS2.NS_URI, "Name").item(0);
-			QName typeName = buildQName(nameNode);
-			typeInfo.setTypeName(typeName);
-			Node defaultCRSNode = featureTypeElem.getElementsByTagNameNS(WFS2.NS_URI, "DefaultCRS").item(0);
-			if (null != defaultCRSNode) {
-				typeInfo.addCRSIdentifiers(defaultCRSNode.getTextContent());
-			}
-			NodeList otherCRSNodes = featureTypeElem.getElementsByTagNameNS(WFS2.NS_URI, "OtherCRS");
-			if (otherCRSNodes.getLength() > 0) {
-				for (int n = 0; n < otherCRSNodes.getLength(); n++) {
-					typeInfo.addCRSIdentifiers(otherCRSNodes.item(n).getTextContent());
-				}
-			}
-			Node bboxNode = featureTypeElem.getElementsByTagNameNS(Namespaces.OWS, "WGS84BoundingBox").item(0);
-			try {
-				if (null != bboxNode) {
-					Envelope envelope = Extents.createEnvelope(bboxNode);
-					typeInfo.setSpatialExtent(envelope);
-				}
-			}
-			catch (FactoryException e) {
-				TestSuiteLogger.log(Level.WARNING, e.getMessage());
-			}
-			featureInfo.put(typeInfo.getTypeName(), typeInfo);
-		}
-		return featureInfo;
+		return CapabilitiesModel.of(wfsCapabilities).createFeatureTypeInfo();
 	}
 
 	/**
@@ -280,28 +138,7 @@ public class ServiceMetadataUtils {
 	 * @return A Set of protocol bindings implemented by the SUT.
 	 */
 	public static Set<ProtocolBinding> getGlobalBindings(final Document wfsMetadata) {
-		if (null == wfsMetadata) {
-			throw new NullPointerException("WFS metadata document is null.");
-		}
-		Set<ProtocolBinding> globalBindings = EnumSet.noneOf(ProtocolBinding.class);
-		String xpath = "//ows:OperationsMetadata/ows:Constraint[@name='%s' and (ows:DefaultValue = 'TRUE')]";
-		Map<String, String> nsBindings = new HashMap<String, String>();
-		nsBindings.put(Namespaces.OWS, "ows");
-		try {
-			if (XMLUtils.evaluateXPath(wfsMetadata, String.format(xpath, WFS2.KVP_ENC), nsBindings).getLength() > 0) {
-				globalBindings.add(ProtocolBinding.GET);
-			}
-			if (XMLUtils.evaluateXPath(wfsMetadata, String.format(xpath, WFS2.XML_ENC), nsBindings).getLength() > 0) {
-				globalBindings.add(ProtocolBinding.POST);
-			}
-			if (XMLUtils.evaluateXPath(wfsMetadata, String.format(xpath, WFS2.SOAP_ENC), nsBindings).getLength() > 0) {
-				globalBindings.add(ProtocolBinding.SOAP);
-			}
-		}
-		catch (XPathExpressionException xpe) {
-			throw new RuntimeException("Error evaluating XPath expression against capabilities doc. ", xpe);
-		}
-		return globalBindings;
+		return CapabilitiesModel.of(wfsMetadata).getGlobalBindings();
 	}
 
 	/**
@@ -313,26 +150,7 @@ public class ServiceMetadataUtils {
 	 * @return A Set of protocol bindings supported for the operation.
 	 */
 	public static Set<ProtocolBinding> getOperationBindings(final Document wfsMetadata, String opName) {
-		Set<ProtocolBinding> protoBindings = new HashSet<ProtocolBinding>();
-		String expr = "//ows:Operation[@name='%s']/ows:Constraint[@name='%s' and (ows:DefaultValue = 'TRUE')]";
-		for (ProtocolBinding binding : EnumSet.allOf(ProtocolBinding.class)) {
-			String xpath = String.format(expr, opName, binding.getConstraintName());
-			try {
-				if (XMLUtils.evaluateXPath(wfsMetadata, xpath, null).getLength() > 0) {
-					protoBindings.add(ProtocolBinding.GET);
-				}
-			}
-			catch (XPathExpressionException xpe) {
-				throw new RuntimeException("Error evaluating XPath expression against capabilities doc. ", xpe);
-			}
-		}
-		// union with globally declared bindings
-		protoBindings.addAll(getGlobalBindings(wfsMetadata));
-		if (opName.equals(WFS2.TRANSACTION)) {
-			// KVP content type not defined for Transaction requests
-			protoBindings.remove(ProtocolBinding.GET);
-		}
-		return protoBindings;
+		return CapabilitiesModel.of(wfsMetadata).getOperationBindings(opName);
 	}
 
 	/**
@@ -344,24 +162,7 @@ public class ServiceMetadataUtils {
 	 * @see "ISO 19142:2010, Geographic information -- Web Feature Service: Table 13"
 	 */
 	public static Set<ConformanceClass> getConformanceClaims(final Document wfsMetadata) {
-		Set<ConformanceClass> conformanceSet = EnumSet.allOf(ConformanceClass.class);
-		String expr = "//ows:Constraint[@name='%s' and (ows:DefaultValue = 'TRUE')]";
-		Iterator<ConformanceClass> itr = conformanceSet.iterator();
-		while (itr.hasNext()) {
-			ConformanceClass conformClass = itr.next();
-			String xpath = String.format(expr, conformClass.getConstraintName());
-			NodeList result;
-			try {
-				result = XMLUtils.evaluateXPath(wfsMetadata, xpath, null);
-			}
-			catch (XPathExpressionException xpe) {
-				throw new RuntimeException("Error evaluating XPath expression against capabilities doc. " + xpath, xpe);
-			}
-			if (result.getLength() == 0) {
-				conformanceSet.remove(conformClass);
-			}
-		}
-		return conformanceSet;
+		return CapabilitiesModel.of(wfsMetadata).getConformanceClaims();
 	}
 
 	/**
@@ -385,14 +186,7 @@ public class ServiceMetadataUtils {
 	 * @return true if the operator is supported; false if not.
 	 */
 	public static boolean implementsSpatialOperator(final Document wfsMetadata, String operatorName) {
-		String expr = String.format("//fes:SpatialOperator[@name='%s']", operatorName);
-		NodeList results = null;
-		try {
-			results = XMLUtils.evaluateXPath(wfsMetadata, expr, null);
-		}
-		catch (XPathExpressionException e) { // expr ok
-		}
-		return results.getLength() > 0;
+		return CapabilitiesModel.of(wfsMetadata).implementsSpatialOperator(operatorName);
 	}
 
 	/**
@@ -468,14 +262,7 @@ public class ServiceMetadataUtils {
 	 * @return true if the operator is supported; false if not.
 	 */
 	public static boolean implementsTemporalOperator(final Document wfsMetadata, String operatorName) {
-		String expr = String.format("//fes:TemporalOperator[@name='%s']", operatorName);
-		NodeList results = null;
-		try {
-			results = XMLUtils.evaluateXPath(wfsMetadata, expr, null);
-		}
-		catch (XPathExpressionException e) { // expr ok
-		}
-		return results.getLength() > 0;
+		return CapabilitiesModel.of(wfsMetadata).implementsTemporalOperator(operatorName);
 	}
 
 	/**
@@ -491,16 +278,7 @@ public class ServiceMetadataUtils {
 	 * operation constraints</a>
 	 */
 	public static boolean implementsConformanceClass(final Document wfsMetadata, String conformanceClass) {
-		String expr = String.format(
-				"(//ows:Constraint | //fes:Constraint)[@name='%s' and (.//ows:Value = 'TRUE' or ows:DefaultValue = 'TRUE')]",
-				conformanceClass);
-		NodeList result = null;
-		try {
-			result = XMLUtils.evaluateXPath(wfsMetadata, expr, null);
-		}
-		catch (XPathExpressionException e) { // valid expression
-		}
-		return result.getLength() > 0;
+		return CapabilitiesModel.of(wfsMetadata).implementsConformanceClass(conformanceClass);
 	}
 
 	/**
@@ -512,23 +290,7 @@ public class ServiceMetadataUtils {
 	 * if the constraint does not occur in the capabilities document.
 	 */
 	public static String getConstraintValue(final Document wfsMetadata, String constraintName) {
-		String xpath = " (//ows:Value[1] | //ows:DefaultValue)[ancestor::ows:Constraint[@name='%s']]";
-		NodeList items = null;
-		try {
-			items = XMLUtils.evaluateXPath(wfsMetadata, String.format(xpath, constraintName), null);
-		}
-		catch (XPathExpressionException e) { // valid expression
-		}
-		String value = "";
-		for (int i = 0; i < items.getLength(); i++) {
-			Node valueNode = items.item(i);
-			if (valueNode.getLocalName().equals("DefaultValue")) {
-				value = valueNode.getTextContent().trim();
-				break;
-			}
-			value = valueNode.getTextContent().trim();
-		}
-		return value;
+		return CapabilitiesModel.of(wfsMetadata).getConstraintValue(constraintName);
 	}
 
 }
@@ -0,0 +1,143 @@
+package org.opengis.cite.iso19142.util;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Creates the executors used to run tasks concurrently. Tasks that mostly wait on I/O
+ * (requests submitted to the SUT, retrieval of schemas and CRS definitions) and tasks
+ * that are CPU-bound (e.g. schema compilation) are run by separate executors:
+ * <ul>
+ * <li>I/O tasks: a bounded pool of platform threads, or a new virtual thread per task if
+ * the execution mode is {@link Mode#VIRTUAL}; and</li>
+ * <li>CPU tasks: a bounded pool of platform threads (one per available processor).</li>
+ * </ul>
+ *
+ * <p>
+ * The execution mode is chosen for each test run by the {@code execution_mode} test run
+ * argument, so test runs that share a JVM (in a batch or a daemon) may use different
+ * modes. Virtual threads require JDK 21 or later; the platform mode is used in an older
+ * runtime.
+ * </p>
+ *
+ * <p>
+ * Only the tasks that the test suite schedules itself are affected. Test methods,
+ * data-provider rows and the requests they submit to the SUT are run by TestNG worker
+ * threads (see the {@code thread_count} argument). Running them in virtual threads is
+ * out of scope. TestNG (7.9) accepts an {@code org.testng.thread.IExecutorFactory} for
+ * test method invocations, but only through the TestNG instance, which the TEAM Engine
+ * executor used by the {@code TestNGController} creates and runs itself; the rows of a
+ * parallel data provider are always run by a pool that TestNG creates.
+ * </p>
+ */
+public class TaskExecutors {
+
+	/**
+	 * The execution modes.
+	 */
+	public enum Mode {
+
+		/** I/O tasks are run by a bounded pool of platform threads. */
+		PLATFORM,
+		/** Each I/O task is run in a new virtual thread. */
+		VIRTUAL
+
+	}
+
+	/** Executors.newVirtualThreadPerTaskExecutor (JDK 21+), or null if not available. */
+	private static final Method NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+	private TaskExecutors() {
+	}
+
+	/**
+	 * Indicates whether or not virtual threads are supported by the runtime.
+	 * @return {@code true} if virtual threads are available; {@code false} otherwise.
+	 */
+	public static boolean virtualThreadsSupported() {
+		return null != NEW_VIRTUAL_EXECUTOR;
+	}
+
+	/**
+	 * Determines the execution mode from the value of a test run argument. If the virtual
+	 * mode is selected but not supported, the platform mode is used.
+	 * @param value The name of an execution mode ("platform" or "virtual"), or
+	 * {@code null}.
+	 * @return The execution mode (the default is {@link Mode#PLATFORM}).
+	 */
+	public static Mode getMode(String value) {
+		if (null == value || value.isBlank()) {
+			return Mode.PLATFORM;
+		}
+		Mode mode;
+		try {
+			mode = Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException iae) {
+			TestSuiteLogger.log(Level.WARNING, "Ignoring unknown execution mode: " + value);
+			return Mode.PLATFORM;
+		}
+		if (mode == Mode.VIRTUAL && !virtualThreadsSupported()) {
+			TestSuiteLogger.log(Level.WARNING,
+					"Virtual threads require JDK 21 or later; using platform threads in Java "
+							+ Runtime.version().feature());
+			return Mode.PLATFORM;
+		}
+		return mode;
+	}
+
+	/**
+	 * Creates an executor for tasks that mostly wait on I/O. The caller is responsible
+	 * for shutting it down.
+	 * @param mode The execution mode.
+	 * @param maxThreads The maximum number of platform threads; this is ignored in the
+	 * virtual mode, in which there is no limit.
+	 * @return An ExecutorService.
+	 */
+	public static ExecutorService newIOExecutor(Mode mode, int maxThreads) {
+		if (mode == Mode.VIRTUAL && virtualThreadsSupported()) {
+			try {
+				return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+			}
+			catch (ReflectiveOperationException ex) {
+				TestSuiteLogger.log(Level.WARNING, "Failed to create virtual thread executor", ex);
+			}
+		}
+		return Executors.newFixedThreadPool(Math.max(1, maxThreads), daemonThreadFactory("io"));
+	}
+
+	/**
+	 * Creates an executor for CPU-bound tasks, with one platform thread per available
+	 * processor. The caller is responsible for shutting it down.
+	 * @return An ExecutorService.
+	 */
+	public static ExecutorService newCPUExecutor() {
+		return new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	private static ThreadFactory daemonThreadFactory(String kind) {
+		return task -> {
+			Thread thread = new Thread(task, "ets-wfs20-" + kind + "-" + THREAD_NUMBER.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private static Method findVirtualExecutorFactory() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		}
+		catch (NoSuchMethodException ex) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,306 @@
+package org.opengis.cite.iso19142.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import org.opengis.temporal.Instant;
+import org.opengis.temporal.Period;
+import org.opengis.temporal.TemporalGeometricPrimitive;
+
+/**
+ * An immutable index of the temporal values of some feature property in the sample data.
+ * Every value is treated as a closed interval [begin, end] where both bounds are given in
+ * milliseconds since the epoch (1970-01-01T00:00:00Z); an instant is an interval with
+ * coincident bounds.
+ *
+ * <p>
+ * The interval bounds are kept in sorted arrays of primitive values, so the number of
+ * values that satisfy the temporal relations <em>Before</em>, <em>After</em> and
+ * <em>During</em> can be determined without parsing the sample data again.
+ * </p>
+ */
+public final class TemporalIntervalIndex {
+
+	/** Begin positions in ascending order. */
+	private final long[] begins;
+
+	/** End positions, ordered by the corresponding begin position. */
+	private final long[] endsByBegin;
+
+	/** End positions in ascending order. */
+	private final long[] ends;
+
+	private TemporalIntervalIndex(long[] begins, long[] ends, int size) {
+		int[] order = IntStream.range(0, size)
+			.boxed()
+			.sorted(Comparator.comparingLong(i -> begins[i]))
+			.mapToInt(Integer::intValue)
+			.toArray();
+		this.begins = new long[size];
+		this.endsByBegin = new long[size];
+		for (int i = 0; i < size; i++) {
+			this.begins[i] = begins[order[i]];
+			this.endsByBegin[i] = ends[order[i]];
+		}
+		this.ends = Arrays.copyOf(ends, size);
+		Arrays.sort(this.ends);
+	}
+
+	/**
+	 * Returns the number of temporal values in the index.
+	 * @return The number of indexed intervals (and instants).
+	 */
+	public int size() {
+		return begins.length;
+	}
+
+	/**
+	 * Indicates whether or not the index contains any values.
+	 * @return {@code true} if no temporal values were indexed; {@code false} otherwise.
+	 */
+	public boolean isEmpty() {
+		return begins.length == 0;
+	}
+
+	/**
+	 * Returns the earliest begin position.
+	 * @return The number of milliseconds since the epoch.
+	 * @throws IllegalStateException If the index is empty.
+	 */
+	public long getEarliest() {
+		checkNotEmpty();
+		return begins[0];
+	}
+
+	/**
+	 * Returns the latest end position.
+	 * @return The number of milliseconds since the epoch.
+	 * @throws IllegalStateException If the index is empty.
+	 */
+	public long getLatest() {
+		checkNotEmpty();
+		return ends[ends.length - 1];
+	}
+
+	/**
+	 * Returns the begin position at the given fraction of the ordered sequence of begin
+	 * positions. This can be used to choose a literal value that selects some, but not
+	 * all, of the sample values.
+	 * @param fraction A value in the range [0, 1]; 0.5 yields the median begin position.
+	 * @return The number of milliseconds since the epoch.
+	 * @throws IllegalStateException If the index is empty.
+	 */
+	public long beginAtFraction(double fraction) {
+		checkNotEmpty();
+		return begins[positionAt(fraction)];
+	}
+
+	/**
+	 * Returns the end position at the given fraction of the ordered sequence of end
+	 * positions.
+	 * @param fraction A value in the range [0, 1]; 0.5 yields the median end position.
+	 * @return The number of milliseconds since the epoch.
+	 * @throws IllegalStateException If the index is empty.
+	 */
+	public long endAtFraction(double fraction) {
+		checkNotEmpty();
+		return ends[positionAt(fraction)];
+	}
+
+	private int positionAt(double fraction) {
+		double f = Math.min(1.0, Math.max(0.0, fraction));
+		return (int) Math.round(f * (begins.length - 1));
+	}
+
+	/**
+	 * Counts the values that end before the given position (self.end &lt; position).
+	 * @param position A position in time (milliseconds since the epoch).
+	 * @return The number of matching values.
+	 */
+	public int countBefore(long position) {
+		return lowerBound(ends, position);
+	}
+
+	/**
+	 * Counts the values that begin after the given position (self.begin &gt; position).
+	 * @param position A position in time (milliseconds since the epoch).
+	 * @return The number of matching values.
+	 */
+	public int countAfter(long position) {
+		return begins.length - upperBound(begins, position);
+	}
+
+	/**
+	 * Counts the values that occur during the given interval (self.begin &gt; begin AND
+	 * self.end &lt; end).
+	 * @param begin The begin position of the interval (milliseconds since the epoch).
+	 * @param end The end position of the interval (milliseconds since the epoch).
+	 * @return The number of matching values.
+	 */
+	public int countDuring(long begin, long end) {
+		int count = 0;
+		for (int i = upperBound(begins, begin); i < begins.length && begins[i] < end; i++) {
+			if (endsByBegin[i] < end) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the values that satisfy the <em>Before</em> relation with respect to the
+	 * given temporal primitive.
+	 * @param other An instant or a period.
+	 * @return The number of matching values.
+	 */
+	public int countBefore(TemporalGeometricPrimitive other) {
+		return countBefore(beginOf(other));
+	}
+
+	/**
+	 * Counts the values that satisfy the <em>After</em> relation with respect to the
+	 * given temporal primitive.
+	 * @param other An instant or a period.
+	 * @return The number of matching values.
+	 */
+	public int countAfter(TemporalGeometricPrimitive other) {
+		return countAfter(endOf(other));
+	}
+
+	/**
+	 * Counts the values that satisfy the <em>During</em> relation with respect to the
+	 * given temporal primitive.
+	 * @param other A period.
+	 * @return The number of matching values.
+	 */
+	public int countDuring(TemporalGeometricPrimitive other) {
+		return countDuring(beginOf(other), endOf(other));
+	}
+
+	/**
+	 * Returns the begin position of a temporal primitive.
+	 * @param tPrimitive An instant or a period.
+	 * @return The number of milliseconds since the epoch.
+	 */
+	public static long beginOf(TemporalGeometricPrimitive tPrimitive) {
+		if (tPrimitive instanceof Period) {
+			return ((Period) tPrimitive).getBeginning().getDate().getTime();
+		}
+		return ((Instant) tPrimitive).getDate().getTime();
+	}
+
+	/**
+	 * Returns the end position of a temporal primitive.
+	 * @param tPrimitive An instant or a period.
+	 * @return The number of milliseconds since the epoch.
+	 */
+	public static long endOf(TemporalGeometricPrimitive tPrimitive) {
+		if (tPrimitive instanceof Period) {
+			return ((Period) tPrimitive).getEnding().getDate().getTime();
+		}
+		return ((Instant) tPrimitive).getDate().getTime();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder("TemporalIntervalIndex {size: ");
+		str.append(size());
+		if (!isEmpty()) {
+			str.append(", earliest: ").append(java.time.Instant.ofEpochMilli(getEarliest()));
+			str.append(", latest: ").append(java.time.Instant.ofEpochMilli(getLatest()));
+		}
+		str.append('}');
+		return str.toString();
+	}
+
+	private void checkNotEmpty() {
+		if (isEmpty()) {
+			throw new IllegalStateException("Temporal index is empty.");
+		}
+	}
+
+	/** Returns the index of the first element &gt;= key. */
+	private static int lowerBound(long[] values, long key) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (values[mid] < key) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/** Returns the index of the first element &gt; key. */
+	private static int upperBound(long[] values, long key) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (values[mid] <= key) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Accumulates temporal values and builds an immutable index.
+	 */
+	public static class Builder {
+
+		private long[] begins = new long[16];
+
+		private long[] ends = new long[16];
+
+		private int size;
+
+		/**
+		 * Adds an interval to the index.
+		 * @param begin The begin position (milliseconds since the epoch).
+		 * @param end The end position (milliseconds since the epoch); it must not
+		 * precede the begin position.
+		 * @return This builder.
+		 */
+		public Builder add(long begin, long end) {
+			if (end < begin) {
+				throw new IllegalArgumentException("Interval ends before it begins: " + begin + " > " + end);
+			}
+			if (size == begins.length) {
+				begins = Arrays.copyOf(begins, size * 2);
+				ends = Arrays.copyOf(ends, size * 2);
+			}
+			begins[size] = begin;
+			ends[size] = end;
+			size++;
+			return this;
+		}
+
+		/**
+		 * Adds a temporal primitive (instant or period) to the index.
+		 * @param tPrimitive A TemporalGeometricPrimitive object.
+		 * @return This builder.
+		 */
+		public Builder add(TemporalGeometricPrimitive tPrimitive) {
+			return add(beginOf(tPrimitive), endOf(tPrimitive));
+		}
+
+		/**
+		 * Builds the index.
+		 * @return An immutable TemporalIntervalIndex.
+		 */
+		public TemporalIntervalIndex build() {
+			return new TemporalIntervalIndex(begins, ends, size);
+		}
+
+	}
+
+}
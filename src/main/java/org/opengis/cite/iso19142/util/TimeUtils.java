@@ -24,7 +24,8 @@ import org.xml.sax.SAXException;
  */
 public class TimeUtils {
 
-	private static final DocumentBuilder DOC_BUILDER = initDocBuilder();
+	/** A DocumentBuilder is not thread-safe, so each thread has its own. */
+	private static final ThreadLocal<DocumentBuilder> DOC_BUILDER = ThreadLocal.withInitial(TimeUtils::initDocBuilder);
 
 	private static DocumentBuilder initDocBuilder() {
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -50,7 +51,7 @@ public class TimeUtils {
 	public static Document intervalAsGML(ZonedDateTime startDateTime, ZonedDateTime endDateTime) {
 		Document gmlTimePeriod;
 		try {
-			gmlTimePeriod = DOC_BUILDER.parse(TimeUtils.class.getResourceAsStream("TimePeriod.xml"));
+			gmlTimePeriod = DOC_BUILDER.get().parse(TimeUtils.class.getResourceAsStream("TimePeriod.xml"));
 		}
 		catch (SAXException | IOException e) {
 			return null;
@@ -136,7 +137,7 @@ public class TimeUtils {
 		}
 		Document gmlTimeInstant;
 		try {
-			gmlTimeInstant = DOC_BUILDER.parse(TimeUtils.class.getResourceAsStream("TimeInstant.xml"));
+			gmlTimeInstant = DOC_BUILDER.get().parse(TimeUtils.class.getResourceAsStream("TimeInstant.xml"));
 		}
 		catch (SAXException | IOException e) {
 			return null;
@@ -161,7 +162,7 @@ public class TimeUtils {
 		}
 		Document gmlTimeInstant;
 		try {
-			gmlTimeInstant = DOC_BUILDER.parse(TimeUtils.class.getResourceAsStream("TimeInstant.xml"));
+			gmlTimeInstant = DOC_BUILDER.get().parse(TimeUtils.class.getResourceAsStream("TimeInstant.xml"));
 		}
 		catch (SAXException | IOException e) {
 			return null;
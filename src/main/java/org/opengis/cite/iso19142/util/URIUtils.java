@@ -1,11 +1,12 @@
 package org.opengis.cite.iso19142.util;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.logging.Level;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -13,8 +14,10 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
+import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.WebTarget;
@@ -27,6 +30,8 @@ public class URIUtils {
 
 	private static final String FIXUP_BASE_URI = "http://apache.org/xml/features/xinclude/fixup-base-uris";
 
+	private static final String DEFER_NODE_EXPANSION = "http://apache.org/xml/features/dom/defer-node-expansion";
+
 	/**
 	 * Parses the content of the given URI as an XML document and returns a new DOM
 	 * Document object. Entity reference nodes will not be expanded. XML inclusions
@@ -40,6 +45,32 @@ public class URIUtils {
 		if ((null == uriRef) || !uriRef.isAbsolute()) {
 			throw new IllegalArgumentException("Absolute URI is required, but received " + uriRef);
 		}
+		return parseDocument(new InputSource(uriRef.toString()), uriRef);
+	}
+
+	/**
+	 * Parses the content of a local file as an XML document and returns a new DOM
+	 * Document object. Relative references (in xi:include elements) are resolved against
+	 * the given base URI, which also becomes the document URI. This is useful if the
+	 * resource was previously retrieved and stored in a file.
+	 * @param file A file containing an XML resource.
+	 * @param baseURI The absolute URI from which the resource was retrieved.
+	 * @return A DOM Document node representing an XML resource.
+	 * @throws SAXException If the resource cannot be parsed.
+	 * @throws IOException If the file cannot be read.
+	 */
+	public static Document parseFileAsDocument(File file, URI baseURI) throws SAXException, IOException {
+		if ((null == baseURI) || !baseURI.isAbsolute()) {
+			throw new IllegalArgumentException("Absolute URI is required, but received " + baseURI);
+		}
+		try (InputStream inStream = new FileInputStream(file)) {
+			InputSource source = new InputSource(inStream);
+			source.setSystemId(baseURI.toString());
+			return parseDocument(source, baseURI);
+		}
+	}
+
+	private static Document parseDocument(InputSource source, URI documentURI) throws SAXException, IOException {
 		DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
 		docFactory.setNamespaceAware(true);
 		docFactory.setExpandEntityReferences(false);
@@ -48,25 +79,29 @@ public class URIUtils {
 		try {
 			// XInclude processor will not add xml:base attributes
 			docFactory.setFeature(FIXUP_BASE_URI, false);
+			// build all nodes now; a deferred DOM is modified as it is read, so it cannot
+			// be shared by tests that run concurrently
+			docFactory.setFeature(DEFER_NODE_EXPANSION, false);
 			DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-			doc = docBuilder.parse(uriRef.toString());
+			doc = docBuilder.parse(source);
 		}
 		catch (ParserConfigurationException x) {
 			TestSuiteLogger.log(Level.WARNING, "Failed to create DocumentBuilder." + x);
 		}
 		if (null != doc) {
-			doc.setDocumentURI(uriRef.toString());
+			doc.setDocumentURI(documentURI.toString());
 		}
 		return doc;
 	}
 
 	/**
 	 * Resolves the given URI and stores the resulting resource representation in a local
-	 * file. The file will be located in the default temporary file directory.
+	 * file. The file will be located in the default temporary file directory (unless the
+	 * URI refers to a local file, which is returned as is).
 	 * @param uriRef An absolute URI specifying the location of some resource.
-	 * @return A File containing the content of the resource; it may be empty if
-	 * resolution failed for any reason.
-	 * @throws IOException If an IO error occurs.
+	 * @return A File containing the content of the resource.
+	 * @throws IOException If an IO error occurs or the resource cannot be retrieved
+	 * (the response status is not 2xx).
 	 */
 	public static File resolveURIAsFile(URI uriRef) throws IOException {
 		if ((null == uriRef) || !uriRef.isAbsolute()) {
@@ -75,25 +110,34 @@ public class URIUtils {
 		if (uriRef.getScheme().equalsIgnoreCase("file")) {
 			return new File(uriRef);
 		}
-		Client client = ClientBuilder.newClient();
-		WebTarget target = client.target(uriRef);
-		Response rsp = target.request().buildGet().invoke();
 		File destFile = File.createTempFile("entity-", ".xml");
-		if (rsp.hasEntity()) {
-			Object entityObject = rsp.getEntity();
-			if (!(entityObject instanceof InputStream)) {
-				return null;
+		Client client = ClientBuilder.newClient();
+		try {
+			WebTarget target = client.target(uriRef);
+			Response rsp = target.request().buildGet().invoke();
+			if (rsp.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+				rsp.close();
+				throw new IOException("Failed to retrieve " + uriRef + ": status " + rsp.getStatus());
 			}
-			InputStream is = (InputStream) entityObject;
-			OutputStream os = new FileOutputStream(destFile);
-			byte[] buffer = new byte[8 * 1024];
-			int bytesRead;
-			while ((bytesRead = is.read(buffer)) != -1) {
-				os.write(buffer, 0, bytesRead);
+			if (rsp.hasEntity()) {
+				try (InputStream is = rsp.readEntity(InputStream.class)) {
+					Files.copy(is, destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
 			}
-			is.close();
-			os.flush();
-			os.close();
+		}
+		catch (ProcessingException pe) {
+			destFile.delete();
+			if (pe.getCause() instanceof IOException) {
+				throw (IOException) pe.getCause();
+			}
+			throw new IOException("Failed to retrieve " + uriRef, pe);
+		}
+		catch (IOException iox) {
+			destFile.delete();
+			throw iox;
+		}
+		finally {
+			client.close();
 		}
 		TestSuiteLogger.log(Level.FINE,
 				"Wrote " + destFile.length() + " bytes to file at " + destFile.getAbsolutePath());
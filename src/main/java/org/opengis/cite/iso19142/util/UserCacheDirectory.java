@@ -0,0 +1,75 @@
+package org.opengis.cite.iso19142.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Provides access to the directory in which data are kept between test runs
+ * ({@code ${user.home}/.ets-wfs20}). The directory (and any subdirectory) is created
+ * with permissions that allow only the user to access it; files that other users can
+ * modify should be ignored.
+ */
+final class UserCacheDirectory {
+
+	private static final String DIR_NAME = ".ets-wfs20";
+
+	private UserCacheDirectory() {
+	}
+
+	/**
+	 * Returns the location of a file or subdirectory in the cache directory.
+	 * @param name The name of the file or subdirectory.
+	 * @return A Path (the file or directory may not exist).
+	 */
+	static Path resolve(String name) {
+		return Paths.get(System.getProperty("user.home"), DIR_NAME, name);
+	}
+
+	/**
+	 * Creates a directory (and any missing parent directories) that only the user can
+	 * access, if it does not already exist.
+	 * @param dir The directory to create.
+	 * @throws IOException If the directory cannot be created.
+	 */
+	static void createDirectories(Path dir) throws IOException {
+		if (Files.isDirectory(dir)) {
+			return;
+		}
+		if (dir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			Files.createDirectories(dir,
+					PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+		}
+		else {
+			Files.createDirectories(dir);
+		}
+	}
+
+	/**
+	 * Determines whether a file, or the directory that contains it, can be modified by
+	 * other users. This is never the case if POSIX permissions are not supported.
+	 * @param path The location of an existing file.
+	 * @return {@code true} if the group or other users have write permission;
+	 * {@code false} otherwise.
+	 * @throws IOException If the permissions cannot be read.
+	 */
+	static boolean isWritableByOthers(Path path) throws IOException {
+		if (!path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			return false;
+		}
+		for (Path target : List.of(path, path.getParent())) {
+			Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(target);
+			if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+					|| permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
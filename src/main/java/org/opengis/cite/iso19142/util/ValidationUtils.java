@@ -4,6 +4,11 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 import javax.xml.XMLConstants;
@@ -13,6 +18,7 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
+import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
@@ -33,6 +39,15 @@ public class ValidationUtils {
 
 	static final String ROOT_PKG = "/org/opengis/cite/iso19142/";
 
+	/** The maximum number of idle validators retained for a Schematron schema (phase). */
+	private static final int MAX_IDLE_VALIDATORS = 4;
+
+	/** Idle Schematron validators (key: schemaRef#phase), shared by all test runs. */
+	private static final Map<String, Queue<SchematronValidator>> IDLE_VALIDATORS = new ConcurrentHashMap<>();
+
+	/** The compiled WFS 2.0 schema, shared by all test runs. */
+	private static volatile Schema wfsSchema;
+
 	private static XMLCatalogResolver initCatalogResolver() {
 		return (XMLCatalogResolver) createSchemaResolver(Namespaces.SCH);
 	}
@@ -62,7 +77,10 @@ public class ValidationUtils {
 	/**
 	 * Constructs a SchematronValidator that will check an XML resource against the rules
 	 * defined in a Schematron schema. An attempt is made to resolve the schema reference
-	 * using an entity catalog; if this fails the reference is used as given.
+	 * using an entity catalog; if this fails the reference is used as given. If an idle
+	 * validator for the schema and phase is available (see
+	 * {@link #validateSchematron(String, String, Source, boolean)}), it is handed over to
+	 * the caller instead of compiling the schema again.
 	 * @param schemaRef A reference to a Schematron schema; this is expected to be a
 	 * relative or absolute URI value, possibly matching the system identifier for some
 	 * entry in an entity catalog.
@@ -71,6 +89,10 @@ public class ValidationUtils {
 	 * constructed (e.g. invalid schema reference or phase name).
 	 */
 	public static SchematronValidator buildSchematronValidator(String schemaRef, String phase) {
+		SchematronValidator validator = idleValidators(schemaRef, phase).poll();
+		if (null != validator) {
+			return validator;
+		}
 		Source source = null;
 		try {
 			String catalogRef = SCH_RESOLVER.resolveSystem(schemaRef.toString());
@@ -84,7 +106,6 @@ public class ValidationUtils {
 		catch (IOException x) {
 			TestSuiteLogger.log(Level.WARNING, "Error reading Schematron schema catalog.", x);
 		}
-		SchematronValidator validator = null;
 		try {
 			validator = new SchematronValidator(source, phase);
 		}
@@ -94,6 +115,80 @@ public class ValidationUtils {
 		return validator;
 	}
 
+	/**
+	 * Compiles a Schematron schema in advance, so that the validator can be built while
+	 * other set-up tasks are in progress. Nothing is done if an idle validator for the
+	 * schema and phase is already available.
+	 * @param schemaRef A reference to a Schematron schema.
+	 * @param phase The name of the phase to invoke.
+	 */
+	public static void precompileSchematron(String schemaRef, String phase) {
+		Queue<SchematronValidator> validators = idleValidators(schemaRef, phase);
+		if (validators.isEmpty()) {
+			SchematronValidator validator = buildSchematronValidator(schemaRef, phase);
+			if (null != validator) {
+				validators.offer(validator);
+			}
+		}
+	}
+
+	/**
+	 * Checks an XML resource against the rules defined in a Schematron schema. The
+	 * compiled schema is shared by all test runs in the JVM: a validator is retained for
+	 * reuse as long as it has not detected any rule violations (it retains the outcome
+	 * of the last validation, so one that has is discarded).
+	 * @param schemaRef A reference to a Schematron schema (see
+	 * {@link #buildSchematronValidator(String, String)}).
+	 * @param phase The name of the phase to invoke.
+	 * @param source The XML resource to validate.
+	 * @param svrlReport Whether or not the result should be an SVRL report.
+	 * @return The outcome of the validation.
+	 * @throws IllegalArgumentException If the Schematron schema cannot be processed.
+	 */
+	public static SchematronResult validateSchematron(String schemaRef, String phase, Source source,
+			boolean svrlReport) {
+		return validateSchematron(schemaRef, phase, validator -> validator.validate(source, svrlReport));
+	}
+
+	/**
+	 * Checks an XML resource against the rules defined in a Schematron schema; the
+	 * default report format is used.
+	 * @param schemaRef A reference to a Schematron schema (see
+	 * {@link #buildSchematronValidator(String, String)}).
+	 * @param phase The name of the phase to invoke.
+	 * @param source The XML resource to validate.
+	 * @return The outcome of the validation.
+	 * @throws IllegalArgumentException If the Schematron schema cannot be processed.
+	 *
+	 * @see #validateSchematron(String, String, Source, boolean)
+	 */
+	public static SchematronResult validateSchematron(String schemaRef, String phase, Source source) {
+		return validateSchematron(schemaRef, phase, validator -> validator.validate(source));
+	}
+
+	private static SchematronResult validateSchematron(String schemaRef, String phase,
+			Function<SchematronValidator, Result> validation) {
+		SchematronValidator validator = buildSchematronValidator(schemaRef, phase);
+		if (null == validator) {
+			throw new IllegalArgumentException(
+					String.format("Failed to process Schematron schema at %s (phase %s)", schemaRef, phase));
+		}
+		Result result = validation.apply(validator);
+		SchematronResult outcome = new SchematronResult(result, validator.ruleViolationsDetected(),
+				validator.getRuleViolationCount());
+		if (!outcome.ruleViolationsDetected() && outcome.getRuleViolationCount() == 0) {
+			Queue<SchematronValidator> validators = idleValidators(schemaRef, phase);
+			if (validators.size() < MAX_IDLE_VALIDATORS) {
+				validators.offer(validator);
+			}
+		}
+		return outcome;
+	}
+
+	private static Queue<SchematronValidator> idleValidators(String schemaRef, String phase) {
+		return IDLE_VALIDATORS.computeIfAbsent(schemaRef + '#' + phase, key -> new ConcurrentLinkedQueue<>());
+	}
+
 	/**
 	 * Extracts an XML Schema reference from a source XML document. The resulting URI
 	 * value refers to the schema whose target namespace matches the namespace of the
@@ -143,7 +238,8 @@ public class ValidationUtils {
 
 	/**
 	 * Creates a single Schema object representing the complete set of XML Schema
-	 * constraints that apply to WFS 2.0 message entities.
+	 * constraints that apply to WFS 2.0 message entities. The schema is compiled only
+	 * once; the (immutable) Schema object is shared by all test runs in the JVM.
 	 * @return An immutable Schema object, or <code>null</code> if one cannot be
 	 * constructed.
 	 *
@@ -151,18 +247,32 @@ public class ValidationUtils {
 	 * Schema for WFS 2.0</a>
 	 */
 	public static Schema createWFSSchema() {
+		Schema schema = wfsSchema;
+		if (null == schema) {
+			synchronized (ValidationUtils.class) {
+				schema = wfsSchema;
+				if (null == schema) {
+					schema = compileWFSSchema();
+					wfsSchema = schema;
+				}
+			}
+		}
+		return schema;
+	}
+
+	private static Schema compileWFSSchema() {
 		URL entityCatalog = ValidationUtils.class.getResource(ROOT_PKG + "schema-catalog.xml");
 		XmlSchemaCompiler xsdCompiler = new XmlSchemaCompiler(entityCatalog);
-		Schema wfsSchema = null;
+		Schema schema = null;
 		try {
 			URL schemaURL = ValidationUtils.class.getResource(ROOT_PKG + "xsd/opengis/wfs/2.0/wfs.xsd");
 			Source xsdSource = new StreamSource(schemaURL.toString());
-			wfsSchema = xsdCompiler.compileXmlSchema(new Source[] { xsdSource });
+			schema = xsdCompiler.compileXmlSchema(new Source[] { xsdSource });
 		}
 		catch (SAXException e) {
 			TestSuiteLogger.log(Level.WARNING, "Failed to create WFS Schema object.", e);
 		}
-		return wfsSchema;
+		return schema;
 	}
 
 }
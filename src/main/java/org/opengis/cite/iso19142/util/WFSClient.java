@@ -20,6 +20,7 @@ import javax.xml.transform.dom.DOMSource;
 
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.logging.LoggingFeature;
+import org.opengis.cite.iso19142.CapabilitiesSection;
 import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.ProtocolBinding;
 import org.opengis.cite.iso19142.WFS2;
@@ -408,6 +409,21 @@ public class WFSClient {
 	 * {@code null} if one could not be obtained.
 	 */
 	public Document getCapabilities() {
+		return getCapabilities(new CapabilitiesSection[0]);
+	}
+
+	/**
+	 * Retrieves the specified sections of the capabilities document from the WFS
+	 * implementation described by the service metadata. The response shall contain only
+	 * the requested sections (and the document element), although an implementation
+	 * that does not support the <code>sections</code> parameter may return a complete
+	 * document.
+	 * @param sections The sections to retrieve; if none are specified, a complete
+	 * representation is requested.
+	 * @return A Document containing the response to a GetCapabilities request, or
+	 * {@code null} if one could not be obtained.
+	 */
+	public Document getCapabilities(CapabilitiesSection... sections) {
 		if (null == this.wfsMetadata) {
 			throw new IllegalStateException("Service description is unavailable.");
 		}
@@ -416,6 +432,16 @@ public class WFSClient {
 		WebTarget target = client.target(endpoint);
 		target = target.queryParam(WFS2.REQUEST_PARAM, WFS2.GET_CAPABILITIES);
 		target = target.queryParam(WFS2.SERVICE_PARAM, WFS2.SERVICE_TYPE_CODE);
+		if (sections.length > 0) {
+			StringBuilder sectionList = new StringBuilder();
+			for (CapabilitiesSection section : sections) {
+				if (sectionList.length() > 0) {
+					sectionList.append(',');
+				}
+				sectionList.append(section.getSectionName());
+			}
+			target = target.queryParam(WFS2.SECTIONS_PARAM, sectionList.toString());
+		}
 		Builder builder = target.request();
 		return builder.buildGet().invoke(Document.class);
 	}
@@ -484,6 +510,36 @@ public class WFSClient {
 		return rspEntity;
 	}
 
+	/**
+	 * Retrieves a page of query results by dereferencing a link obtained from a previous
+	 * response (the value of the <code>next</code> or <code>previous</code> attribute on
+	 * the wfs:FeatureCollection element). The link is always dereferenced using the GET
+	 * method.
+	 * @param pageRef An absolute URI that refers to a page of results.
+	 * @return A DOM Document containing the response entity, or {@code null} if the
+	 * response doesn't contain one.
+	 * @throws RuntimeException If the response has a status code other than 200 (OK).
+	 */
+	public Document getResultPage(URI pageRef) {
+		LOGR.log(Level.FINE, "Retrieving page of results from {0}", pageRef);
+		Response rsp = client.target(pageRef).request(MediaType.APPLICATION_XML_TYPE).buildGet().invoke();
+		int status = rsp.getStatus();
+		if (status != Response.Status.OK.getStatusCode()) {
+			rsp.close();
+			throw new RuntimeException(
+					String.format("Unexpected status code %d for page of results at %s", status, pageRef));
+		}
+		Document rspEntity = null;
+		if (rsp.hasEntity()) {
+			MediaType mediaType = rsp.getMediaType();
+			if (null == mediaType || !mediaType.getSubtype().endsWith("xml")) {
+				throw new RuntimeException("Did not receive an XML entity: " + mediaType);
+			}
+			rspEntity = rsp.readEntity(Document.class);
+		}
+		return rspEntity;
+	}
+
 	/**
 	 * Submits a request to delete a stored query.
 	 * @param queryId A URI value that identifies the query to be dropped.
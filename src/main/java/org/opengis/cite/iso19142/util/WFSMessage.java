@@ -17,7 +17,9 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.stream.StreamResult;
@@ -43,7 +45,10 @@ public class WFSMessage {
 
 	private static final String TNS_PREFIX = "tns";
 
-	private static final DocumentBuilder BUILDER = initDocBuilder();
+	private static volatile Templates kvpTemplates;
+
+	/** A DocumentBuilder is not thread-safe, so each thread has its own. */
+	private static final ThreadLocal<DocumentBuilder> BUILDER = ThreadLocal.withInitial(WFSMessage::initDocBuilder);
 
 	private static DocumentBuilder initDocBuilder() {
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -58,6 +63,27 @@ public class WFSMessage {
 		return builder;
 	}
 
+	/**
+	 * Returns the compiled stylesheet that transforms a request entity to a KVP query
+	 * string. The Templates object is thread-safe and is shared by all test runs.
+	 * @return A Templates object.
+	 * @throws TransformerConfigurationException If the stylesheet cannot be compiled.
+	 */
+	private static Templates kvpTemplates() throws TransformerConfigurationException {
+		Templates templates = kvpTemplates;
+		if (null == templates) {
+			synchronized (WFSMessage.class) {
+				templates = kvpTemplates;
+				if (null == templates) {
+					Source xsltSource = new StreamSource(WFSMessage.class.getResourceAsStream("xml2kvp.xsl"));
+					templates = TransformerFactory.newInstance().newTemplates(xsltSource);
+					kvpTemplates = templates;
+				}
+			}
+		}
+		return templates;
+	}
+
 	/**
 	 * Transforms the XML representation of a WFS request entity to its corresponding KVP
 	 * serialization format.
@@ -65,11 +91,9 @@ public class WFSMessage {
 	 * @return A String containing the resulting query component.
 	 */
 	public static String transformEntityToKVP(Source xmlSource) {
-		Source xsltSource = new StreamSource(WFSMessage.class.getResourceAsStream("xml2kvp.xsl"));
-		TransformerFactory factory = TransformerFactory.newInstance();
 		StringWriter writer = new StringWriter();
 		try {
-			Transformer transformer = factory.newTransformer(xsltSource);
+			Transformer transformer = kvpTemplates().newTransformer();
 			transformer.transform(xmlSource, new StreamResult(writer));
 		}
 		catch (Exception e) {
@@ -167,7 +191,7 @@ public class WFSMessage {
 		String resourceName = reqResource + ".xml";
 		Document doc = null;
 		try {
-			doc = BUILDER.parse(WFSMessage.class.getResourceAsStream(resourceName));
+			doc = BUILDER.get().parse(WFSMessage.class.getResourceAsStream(resourceName));
 		}
 		catch (Exception e) {
 			TestSuiteLogger.log(Level.WARNING, "Failed to parse request entity from classpath: " + resourceName, e);
@@ -301,7 +325,7 @@ public class WFSMessage {
 	public static Document createGMLEnvelope() {
 		Document doc;
 		try {
-			doc = BUILDER.parse(WFSMessage.class.getResourceAsStream("Envelope.xml"));
+			doc = BUILDER.get().parse(WFSMessage.class.getResourceAsStream("Envelope.xml"));
 		}
 		catch (Exception e) {
 			throw new RuntimeException(e);
@@ -511,7 +535,7 @@ public class WFSMessage {
 	}
 
 	private static Document wrapEntityInSOAPEnvelopeWithNS(Source xmlSource, String soapNS) {
-		Document soapDoc = BUILDER.newDocument();
+		Document soapDoc = BUILDER.get().newDocument();
 		Element soapEnv = soapDoc.createElementNS(soapNS, "soap:Envelope");
 		soapDoc.appendChild(soapEnv);
 		Element soapBody = soapDoc.createElementNS(soapNS, "soap:Body");
@@ -524,7 +548,7 @@ public class WFSMessage {
 		try {
 			TransformerFactory tFactory = TransformerFactory.newInstance();
 			Transformer idTransformer = tFactory.newTransformer();
-			Document wfsReq = BUILDER.newDocument();
+			Document wfsReq = BUILDER.get().newDocument();
 			idTransformer.transform(xmlSource, new DOMResult(wfsReq));
 			soapBody.appendChild(soapDoc.importNode(wfsReq.getDocumentElement(), true));
 		}
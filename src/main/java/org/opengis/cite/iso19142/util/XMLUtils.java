@@ -11,8 +11,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -49,6 +51,7 @@ import net.sf.saxon.s9api.DocumentBuilder;
 import net.sf.saxon.s9api.Processor;
 import net.sf.saxon.s9api.SaxonApiException;
 import net.sf.saxon.s9api.XPathCompiler;
+import net.sf.saxon.s9api.XPathExecutable;
 import net.sf.saxon.s9api.XPathSelector;
 import net.sf.saxon.s9api.XdmAtomicValue;
 import net.sf.saxon.s9api.XdmNode;
@@ -68,6 +71,21 @@ public class XMLUtils {
 
 	private static final XPathFactory XPATH_FACTORY = initXPathFactory();
 
+	/** A Saxon processor; it is thread-safe and shared by all test runs. */
+	private static final Processor PROCESSOR = new Processor(false);
+
+	/** The maximum number of compiled XPath expressions and stylesheets retained. */
+	private static final int MAX_CACHED_EXECUTABLES = 256;
+
+	/**
+	 * Compiled XPath 2.0 expressions, keyed by the expression and its namespace bindings.
+	 * The executables are immutable and can be used concurrently.
+	 */
+	private static final Map<String, XPathExecutable> XPATH_EXECUTABLES = lruCache();
+
+	/** Compiled stylesheets, keyed by system identifier. */
+	private static final Map<String, XsltExecutable> XSLT_EXECUTABLES = lruCache();
+
 	private static XMLInputFactory initXMLInputFactory() {
 		XMLInputFactory factory = XMLInputFactory.newInstance();
 		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
@@ -79,6 +97,17 @@ public class XMLUtils {
 		return factory;
 	}
 
+	private static <V> Map<String, V> lruCache() {
+		return Collections.synchronizedMap(new LinkedHashMap<String, V>(64, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > MAX_CACHED_EXECUTABLES;
+			}
+		});
+	}
+
 	/**
 	 * Writes the content of a DOM node to a String. An XML declaration is omitted.
 	 * @param node The node to be serialized.
@@ -252,16 +281,23 @@ public class XMLUtils {
 	 */
 	public static XdmValue evaluateXPath2(Source xmlSource, String expr, Map<String, String> nsBindings)
 			throws SaxonApiException {
-		Processor proc = new Processor(false);
-		XPathCompiler compiler = proc.newXPathCompiler();
-		compiler.declareNamespace("gml", Namespaces.GML);
+		Map<String, String> bindings = new TreeMap<>();
 		if (null != nsBindings) {
-			for (String nsURI : nsBindings.keySet()) {
-				compiler.declareNamespace(nsBindings.get(nsURI), nsURI);
+			bindings.putAll(nsBindings);
+		}
+		String key = expr + '\u0000' + bindings;
+		XPathExecutable exec = XPATH_EXECUTABLES.get(key);
+		if (null == exec) {
+			XPathCompiler compiler = PROCESSOR.newXPathCompiler();
+			compiler.declareNamespace("gml", Namespaces.GML);
+			for (Map.Entry<String, String> binding : bindings.entrySet()) {
+				compiler.declareNamespace(binding.getValue(), binding.getKey());
 			}
+			exec = compiler.compile(expr);
+			XPATH_EXECUTABLES.put(key, exec);
 		}
-		XPathSelector xpath = compiler.compile(expr).load();
-		DocumentBuilder builder = proc.newDocumentBuilder();
+		XPathSelector xpath = exec.load();
+		DocumentBuilder builder = PROCESSOR.newDocumentBuilder();
 		XdmNode node = null;
 		if (DOMSource.class.isInstance(xmlSource)) {
 			DOMSource domSource = (DOMSource) xmlSource;
@@ -368,10 +404,8 @@ public class XMLUtils {
 		catch (ParserConfigurationException pce) {
 			throw new RuntimeException(pce);
 		}
-		Processor processor = new Processor(false);
-		XsltCompiler compiler = processor.newXsltCompiler();
 		try {
-			XsltExecutable exec = compiler.compile(xslt);
+			XsltExecutable exec = compileStylesheet(xslt);
 			XsltTransformer transformer = exec.load();
 			transformer.setSource(new DOMSource(sourceDoc));
 			transformer.setDestination(new DOMDestination(resultDoc));
@@ -388,6 +422,26 @@ public class XMLUtils {
 		return resultDoc;
 	}
 
+	/**
+	 * Compiles a stylesheet. If it has a system identifier the result is cached, so a
+	 * stylesheet read from a resource is compiled only once.
+	 * @param xslt A Source object representing a stylesheet (XSLT 1.0 or 2.0).
+	 * @return An XsltExecutable object.
+	 * @throws SaxonApiException If the stylesheet cannot be compiled.
+	 */
+	static XsltExecutable compileStylesheet(Source xslt) throws SaxonApiException {
+		String systemId = xslt.getSystemId();
+		XsltExecutable exec = (null != systemId) ? XSLT_EXECUTABLES.get(systemId) : null;
+		if (null == exec) {
+			XsltCompiler compiler = PROCESSOR.newXsltCompiler();
+			exec = compiler.compile(xslt);
+			if (null != systemId) {
+				XSLT_EXECUTABLES.put(systemId, exec);
+			}
+		}
+		return exec;
+	}
+
 	/**
 	 * Expands character entity ({@literal &name;}) and numeric references (
 	 * {@literal &#xhhhh;} or {@literal &dddd;}) that occur within a given string value.
@@ -1,8 +1,8 @@
 package org.opengis.cite.iso19142.versioning;
 
+import org.opengis.cite.iso19142.BaseFixture;
 import org.opengis.cite.iso19142.ErrorMessage;
 import org.opengis.cite.iso19142.ErrorMessageKeys;
-import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.util.ServiceMetadataUtils;
 import org.testng.ITestContext;
 import org.testng.SkipException;
@@ -46,7 +46,7 @@ public class FeatureVersioning {
 	 */
 	@BeforeTest
 	public void implementsFeatureVersioning(ITestContext testContext) {
-		Document wfsMetadata = (Document) testContext.getSuite().getAttribute(SuiteAttribute.TEST_SUBJECT.getName());
+		Document wfsMetadata = BaseFixture.getCapabilitiesSummary(testContext.getSuite());
 		if (!ServiceMetadataUtils.implementsConformanceClass(wfsMetadata, IMPL_FEATURE_VERSIONING)) {
 			throw new SkipException(ErrorMessage.format(ErrorMessageKeys.NOT_IMPLEMENTED, IMPL_FEATURE_VERSIONING));
 		}
@@ -39,6 +39,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
@@ -84,19 +85,20 @@ public class VersioningTests extends BaseFixture {
 	 */
 	@Test(description = "See OGC 09-025: 11.3.3.2, 15.3.4; OGC 09-026: 7.11.2")
 	public void firstVersionHasNoPredecessor() {
-		this.reqEntity = WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion));
 		Element feature = this.dataSampler.randomlySelectFeatureInstance();
 		QName typeName = new QName(feature.getNamespaceURI(), feature.getLocalName());
 		feature.setAttributeNS(Namespaces.GML, "id", "id-" + System.currentTimeMillis());
 		InsertTests.insertRandomIdentifier(feature);
-		WFSMessage.addInsertStatement(this.reqEntity, feature);
+		WFSMessage.addInsertStatement(getRequestEntity(), feature);
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.TRANSACTION,
 				ProtocolBinding.POST);
-		Response rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
+		Response rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		List<ResourceId> newFeatureIDs = InsertTests.extractFeatureIdentifiers(this.rspEntity, WFS2.Transaction.INSERT);
+		List<ResourceId> newFeatureIDs = InsertTests.extractFeatureIdentifiers(getResponseEntity(),
+				WFS2.Transaction.INSERT);
 		assertEquals(newFeatureIDs.size(), 1,
 				"Unexpected number of fes:ResourceId elements in response entity (InsertResults).");
 		ResourceId id = newFeatureIDs.get(0);
@@ -108,10 +110,11 @@ public class VersioningTests extends BaseFixture {
 		// get LAST version and check that state attribute is "valid"
 		qryId.setVersion(FES2.VersionAction.LAST.name());
 		rsp = this.wfsClient.GetFeatureVersion(qryId, typeName);
-		this.rspEntity = rsp.readEntity(Document.class);
-		int numReturned = Integer.parseInt(this.rspEntity.getDocumentElement().getAttribute("numberReturned"));
+		setResponseEntity(rsp.readEntity(Document.class));
+		int numReturned = Integer.parseInt(getResponseEntity().getDocumentElement().getAttribute("numberReturned"));
 		assertEquals(numReturned, 1, ErrorMessage.get(ErrorMessageKeys.NUM_RETURNED));
-		feature = (Element) this.rspEntity.getElementsByTagNameNS(typeName.getNamespaceURI(), typeName.getLocalPart())
+		feature = (Element) getResponseEntity()
+			.getElementsByTagNameNS(typeName.getNamespaceURI(), typeName.getLocalPart())
 			.item(0);
 		Element member = (Element) feature.getParentNode();
 		assertEquals(member.getAttribute("state"), WFS2.VersionState.VALID.toString(),
@@ -126,15 +129,17 @@ public class VersioningTests extends BaseFixture {
 	 */
 	@Test(description = "See OGC 09-025: 15.3.5")
 	public void updatedVersionHasSupersededPredecessor() {
-		this.reqEntity = WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion));
 		Element feature = this.dataSampler.randomlySelectFeatureInstance();
 		QName typeName = new QName(feature.getNamespaceURI(), feature.getLocalName());
 		String oldId = feature.getAttributeNS(Namespaces.GML, "id");
 		Map<String, Object> properties = new HashMap<String, Object>();
 		String newName = Randomizer.generateWords(2);
 		properties.put("gml:name[1]", newName);
-		this.rspEntity = wfsClient.updateFeature(this.reqEntity, oldId, typeName, properties, ProtocolBinding.POST);
-		List<ResourceId> updatedIDs = InsertTests.extractFeatureIdentifiers(this.rspEntity, WFS2.Transaction.UPDATE);
+		setResponseEntity(wfsClient.updateFeature(getRequestEntity(), oldId, typeName, properties,
+				ProtocolBinding.POST));
+		List<ResourceId> updatedIDs = InsertTests.extractFeatureIdentifiers(getResponseEntity(),
+				WFS2.Transaction.UPDATE);
 		assertEquals(updatedIDs.size(), 1,
 				"Unexpected number of fes:ResourceId elements in response entity (UpdateResults).");
 		ResourceId id = updatedIDs.get(0);
@@ -144,10 +149,11 @@ public class VersioningTests extends BaseFixture {
 		// get PREVIOUS version and check that state attribute is "superseded"
 		ResourceId qryId = new ResourceId(id.getPreviousRid());
 		Response rsp = this.wfsClient.GetFeatureVersion(qryId, typeName);
-		this.rspEntity = rsp.readEntity(Document.class);
-		int numReturned = Integer.parseInt(this.rspEntity.getDocumentElement().getAttribute("numberReturned"));
+		setResponseEntity(rsp.readEntity(Document.class));
+		int numReturned = Integer.parseInt(getResponseEntity().getDocumentElement().getAttribute("numberReturned"));
 		assertEquals(numReturned, 1, ErrorMessage.get(ErrorMessageKeys.NUM_RETURNED));
-		feature = (Element) this.rspEntity.getElementsByTagNameNS(typeName.getNamespaceURI(), typeName.getLocalPart())
+		feature = (Element) getResponseEntity()
+			.getElementsByTagNameNS(typeName.getNamespaceURI(), typeName.getLocalPart())
 			.item(0);
 		Element member = (Element) feature.getParentNode();
 		assertEquals(member.getAttribute("state"), WFS2.VersionState.SUPERSEDED.toString(),
@@ -163,16 +169,17 @@ public class VersioningTests extends BaseFixture {
 	 */
 	@Test(description = "See OGC 09-025: Table 3, 15.4", enabled = false)
 	public void updateSupersededVersion() {
-		this.reqEntity = WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion));
 		Element feature = this.dataSampler.randomlySelectFeatureInstance();
 		QName typeName = new QName(feature.getNamespaceURI(), feature.getLocalName());
 		String oldId = feature.getAttributeNS(Namespaces.GML, "id");
 		Map<String, Object> properties = new HashMap<String, Object>();
 		String newName = Randomizer.generateWords(2);
 		properties.put("gml:name[1]", newName);
-		this.rspEntity = this.wfsClient.updateFeature(this.reqEntity, oldId, typeName, properties,
-				ProtocolBinding.POST);
-		List<ResourceId> updatedIDs = InsertTests.extractFeatureIdentifiers(this.rspEntity, WFS2.Transaction.UPDATE);
+		setResponseEntity(this.wfsClient.updateFeature(getRequestEntity(), oldId, typeName, properties,
+				ProtocolBinding.POST));
+		List<ResourceId> updatedIDs = InsertTests.extractFeatureIdentifiers(getResponseEntity(),
+				WFS2.Transaction.UPDATE);
 		assertEquals(updatedIDs.size(), 1,
 				"Unexpected number of fes:ResourceId elements in response entity (UpdateResults).");
 		ResourceId id = updatedIDs.get(0);
@@ -180,9 +187,9 @@ public class VersioningTests extends BaseFixture {
 		assertFalse(id.getRid().equals(id.getPreviousRid()),
 				String.format("The rid and previousRid values should not match. ", id));
 		// resubmit update request against previous revision
-		this.rspEntity = this.wfsClient.updateFeature(this.reqEntity, oldId, typeName, properties,
-				ProtocolBinding.POST);
-		ETSAssert.assertExceptionReport(this.rspEntity, "OperationProcessingFailed", "Update");
+		setResponseEntity(this.wfsClient.updateFeature(getRequestEntity(), oldId, typeName, properties,
+				ProtocolBinding.POST));
+		ETSAssert.assertExceptionReport(getResponseEntity(), "OperationProcessingFailed", "Update");
 	}
 
 	/**
@@ -193,19 +200,19 @@ public class VersioningTests extends BaseFixture {
 	 */
 	@Test(description = "See OGC 09-025: 15.3.6")
 	public void replacementVersionHasNoSuccessor() {
-		this.reqEntity = WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion));
 		Element feature = this.dataSampler.randomlySelectFeatureInstance();
 		QName typeName = new QName(feature.getNamespaceURI(), feature.getLocalName());
 		InsertTests.insertRandomIdentifier(feature);
 		InsertTests.addRandomName(feature);
-		WFSMessage.addReplaceStatements(this.reqEntity, Collections.singletonList(feature));
+		WFSMessage.addReplaceStatements(getRequestEntity(), Collections.singletonList(feature));
 		URI endpoint = ServiceMetadataUtils.getOperationEndpoint(this.wfsMetadata, WFS2.TRANSACTION,
 				ProtocolBinding.POST);
-		Response rsp = this.wfsClient.submitRequest(new DOMSource(this.reqEntity), ProtocolBinding.POST, endpoint);
-		this.rspEntity = rsp.readEntity(Document.class);
+		Response rsp = this.wfsClient.submitRequest(new DOMSource(getRequestEntity()), ProtocolBinding.POST, endpoint);
+		setResponseEntity(rsp.readEntity(Document.class));
 		Assert.assertEquals(rsp.getStatus(), Status.OK.getStatusCode(),
 				ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		List<ResourceId> newFeatureIDs = InsertTests.extractFeatureIdentifiers(this.rspEntity,
+		List<ResourceId> newFeatureIDs = InsertTests.extractFeatureIdentifiers(getResponseEntity(),
 				WFS2.Transaction.REPLACE);
 		assertEquals(newFeatureIDs.size(), 1,
 				"Unexpected number of fes:ResourceId elements in response entity (ReplaceResults).");
@@ -217,8 +224,8 @@ public class VersioningTests extends BaseFixture {
 		ResourceId qryId = new ResourceId(id.getRid());
 		qryId.setVersion(FES2.VersionAction.NEXT.name());
 		rsp = this.wfsClient.GetFeatureVersion(qryId, typeName);
-		this.rspEntity = rsp.readEntity(Document.class);
-		int numMatched = Integer.parseInt(this.rspEntity.getDocumentElement().getAttribute("numberMatched"));
+		setResponseEntity(rsp.readEntity(Document.class));
+		int numMatched = Integer.parseInt(getResponseEntity().getDocumentElement().getAttribute("numberMatched"));
 		assertEquals(numMatched, 0, ErrorMessage.get(ErrorMessageKeys.NUM_MATCHED));
 	}
 
@@ -229,24 +236,25 @@ public class VersioningTests extends BaseFixture {
 	 */
 	@Test(description = "See OGC 09-025: 15.2.7.1")
 	public void deletedFeatureIsRetired() {
-		this.reqEntity = WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion);
+		setRequestEntity(WFSMessage.createRequestEntity(WFS2.TRANSACTION, this.wfsVersion));
 		Element feature = this.dataSampler.randomlySelectFeatureInstance();
 		String gmlId = feature.getAttributeNS(Namespaces.GML, "id");
 		QName typeName = new QName(feature.getNamespaceURI(), feature.getLocalName());
-		Response rsp = wfsClient.deleteFeature(this.reqEntity, gmlId, typeName);
-		this.rspEntity = rsp.readEntity(Document.class);
+		Response rsp = wfsClient.deleteFeature(getRequestEntity(), gmlId, typeName);
+		setResponseEntity(rsp.readEntity(Document.class));
 		assertEquals(rsp.getStatus(), Status.OK.getStatusCode(), ErrorMessage.get(ErrorMessageKeys.UNEXPECTED_STATUS));
-		int totalDeleted = Integer
-			.parseInt(this.rspEntity.getElementsByTagNameNS(Namespaces.WFS, WFS2.TOTAL_DEL).item(0).getTextContent());
+		Node totalDeletedNode = getResponseEntity().getElementsByTagNameNS(Namespaces.WFS, WFS2.TOTAL_DEL).item(0);
+		int totalDeleted = Integer.parseInt(totalDeletedNode.getTextContent());
 		assertEquals(totalDeleted, 1, ErrorMessage.format(ErrorMessageKeys.UNEXPECTED_VALUE, WFS2.TOTAL_DEL));
 		// get LAST version and check that state attribute is "superseded"
 		ResourceId qryId = new ResourceId(gmlId);
 		qryId.setVersion(FES2.VersionAction.LAST.name());
 		rsp = this.wfsClient.GetFeatureVersion(qryId, typeName);
-		this.rspEntity = rsp.readEntity(Document.class);
-		int numReturned = Integer.parseInt(this.rspEntity.getDocumentElement().getAttribute("numberReturned"));
+		setResponseEntity(rsp.readEntity(Document.class));
+		int numReturned = Integer.parseInt(getResponseEntity().getDocumentElement().getAttribute("numberReturned"));
 		assertEquals(numReturned, 1, ErrorMessage.get(ErrorMessageKeys.NUM_RETURNED));
-		feature = (Element) this.rspEntity.getElementsByTagNameNS(typeName.getNamespaceURI(), typeName.getLocalPart())
+		feature = (Element) getResponseEntity()
+			.getElementsByTagNameNS(typeName.getNamespaceURI(), typeName.getLocalPart())
 			.item(0);
 		Element member = (Element) feature.getParentNode();
 		assertEquals(member.getAttribute("state"), WFS2.VersionState.RETIRED.toString(),
@@ -0,0 +1,79 @@
+package org.opengis.cite.iso19142;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class VerifyBatchTestRun {
+
+	private static DocumentBuilder docBuilder;
+
+	@BeforeClass
+	public static void initParser() throws ParserConfigurationException {
+		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+		docBuilder = dbf.newDocumentBuilder();
+	}
+
+	@Test
+	public void iutKeyWithoutQuery() throws Exception {
+		Properties testRunProps = new Properties();
+		testRunProps.setProperty("wfs", "http://example.org:8080/wfs?service=WFS&request=GetCapabilities");
+		Document testRunArgs = toDocument(testRunProps);
+		assertEquals("http://example.org:8080/wfs", BatchTestRun.iutKey(testRunArgs));
+	}
+
+	@Test
+	public void iutKeyFromIutArgument() throws Exception {
+		Properties testRunProps = new Properties();
+		testRunProps.setProperty("iut", "file:/tmp/capabilities.xml");
+		Document testRunArgs = toDocument(testRunProps);
+		assertEquals("file:/tmp/capabilities.xml", BatchTestRun.iutKey(testRunArgs));
+	}
+
+	@Test
+	public void interleaveRunsByIUT() {
+		Map<File, String> iutKeys = new LinkedHashMap<>();
+		iutKeys.put(new File("a1.xml"), "http://a.example.org/wfs");
+		iutKeys.put(new File("a2.xml"), "http://a.example.org/wfs");
+		iutKeys.put(new File("a3.xml"), "http://a.example.org/wfs");
+		iutKeys.put(new File("b1.xml"), "http://b.example.org/wfs");
+		iutKeys.put(new File("c1.xml"), "http://c.example.org/wfs");
+		List<File> schedule = BatchTestRun.schedule(iutKeys);
+		assertEquals(Arrays.asList(new File("a1.xml"), new File("b1.xml"), new File("c1.xml"), new File("a2.xml"),
+				new File("a3.xml")), schedule);
+	}
+
+	@Test
+	public void separateResultDirectories() {
+		BatchTestRun batch = new BatchTestRun(new File("results"), 4, 1);
+		List<File> propsFiles = Arrays.asList(new File("site1/wfs.xml"), new File("site2/wfs.xml"),
+				new File("site2/other.xml"));
+		Map<File, File> resultDirs = batch.resultDirectories(propsFiles);
+		assertEquals(new File("results", "wfs"), resultDirs.get(propsFiles.get(0)));
+		assertEquals(new File("results", "wfs-2"), resultDirs.get(propsFiles.get(1)));
+		assertEquals(new File("results", "other"), resultDirs.get(propsFiles.get(2)));
+	}
+
+	private static Document toDocument(Properties testRunProps) throws Exception {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream(1024);
+		testRunProps.storeToXML(outStream, "Batch test");
+		return docBuilder.parse(new ByteArrayInputStream(outStream.toByteArray()));
+	}
+
+}
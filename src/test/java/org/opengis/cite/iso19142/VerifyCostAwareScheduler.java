@@ -0,0 +1,65 @@
+package org.opengis.cite.iso19142;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.testng.ISuite;
+import org.testng.xml.XmlSuite;
+
+public class VerifyCostAwareScheduler {
+
+	private static final String LOCK_TESTS = "org.opengis.cite.iso19142.locking.GetFeatureWithLockTests";
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Test
+	public void timeBudget() {
+		Map<String, String> params = new HashMap<>();
+		assertEquals(0, CostAwareScheduler.getTimeBudget(params));
+		params.put(TestRunArg.TIME_BUDGET.toString(), " 90 ");
+		assertEquals(90000, CostAwareScheduler.getTimeBudget(params));
+		params.put(TestRunArg.TIME_BUDGET.toString(), "soon");
+		assertEquals(0, CostAwareScheduler.getTimeBudget(params));
+	}
+
+	@Test
+	public void updateHistory() throws Exception {
+		File historyFile = new File(tempDir.getRoot(), "durations/wfs20.properties");
+		CostAwareScheduler firstRun = new CostAwareScheduler();
+		firstRun.recordDuration(LOCK_TESTS, "lockAllQueryResults_20Seconds", 30000);
+		firstRun.recordDuration(LOCK_TESTS, "lockAllQueryResults_20Seconds", 4000);
+		firstRun.recordDuration(LOCK_TESTS, "lockQueryResults_hits", 200);
+		firstRun.saveHistory(historyFile);
+		CostAwareScheduler secondRun = new CostAwareScheduler();
+		secondRun.onStart(suiteWithParameter(TestRunArg.DURATION_HISTORY, historyFile.getPath()));
+		assertEquals(34000, secondRun.getEstimatedDuration(LOCK_TESTS, "lockAllQueryResults_20Seconds"));
+		secondRun.recordDuration(LOCK_TESTS, "lockQueryResults_hits", 400);
+		secondRun.saveHistory(historyFile);
+		CostAwareScheduler thirdRun = new CostAwareScheduler();
+		thirdRun.loadHistory(historyFile);
+		assertEquals("Unexpected weighted duration.", 300,
+				thirdRun.getEstimatedDuration(LOCK_TESTS, "lockQueryResults_hits"));
+		assertEquals(34000, thirdRun.getEstimatedDuration(LOCK_TESTS, "lockAllQueryResults_20Seconds"));
+		assertEquals(0, thirdRun.getEstimatedDuration(LOCK_TESTS, "unknown"));
+	}
+
+	private static ISuite suiteWithParameter(TestRunArg arg, String value) {
+		Map<String, String> params = new HashMap<>();
+		params.put(arg.toString(), value);
+		XmlSuite xmlSuite = mock(XmlSuite.class);
+		when(xmlSuite.getParameters()).thenReturn(params);
+		ISuite suite = mock(ISuite.class);
+		when(suite.getXmlSuite()).thenReturn(xmlSuite);
+		return suite;
+	}
+
+}
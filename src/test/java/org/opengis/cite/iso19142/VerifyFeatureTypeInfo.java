@@ -59,4 +59,19 @@ public class VerifyFeatureTypeInfo {
 		Assert.assertTrue("Expected easting of lower corner > 200000 ", pos.getOrdinate(0) > 200000);
 	}
 
+	@Test
+	public void loadSampleDataOnFirstAccess() {
+		FeatureTypeInfo typeInfo = new FeatureTypeInfo();
+		int[] loadCount = new int[1];
+		typeInfo.setSampleDataLoader(info -> {
+			loadCount[0]++;
+			info.setInstantiated(true);
+		});
+		Assert.assertTrue("Expected sampling to be deferred.", typeInfo.isSampleDataDeferred());
+		Assert.assertTrue("Expected feature type to be instantiated.", typeInfo.isInstantiated());
+		Assert.assertNull(typeInfo.getSampleData());
+		Assert.assertEquals("Unexpected number of loads.", 1, loadCount[0]);
+		Assert.assertFalse(typeInfo.isSampleDataDeferred());
+	}
+
 }
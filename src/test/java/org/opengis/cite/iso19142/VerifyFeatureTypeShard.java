@@ -0,0 +1,146 @@
+package org.opengis.cite.iso19142;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class VerifyFeatureTypeShard {
+
+	private static final String EARL_NS = "http://www.w3.org/ns/earl#";
+
+	private static final String RDF_NS = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+
+	private static final String CITE_NS = "http://cite.opengeospatial.org/";
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Test
+	public void parseShard() {
+		FeatureTypeShard shard = FeatureTypeShard.parse(" 2/4 ");
+		assertEquals(2, shard.getIndex());
+		assertEquals(4, shard.getCount());
+		assertEquals("2/4", shard.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shardOutOfRange() {
+		FeatureTypeShard.parse("5/4");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidShard() {
+		FeatureTypeShard.parse("two");
+	}
+
+	@Test
+	public void eachTypeInOneShard() {
+		int shardCount = 3;
+		int[] sizes = new int[shardCount];
+		for (int i = 0; i < 300; i++) {
+			QName typeName = new QName("http://example.org/ns" + (i % 2), "Type" + i);
+			int matches = 0;
+			for (int k = 1; k <= shardCount; k++) {
+				if (new FeatureTypeShard(k, shardCount).contains(typeName)) {
+					matches++;
+					sizes[k - 1]++;
+				}
+			}
+			assertEquals("Feature type not in exactly one shard: " + typeName, 1, matches);
+		}
+		for (int size : sizes) {
+			assertEquals("Unbalanced shards.", 100, size, 30);
+		}
+	}
+
+	@Test
+	public void mergeKeepsWorstVerdict() throws Exception {
+		File mergedFile = FeatureTypeShard.mergeResults(List.of(copyResults("run-1"), copyResults("run-2")),
+				tempDir.newFolder("merged"));
+		assertEquals(RerunPlan.RESULTS_FILE_NAME, mergedFile.getName());
+		Element results = DocumentBuilderFactory.newInstance()
+			.newDocumentBuilder()
+			.parse(mergedFile)
+			.getDocumentElement();
+		assertEquals("5", results.getAttribute("total"));
+		assertEquals("2", results.getAttribute("passed"));
+		assertEquals("2", results.getAttribute("failed"));
+		assertEquals("1", results.getAttribute("skipped"));
+		NodeList testMethods = results.getElementsByTagName("test-method");
+		for (int i = 0; i < testMethods.getLength(); i++) {
+			Element testMethod = (Element) testMethods.item(i);
+			if (testMethod.getAttribute("name").equals("getPropertyValueAsCount")) {
+				assertEquals("FAIL", testMethod.getAttribute("status"));
+			}
+		}
+	}
+
+	@Test
+	public void mergePrefersPassOverSkip() throws Exception {
+		File mergedFile = FeatureTypeShard.mergeResults(List.of(copyResults("run-2"), copyResults("run-3")),
+				tempDir.newFolder("merged"));
+		Element results = DocumentBuilderFactory.newInstance()
+			.newDocumentBuilder()
+			.parse(mergedFile)
+			.getDocumentElement();
+		assertEquals("3", results.getAttribute("total"));
+		assertEquals("3", results.getAttribute("passed"));
+		assertEquals("0", results.getAttribute("skipped"));
+		File earlFile = new File(mergedFile.getParentFile(), EarlResults.EARL_FILE_NAME);
+		assertFalse("Unexpected EARL report.", earlFile.exists());
+	}
+
+	@Test
+	public void mergeEarlResults() throws Exception {
+		File mergedFile = FeatureTypeShard.mergeResults(List.of(copyResults("run-1"), copyResults("run-2")),
+				tempDir.newFolder("merged"));
+		File earlFile = new File(mergedFile.getParentFile(), EarlResults.EARL_FILE_NAME);
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		Document earl = factory.newDocumentBuilder().parse(earlFile);
+		NodeList assertions = earl.getElementsByTagNameNS(EARL_NS, "Assertion");
+		assertEquals("Unexpected number of assertions.", 5, assertions.getLength());
+		for (int i = 0; i < assertions.getLength(); i++) {
+			Element assertion = (Element) assertions.item(i);
+			Element testCase = (Element) assertion.getElementsByTagNameNS(EARL_NS, "TestCase").item(0);
+			if (testCase.getAttributeNS(RDF_NS, "about").endsWith("#getPropertyValueAsCount")) {
+				Element outcome = (Element) assertion.getElementsByTagNameNS(EARL_NS, "outcome").item(0);
+				assertEquals(EARL_NS + "failed", outcome.getAttributeNS(RDF_NS, "resource"));
+			}
+		}
+		for (Element summary : List.of((Element) earl.getElementsByTagNameNS(CITE_NS, "TestRun").item(0),
+				(Element) earl.getElementsByTagNameNS(EARL_NS, "TestRequirement").item(0))) {
+			assertEquals("2", summary.getElementsByTagNameNS(CITE_NS, "testsPassed").item(0).getTextContent());
+			assertEquals("2", summary.getElementsByTagNameNS(CITE_NS, "testsFailed").item(0).getTextContent());
+			assertEquals("1", summary.getElementsByTagNameNS(CITE_NS, "testsSkipped").item(0).getTextContent());
+		}
+	}
+
+	private File copyResults(String run) throws IOException {
+		File dir = tempDir.newFolder(run);
+		for (String fileName : List.of(RerunPlan.RESULTS_FILE_NAME, EarlResults.EARL_FILE_NAME)) {
+			try (InputStream in = getClass().getResourceAsStream("/rerun/" + run + "/" + fileName)) {
+				if (null != in) {
+					Files.copy(in, new File(dir, fileName).toPath());
+				}
+			}
+		}
+		return dir;
+	}
+
+}
@@ -0,0 +1,122 @@
+package org.opengis.cite.iso19142;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Element;
+
+public class VerifyRerunPlan {
+
+	private static final String BASIC_TESTS = "org.opengis.cite.iso19142.basic.BasicGetFeatureTests";
+
+	private static final String PROPERTY_VALUE_TESTS = "org.opengis.cite.iso19142.basic.GetPropertyValueTests";
+
+	private static final QName ALPHA = new QName("http://example.org/ns1", "Alpha");
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Test
+	public void includesFailedAndSkippedMethods() throws IOException {
+		RerunPlan plan = RerunPlan.fromResults(copyResults("run-1", "previous"));
+		assertFalse(plan.isEmpty());
+		assertTrue(plan.includes(BASIC_TESTS, "getFeaturesByType"));
+		assertTrue(plan.includes(BASIC_TESTS, "unknownOutputFormat"));
+		assertTrue(plan.includes(PROPERTY_VALUE_TESTS, "getPropertyValueAsCount"));
+		assertFalse(plan.includes(PROPERTY_VALUE_TESTS, "getProperty"));
+		assertFalse("Configuration method included.", plan.includes(BASIC_TESTS, "initFixture"));
+	}
+
+	@Test
+	public void includesFailedRowsOnly() throws IOException {
+		RerunPlan plan = RerunPlan.fromResults(copyResults("run-1", "previous"));
+		assertTrue(plan.includes(BASIC_TESTS, "getFeaturesByType", new Object[] { ProtocolBinding.POST, ALPHA }));
+		assertFalse(plan.includes(BASIC_TESTS, "getFeaturesByType", new Object[] { ProtocolBinding.GET, ALPHA }));
+		List<Object[]> rows = Arrays.asList(new Object[] { ProtocolBinding.GET, ALPHA },
+				new Object[] { ProtocolBinding.POST, ALPHA });
+		Iterator<Object[]> selected = plan.filter(BASIC_TESTS, "getFeaturesByType", rows.iterator());
+		assertEquals(ProtocolBinding.POST, selected.next()[0]);
+		assertFalse(selected.hasNext());
+	}
+
+	@Test(expected = IOException.class)
+	public void noResultsFound() throws IOException {
+		RerunPlan.fromResults(tempDir.newFolder("empty"));
+	}
+
+	@Test
+	public void mergeResults() throws Exception {
+		RerunPlan plan = RerunPlan.fromResults(copyResults("run-1", "previous"));
+		File newResults = new File(copyResults("run-2", "rerun"), RerunPlan.RESULTS_FILE_NAME);
+		File merged = plan.mergeResults(newResults);
+		assertEquals(RerunPlan.MERGED_RESULTS_FILE_NAME, merged.getName());
+		Element results = DocumentBuilderFactory.newInstance()
+			.newDocumentBuilder()
+			.parse(merged)
+			.getDocumentElement();
+		assertEquals("5", results.getAttribute("total"));
+		assertEquals("4", results.getAttribute("passed"));
+		assertEquals("0", results.getAttribute("failed"));
+		assertEquals("1", results.getAttribute("skipped"));
+	}
+
+	@Test
+	public void rerunFromCombinedResults() throws Exception {
+		File previousDir = copyResults("run-1", "previous");
+		RerunPlan plan = RerunPlan.fromResults(previousDir);
+		File rerunDir = new File(previousDir, "rerun");
+		Files.createDirectories(rerunDir.toPath());
+		File newResults = new File(rerunDir, RerunPlan.RESULTS_FILE_NAME);
+		try (InputStream in = getClass().getResourceAsStream("/rerun/run-2/" + RerunPlan.RESULTS_FILE_NAME)) {
+			Files.copy(in, newResults.toPath());
+		}
+		plan.mergeResults(newResults);
+		RerunPlan nextPlan = RerunPlan.fromResults(previousDir);
+		assertEquals(RerunPlan.MERGED_RESULTS_FILE_NAME, nextPlan.getResultsFile().getName());
+		assertTrue(nextPlan.includes(BASIC_TESTS, "unknownOutputFormat"));
+		assertFalse(nextPlan.includes(BASIC_TESTS, "getFeaturesByType"));
+	}
+
+	@Test
+	public void resumeFromCheckpoint() throws IOException {
+		File resultsDir = tempDir.newFolder("interrupted");
+		File checkpointDir = new File(resultsDir, Checkpoint.CHECKPOINT_DIR);
+		Files.createDirectories(checkpointDir.toPath());
+		try (InputStream in = getClass().getResourceAsStream("/rerun/run-1/" + RerunPlan.RESULTS_FILE_NAME)) {
+			Files.copy(in, new File(checkpointDir, Checkpoint.CHECKPOINT_FILE_NAME).toPath());
+		}
+		RerunPlan plan = RerunPlan.fromCheckpoint(resultsDir);
+		assertTrue(plan.isResume());
+		assertFalse(plan.isEmpty());
+		assertFalse("Completed method included.", plan.includes(PROPERTY_VALUE_TESTS, "getPropertyValueAsCount"));
+		assertTrue(plan.includes(PROPERTY_VALUE_TESTS, "getPropertyValueWithCount"));
+		assertTrue(plan.includes("org.opengis.cite.iso19142.locking.LockFeatureTests", "lockAllFeaturesByType"));
+		assertTrue(plan.includes(BASIC_TESTS, "getFeaturesByType"));
+		assertFalse(plan.includes(BASIC_TESTS, "getFeaturesByType", new Object[] { ProtocolBinding.GET, ALPHA }));
+		assertTrue(plan.includes(BASIC_TESTS, "getFeaturesByType", new Object[] { ProtocolBinding.SOAP, ALPHA }));
+	}
+
+	private File copyResults(String run, String dirName) throws IOException {
+		File dir = tempDir.newFolder(dirName);
+		try (InputStream in = getClass().getResourceAsStream("/rerun/" + run + "/" + RerunPlan.RESULTS_FILE_NAME)) {
+			Files.copy(in, new File(dir, RerunPlan.RESULTS_FILE_NAME).toPath());
+		}
+		return dir;
+	}
+
+}
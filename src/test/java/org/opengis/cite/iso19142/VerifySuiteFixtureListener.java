@@ -1,23 +1,48 @@
 package org.opengis.cite.iso19142;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
+import java.lang.reflect.Method;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.opengis.cite.iso19142.util.CapabilitiesModel;
+import org.opengis.cite.iso19142.util.DataSampler;
+import org.testng.xml.XmlClass;
 import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
 import org.w3c.dom.Document;
 
 public class VerifySuiteFixtureListener {
@@ -26,6 +51,9 @@ public class VerifySuiteFixtureListener {
 
 	private static ISuite suite;
 
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
 	public VerifySuiteFixtureListener() {
 	}
 
@@ -64,7 +92,169 @@ public class VerifySuiteFixtureListener {
 		when(xmlSuite.getParameters()).thenReturn(params);
 		SuiteFixtureListener iut = new SuiteFixtureListener();
 		iut.onStart(suite);
-		verify(suite).setAttribute(eq(SuiteAttribute.TEST_SUBJECT.getName()), isA(Document.class));
+		verify(suite).setAttribute(eq(SuiteAttribute.SERVICE_DESCRIPTION.getName()), isA(ServiceDescription.class));
+		verify(suite).setAttribute(eq(SuiteAttribute.CAPABILITIES_MODEL.getName()), isA(CapabilitiesModel.class));
+		// the DOM is not built until a test needs it
+		verify(suite, never()).setAttribute(eq(SuiteAttribute.TEST_SUBJECT.getName()), any());
+	}
+
+	@Test
+	public void parseServiceDescriptionOnDemand() throws Exception {
+		URL url = this.getClass().getResource("/capabilities-simple.xml");
+		ServiceDescription description = ServiceDescription.read(url.toURI());
+		CapabilitiesModel model = description.getModel();
+		ISuite tngISuite = mock(ISuite.class);
+		when(tngISuite.getAttribute(SuiteAttribute.SERVICE_DESCRIPTION.getName())).thenReturn(description);
+		Document summary = BaseFixture.getCapabilitiesSummary(tngISuite);
+		assertSame(model, CapabilitiesModel.of(summary));
+		verify(tngISuite, never()).setAttribute(eq(SuiteAttribute.TEST_SUBJECT.getName()), any());
+		Document doc = BaseFixture.getServiceDescription(tngISuite);
+		assertEquals(WFS2.WFS_CAPABILITIES, doc.getDocumentElement().getLocalName());
+		assertSame(model, CapabilitiesModel.of(doc));
+		verify(tngISuite).setAttribute(SuiteAttribute.TEST_SUBJECT.getName(), doc);
+	}
+
+	@Test
+	public void configureParallelMode() {
+		XmlSuite tngSuite = new XmlSuite();
+		Map<String, String> params = new HashMap<String, String>();
+		params.put(TestRunArg.THREAD_COUNT.toString(), "4");
+		tngSuite.setParameters(params);
+		XmlTest basicTests = new XmlTest(tngSuite);
+		basicTests.setName("Basic WFS");
+		XmlTest trxTests = new XmlTest(tngSuite);
+		trxTests.setName("Transactional WFS");
+		Map<String, String> trxParams = new HashMap<String, String>();
+		trxParams.put(SuiteFixtureListener.SEQUENTIAL_PARAM, "true");
+		trxTests.setParameters(trxParams);
+		ISuite tngISuite = mock(ISuite.class);
+		when(tngISuite.getXmlSuite()).thenReturn(tngSuite);
+		SuiteFixtureListener iut = new SuiteFixtureListener();
+		iut.configureParallelMode(tngISuite);
+		assertEquals(XmlSuite.ParallelMode.CLASSES, basicTests.getParallel());
+		assertEquals(4, basicTests.getThreadCount());
+		assertFalse(trxTests.getParallel().isParallel());
+		assertEquals(4, tngSuite.getDataProviderThreadCount());
+	}
+
+	@Test
+	public void sequentialModeByDefault() {
+		XmlSuite tngSuite = new XmlSuite();
+		XmlTest basicTests = new XmlTest(tngSuite);
+		basicTests.setName("Basic WFS");
+		ISuite tngISuite = mock(ISuite.class);
+		when(tngISuite.getXmlSuite()).thenReturn(tngSuite);
+		SuiteFixtureListener iut = new SuiteFixtureListener();
+		iut.configureParallelMode(tngISuite);
+		assertFalse(basicTests.getParallel().isParallel());
+		assertEquals(1, tngSuite.getDataProviderThreadCount());
+	}
+
+	@Test
+	public void pruneUnclaimedConformanceClasses() throws Exception {
+		XmlSuite tngSuite = new XmlSuite();
+		XmlTest simpleTests = new XmlTest(tngSuite);
+		simpleTests.setName("Simple WFS");
+		simpleTests.addParameter(SuiteFixtureListener.CONFORMANCE_PARAM,
+				ConformanceClass.SIMPLE_WFS.getConstraintName());
+		simpleTests.setXmlClasses(new ArrayList<>(List.of(new XmlClass(SuitePreconditions.class))));
+		XmlTest lockingTests = new XmlTest(tngSuite);
+		lockingTests.setName("Locking WFS");
+		lockingTests.addParameter(SuiteFixtureListener.CONFORMANCE_PARAM, WFS2.LOCKING_WFS);
+		lockingTests.setXmlClasses(new ArrayList<>(List.of(new XmlClass(SuitePreconditions.class))));
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		CapabilitiesModel model = CapabilitiesModel
+			.of(factory.newDocumentBuilder().parse(getClass().getResourceAsStream("/capabilities-simple.xml")));
+		SuiteFixtureListener iut = new SuiteFixtureListener();
+		iut.pruneTestSets(tngSuite, model);
+		assertEquals(SuitePreconditions.class.getName(), simpleTests.getXmlClasses().get(0).getName());
+		assertNull(simpleTests.getParameter(SuiteFixtureListener.PRUNED_PARAM));
+		assertEquals(1, lockingTests.getXmlClasses().size());
+		assertEquals(UnclaimedConformanceClass.class.getName(), lockingTests.getXmlClasses().get(0).getName());
+		assertTrue(lockingTests.getParameter(SuiteFixtureListener.PRUNED_PARAM).contains(WFS2.LOCKING_WFS));
+	}
+
+	@Test
+	public void shardAppliesToSampleData() throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		Document doc = factory.newDocumentBuilder().parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		CapabilitiesModel model = CapabilitiesModel.of(doc);
+		assertEquals(2, model.getFeatureTypes().size());
+		QName typeName = model.getFeatureTypes().get(0);
+		// the two feature types are in different shards when there are seven
+		FeatureTypeShard shard = null;
+		for (int k = 1; null == shard; k++) {
+			if (new FeatureTypeShard(k, 7).contains(typeName)) {
+				shard = new FeatureTypeShard(k, 7);
+			}
+		}
+		CapabilitiesModel shardModel = SuiteFixtureListener.selectShard(model, shard);
+		assertEquals(List.of(typeName), shardModel.getFeatureTypes());
+		CapabilitiesModel.associate(doc, shardModel);
+		DataSampler sampler = new DataSampler(SuiteWarmUp.copyServiceDescription(doc));
+		assertEquals(new HashSet<>(shardModel.getFeatureTypes()), sampler.getFeatureTypeInfo().keySet());
+		for (FeatureTypeInfo typeInfo : sampler.getFeatureTypeInfo().values()) {
+			typeInfo.setInstantiated(true);
+		}
+		ISuite shardSuite = mock(ISuite.class);
+		when(shardSuite.getAttribute(SuiteAttribute.TEST_SUBJECT.getName())).thenReturn(doc);
+		when(shardSuite.getAttribute(SuiteAttribute.SAMPLER.getName())).thenReturn(sampler);
+		ITestContext testContext = mock(ITestContext.class);
+		when(testContext.getSuite()).thenReturn(shardSuite);
+		Method method = getClass().getMethod("shardAppliesToSampleData");
+		Iterator<Object[]> rows = new BaseFixture().bindingAndAvailFeatureTypeProductSet(testContext, method);
+		Set<Object> providedTypes = new HashSet<>();
+		while (rows.hasNext()) {
+			providedTypes.add(rows.next()[1]);
+		}
+		assertEquals(Set.of(typeName), providedTypes);
+	}
+
+	@Test
+	public void serviceDescriptionPerThread() throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		Document doc = factory.newDocumentBuilder().parse(getClass().getResourceAsStream("/capabilities-simple.xml"));
+		XmlSuite tngSuite = new XmlSuite();
+		tngSuite.setParameters(new HashMap<>(Map.of(TestRunArg.THREAD_COUNT.toString(), "2")));
+		ISuite tngISuite = mock(ISuite.class);
+		when(tngISuite.getXmlSuite()).thenReturn(tngSuite);
+		when(tngISuite.getAttribute(SuiteAttribute.TEST_SUBJECT.getName())).thenReturn(doc);
+		Document ownCopy = BaseFixture.getServiceDescription(tngISuite);
+		assertNotSame(doc, ownCopy);
+		assertSame(ownCopy, BaseFixture.getServiceDescription(tngISuite));
+		assertSame(CapabilitiesModel.of(doc), CapabilitiesModel.of(ownCopy));
+		Document[] otherCopy = new Document[1];
+		Thread worker = new Thread(() -> otherCopy[0] = BaseFixture.getServiceDescription(tngISuite));
+		worker.start();
+		worker.join();
+		assertNotSame(ownCopy, otherCopy[0]);
+		tngSuite.setParameters(new HashMap<>());
+		assertSame(doc, BaseFixture.getServiceDescription(tngISuite));
+	}
+
+	@Test
+	public void saveSampleDataInOutputDirectory() throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		Document doc = factory.newDocumentBuilder().parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		File outputDir = tempDir.newFolder("results");
+		ISuite tngISuite = mock(ISuite.class);
+		when(tngISuite.getOutputDirectory()).thenReturn(outputDir.getPath());
+		assertFalse(SuiteFixtureListener.saveSampleData(tngISuite));
+		when(tngISuite.getAttribute(SuiteAttribute.SAMPLER.getName())).thenReturn(new DataSampler(doc));
+		assertTrue(SuiteFixtureListener.saveSampleData(tngISuite));
+		File snapshotDir = new File(outputDir, RerunPlan.SAMPLE_DATA_DIR);
+		assertTrue(new File(snapshotDir, DataSampler.SNAPSHOT_INDEX).isFile());
+	}
+
+	@Test
+	public void invalidThreadCount() {
+		Map<String, String> params = new HashMap<String, String>();
+		params.put(TestRunArg.THREAD_COUNT.toString(), "many");
+		assertEquals(1, SuiteFixtureListener.getThreadCount(params));
 	}
 
 }
@@ -61,4 +61,19 @@ public class VerifyTestNGController {
 		controller.validateTestRunArgs(testRunArgs);
 	}
 
+	@Test
+	public void setArgumentReplacesValue() throws IOException, SAXException {
+		Properties testRunProps = new Properties();
+		testRunProps.setProperty(TestRunArg.SHARD.toString(), "1/2");
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream(1024);
+		testRunProps.storeToXML(outStream, "Integration test");
+		Document testRunArgs = docBuilder.parse(new ByteArrayInputStream(outStream.toByteArray()));
+		TestNGController.setArgument(testRunArgs, TestRunArg.SHARD, "2/2");
+		assertEquals("2/2", TestNGController.getArgument(testRunArgs, TestRunArg.SHARD));
+		assertEquals("Unexpected number of entries.", 1,
+				testRunArgs.getDocumentElement().getElementsByTagName("entry").getLength());
+		TestNGController.setDefaultArgument(testRunArgs, TestRunArg.SHARD, "1/2");
+		assertEquals("2/2", TestNGController.getArgument(testRunArgs, TestRunArg.SHARD));
+	}
+
 }
@@ -0,0 +1,158 @@
+package org.opengis.cite.iso19142;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+public class VerifyTestRunDaemon {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private TestRunDaemon daemon;
+
+	@Before
+	public void startDaemon() throws IOException {
+		this.daemon = new TestRunDaemon(0, tempDir.getRoot(), 1);
+		this.daemon.start();
+	}
+
+	@After
+	public void stopDaemon() {
+		this.daemon.stop(0);
+	}
+
+	@Test
+	public void getRunsNotAllowed() throws IOException {
+		HttpURLConnection conn = openConnection(TestRunDaemon.RUNS_PATH);
+		assertEquals(405, conn.getResponseCode());
+	}
+
+	@Test
+	public void tokenWrittenToFile() throws IOException {
+		String token = Files.readString(this.daemon.getTokenFile().toPath(), StandardCharsets.US_ASCII);
+		assertEquals(this.daemon.getToken(), token);
+	}
+
+	@Test
+	public void postMissingArgument() throws IOException {
+		HttpURLConnection conn = post(properties("sut", "http://localhost/wfs"), "application/xml");
+		assertEquals(400, conn.getResponseCode());
+	}
+
+	@Test
+	public void postMalformedArguments() throws IOException {
+		HttpURLConnection conn = post("<properties>", "application/xml");
+		assertEquals(400, conn.getResponseCode());
+	}
+
+	@Test
+	public void postWithoutToken() throws IOException {
+		HttpURLConnection conn = openConnection(TestRunDaemon.RUNS_PATH);
+		conn.setRequestMethod("POST");
+		conn.setDoOutput(true);
+		conn.setRequestProperty("Content-Type", "application/xml");
+		try (OutputStream out = conn.getOutputStream()) {
+			out.write(properties("sut", "http://localhost/wfs").getBytes(StandardCharsets.UTF_8));
+		}
+		assertEquals(401, conn.getResponseCode());
+	}
+
+	@Test
+	public void postUnsupportedMediaType() throws IOException {
+		HttpURLConnection conn = post(properties("wfs", "http://example.org/wfs"), "text/plain");
+		assertEquals(415, conn.getResponseCode());
+	}
+
+	@Test
+	public void postExternalEntity() throws IOException {
+		String entity = "<?xml version=\"1.0\"?>\n<!DOCTYPE properties [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>\n"
+				+ "<properties><entry key=\"wfs\">&xxe;</entry></properties>";
+		HttpURLConnection conn = post(entity, "application/xml");
+		assertEquals(400, conn.getResponseCode());
+	}
+
+	@Test
+	public void postLocalFile() throws IOException {
+		HttpURLConnection conn = post(properties("wfs", "file:///etc/passwd"), "application/xml");
+		assertEquals(400, conn.getResponseCode());
+	}
+
+	@Test
+	public void localHostNames() {
+		assertTrue(TestRunDaemon.isLocalHost("localhost"));
+		assertTrue(TestRunDaemon.isLocalHost("127.0.0.1:8080"));
+		assertTrue(TestRunDaemon.isLocalHost("LocalHost:80"));
+		assertFalse(TestRunDaemon.isLocalHost("attacker.example.org"));
+		assertFalse(TestRunDaemon.isLocalHost("localhost.example.org:8080"));
+		assertFalse(TestRunDaemon.isLocalHost(null));
+	}
+
+	@Test
+	public void acceptLoopbackSubjectByDefault() throws Exception {
+		TestRunDaemon.checkTestSubject(parse(properties("iut", "http://127.0.0.1:8080/wfs")), false);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectLoopbackSubject() throws Exception {
+		TestRunDaemon.checkTestSubject(parse(properties("iut", "http://127.0.0.1:8080/wfs")), true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectPrivateNetworkSubject() throws Exception {
+		TestRunDaemon.checkTestSubject(parse(properties("wfs", "http://192.168.1.10/wfs?request=GetCapabilities")),
+				true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectFileSubject() throws Exception {
+		TestRunDaemon.checkTestSubject(parse(properties("wfs", "file:///etc/passwd")), false);
+	}
+
+	private HttpURLConnection post(String entity, String contentType) throws IOException {
+		HttpURLConnection conn = openConnection(TestRunDaemon.RUNS_PATH);
+		conn.setRequestMethod("POST");
+		conn.setDoOutput(true);
+		conn.setRequestProperty("Content-Type", contentType);
+		conn.setRequestProperty("Authorization", "Bearer " + this.daemon.getToken());
+		try (OutputStream out = conn.getOutputStream()) {
+			out.write(entity.getBytes(StandardCharsets.UTF_8));
+		}
+		return conn;
+	}
+
+	private HttpURLConnection openConnection(String path) throws IOException {
+		URL url = new URL("http://" + this.daemon.getAddress() + path);
+		return (HttpURLConnection) url.openConnection();
+	}
+
+	private static String properties(String key, String value) {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<properties version=\"1.0\">\n  <entry key=\"" + key
+				+ "\">" + value + "</entry>\n</properties>";
+	}
+
+	private static Document parse(String entity) throws Exception {
+		return DocumentBuilderFactory.newInstance()
+			.newDocumentBuilder()
+			.parse(new InputSource(new StringReader(entity)));
+	}
+
+}
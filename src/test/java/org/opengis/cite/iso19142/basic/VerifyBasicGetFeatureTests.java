@@ -42,7 +42,7 @@ public class VerifyBasicGetFeatureTests {
 	public void buildAndResetValidator() {
 		BasicGetFeatureTests iut = new BasicGetFeatureTests();
 		iut.buildValidator();
-		Validator validator = iut.hintsValidator;
+		Validator validator = iut.getHintsValidator();
 		LSResourceResolver resolver = validator.getResourceResolver();
 		assertNotNull("Resolver is null.", resolver);
 		iut.resetValidator();
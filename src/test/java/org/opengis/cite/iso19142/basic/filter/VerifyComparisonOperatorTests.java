@@ -39,6 +39,7 @@ import org.opengis.cite.iso19142.FES2;
 import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.iso19142.SuiteAttribute;
 import org.opengis.cite.iso19142.util.DataSampler;
+import org.opengis.cite.iso19142.util.PropertyStatistics;
 import org.opengis.cite.iso19142.util.VerifyAppSchemaUtils;
 import org.opengis.cite.iso19142.util.WFSMessage;
 import org.opengis.cite.validation.XSModelBuilder;
@@ -115,6 +116,38 @@ public class VerifyComparisonOperatorTests {
 		assertThat("Unexpected maximum value.", range[range.length - 1], anyOf(is("600"), is("600.68")));
 	}
 
+	@Test
+	public void findNumericPropertyUsingStatistics() {
+		QName featureType = new QName(NS1, "SimpleFeature");
+		ITestContext context = mock(ITestContext.class);
+		ISuite testSuite = mock(ISuite.class);
+		when(context.getSuite()).thenReturn(testSuite);
+		DataSampler sampler = mock(DataSampler.class);
+		when(testSuite.getAttribute(SuiteAttribute.SAMPLER.getName())).thenReturn(sampler);
+		when(testSuite.getAttribute(org.opengis.cite.iso19136.SuiteAttribute.XSMODEL.getName())).thenReturn(model);
+		QName integerPropName = new QName(NS1, "intProperty2");
+		PropertyStatistics stats = new PropertyStatistics(integerPropName);
+		for (String value : Arrays.asList("600", "100", "200")) {
+			stats.add(value);
+		}
+		when(sampler.getPropertyStatistics(featureType, integerPropName)).thenReturn(stats);
+		QName doublePropName = new QName(NS1, "measurand");
+		PropertyStatistics doubleStats = new PropertyStatistics(doublePropName);
+		for (String value : Arrays.asList("600.68", "100.47", "200.54")) {
+			doubleStats.add(value);
+		}
+		when(sampler.getPropertyStatistics(featureType, doublePropName)).thenReturn(doubleStats);
+
+		ComparisonOperatorTests iut = new ComparisonOperatorTests();
+		iut.initQueryFilterFixture(context);
+		Set<XSTypeDefinition> dataTypes = iut.getNumericDataTypes(model);
+		Map<XSElementDeclaration, String[]> prop = iut.findFeaturePropertyValue(model, featureType, dataTypes);
+		assertFalse("Expected to find numeric property for SimpleFeature.", prop.isEmpty());
+		String[] range = prop.values().iterator().next();
+		assertThat("Unexpected minimum value.", range[0], anyOf(is("100"), is("100.47")));
+		assertThat("Unexpected maximum value.", range[1], anyOf(is("600"), is("600.68")));
+	}
+
 	@Test
 	public void addPropertyIsGreaterThanPredicate() throws SAXException, IOException {
 		Document reqEntity = docBuilder
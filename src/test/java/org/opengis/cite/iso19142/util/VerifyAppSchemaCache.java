@@ -0,0 +1,111 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.apache.xerces.xs.XSModel;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies the behavior of the AppSchemaCache class.
+ */
+public class VerifyAppSchemaCache {
+
+	private static final String XSD_NS = "http://www.w3.org/2001/XMLSchema";
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	@Test
+	public void resolveImportAndInclude() throws IOException {
+		URI schemaURI = writeSchemas("<xsd:element name='B' type='xsd:int'/>");
+		Map<URI, byte[]> schemaSet = AppSchemaCache.resolveSchemaSet(schemaURI);
+		assertEquals("Unexpected number of schema documents.", 3, schemaSet.size());
+	}
+
+	@Test
+	public void modelIsCachedByContent() throws IOException {
+		URI schemaURI = writeSchemas("<xsd:element name='B' type='xsd:int'/>");
+		XSModel model = AppSchemaCache.getModel(schemaURI);
+		assertNotNull("Expected element declaration from imported schema.", model.getElementDeclaration("B", "urn:b"));
+		assertSame("Expected cached model.", model, AppSchemaCache.getModel(schemaURI));
+	}
+
+	@Test
+	public void changeToImportedSchemaInvalidatesEntry() throws IOException {
+		URI schemaURI = writeSchemas("<xsd:element name='B' type='xsd:int'/>");
+		XSModel model = AppSchemaCache.getModel(schemaURI);
+		writeSchemas("<xsd:element name='B' type='xsd:int'/><xsd:element name='B2' type='xsd:int'/>");
+		XSModel newModel = AppSchemaCache.getModel(schemaURI);
+		assertNotSame("Expected new model.", model, newModel);
+		assertNotNull("Expected new element declaration.", newModel.getElementDeclaration("B2", "urn:b"));
+	}
+
+	@Test(expected = IOException.class)
+	public void invalidSchema() throws IOException {
+		URI schemaURI = writeSchemas("<xsd:element name='B' type='undefined'/>");
+		AppSchemaCache.getModel(schemaURI);
+	}
+
+	@Test
+	public void failureIsNotCached() throws IOException {
+		URI schemaURI = writeSchemas("<xsd:element name='B' type='undefined'/>");
+		try {
+			AppSchemaCache.getModel(schemaURI);
+		}
+		catch (IOException iox) {
+			// expected
+		}
+		String digest = AppSchemaCache.digest(AppSchemaCache.resolveSchemaSet(schemaURI));
+		assertFalse("Failed compilation was cached.", AppSchemaCache.isCached(digest));
+	}
+
+	@Test
+	public void leastRecentlyUsedModelIsDiscarded() throws IOException {
+		URI schemaURI = writeSchemas("<xsd:element name='B0' type='xsd:int'/>");
+		XSModel model = AppSchemaCache.getModel(schemaURI);
+		String digest = AppSchemaCache.digest(AppSchemaCache.resolveSchemaSet(schemaURI));
+		for (int i = 1; i <= AppSchemaCache.MAX_MODELS; i++) {
+			AppSchemaCache.getModel(writeSchemas(String.format("<xsd:element name='B%d' type='xsd:int'/>", i)));
+		}
+		assertFalse("Expected model to be discarded.", AppSchemaCache.isCached(digest));
+		writeSchemas("<xsd:element name='B0' type='xsd:int'/>");
+		assertNotSame("Expected new model.", model, AppSchemaCache.getModel(schemaURI));
+	}
+
+	/**
+	 * Writes a set of schema documents: a.xsd imports sub/b.xsd and includes a2.xsd.
+	 * @param content The content of the imported schema (urn:b).
+	 * @return The location of the top-level schema document.
+	 */
+	private URI writeSchemas(String content) throws IOException {
+		File dir = tmpFolder.getRoot();
+		File subDir = new File(dir, "sub");
+		subDir.mkdirs();
+		write(new File(dir, "a.xsd"), "urn:a",
+				"<xsd:import namespace='urn:b' schemaLocation='sub/b.xsd'/><xsd:include schemaLocation='a2.xsd'/>"
+						+ "<xsd:element name='A' type='xsd:string'/>");
+		write(new File(dir, "a2.xsd"), "urn:a", "<xsd:element name='A2' type='xsd:string'/>");
+		write(new File(subDir, "b.xsd"), "urn:b", content);
+		return new File(dir, "a.xsd").toURI();
+	}
+
+	private void write(File file, String targetNamespace, String content) throws IOException {
+		String schema = String.format("<xsd:schema xmlns:xsd='%s' targetNamespace='%s'>%s</xsd:schema>", XSD_NS,
+				targetNamespace, content);
+		Files.write(file.toPath(), schema.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,51 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.Arrays;
+
+import javax.xml.namespace.QName;
+
+import org.junit.Test;
+
+/**
+ * Verifies the behavior of the AppSchemaRegistry class.
+ */
+public class VerifyAppSchemaRegistry {
+
+	private static final String NS1 = "http://example.org/ns1";
+
+	private static final String NS2 = "http://example.org/ns2";
+
+	@Test
+	public void createRequestForNamespace() {
+		AppSchemaRegistry registry = new AppSchemaRegistry(URI.create("http://localhost/wfs2"),
+				Arrays.asList(new QName(NS1, "Beta"), new QName(NS2, "Gamma"), new QName(NS1, "Alpha")));
+		assertEquals("Unexpected number of namespaces.", 2, registry.getNamespaces().size());
+		assertEquals("Unexpected request URI.",
+				"http://localhost/wfs2?service=WFS&version=2.0.0&request=DescribeFeatureType"
+						+ "&typeNames=tns:Alpha,tns:Beta&namespaces=xmlns%28tns%2Chttp%3A%2F%2Fexample.org%2Fns1%29",
+				registry.createRequestURI(NS1).toString());
+	}
+
+	@Test
+	public void createRequestWithQueryInEndpoint() {
+		AppSchemaRegistry registry = new AppSchemaRegistry(URI.create("http://localhost/wfs2?map=test&"),
+				Arrays.asList(new QName(NS2, "Gamma")));
+		assertEquals("Unexpected request URI.",
+				"http://localhost/wfs2?map=test&service=WFS&version=2.0.0&request=DescribeFeatureType"
+						+ "&typeNames=tns:Gamma&namespaces=xmlns%28tns%2Chttp%3A%2F%2Fexample.org%2Fns2%29",
+				registry.createRequestURI(NS2).toString());
+	}
+
+	@Test
+	public void createRequestForUnknownNamespace() {
+		AppSchemaRegistry registry = new AppSchemaRegistry(URI.create("http://localhost/wfs2?"),
+				Arrays.asList(new QName(NS2, "Gamma")));
+		assertEquals("Unexpected request URI.",
+				"http://localhost/wfs2?service=WFS&version=2.0.0&request=DescribeFeatureType",
+				registry.createRequestURI(NS1).toString());
+	}
+
+}
@@ -0,0 +1,48 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.util.Utilities;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.util.FactoryException;
+
+/**
+ * Verifies the behavior of the CRSCache class.
+ */
+public class VerifyCRSCache {
+
+	@Test
+	public void resolveEquivalentIdentifiers() throws FactoryException {
+		CoordinateReferenceSystem crs = CRSCache.forIdentifier("urn:ogc:def:crs:EPSG::4326");
+		assertNotNull(crs);
+		assertSame("Expected cached CRS.", crs, CRSCache.forIdentifier("http://www.opengis.net/def/crs/EPSG/0/4326"));
+	}
+
+	@Test
+	public void definitionRoundTrip() throws FactoryException {
+		CoordinateReferenceSystem crs = CommonCRS.WGS84.geographic();
+		String wkt = CRSCache.toWKT(crs);
+		assertNotNull("Expected WKT definition.", wkt);
+		assertTrue("Expected single line.", wkt.indexOf('\n') < 0);
+		assertTrue("Parsed CRS differs from original.", Utilities.equalsIgnoreMetadata(crs, CRS.fromWKT(wkt)));
+	}
+
+	@Test
+	public void rejectDefinitionWithOtherIdentifier() throws FactoryException {
+		String wkt = CRSCache.toWKT(CRS.forCode("EPSG:4326"));
+		assertNotNull(CRSCache.parseDefinition("EPSG:4326", wkt));
+		assertNull("Expected definition to be rejected.", CRSCache.parseDefinition("EPSG:4258", wkt));
+	}
+
+	@Test
+	public void rejectInvalidDefinition() {
+		assertNull("Expected definition to be rejected.", CRSCache.parseDefinition("EPSG:4326", "GEOGCRS[\"WGS 84\""));
+	}
+
+}
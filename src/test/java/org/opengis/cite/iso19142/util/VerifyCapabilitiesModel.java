@@ -0,0 +1,121 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.cite.iso19142.CapabilitiesSection;
+import org.opengis.cite.iso19142.ConformanceClass;
+import org.opengis.cite.iso19142.ProtocolBinding;
+import org.opengis.cite.iso19142.WFS2;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Verifies the behavior of the CapabilitiesModel class.
+ */
+public class VerifyCapabilitiesModel {
+
+	private static DocumentBuilder docBuilder;
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+		docBuilder = dbf.newDocumentBuilder();
+	}
+
+	@Test
+	public void modelIsBuiltOncePerDocument() throws SAXException, IOException {
+		Document doc = docBuilder.parse(getClass().getResourceAsStream("/capabilities-simple.xml"));
+		CapabilitiesModel model = CapabilitiesModel.of(doc);
+		assertSame("Expected cached model.", model, CapabilitiesModel.of(doc));
+		Document otherDoc = docBuilder.parse(getClass().getResourceAsStream("/capabilities-simple.xml"));
+		assertNotSame("Expected new model for another document.", model, CapabilitiesModel.of(otherDoc));
+	}
+
+	@Test
+	public void operationEndpoints() throws SAXException, IOException {
+		Document doc = docBuilder.parse(getClass().getResourceAsStream("/capabilities-simple.xml"));
+		CapabilitiesModel model = CapabilitiesModel.of(doc);
+		assertEquals("Unexpected GET endpoint (trailing '?' removed).", "http://localhost/wfs2/capabilities",
+				model.getOperationEndpoint(WFS2.GET_CAPABILITIES, ProtocolBinding.GET).toString());
+		assertEquals("Unexpected POST endpoint.", "http://localhost/wfs2/capabilities",
+				model.getOperationEndpoint(WFS2.GET_CAPABILITIES, ProtocolBinding.POST).toString());
+		assertEquals("Expected empty URI reference.", URI.create(""),
+				model.getOperationEndpoint(WFS2.DESCRIBE_FEATURE_TYPE, ProtocolBinding.POST));
+		assertEquals("Expected empty URI reference for unknown operation.", URI.create(""),
+				model.getOperationEndpoint("Unknown", ProtocolBinding.GET));
+	}
+
+	@Test
+	public void bindingsAndConformanceClaims() throws SAXException, IOException {
+		Document doc = docBuilder.parse(getClass().getResourceAsStream("/capabilities-simple.xml"));
+		CapabilitiesModel model = CapabilitiesModel.of(doc);
+		assertTrue("Expected POST in global bindings.", model.getGlobalBindings().contains(ProtocolBinding.POST));
+		assertEquals("Unexpected number of GetFeature bindings.", 2,
+				model.getOperationBindings(WFS2.GET_FEATURE).size());
+		Set<ConformanceClass> claims = model.getConformanceClaims();
+		assertEquals("Unexpected number of conformance claims.", 3, claims.size());
+		assertTrue("Expected 'Simple WFS' claim.",
+				model.implementsConformanceClass(ConformanceClass.SIMPLE_WFS.getConstraintName()));
+		assertFalse("Unexpected 'Basic WFS' claim.", model.implementsConformanceClass(WFS2.BASIC_WFS));
+	}
+
+	@Test
+	public void constraintValues() throws SAXException, IOException {
+		Document doc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		CapabilitiesModel model = CapabilitiesModel.of(doc);
+		assertEquals("Unexpected value of ImplementsBasicWFS.", "FALSE", model.getConstraintValue(WFS2.BASIC_WFS));
+		assertTrue("Expected claim (allowed value).", model.implementsConformanceClass("ImplementsQuery"));
+		assertEquals("Expected empty value.", "", model.getConstraintValue("NoSuchConstraint"));
+	}
+
+	@Test
+	public void operatorsAndFeatureTypes() throws SAXException, IOException {
+		Document doc = docBuilder.parse(getClass().getResourceAsStream("/capabilities-simple.xml"));
+		CapabilitiesModel model = CapabilitiesModel.of(doc);
+		assertTrue("Expected Intersects operator.", model.implementsSpatialOperator("Intersects"));
+		assertFalse("Unexpected Beyond operator.", model.implementsSpatialOperator("Beyond"));
+		assertEquals("Unexpected feature types.", new QName("http://example.org/ns1", "Alpha"),
+				model.getFeatureTypes().get(0));
+	}
+
+	@Test
+	public void mergeFeatureTypeList() throws SAXException, IOException {
+		CapabilitiesModel base = CapabilitiesModel
+			.of(docBuilder.parse(getClass().getResourceAsStream("/capabilities-simple.xml")));
+		CapabilitiesModel update = CapabilitiesModel
+			.of(docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml")));
+		CapabilitiesModel model = base.merge(update, EnumSet.of(CapabilitiesSection.FEATURE_TYPE_LIST));
+		assertEquals("Unexpected number of feature types.", 2, model.getFeatureTypes().size());
+		assertEquals("Unexpected number of FeatureTypeInfo entries.", 2, model.createFeatureTypeInfo().size());
+		assertTrue("Expected 'Simple WFS' claim (not merged).",
+				model.implementsConformanceClass(ConformanceClass.SIMPLE_WFS.getConstraintName()));
+		assertTrue("Expected Intersects operator (not merged).", model.implementsSpatialOperator("Intersects"));
+		assertEquals("Unexpected feature types in base model.", 1, base.getFeatureTypes().size());
+	}
+
+	@Test
+	public void selectFeatureTypes() throws SAXException, IOException {
+		CapabilitiesModel base = CapabilitiesModel
+			.of(docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml")));
+		QName firstType = base.getFeatureTypes().get(0);
+		CapabilitiesModel model = base.selectFeatureTypes(typeName -> !typeName.equals(firstType));
+		assertEquals("Unexpected number of feature types.", 1, model.getFeatureTypes().size());
+		assertFalse("Unexpected feature type.", model.createFeatureTypeInfo().containsKey(firstType));
+		assertEquals("Unexpected GetFeature bindings.", base.getOperationBindings(WFS2.GET_FEATURE),
+				model.getOperationBindings(WFS2.GET_FEATURE));
+		assertEquals("Unexpected feature types in base model.", 2, base.getFeatureTypes().size());
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.cite.iso19142.FeatureTypeInfo;
+import org.opengis.cite.iso19142.ProtocolBinding;
+import org.opengis.cite.iso19142.WFS2;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Verifies the behavior of the CapabilitiesReader class.
+ */
+public class VerifyCapabilitiesReader {
+
+	private static DocumentBuilder docBuilder;
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+		docBuilder = dbf.newDocumentBuilder();
+	}
+
+	@Test
+	public void readSimpleCapabilities() throws XMLStreamException, IOException, SAXException {
+		CapabilitiesModel model = read("/capabilities-simple.xml");
+		CapabilitiesModel domModel = CapabilitiesModel
+			.of(docBuilder.parse(getClass().getResourceAsStream("/capabilities-simple.xml")));
+		for (String opName : domModel.getOperationNames()) {
+			for (ProtocolBinding binding : new ProtocolBinding[] { ProtocolBinding.GET, ProtocolBinding.POST }) {
+				assertEquals("Unexpected endpoint for " + opName + " (" + binding + ")",
+						domModel.getOperationEndpoint(opName, binding), model.getOperationEndpoint(opName, binding));
+			}
+			assertEquals("Unexpected bindings for " + opName, domModel.getOperationBindings(opName),
+					model.getOperationBindings(opName));
+		}
+		assertEquals("Unexpected version.", domModel.getVersion(), model.getVersion());
+		assertEquals("Unexpected global bindings.", domModel.getGlobalBindings(), model.getGlobalBindings());
+		assertEquals("Unexpected conformance claims.", domModel.getConformanceClaims(), model.getConformanceClaims());
+		assertEquals("Unexpected value of ImplementsBasicWFS.", "FALSE", model.getConstraintValue(WFS2.BASIC_WFS));
+		assertTrue("Expected Intersects operator.", model.implementsSpatialOperator("Intersects"));
+	}
+
+	@Test
+	public void readFeatureTypeInfo() throws XMLStreamException, IOException {
+		CapabilitiesModel model = read("/capabilities-simple.xml");
+		Map<QName, FeatureTypeInfo> featureInfo = model.createFeatureTypeInfo();
+		assertEquals("Unexpected number of feature types.", 1, featureInfo.size());
+		FeatureTypeInfo typeInfo = featureInfo.get(new QName("http://example.org/ns1", "Alpha"));
+		assertNotNull("Feature type not found.", typeInfo);
+		assertEquals("Unexpected default CRS.", "urn:ogc:def:crs:EPSG::4326", typeInfo.getDefaultCRS());
+		assertNotNull("Expected spatial extent.", typeInfo.getSpatialExtent());
+	}
+
+	@Test
+	public void readConstraintClaimedByAllowedValue() throws XMLStreamException, IOException {
+		CapabilitiesModel model = read("/wfs/capabilities-acme.xml");
+		assertTrue("Expected claim (allowed value).", model.implementsConformanceClass("ImplementsMinTemporalFilter"));
+		assertFalse("Unexpected 'Basic WFS' claim.", model.implementsConformanceClass(WFS2.BASIC_WFS));
+	}
+
+	@Test(expected = XMLStreamException.class)
+	public void rejectXMLInclusion() throws XMLStreamException {
+		String capabilities = "<wfs:WFS_Capabilities xmlns:wfs='http://www.opengis.net/wfs/2.0' version='2.0.2'>"
+				+ "<xi:include xmlns:xi='http://www.w3.org/2001/XInclude' href='FeatureTypeList.xml'/>"
+				+ "</wfs:WFS_Capabilities>";
+		CapabilitiesReader.read(new ByteArrayInputStream(capabilities.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void summaryDocumentUsesModel() throws XMLStreamException, IOException {
+		CapabilitiesModel model = read("/capabilities-simple.xml");
+		Document summary = model.createSummaryDocument("http://example.org/wfs");
+		assertSame(model, CapabilitiesModel.of(summary));
+		assertEquals(WFS2.WFS_CAPABILITIES, summary.getDocumentElement().getLocalName());
+		assertEquals(model.getVersion(), summary.getDocumentElement().getAttribute("version"));
+		assertEquals(model.getFeatureTypes(), ServiceMetadataUtils.getFeatureTypes(summary));
+	}
+
+	@Test(expected = XMLStreamException.class)
+	public void rejectOtherDocument() throws XMLStreamException, IOException {
+		read("/atom-feed.xml");
+	}
+
+	private CapabilitiesModel read(String resource) throws XMLStreamException, IOException {
+		try (InputStream inStream = getClass().getResourceAsStream(resource)) {
+			return CapabilitiesReader.read(inStream);
+		}
+	}
+
+}
@@ -4,13 +4,19 @@ import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.List;
@@ -25,14 +31,18 @@ import javax.xml.validation.Schema;
 import org.apache.xerces.xs.XSElementDeclaration;
 import org.apache.xerces.xs.XSModel;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.opengis.cite.iso19142.FeatureTypeInfo;
+import org.opengis.cite.iso19142.Namespaces;
 import org.opengis.cite.validation.XSModelBuilder;
 import org.opengis.cite.validation.XmlSchemaCompiler;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.geometry.Envelope;
 import org.opengis.temporal.Period;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 public class VerifyDataSampler {
@@ -43,6 +53,9 @@ public class VerifyDataSampler {
 
 	private static DocumentBuilder docBuilder;
 
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
 	@BeforeClass
 	public static void createBuilder() throws Exception {
 		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
@@ -69,6 +82,55 @@ public class VerifyDataSampler {
 		assertTrue("Expected type: " + simpleFeature, featureTypes.contains(simpleFeature));
 	}
 
+	@Test
+	public void pageSizeFromSampleSize() throws SAXException, IOException {
+		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		DataSampler iut = new DataSampler(capabilitiesDoc);
+		assertEquals("Unexpected default page size.", 25, iut.getPageSize());
+		iut.setSampleSize(60);
+		assertEquals(60, iut.getPageSize());
+		assertEquals(2, iut.getMaxPages(iut.getPageSize()));
+		iut.setSampleSize(5000);
+		assertEquals(DataSampler.MAX_PAGE_SIZE, iut.getPageSize());
+		assertEquals(10, iut.getMaxPages(iut.getPageSize()));
+	}
+
+	@Test
+	public void pageSizeBoundedByCountDefault() throws SAXException, IOException {
+		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		Element opsMetadata = (Element) capabilitiesDoc.getElementsByTagNameNS(Namespaces.OWS, "OperationsMetadata")
+			.item(0);
+		Element constraint = capabilitiesDoc.createElementNS(Namespaces.OWS, "Constraint");
+		constraint.setAttribute("name", "CountDefault");
+		constraint.appendChild(capabilitiesDoc.createElementNS(Namespaces.OWS, "NoValues"));
+		constraint.appendChild(capabilitiesDoc.createElementNS(Namespaces.OWS, "DefaultValue"))
+			.setTextContent("20");
+		opsMetadata.appendChild(constraint);
+		DataSampler iut = new DataSampler(capabilitiesDoc);
+		iut.setSampleSize(50);
+		assertEquals(20, iut.getPageSize());
+		assertEquals(6, iut.getMaxPages(iut.getPageSize()));
+	}
+
+	@Test
+	public void stopHarvestingAtRepeatedPage() throws SAXException, IOException {
+		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		DataSampler iut = new DataSampler(capabilitiesDoc);
+		iut.setSampleSize(100);
+		Document page = docBuilder.parse(getClass().getResourceAsStream("/wfs/FeatureCollection-SimpleFeature.xml"));
+		URI nextPage = URI.create("http://example.org/wfs?request=GetFeature&startIndex=2");
+		page.getDocumentElement().setAttribute("next", nextPage.toString());
+		WFSClient wfsClient = mock(WFSClient.class);
+		when(wfsClient.getResultPage(nextPage)).thenReturn(page);
+		QName simpleFeature = new QName(TNS, "SimpleFeature");
+		FeatureTypeInfo typeInfo = iut.getFeatureTypeInfo().get(simpleFeature);
+		iut.harvestFeatureData(wfsClient, typeInfo, simpleFeature, page);
+		verify(wfsClient, times(1)).getResultPage(nextPage);
+		assertTrue(typeInfo.isInstantiated());
+		Document sampleData = docBuilder.parse(typeInfo.getSampleData());
+		assertEquals(4, sampleData.getElementsByTagNameNS(TNS, "SimpleFeature").getLength());
+	}
+
 	@Test
 	public void getSpatialExtentOfSimpleFeature() throws URISyntaxException, SAXException, IOException {
 		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
@@ -98,6 +160,24 @@ public class VerifyDataSampler {
 		assertTrue("Expected duration P8M", period.length().toString().startsWith("P8M"));
 	}
 
+	@Test
+	public void getTemporalIndexOfSimpleFeatures() throws URISyntaxException, SAXException, IOException {
+		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		QName simpleFeature = new QName(TNS, "SimpleFeature");
+		List<XSElementDeclaration> tmProps = AppSchemaUtils.getTemporalFeatureProperties(model, simpleFeature);
+		XSElementDeclaration tmProp = tmProps.stream()
+			.filter(decl -> decl.getName().equals("dateTimeProperty"))
+			.findAny()
+			.orElse(null);
+		DataSampler iut = new DataSampler(capabilitiesDoc);
+		setSampleData(iut, simpleFeature, "/wfs/FeatureCollection-SimpleFeature.xml");
+		TemporalIntervalIndex index = iut.getTemporalIndex(model, simpleFeature, tmProp);
+		assertEquals("Unexpected number of indexed values.", 2, index.size());
+		long startOf2016 = java.time.Instant.parse("2016-01-01T00:00:00Z").toEpochMilli();
+		assertEquals("Unexpected number of values after 2016-01-01.", 1, index.countAfter(startOf2016));
+		assertEquals("Unexpected number of values before 2016-01-01.", 1, index.countBefore(startOf2016));
+	}
+
 	@Test
 	public void getTemporalExtentOfComplexFeatures() throws URISyntaxException, SAXException, IOException {
 		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
@@ -154,6 +234,53 @@ public class VerifyDataSampler {
 		assertThat(id, is("CF01"));
 	}
 
+	@Test
+	public void selectAllRandomFeatureIdentifiers() throws Exception {
+		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		QName simpleFt = new QName(TNS, "SimpleFeature");
+		DataSampler iut = new DataSampler(capabilitiesDoc);
+		setSampleData(iut, simpleFt, "/wfs/FeatureCollection-SimpleFeature.xml");
+		Set<String> idSet = iut.selectRandomFeatureIdentifiers(simpleFt, 5);
+		assertEquals("Unexpected number of identifiers.", 2, idSet.size());
+		assertTrue("Expected identifier: SF-02", idSet.contains("SF-02"));
+	}
+
+	@Test
+	public void selectRandomFeatureIdentifiersWithSeed() throws Exception {
+		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		QName simpleFt = new QName(TNS, "SimpleFeature");
+		DataSampler iut = new DataSampler(capabilitiesDoc);
+		setSampleData(iut, simpleFt, "/wfs/FeatureCollection-SimpleFeature.xml");
+		iut.setRandomSeed(42L);
+		Set<String> firstSelection = iut.selectRandomFeatureIdentifiers(simpleFt, 1);
+		DataSampler replay = new DataSampler(capabilitiesDoc);
+		setSampleData(replay, simpleFt, "/wfs/FeatureCollection-SimpleFeature.xml");
+		replay.setRandomSeed(iut.getRandomSeed());
+		assertEquals("Unexpected selection.", firstSelection, replay.selectRandomFeatureIdentifiers(simpleFt, 1));
+	}
+
+	@Test
+	public void saveAndRestoreSnapshot() throws Exception {
+		Document capabilitiesDoc = docBuilder.parse(getClass().getResourceAsStream("/wfs/capabilities-acme.xml"));
+		QName simpleFeature = new QName(TNS, "SimpleFeature");
+		QName complexFeature = new QName(TNS, "ComplexFeature");
+		DataSampler sampler = new DataSampler(capabilitiesDoc);
+		setSampleData(sampler, simpleFeature, "/wfs/FeatureCollection-SimpleFeature.xml");
+		sampler.getFeatureTypeInfo().get(complexFeature).setInstantiated(false);
+		sampler.setRandomSeed(42);
+		File snapshotDir = tempDir.newFolder("sample-data");
+		sampler.saveSnapshot(snapshotDir);
+		DataSampler iut = new DataSampler(capabilitiesDoc);
+		iut.restoreFeatureData(snapshotDir, SamplingPlan.COMPLETE);
+		FeatureTypeInfo simpleInfo = iut.getFeatureTypeInfo().get(simpleFeature);
+		assertTrue(simpleInfo.isInstantiated());
+		assertTrue(simpleInfo.getSampleData().exists());
+		assertFalse(iut.getFeatureTypeInfo().get(complexFeature).isInstantiated());
+		assertEquals(42, iut.getRandomSeed());
+		assertEquals(2, iut.getPropertyStatistics(simpleFeature, new QName(TNS, "decimalProperty")).getValueCount());
+		iut.deleteData();
+	}
+
 	private void setSampleData(DataSampler iut, QName featureType, String resource) throws URISyntaxException {
 		URL dataURL = getClass().getResource(resource);
 		File dataFile = new File(dataURL.toURI());
@@ -0,0 +1,163 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.xml.namespace.QName;
+
+import org.apache.sis.geometry.Envelopes;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.util.Utilities;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opengis.geometry.Envelope;
+import org.opengis.referencing.cs.AxisDirection;
+
+/**
+ * Verifies the behavior of the EnvelopeScanner class.
+ */
+public class VerifyEnvelopeScanner {
+
+	private static final String TNS = "http://example.org/ns1";
+
+	private static final String WGS84_2D = "urn:ogc:def:crs:EPSG::4326";
+
+	private static final String WGS84_3D = "urn:ogc:def:crs:EPSG::4979";
+
+	private static final String FEATURES = "<wfs:member><tns:F><tns:geom><gml:LineString srsDimension='3'>"
+			+ "<gml:posList>1 2 3 4 5 6</gml:posList></gml:LineString></tns:geom>"
+			+ "<tns:pt><gml:Point><gml:pos>10 20</gml:pos></gml:Point></tns:pt></tns:F></wfs:member>"
+			+ "<wfs:member><tns:F><tns:geom><gml:Point>"
+			+ "<gml:coordinates decimal=',' cs=';' ts=' '>-1,5;7,0;0,5</gml:coordinates>"
+			+ "</gml:Point></tns:geom></tns:F></wfs:member>";
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	private File createDataFile() throws IOException {
+		return createDataFile(FEATURES);
+	}
+
+	private File createDataFile(String members) throws IOException {
+		File dataFile = tmpFolder.newFile();
+		String features = "<wfs:FeatureCollection xmlns:wfs='http://www.opengis.net/wfs/2.0'"
+				+ " xmlns:gml='http://www.opengis.net/gml/3.2' xmlns:tns='" + TNS + "'>" + members
+				+ "</wfs:FeatureCollection>";
+		Files.write(dataFile.toPath(), features.getBytes(StandardCharsets.UTF_8));
+		return dataFile;
+	}
+
+	private static String point(String srsName, String pos) {
+		return String.format("<wfs:member><tns:F><tns:geom><gml:Point srsName='%s'><gml:pos>%s</gml:pos>"
+				+ "</gml:Point></tns:geom></tns:F></wfs:member>", srsName, pos);
+	}
+
+	private static double[] minimum(Envelope env) {
+		double[] values = new double[env.getDimension()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = env.getMinimum(i);
+		}
+		return values;
+	}
+
+	private static double[] maximum(Envelope env) {
+		double[] values = new double[env.getDimension()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = env.getMaximum(i);
+		}
+		return values;
+	}
+
+	@Test
+	public void scanPosListAndCoordinates() throws IOException {
+		Envelope env = EnvelopeScanner.scan(createDataFile(), Arrays.asList(new QName(TNS, "geom")), WGS84_3D);
+		assertEquals("Unexpected dimension.", 3, env.getDimension());
+		assertArrayEquals("Unexpected minimum values.", new double[] { -1.5, 2.0, 0.5 }, minimum(env), 1E-9);
+		assertArrayEquals("Unexpected maximum values.", new double[] { 4.0, 7.0, 6.0 }, maximum(env), 1E-9);
+	}
+
+	@Test
+	public void scanFirstPropertyWithValues() throws IOException {
+		Envelope env = EnvelopeScanner.scan(createDataFile(),
+				Arrays.asList(new QName(TNS, "missing"), new QName(TNS, "pt"), new QName(TNS, "geom")), WGS84_2D);
+		assertArrayEquals("Unexpected minimum values.", new double[] { 10.0, 20.0 }, minimum(env), 1E-9);
+	}
+
+	@Test
+	public void scanWithoutGeometryValues() throws IOException {
+		Envelope env = EnvelopeScanner.scan(createDataFile(), Collections.singletonList(new QName(TNS, "missing")),
+				WGS84_2D);
+		assertNull("Expected no envelope.", env);
+	}
+
+	@Test
+	public void defaultCRSApplies() throws IOException {
+		Envelope env = EnvelopeScanner.scan(createDataFile(), Arrays.asList(new QName(TNS, "geom")), WGS84_3D);
+		assertTrue("Expected default CRS.", Utilities.equalsIgnoreMetadata(CRS.forCode("EPSG:4979"),
+				env.getCoordinateReferenceSystem()));
+	}
+
+	@Test
+	public void skipValuesInCRSOfOtherDimension() throws Exception {
+		File dataFile = createDataFile();
+		assertNull("Expected no envelope.",
+				EnvelopeScanner.scan(dataFile, Arrays.asList(new QName(TNS, "geom")), WGS84_2D));
+		Envelope env = EnvelopeScanner.scan(dataFile, Arrays.asList(new QName(TNS, "geom"), new QName(TNS, "pt")),
+				WGS84_2D);
+		assertArrayEquals("Unexpected minimum values.", new double[] { 10.0, 20.0 }, minimum(env), 1E-9);
+	}
+
+	@Test
+	public void skipValuesWithoutCRS() throws IOException {
+		assertNull("Expected no envelope.",
+				EnvelopeScanner.scan(createDataFile(), Arrays.asList(new QName(TNS, "pt")), null));
+	}
+
+	@Test
+	public void latitudeFirstInEpsg4326() throws Exception {
+		File dataFile = createDataFile(point(WGS84_2D, "50 10") + point(WGS84_2D, "52 12"));
+		Envelope env = EnvelopeScanner.scan(dataFile, Arrays.asList(new QName(TNS, "geom")), null);
+		assertEquals("Unexpected first axis.", AxisDirection.NORTH,
+				env.getCoordinateReferenceSystem().getCoordinateSystem().getAxis(0).getDirection());
+		assertArrayEquals("Unexpected minimum values.", new double[] { 50.0, 10.0 }, minimum(env), 1E-9);
+		assertArrayEquals("Unexpected maximum values.", new double[] { 52.0, 12.0 }, maximum(env), 1E-9);
+	}
+
+	@Test
+	public void scanEnvelopeCorners() throws Exception {
+		File dataFile = createDataFile("<wfs:member><tns:F><tns:geom>"
+				+ "<gml:Envelope srsName='http://www.opengis.net/def/crs/EPSG/0/4326'>"
+				+ "<gml:lowerCorner>40 -10</gml:lowerCorner><gml:upperCorner>60 20</gml:upperCorner>"
+				+ "</gml:Envelope></tns:geom></tns:F></wfs:member>");
+		Envelope env = EnvelopeScanner.scan(dataFile, Arrays.asList(new QName(TNS, "geom")), null);
+		assertTrue("Unexpected CRS.",
+				Utilities.equalsIgnoreMetadata(CRS.forCode("EPSG:4326"), env.getCoordinateReferenceSystem()));
+		assertArrayEquals("Unexpected minimum values.", new double[] { 40.0, -10.0 }, minimum(env), 1E-9);
+		assertArrayEquals("Unexpected maximum values.", new double[] { 60.0, 20.0 }, maximum(env), 1E-9);
+	}
+
+	@Test
+	public void longitudeFirstForLegacyIdentifiers() throws Exception {
+		for (String srsName : Arrays.asList("EPSG:4326", "http://www.opengis.net/gml/srs/epsg.xml#4326")) {
+			File dataFile = createDataFile(point(srsName, "10 50"));
+			Envelope env = EnvelopeScanner.scan(dataFile, Arrays.asList(new QName(TNS, "geom")), null);
+			assertEquals("Unexpected first axis for " + srsName, AxisDirection.EAST,
+					env.getCoordinateReferenceSystem().getCoordinateSystem().getAxis(0).getDirection());
+			assertArrayEquals("Unexpected minimum values.", new double[] { 10.0, 50.0 }, minimum(env), 1E-9);
+			Envelope latLon = Envelopes.transform(env, CRS.forCode("EPSG:4326"));
+			assertArrayEquals("Unexpected transformed values for " + srsName, new double[] { 50.0, 10.0 },
+					minimum(latLon), 1E-9);
+		}
+	}
+
+}
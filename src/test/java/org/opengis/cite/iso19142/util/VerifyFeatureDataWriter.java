@@ -0,0 +1,67 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opengis.cite.iso19142.Namespaces;
+import org.opengis.cite.iso19142.WFS2;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Verifies the behavior of the FeatureDataWriter class.
+ */
+public class VerifyFeatureDataWriter {
+
+	private static DocumentBuilder docBuilder;
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	@BeforeClass
+	public static void initParser() throws Exception {
+		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+		docBuilder = dbf.newDocumentBuilder();
+	}
+
+	@Test
+	public void appendTwoPages() throws SAXException, IOException {
+		Document page = docBuilder
+			.parse(getClass().getResourceAsStream("/wfs/FeatureCollection-SimpleFeature.xml"));
+		File file = tmpFolder.newFile("sample.xml");
+		try (FeatureDataWriter writer = new FeatureDataWriter(file)) {
+			assertEquals("Unexpected number of members appended.", 2, writer.appendMembers(page, -1));
+			writer.appendMembers(page, -1);
+			assertEquals("Unexpected member count.", 4, writer.getMemberCount());
+		}
+		Document result = docBuilder.parse(file);
+		assertEquals(WFS2.FEATURE_COLLECTION, result.getDocumentElement().getLocalName());
+		assertEquals(4, result.getElementsByTagNameNS(Namespaces.WFS, WFS2.MEMBER).getLength());
+		assertEquals(4, result.getElementsByTagNameNS("http://example.org/ns1", "SimpleFeature")
+			.getLength());
+	}
+
+	@Test
+	public void appendWithLimit() throws SAXException, IOException {
+		Document page = docBuilder
+			.parse(getClass().getResourceAsStream("/wfs/FeatureCollection-SimpleFeature.xml"));
+		File file = tmpFolder.newFile("sample.xml");
+		try (FeatureDataWriter writer = new FeatureDataWriter(file)) {
+			writer.appendMembers(page, 3);
+			assertEquals("Unexpected number of members appended.", 1, writer.appendMembers(page, 1));
+		}
+		Document result = docBuilder.parse(file);
+		assertEquals(3, result.getElementsByTagNameNS(Namespaces.WFS, WFS2.MEMBER).getLength());
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+
+import org.apache.xerces.xs.XSElementDeclaration;
+import org.apache.xerces.xs.XSModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.cite.validation.XSModelBuilder;
+import org.opengis.cite.validation.XmlSchemaCompiler;
+
+/**
+ * Verifies the behavior of the FeatureTypeSchemaIndex class.
+ */
+public class VerifyFeatureTypeSchemaIndex {
+
+	private static final String EX_NS = "http://example.org/ns1";
+
+	private static final QName SIMPLE_FEATURE = new QName(EX_NS, "SimpleFeature");
+
+	private static final QName COMPLEX_FEATURE = new QName(EX_NS, "ComplexFeature");
+
+	private static XSModel model;
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		URL entityCatalog = VerifyFeatureTypeSchemaIndex.class.getResource("/schema-catalog.xml");
+		XmlSchemaCompiler xsdCompiler = new XmlSchemaCompiler(entityCatalog);
+		InputStream xis = VerifyFeatureTypeSchemaIndex.class.getResourceAsStream("/xsd/simple.xsd");
+		Schema schema = xsdCompiler.compileXmlSchema(new StreamSource(xis));
+		model = XSModelBuilder.buildXMLSchemaModel(schema, EX_NS);
+	}
+
+	@Test
+	public void indexIsBuiltOncePerModel() {
+		FeatureTypeSchemaIndex index = FeatureTypeSchemaIndex.of(model);
+		assertSame("Expected cached index.", index, FeatureTypeSchemaIndex.of(model));
+		assertTrue("Expected SimpleFeature to be indexed.", index.getFeatureTypes().contains(SIMPLE_FEATURE));
+		assertTrue("Expected ComplexFeature to be indexed.", index.getFeatureTypes().contains(COMPLEX_FEATURE));
+	}
+
+	@Test
+	public void classifyGeometryProperties() {
+		FeatureTypeSchemaIndex index = FeatureTypeSchemaIndex.of(model);
+		assertEquals("Unexpected number of geometry properties.", 3,
+				index.getGeometryProperties(SIMPLE_FEATURE).size());
+		List<XSElementDeclaration> curveProps = index.getGeometryProperties(SIMPLE_FEATURE, "AbstractCurveType");
+		assertEquals("Unexpected number of curve properties.", 1, curveProps.size());
+		assertEquals("Unexpected property name.", "lineProperty", curveProps.get(0).getName());
+		assertTrue("Expected no properties for unknown GML type.",
+				index.getGeometryProperties(SIMPLE_FEATURE, "NoSuchType").isEmpty());
+	}
+
+	@Test
+	public void classifySimpleProperties() {
+		FeatureTypeSchemaIndex index = FeatureTypeSchemaIndex.of(model);
+		XSElementDeclaration obsProp = index.getSimpleProperties(COMPLEX_FEATURE).get(0);
+		assertEquals("Unexpected property name.", "observation", obsProp.getName());
+		Map<XSElementDeclaration, QName> datatypes = index.getBuiltInDatatypes(COMPLEX_FEATURE);
+		assertEquals("Unexpected datatype.", new QName(XMLConstants.W3C_XML_SCHEMA_NS_URI, "double"),
+				datatypes.get(obsProp));
+		assertTrue("Expected numeric property.", index.getNumericProperties(COMPLEX_FEATURE).contains(obsProp));
+		assertEquals("Unexpected temporal property.", "validTime",
+				index.getTemporalProperties(COMPLEX_FEATURE).get(0).getName());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void indexedListsAreUnmodifiable() {
+		FeatureTypeSchemaIndex.of(model).getAllProperties(COMPLEX_FEATURE).clear();
+	}
+
+	@Test
+	public void appSchemaUtilsReturnsCopy() {
+		List<XSElementDeclaration> props = AppSchemaUtils.getAllFeatureProperties(model, COMPLEX_FEATURE);
+		props.clear();
+		assertEquals("Found unexpected number of feature properties.", 15,
+				FeatureTypeSchemaIndex.of(model).getAllProperties(COMPLEX_FEATURE).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownFeatureType() {
+		FeatureTypeSchemaIndex.of(model).getAllProperties(new QName(EX_NS, "Unknown"));
+	}
+
+}
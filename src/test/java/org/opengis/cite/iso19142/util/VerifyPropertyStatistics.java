@@ -0,0 +1,84 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import javax.xml.namespace.QName;
+
+import org.junit.Test;
+import org.opengis.cite.iso19142.util.PropertyStatistics.ValueType;
+
+/**
+ * Verifies the behavior of the PropertyStatistics class.
+ */
+public class VerifyPropertyStatistics {
+
+	private static final QName PROP_NAME = new QName("http://example.org/ns1", "measurand");
+
+	@Test
+	public void emptyStatistics() {
+		PropertyStatistics iut = new PropertyStatistics(PROP_NAME);
+		assertEquals(0, iut.getValueCount());
+		assertNull("Expected no value type.", iut.getValueType());
+		assertNull("Expected no minimum value.", iut.getMinimum());
+		assertEquals(0, iut.getDistinctCount());
+	}
+
+	@Test
+	public void numericRange() {
+		PropertyStatistics iut = new PropertyStatistics(PROP_NAME);
+		for (String value : Arrays.asList("600.68", "1.0E+1", "-100.47", "200.54", "600.68")) {
+			iut.add(value);
+		}
+		assertEquals(ValueType.NUMERIC, iut.getValueType());
+		assertEquals("Unexpected minimum.", "-100.47", iut.getMinimum());
+		assertEquals("Unexpected maximum.", "600.68", iut.getMaximum());
+		assertEquals("Unexpected value count.", 5, iut.getValueCount());
+		assertEquals("Unexpected distinct count.", 4, iut.getDistinctCount());
+		assertEquals(Arrays.asList("600.68", "1.0E+1", "-100.47", "200.54"), iut.getSampleValues());
+	}
+
+	@Test
+	public void temporalRange() {
+		PropertyStatistics iut = new PropertyStatistics(PROP_NAME);
+		iut.add("2012-12-12T17:00:00+04:00");
+		iut.add("2012-12-12T10:00:00-08:00");
+		iut.add("2012-12-12T17:00:00Z");
+		assertEquals(ValueType.TEMPORAL, iut.getValueType());
+		assertEquals("Unexpected minimum.", "2012-12-12T17:00:00+04:00", iut.getMinimum());
+		assertEquals("Unexpected maximum.", "2012-12-12T10:00:00-08:00", iut.getMaximum());
+	}
+
+	@Test
+	public void mixedValuesAreStrings() {
+		PropertyStatistics iut = new PropertyStatistics(PROP_NAME);
+		iut.add("42");
+		iut.add("Haida Gwaii");
+		iut.addNil();
+		assertEquals(ValueType.STRING, iut.getValueType());
+		assertEquals("Unexpected minimum.", "42", iut.getMinimum());
+		assertEquals("Unexpected nil count.", 1, iut.getNilCount());
+	}
+
+	@Test
+	public void countFeaturesWithoutProperty() {
+		PropertyStatistics iut = new PropertyStatistics(PROP_NAME);
+		iut.add("1");
+		iut.addOccurrence();
+		iut.setFeatureCount(3);
+		assertEquals("Unexpected null count.", 2, iut.getNullCount());
+	}
+
+	@Test
+	public void estimateDistinctCount() {
+		HyperLogLog hll = new HyperLogLog();
+		for (int i = 0; i < 100000; i++) {
+			hll.add("value-" + (i % 20000));
+		}
+		long estimate = hll.estimate();
+		assertEquals("Estimate exceeds expected error.", 20000, estimate, 20000 * 0.1);
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Verifies the behavior of the ReservoirSampler class.
+ */
+public class VerifyReservoirSampler {
+
+	@Test
+	public void sequenceShorterThanSample() {
+		ReservoirSampler<String> iut = new ReservoirSampler<>(5, new Random(1L));
+		for (String item : Arrays.asList("a", "b", "c")) {
+			iut.offer(item);
+		}
+		assertEquals(Arrays.asList("a", "b", "c"), iut.getSample());
+	}
+
+	@Test
+	public void selectDistinctItems() {
+		ReservoirSampler<Integer> iut = new ReservoirSampler<>(10, new Random(7L));
+		for (int i = 0; i < 1000; i++) {
+			iut.offer(i);
+		}
+		List<Integer> sample = iut.getSample();
+		assertEquals("Unexpected sample size.", 10, sample.size());
+		assertEquals("Sample contains duplicates.", 10, new HashSet<>(sample).size());
+		assertEquals(1000L, iut.getCount());
+	}
+
+	@Test
+	public void sameSeedSameSample() {
+		ReservoirSampler<Integer> first = new ReservoirSampler<>(3, new Random(99L));
+		ReservoirSampler<Integer> second = new ReservoirSampler<>(3, new Random(99L));
+		for (int i = 0; i < 500; i++) {
+			first.offer(i);
+			second.offer(i);
+		}
+		assertEquals(first.getSample(), second.getSample());
+	}
+
+	@Test
+	public void everyItemCanBeSelected() {
+		Random random = new Random(3L);
+		boolean[] selected = new boolean[20];
+		for (int run = 0; run < 500; run++) {
+			ReservoirSampler<Integer> iut = new ReservoirSampler<>(2, random);
+			for (int i = 0; i < selected.length; i++) {
+				iut.offer(i);
+			}
+			for (int item : iut.getSample()) {
+				selected[item] = true;
+			}
+		}
+		for (int i = 0; i < selected.length; i++) {
+			assertTrue("Item never selected: " + i, selected[i]);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeSampleSize() {
+		new ReservoirSampler<String>(-1, new Random());
+	}
+
+}
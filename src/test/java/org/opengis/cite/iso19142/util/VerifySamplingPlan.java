@@ -0,0 +1,61 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+/**
+ * Verifies the behavior of the SamplingPlan class.
+ */
+public class VerifySamplingPlan {
+
+	private static final List<String> ALL_TESTS = Arrays.asList("Preconditions", "All GML application schemas",
+			"GML application schemas defining features", "Simple WFS", "Basic WFS", "Temporal filter",
+			"Spatial filter", "Spatial joins", "Transactional WFS", "Locking WFS", "Response paging",
+			"Manage stored queries", "Feature versions");
+
+	private static Document simpleCapabilities;
+
+	@BeforeClass
+	public static void parseCapabilities() throws Exception {
+		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+		DocumentBuilder docBuilder = dbf.newDocumentBuilder();
+		simpleCapabilities = docBuilder
+			.parse(VerifySamplingPlan.class.getResourceAsStream("/wfs/capabilities-acme.xml"));
+	}
+
+	@Test
+	public void simpleWFSNeedsAnyFeatureType() {
+		SamplingPlan plan = SamplingPlan.create(simpleCapabilities, ALL_TESTS);
+		assertEquals(Collections.singleton("Simple WFS"), plan.getApplicableTests());
+		assertFalse("Expected only one feature type to be sampled.", plan.requiresAllFeatureTypes());
+		assertFalse("Did not expect property statistics.", plan.requiresPropertyStatistics());
+	}
+
+	@Test
+	public void unrecognizedTestNeedsAllData() {
+		SamplingPlan plan = SamplingPlan.create(simpleCapabilities, Arrays.asList("Simple WFS", "Custom tests"));
+		assertTrue("Expected all feature types to be sampled.", plan.requiresAllFeatureTypes());
+		assertTrue("Expected property statistics.", plan.requiresPropertyStatistics());
+	}
+
+	@Test
+	public void noDataTests() {
+		SamplingPlan plan = SamplingPlan.create(simpleCapabilities, Arrays.asList("Preconditions"));
+		assertTrue(plan.getApplicableTests().isEmpty());
+		assertFalse(plan.requiresAllFeatureTypes());
+	}
+
+}
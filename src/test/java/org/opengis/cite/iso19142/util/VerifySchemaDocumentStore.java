@@ -0,0 +1,124 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Verifies the behavior of the SchemaDocumentStore class.
+ */
+public class VerifySchemaDocumentStore {
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	private HttpServer server;
+
+	private final AtomicInteger requestCount = new AtomicInteger();
+
+	private final AtomicInteger transferCount = new AtomicInteger();
+
+	private volatile String content = "<xsd:schema xmlns:xsd='http://www.w3.org/2001/XMLSchema'/>";
+
+	private volatile String cacheControl;
+
+	@Before
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	public void useFreshDocumentWithoutRequest() throws IOException {
+		cacheControl = "max-age=3600";
+		SchemaDocumentStore store = new SchemaDocumentStore(tmpFolder.getRoot().toPath());
+		store.fetch(documentURI("fresh.xsd"));
+		byte[] doc = store.fetch(documentURI("fresh.xsd"));
+		assertEquals(content, new String(doc, StandardCharsets.UTF_8));
+		assertEquals("Unexpected number of requests.", 1, requestCount.get());
+	}
+
+	@Test
+	public void revalidateStaleDocument() throws IOException {
+		cacheControl = "no-cache";
+		SchemaDocumentStore store = new SchemaDocumentStore(tmpFolder.getRoot().toPath());
+		store.fetch(documentURI("stale.xsd"));
+		byte[] doc = store.fetch(documentURI("stale.xsd"));
+		assertEquals(content, new String(doc, StandardCharsets.UTF_8));
+		assertEquals("Unexpected number of requests.", 2, requestCount.get());
+		assertEquals("Unexpected number of transfers.", 1, transferCount.get());
+	}
+
+	@Test
+	public void changedDocumentIsRetrievedAgain() throws IOException {
+		cacheControl = "no-cache";
+		SchemaDocumentStore store = new SchemaDocumentStore(tmpFolder.getRoot().toPath());
+		store.fetch(documentURI("changed.xsd"));
+		content = "<xsd:schema xmlns:xsd='http://www.w3.org/2001/XMLSchema' targetNamespace='urn:b'/>";
+		byte[] doc = store.fetch(documentURI("changed.xsd"));
+		assertEquals(content, new String(doc, StandardCharsets.UTF_8));
+		assertEquals("Unexpected number of transfers.", 2, transferCount.get());
+	}
+
+	@Test(expected = IOException.class)
+	public void documentNotFound() throws IOException {
+		SchemaDocumentStore store = new SchemaDocumentStore(tmpFolder.getRoot().toPath());
+		store.fetch(documentURI("missing.xsd"));
+	}
+
+	private URI documentURI(String name) {
+		return URI.create(String.format("http://%s:%d/%s", server.getAddress().getHostString(),
+				server.getAddress().getPort(), name));
+	}
+
+	/**
+	 * Serves the current content with an entity tag derived from it. A conditional
+	 * request with a matching tag gets a 304 (Not Modified) response.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		requestCount.incrementAndGet();
+		if (exchange.getRequestURI().getPath().endsWith("missing.xsd")) {
+			exchange.sendResponseHeaders(404, -1);
+			exchange.close();
+			return;
+		}
+		String etag = "\"" + Integer.toHexString(content.hashCode()) + "\"";
+		exchange.getResponseHeaders().set("ETag", etag);
+		if (null != cacheControl) {
+			exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+		}
+		if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+		transferCount.incrementAndGet();
+		byte[] body = content.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class VerifyTaskExecutors {
+
+	@Test
+	public void platformModeByDefault() {
+		assertEquals(TaskExecutors.Mode.PLATFORM, TaskExecutors.getMode(null));
+		assertEquals(TaskExecutors.Mode.PLATFORM, TaskExecutors.getMode(" "));
+	}
+
+	@Test
+	public void unknownMode() {
+		assertEquals(TaskExecutors.Mode.PLATFORM, TaskExecutors.getMode("green"));
+	}
+
+	@Test
+	public void selectVirtualMode() {
+		TaskExecutors.Mode expected = TaskExecutors.virtualThreadsSupported() ? TaskExecutors.Mode.VIRTUAL
+				: TaskExecutors.Mode.PLATFORM;
+		assertEquals(expected, TaskExecutors.getMode(" Virtual "));
+	}
+
+	@Test
+	public void runIOTaskInVirtualMode() throws Exception {
+		ExecutorService executor = TaskExecutors.newIOExecutor(TaskExecutors.Mode.VIRTUAL, 2);
+		try {
+			Future<String> result = executor.submit(() -> Thread.currentThread().getName());
+			assertFalse(result.get().equals(Thread.currentThread().getName()));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package org.opengis.cite.iso19142.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class VerifyTemporalIntervalIndex {
+
+	private static TemporalIntervalIndex buildIndex() {
+		TemporalIntervalIndex.Builder builder = new TemporalIntervalIndex.Builder();
+		builder.add(50, 60);
+		builder.add(10, 10);
+		builder.add(30, 45);
+		builder.add(20, 80);
+		return builder.build();
+	}
+
+	@Test
+	public void emptyIndex() {
+		TemporalIntervalIndex index = new TemporalIntervalIndex.Builder().build();
+		assertTrue(index.isEmpty());
+		assertEquals(0, index.countAfter(0L));
+		assertEquals(0, index.countDuring(0L, 100L));
+	}
+
+	@Test
+	public void extent() {
+		TemporalIntervalIndex index = buildIndex();
+		assertEquals(4, index.size());
+		assertEquals(10L, index.getEarliest());
+		assertEquals(80L, index.getLatest());
+	}
+
+	@Test
+	public void positionAtFraction() {
+		TemporalIntervalIndex index = buildIndex();
+		assertEquals(10L, index.beginAtFraction(0.0));
+		assertEquals(30L, index.beginAtFraction(0.5));
+		assertEquals(50L, index.beginAtFraction(1.0));
+		assertEquals(10L, index.endAtFraction(0.0));
+		assertEquals(60L, index.endAtFraction(0.5));
+		assertEquals(80L, index.endAtFraction(2.0));
+	}
+
+	@Test
+	public void countBefore() {
+		TemporalIntervalIndex index = buildIndex();
+		assertEquals(0, index.countBefore(10L));
+		assertEquals(1, index.countBefore(11L));
+		assertEquals(2, index.countBefore(50L));
+		assertEquals(4, index.countBefore(81L));
+	}
+
+	@Test
+	public void countAfter() {
+		TemporalIntervalIndex index = buildIndex();
+		assertEquals(3, index.countAfter(10L));
+		assertEquals(1, index.countAfter(30L));
+		assertEquals(0, index.countAfter(50L));
+	}
+
+	@Test
+	public void countDuring() {
+		TemporalIntervalIndex index = buildIndex();
+		assertEquals(2, index.countDuring(25L, 61L));
+		assertEquals(4, index.countDuring(0L, 100L));
+		// bounds are exclusive
+		assertEquals(2, index.countDuring(10L, 80L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addInvalidInterval() {
+		new TemporalIntervalIndex.Builder().add(20, 10);
+	}
+
+}
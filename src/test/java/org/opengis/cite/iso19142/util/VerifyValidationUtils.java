@@ -5,6 +5,8 @@ import static org.junit.Assert.*;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.stream.StreamSource;
@@ -44,6 +46,18 @@ public class VerifyValidationUtils {
 	public void compileWFSSchema() {
 		Schema schema = ValidationUtils.createWFSSchema();
 		assertNotNull(schema);
+		assertSame("Expected shared Schema object.", schema, ValidationUtils.createWFSSchema());
+	}
+
+	@Test
+	public void repeatedSchematronValidation() throws URISyntaxException {
+		URL capabilities = getClass().getResource("/capabilities-simple.xml");
+		SchematronResult result = ValidationUtils.validateSchematron("wfs-capabilities-2.0.sch", "SimpleWFSPhase",
+				new StreamSource(capabilities.toURI().toString()), false);
+		SchematronResult nextResult = ValidationUtils.validateSchematron("wfs-capabilities-2.0.sch", "SimpleWFSPhase",
+				new StreamSource(capabilities.toURI().toString()), false);
+		assertEquals("Unexpected number of rule violations.", result.getRuleViolationCount(),
+				nextResult.getRuleViolationCount());
 	}
 
 	@Test